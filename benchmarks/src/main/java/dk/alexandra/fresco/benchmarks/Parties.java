@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * A number of parties running in the same process, connected by in-memory networks.
+ *
+ * <p>Benchmarks of multi party protocols run the work of party 1 on the benchmark thread and the
+ * work of the other parties concurrently on a thread per party, so the measured time is the time
+ * it takes party 1 to finish when all parties are running.</p>
+ */
+public final class Parties implements Closeable {
+
+  private final int noOfParties;
+  private final ExecutorService executor;
+  private final Map<Integer, CloseableNetwork> networks;
+
+  private Parties(int noOfParties, Map<Integer, CloseableNetwork> networks) {
+    this.noOfParties = noOfParties;
+    this.executor = Executors.newFixedThreadPool(noOfParties, runnable -> {
+      Thread thread = new Thread(runnable, "BenchmarkParty");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.networks = networks;
+  }
+
+  /**
+   * Creates the given number of parties and connects them without simulated latency or bandwidth
+   * limit.
+   *
+   * @param noOfParties the number of parties
+   * @return the connected parties
+   */
+  public static Parties connect(int noOfParties) {
+    return connect(new InMemoryNetworkFactory(noOfParties));
+  }
+
+  /**
+   * Creates and connects parties using the networks of the given factory, e.g. to simulate the
+   * latency and bandwidth of a real network.
+   *
+   * @param factory the factory creating the networks
+   * @return the connected parties
+   */
+  public static Parties connect(InMemoryNetworkFactory factory) {
+    return new Parties(factory.getNoOfParties(), factory.createNetworks());
+  }
+
+  public int getNoOfParties() {
+    return noOfParties;
+  }
+
+  public Network getNetwork(int partyId) {
+    return networks.get(partyId);
+  }
+
+  /**
+   * Runs a task for all parties concurrently and returns the result of party 1.
+   *
+   * @param task the task to run, given the id of the party
+   * @param <T> the result type of the task
+   * @return the result of party 1
+   */
+  public <T> T run(IntFunction<T> task) {
+    List<Future<T>> others = new ArrayList<>(noOfParties - 1);
+    for (int partyId = 2; partyId <= noOfParties; partyId++) {
+      int otherId = partyId;
+      others.add(executor.submit(() -> task.apply(otherId)));
+    }
+    T result = task.apply(1);
+    for (Future<T> other : others) {
+      join(other);
+    }
+    return result;
+  }
+
+  private <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for party", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Party failed", e.getCause());
+    }
+  }
+
+  @Override
+  public void close() {
+    for (CloseableNetwork network : networks.values()) {
+      ExceptionConverter.safe(() -> {
+        network.close();
+        return null;
+      }, "Unable to close network");
+    }
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.benchmarks.field;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the arithmetic and serialization of {@link CompUInt128}, the ring elements used by
+ * SPDZ2k.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompUInt128Benchmark {
+
+  private static final int BATCH_SIZE = 1024;
+
+  private CompUInt128Factory factory;
+  private CompUInt128 left;
+  private CompUInt128 right;
+  private List<CompUInt128> batch;
+  private byte[] serializedBatch;
+
+  @Setup
+  public void setup() {
+    factory = new CompUInt128Factory();
+    left = factory.createRandom();
+    right = factory.createRandom();
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(factory.createRandom());
+    }
+    serializedBatch = factory.getSerializer().serialize(batch);
+  }
+
+  @Benchmark
+  public CompUInt128 add() {
+    return left.add(right);
+  }
+
+  @Benchmark
+  public CompUInt128 multiply() {
+    return left.multiply(right);
+  }
+
+  @Benchmark
+  public CompUInt128 subtract() {
+    return left.subtract(right);
+  }
+
+  @Benchmark
+  public byte[] serializeBatch() {
+    return factory.getSerializer().serialize(batch);
+  }
+
+  @Benchmark
+  public List<CompUInt128> deserializeBatch() {
+    return factory.getSerializer().deserializeList(serializedBatch);
+  }
+}
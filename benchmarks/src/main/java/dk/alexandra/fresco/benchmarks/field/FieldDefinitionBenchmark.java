@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.benchmarks.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the arithmetic and serialization of the {@link FieldDefinition} implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldDefinitionBenchmark {
+
+  private static final int BATCH_SIZE = 1024;
+
+  @Param({"BigInteger", "MersennePrime"})
+  public String definition;
+
+  @Param({"64", "128", "256"})
+  public int bitLength;
+
+  private FieldDefinition fieldDefinition;
+  private FieldElement left;
+  private FieldElement right;
+  private List<FieldElement> batch;
+  private byte[] serializedBatch;
+
+  @Setup
+  public void setup() {
+    if (definition.equals("BigInteger")) {
+      fieldDefinition = new BigIntegerFieldDefinition(
+          ModulusFinder.findSuitableModulus(bitLength));
+    } else {
+      fieldDefinition = MersennePrimeFieldDefinition.find(bitLength);
+    }
+    Random random = new Random(42);
+    left = randomElement(random);
+    right = randomElement(random);
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(randomElement(random));
+    }
+    serializedBatch = fieldDefinition.serialize(batch);
+  }
+
+  private FieldElement randomElement(Random random) {
+    return fieldDefinition.createElement(new BigInteger(bitLength + 8, random));
+  }
+
+  @Benchmark
+  public FieldElement add() {
+    return left.add(right);
+  }
+
+  @Benchmark
+  public FieldElement multiply() {
+    return left.multiply(right);
+  }
+
+  @Benchmark
+  public FieldElement subtract() {
+    return left.subtract(right);
+  }
+
+  @Benchmark
+  public byte[] serializeBatch() {
+    return fieldDefinition.serialize(batch);
+  }
+
+  @Benchmark
+  public List<FieldElement> deserializeBatch() {
+    return fieldDefinition.deserializeList(serializedBatch);
+  }
+}
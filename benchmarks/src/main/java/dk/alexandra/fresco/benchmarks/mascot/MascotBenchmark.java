@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.benchmarks.mascot;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generation of a batch of multiplication triples with {@link Mascot#getTriples(int)}
+ * with all parties running in the same process.
+ *
+ * <p>Each party multiplies with the other parties concurrently and parallelizes the work within a
+ * batch on the common fork join pool, so the number of cores used can be limited by setting the
+ * system property <code>java.util.concurrent.ForkJoinPool.common.parallelism</code>.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MascotBenchmark {
+
+  @Param({"2", "3", "4", "5"})
+  public int noOfParties;
+
+  @Param({"1024"})
+  public int numTriples;
+
+  @Param({"128"})
+  public int modBitLength;
+
+  private Parties parties;
+  private Mascot[] mascots;
+
+  @Setup
+  public void setup() {
+    FieldDefinition definition =
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(modBitLength));
+    MascotSecurityParameters securityParameters = new MascotSecurityParameters();
+    parties = Parties.connect(noOfParties);
+    mascots = new Mascot[noOfParties + 1];
+    parties.run(myId -> {
+      Network network = parties.getNetwork(myId);
+      byte[] seed = new byte[securityParameters.getPrgSeedLength() / 8];
+      new Random(myId).nextBytes(seed);
+      Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(seed);
+      Map<Integer, RotList> seedOts = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (myId != otherId) {
+          Ot ot = new DummyOt(otherId, network);
+          RotList currentSeedOts = new RotList(drbg, securityParameters.getPrgSeedLength());
+          if (myId < otherId) {
+            currentSeedOts.send(ot);
+            currentSeedOts.receive(ot);
+          } else {
+            currentSeedOts.receive(ot);
+            currentSeedOts.send(ot);
+          }
+          seedOts.put(otherId, currentSeedOts);
+        }
+      }
+      MascotResourcePool resourcePool = new MascotResourcePoolImpl(myId, noOfParties, 1, drbg,
+          seedOts, securityParameters, definition);
+      FieldElement macKeyShare = resourcePool.getLocalSampler().getNext();
+      mascots[myId] = new Mascot(resourcePool, network, macKeyShare);
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  public List<MultiplicationTriple> getTriples() {
+    return parties.run(myId -> mascots[myId].getTriples(numTriples));
+  }
+}
@@ -0,0 +1,94 @@
+package dk.alexandra.fresco.benchmarks.ot;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.otextension.CoteFactory;
+import dk.alexandra.fresco.tools.ot.otextension.CoteReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.CoteSender;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the correlated OT extension, measuring the time for {@link CoteSender#extend(int)}
+ * while the other party runs the matching {@link CoteReceiver#extend(StrictBitVector)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoteBenchmark {
+
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int STATISTICAL_SECURITY = 40;
+
+  @Param({"1024", "65536"})
+  public int size;
+
+  private Parties parties;
+  private CoteSender sender;
+  private CoteReceiver receiver;
+  private StrictBitVector choices;
+
+  @Setup
+  public void setup() {
+    parties = Parties.connect(2);
+    parties.run(myId -> {
+      Network network = parties.getNetwork(myId);
+      int otherId = 3 - myId;
+      Drbg drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+      RotList seedOts = new RotList(drbg, COMPUTATIONAL_SECURITY);
+      DummyOt ot = new DummyOt(otherId, network);
+      if (myId < otherId) {
+        seedOts.send(ot);
+        seedOts.receive(ot);
+      } else {
+        seedOts.receive(ot);
+        seedOts.send(ot);
+      }
+      CoinTossing coinTossing = new CoinTossing(myId, otherId, drbg);
+      coinTossing.initialize(network);
+      OtExtensionResourcePool resources = new OtExtensionResourcePoolImpl(myId, otherId,
+          COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, 1, drbg, coinTossing, seedOts);
+      CoteFactory factory = new CoteFactory(resources, network);
+      if (myId == 1) {
+        sender = factory.getSender();
+      } else {
+        receiver = factory.getReceiver();
+        choices = new StrictBitVector(size, drbg);
+      }
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  public List<StrictBitVector> extend() {
+    return parties.run(myId -> myId == 1 ? sender.extend(size) : receiver.extend(choices));
+  }
+}
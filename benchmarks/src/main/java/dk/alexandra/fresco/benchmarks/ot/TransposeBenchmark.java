@@ -0,0 +1,59 @@
+package dk.alexandra.fresco.benchmarks.ot;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.otextension.Transpose;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks transposing the bit matrices of the OT extension with {@link Transpose}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransposeBenchmark {
+
+  /**
+   * The number of rows, which is the computational security parameter in the OT extension.
+   */
+  private static final int ROWS = 128;
+
+  /**
+   * The number of columns, which is the number of OTs extended.
+   */
+  @Param({"1024", "65536"})
+  public int columns;
+
+  private List<StrictBitVector> matrix;
+
+  @Setup
+  public void setup() {
+    Drbg drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+    matrix = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      matrix.add(new StrictBitVector(columns, drbg));
+    }
+  }
+
+  @Benchmark
+  public List<StrictBitVector> transpose() {
+    return Transpose.transpose(matrix);
+  }
+}
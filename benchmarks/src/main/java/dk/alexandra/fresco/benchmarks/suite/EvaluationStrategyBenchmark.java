@@ -0,0 +1,135 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.builder.numeric.NumericResourcePool;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the evaluation strategies on a batch of independent multiplications,
+ * for SPDZ with dummy preprocessing and for the dummy arithmetic suite.
+ *
+ * <p>The parallel strategy evaluates the protocols of the batch concurrently, while the pipelined
+ * strategy overlaps local computation with messages in flight, which only pays off with a
+ * simulated latency.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluationStrategyBenchmark {
+
+  private static final int MAX_BIT_LENGTH = 64;
+  private static final int MOD_BIT_LENGTH = 128;
+
+  @Param({"SEQUENTIAL_BATCHED", "PARALLEL_BATCHED", "PIPELINED_BATCHED"})
+  public EvaluationStrategy strategy;
+
+  @Param({"spdz", "dummy"})
+  public String suite;
+
+  @Param({"2"})
+  public int noOfParties;
+
+  @Param({"4096"})
+  public int size;
+
+  @Param({"0", "20"})
+  public int latencyMillis;
+
+  private Parties parties;
+  private List<Party<?>> engines;
+
+  @Setup
+  public void setup() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(MOD_BIT_LENGTH);
+    BigInteger macKey = new BigInteger(MOD_BIT_LENGTH, new Random(0))
+        .mod(definition.getModulus());
+    parties = Parties.connect(new InMemoryNetworkFactory(noOfParties,
+        Duration.ofMillis(latencyMillis), InMemoryNetworkFactory.UNLIMITED_BANDWIDTH));
+    engines = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      if (suite.equals("spdz")) {
+        engines.add(new Party<>(new SpdzProtocolSuite(MAX_BIT_LENGTH),
+            new SpdzResourcePoolImpl(myId, noOfParties, new OpenedValueStoreImpl<>(),
+                new SpdzDummyDataSupplier(myId, noOfParties, definition, macKey),
+                AesCtrDrbg::new), strategy));
+      } else if (suite.equals("dummy")) {
+        engines.add(new Party<>(new DummyArithmeticProtocolSuite(definition, MAX_BIT_LENGTH, 0),
+            new DummyArithmeticResourcePoolImpl(myId, noOfParties, definition), strategy));
+      } else {
+        throw new IllegalArgumentException("Unknown suite " + suite);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    engines.forEach(party -> party.engine.shutdownSCE());
+    parties.close();
+  }
+
+  @Benchmark
+  public List<BigInteger> multiply() {
+    Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+        NumericApplications.multiplyEach(size);
+    return parties.run(myId -> engines.get(myId - 1).run(app, parties.getNetwork(myId)));
+  }
+
+  /**
+   * The engine and resource pool of a single party.
+   */
+  private static class Party<ResourcePoolT extends NumericResourcePool> {
+
+    private final SecureComputationEngine<ResourcePoolT, ProtocolBuilderNumeric> engine;
+    private final ResourcePoolT resourcePool;
+
+    private Party(ProtocolSuiteNumeric<ResourcePoolT> protocolSuite, ResourcePoolT resourcePool,
+        EvaluationStrategy strategy) {
+      this.engine = new SecureComputationEngineImpl<>(protocolSuite,
+          new BatchedProtocolEvaluator<>(strategy.getStrategy(), protocolSuite));
+      this.resourcePool = resourcePool;
+    }
+
+    private List<BigInteger> run(Application<List<BigInteger>, ProtocolBuilderNumeric> app,
+        Network network) {
+      return engine.runApplication(app, resourcePool, network);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The applications run by the benchmarks of the arithmetic protocol suites.
+ */
+final class NumericApplications {
+
+  private NumericApplications() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Multiplies a number of values input by party 1 with values input by party 2 in parallel and
+   * opens the products.
+   */
+  static Application<List<BigInteger>, ProtocolBuilderNumeric> multiply(int size) {
+    return builder -> builder.par(par -> inputs(par, size))
+        .par((par, inputs) -> par.numeric().multAll(inputs.getFirst(), inputs.getSecond()))
+        .par((par, products) -> par.numeric().openAll(products));
+  }
+
+  /**
+   * Multiplies a number of values input by party 1 with values input by party 2 using a native
+   * protocol per product, all in the same batch, and opens the products.
+   */
+  static Application<List<BigInteger>, ProtocolBuilderNumeric> multiplyEach(int size) {
+    return builder -> builder.par(par -> inputs(par, size))
+        .par((par, inputs) -> {
+          List<DRes<SInt>> products = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            products.add(par.numeric().mult(inputs.getFirst().get(i), inputs.getSecond().get(i)));
+          }
+          return () -> products;
+        })
+        .par((par, products) -> par.numeric().openAll(products));
+  }
+
+  /**
+   * Compares a number of values input by party 1 with values input by party 2 in parallel and
+   * opens the results.
+   */
+  static Application<List<BigInteger>, ProtocolBuilderNumeric> compare(int size) {
+    return builder -> builder.par(par -> inputs(par, size))
+        .par((par, inputs) -> {
+          List<DRes<SInt>> results = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            results.add(Comparison.using(par)
+                .compareLEQ(inputs.getFirst().get(i), inputs.getSecond().get(i)));
+          }
+          return () -> results;
+        })
+        .par((par, results) -> par.numeric().openAll(results));
+  }
+
+  private static DRes<Pair<List<DRes<SInt>>, List<DRes<SInt>>>> inputs(
+      ProtocolBuilderNumeric builder, int size) {
+    Numeric numeric = builder.numeric();
+    List<DRes<SInt>> left = new ArrayList<>(size);
+    List<DRes<SInt>> right = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      left.add(numeric.input(i, 1));
+      right.add(numeric.input(size - i, 2));
+    }
+    return Pair.lazy(left, right);
+  }
+}
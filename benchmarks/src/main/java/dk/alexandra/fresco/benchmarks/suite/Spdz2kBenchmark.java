@@ -0,0 +1,97 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the online phase of SPDZ2k with 64 bit plain values, using dummy preprocessing, with
+ * all parties running in the same process.
+ *
+ * <p>Only multiplications are benchmarked, as the SPDZ2k suite does not support comparisons.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Spdz2kBenchmark {
+
+  @Param({"2", "3"})
+  public int noOfParties;
+
+  @Param({"1024"})
+  public int size;
+
+  private Parties parties;
+  private List<SecureComputationEngine<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric>>
+      engines;
+  private List<Spdz2kResourcePool<CompUInt128>> resourcePools;
+
+  @Setup
+  public void setup() {
+    parties = Parties.connect(noOfParties);
+    engines = new ArrayList<>(noOfParties);
+    resourcePools = new ArrayList<>(noOfParties);
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      Spdz2kProtocolSuiteK64 suite = new Spdz2kProtocolSuiteK64();
+      engines.add(new SecureComputationEngineImpl<>(suite,
+          new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)));
+      resourcePools.add(new Spdz2kResourcePoolImpl<>(myId, noOfParties, null,
+          new Spdz2kOpenedValueStoreImpl<>(),
+          new Spdz2kDummyDataSupplier<>(myId, noOfParties, factory.createRandom(), factory),
+          factory));
+    }
+    // the coin tossing closes its network, so it runs on a separate set of networks
+    try (Parties coinTossing = Parties.connect(noOfParties)) {
+      coinTossing.run(myId -> {
+        resourcePools.get(myId - 1).initializeJointRandomness(
+            () -> coinTossing.getNetwork(myId), AesCtrDrbg::new, 32);
+        return null;
+      });
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    engines.forEach(SecureComputationEngine::shutdownSCE);
+    parties.close();
+  }
+
+  @Benchmark
+  public List<BigInteger> multiply() {
+    return parties.run(myId -> engines.get(myId - 1).runApplication(
+        NumericApplications.multiply(size), resourcePools.get(myId - 1),
+        parties.getNetwork(myId)));
+  }
+}
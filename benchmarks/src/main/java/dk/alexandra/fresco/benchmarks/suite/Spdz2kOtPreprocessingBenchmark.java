@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOtDataSupplier;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generation of multiplication triples by the OT based Spdz2k preprocessing, with
+ * all parties running in the same process. The OT extension is set up before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Spdz2kOtPreprocessingBenchmark {
+
+  private static final int PRG_SEED_LENGTH = 256;
+
+  @Param({"2", "3"})
+  public int noOfParties;
+
+  @Param({"1024"})
+  public int numTriples;
+
+  @Param({"1024"})
+  public int batchSize;
+
+  private Parties parties;
+  private Map<Integer, Spdz2kDataSupplier<CompUInt128>> suppliers;
+
+  @Setup
+  public void setup() {
+    parties = Parties.connect(noOfParties);
+    suppliers = new HashMap<>();
+    parties.run(myId -> {
+      Network network = parties.getNetwork(myId);
+      byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+      new Random(myId).nextBytes(seed);
+      Drbg drbg = new AesCtrDrbg(seed);
+      Map<Integer, RotList> seedOts = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (myId != otherId) {
+          Ot ot = new DummyOt(otherId, network);
+          RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+          if (myId < otherId) {
+            currentSeedOts.send(ot);
+            currentSeedOts.receive(ot);
+          } else {
+            currentSeedOts.receive(ot);
+            currentSeedOts.send(ot);
+          }
+          seedOts.put(otherId, currentSeedOts);
+        }
+      }
+      byte[] macKeyShare = new byte[16];
+      new Random(-myId).nextBytes(macKeyShare);
+      Spdz2kDataSupplier<CompUInt128> supplier = new Spdz2kOtDataSupplier<>(myId, noOfParties, 1,
+          () -> network, new CompUInt128Factory(), new CompUInt128(macKeyShare), seedOts, drbg,
+          batchSize);
+      // sets up the OT extension
+      supplier.getNextTripleShares();
+      synchronized (suppliers) {
+        suppliers.put(myId, supplier);
+      }
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  public Spdz2kTriple<CompUInt128> getTriples() {
+    return parties.run(myId -> {
+      Spdz2kDataSupplier<CompUInt128> supplier = suppliers.get(myId);
+      Spdz2kTriple<CompUInt128> triple = null;
+      for (int i = 0; i < numTriples; i++) {
+        triple = supplier.getNextTripleShares();
+      }
+      return triple;
+    });
+  }
+}
@@ -0,0 +1,99 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the online phase of SPDZ, using dummy preprocessing, with all parties running in the
+ * same process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpdzBenchmark {
+
+  private static final int MAX_BIT_LENGTH = 64;
+
+  @Param({"2", "3"})
+  public int noOfParties;
+
+  @Param({"128"})
+  public int modBitLength;
+
+  @Param({"1024"})
+  public int size;
+
+  private Parties parties;
+  private List<SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric>> engines;
+  private List<SpdzResourcePool> resourcePools;
+
+  @Setup
+  public void setup() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(modBitLength);
+    BigInteger macKey = new BigInteger(modBitLength, new Random(0)).mod(definition.getModulus());
+    parties = Parties.connect(noOfParties);
+    engines = new ArrayList<>(noOfParties);
+    resourcePools = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      SpdzProtocolSuite suite = new SpdzProtocolSuite(MAX_BIT_LENGTH);
+      engines.add(new SecureComputationEngineImpl<>(suite,
+          new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)));
+      resourcePools.add(new SpdzResourcePoolImpl(myId, noOfParties, new OpenedValueStoreImpl<>(),
+          new SpdzDummyDataSupplier(myId, noOfParties, definition, macKey), AesCtrDrbg::new));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    engines.forEach(SecureComputationEngine::shutdownSCE);
+    parties.close();
+  }
+
+  private List<BigInteger> run(Application<List<BigInteger>, ProtocolBuilderNumeric> app) {
+    return parties.run(myId -> engines.get(myId - 1).runApplication(app,
+        resourcePools.get(myId - 1), parties.getNetwork(myId)));
+  }
+
+  @Benchmark
+  public List<BigInteger> multiply() {
+    return run(NumericApplications.multiply(size));
+  }
+
+  @Benchmark
+  public List<BigInteger> compare() {
+    return run(NumericApplications.compare(size));
+  }
+}
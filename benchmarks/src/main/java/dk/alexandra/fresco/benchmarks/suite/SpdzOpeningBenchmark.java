@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzOpeningMode;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link SpdzOpeningMode opening modes} of SPDZ, using dummy preprocessing, on a
+ * computation multiplying and opening a number of values in parallel.
+ *
+ * <p>Opening through a king takes an extra round but sends a number of messages linear rather
+ * than quadratic in the number of parties, so the modes are compared for a growing number of
+ * parties and with a simulated latency.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpdzOpeningBenchmark {
+
+  private static final int MAX_BIT_LENGTH = 64;
+  private static final int MOD_BIT_LENGTH = 128;
+
+  @Param({"BROADCAST", "KING"})
+  public SpdzOpeningMode openingMode;
+
+  @Param({"3", "5", "7"})
+  public int noOfParties;
+
+  @Param({"4096"})
+  public int size;
+
+  @Param({"0", "20"})
+  public int latencyMillis;
+
+  private Parties parties;
+  private List<SecureComputationEngine<SpdzResourcePool, ProtocolBuilderNumeric>> engines;
+  private List<SpdzResourcePool> resourcePools;
+
+  @Setup
+  public void setup() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(MOD_BIT_LENGTH);
+    BigInteger macKey = new BigInteger(MOD_BIT_LENGTH, new Random(0))
+        .mod(definition.getModulus());
+    parties = Parties.connect(new InMemoryNetworkFactory(noOfParties,
+        Duration.ofMillis(latencyMillis), InMemoryNetworkFactory.UNLIMITED_BANDWIDTH));
+    engines = new ArrayList<>(noOfParties);
+    resourcePools = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      SpdzProtocolSuite suite = new SpdzProtocolSuite(MAX_BIT_LENGTH);
+      engines.add(new SecureComputationEngineImpl<>(suite,
+          new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)));
+      resourcePools.add(new SpdzResourcePoolImpl(myId, noOfParties, new OpenedValueStoreImpl<>(),
+          new SpdzDummyDataSupplier(myId, noOfParties, definition, macKey), AesCtrDrbg::new,
+          openingMode));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    engines.forEach(SecureComputationEngine::shutdownSCE);
+    parties.close();
+  }
+
+  @Benchmark
+  public List<BigInteger> multiplyAndOpen() {
+    Application<List<BigInteger>, ProtocolBuilderNumeric> app = NumericApplications.multiply(size);
+    return parties.run(myId -> engines.get(myId - 1).runApplication(app,
+        resourcePools.get(myId - 1), parties.getNetwork(myId)));
+  }
+}
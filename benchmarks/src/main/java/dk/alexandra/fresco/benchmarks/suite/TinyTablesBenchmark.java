@@ -0,0 +1,189 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.benchmarks.Parties;
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.common.compare.BinaryComparison;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesDummyOt;
+import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the preprocessing and online phases of TinyTables with the two parties running in the
+ * same process.
+ *
+ * <p>The <code>and</code> application computes a number of AND gates in parallel, and the
+ * <code>compare</code> application a number of comparisons of 32 bit values. The preprocessing
+ * benchmark includes the setup of the OT extension, as a new preprocessing resource pool is needed
+ * for each evaluation. The online benchmark includes loading the TinyTables from disk.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TinyTablesBenchmark {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int BIT_LENGTH = 32;
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int STATISTICAL_SECURITY = 40;
+  private static final int OT_BATCH_SIZE = 128;
+
+  @Param({"and", "compare"})
+  public String application;
+
+  @Param({"1024"})
+  public int size;
+
+  private Parties parties;
+  private Path directory;
+  private Application<List<Boolean>, ProtocolBuilderBinary> app;
+  private List<SecureComputationEngine<TinyTablesPreproResourcePool, ProtocolBuilderBinary>>
+      preproEngines;
+  private List<SecureComputationEngine<ResourcePoolImpl, ProtocolBuilderBinary>> onlineEngines;
+
+  @Setup
+  public void setup() {
+    parties = Parties.connect(NO_OF_PARTIES);
+    directory = ExceptionConverter.safe(() -> Files.createTempDirectory("tinytables"),
+        "Unable to create directory for TinyTables");
+    app = application.equals("and") ? and(size) : compare(size);
+    preproEngines = new ArrayList<>(NO_OF_PARTIES);
+    onlineEngines = new ArrayList<>(NO_OF_PARTIES);
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      TinyTablesPreproProtocolSuite preproSuite = new TinyTablesPreproProtocolSuite();
+      preproEngines.add(new SecureComputationEngineImpl<>(preproSuite,
+          new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), preproSuite)));
+      TinyTablesProtocolSuite onlineSuite = new TinyTablesProtocolSuite(myId, getFile(myId));
+      onlineEngines.add(new SecureComputationEngineImpl<>(onlineSuite,
+          new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), onlineSuite)));
+    }
+    // the online phase needs the TinyTables of the application
+    preprocess();
+  }
+
+  @TearDown
+  public void tearDown() {
+    preproEngines.forEach(SecureComputationEngine::shutdownSCE);
+    onlineEngines.forEach(SecureComputationEngine::shutdownSCE);
+    parties.close();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      getFile(myId).delete();
+    }
+    directory.toFile().delete();
+  }
+
+  private File getFile(int myId) {
+    return directory.resolve("TinyTables_" + myId).toFile();
+  }
+
+  @Benchmark
+  public List<Boolean> preprocess() {
+    return parties.run(myId -> {
+      TinyTablesPreproResourcePool resourcePool = new TinyTablesPreproResourcePool(myId,
+          new TinyTablesDummyOt(Util.otherPlayerId(myId)), new AesCtrDrbg(new byte[32]),
+          COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, getFile(myId),
+          () -> parties.getNetwork(myId));
+      return preproEngines.get(myId - 1).runApplication(app, resourcePool,
+          parties.getNetwork(myId));
+    });
+  }
+
+  @Benchmark
+  public List<Boolean> online() {
+    return parties.run(myId -> onlineEngines.get(myId - 1).runApplication(app,
+        new ResourcePoolImpl(myId, NO_OF_PARTIES), parties.getNetwork(myId)));
+  }
+
+  private static Application<List<Boolean>, ProtocolBuilderBinary> and(int size) {
+    return builder -> builder.par(par -> inputs(par, size, 1))
+        .par((par, inputs) -> {
+          Binary binary = par.binary();
+          List<DRes<SBool>> results = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            results.add(binary.and(inputs.getFirst().get(i), inputs.getSecond().get(i)));
+          }
+          return () -> results;
+        })
+        .par((par, results) -> open(par, results));
+  }
+
+  private static Application<List<Boolean>, ProtocolBuilderBinary> compare(int size) {
+    return builder -> builder.par(par -> inputs(par, size, BIT_LENGTH))
+        .par((par, inputs) -> {
+          List<DRes<SBool>> results = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            int from = i * BIT_LENGTH;
+            results.add(BinaryComparison.using(par).greaterThan(
+                inputs.getFirst().subList(from, from + BIT_LENGTH),
+                inputs.getSecond().subList(from, from + BIT_LENGTH)));
+          }
+          return () -> results;
+        })
+        .par((par, results) -> open(par, results));
+  }
+
+  /**
+   * Inputs a number of values of the given bit length from party 1 and from party 2.
+   */
+  private static DRes<Pair<List<DRes<SBool>>, List<DRes<SBool>>>> inputs(
+      ProtocolBuilderBinary builder, int size, int bitLength) {
+    Binary binary = builder.binary();
+    List<DRes<SBool>> left = new ArrayList<>(size * bitLength);
+    List<DRes<SBool>> right = new ArrayList<>(size * bitLength);
+    for (int i = 0; i < size * bitLength; i++) {
+      left.add(binary.input(i % 3 == 0, 1));
+      right.add(binary.input(i % 5 == 0, 2));
+    }
+    return Pair.lazy(left, right);
+  }
+
+  private static DRes<List<Boolean>> open(ProtocolBuilderBinary builder,
+      List<DRes<SBool>> values) {
+    Binary binary = builder.binary();
+    List<DRes<Boolean>> opened = new ArrayList<>(values.size());
+    for (DRes<SBool> value : values) {
+      opened.add(binary.open(value));
+    }
+    return () -> {
+      List<Boolean> result = new ArrayList<>(opened.size());
+      for (DRes<Boolean> value : opened) {
+        result.add(value.out());
+      }
+      return result;
+    };
+  }
+}
@@ -0,0 +1,140 @@
+package dk.alexandra.fresco.benchmarks.suite;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.storage.DenseTinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the implementations of the storage of TinyTables with the values of one evaluation
+ * of the AES circuit used by the AES demo.
+ *
+ * <p>The values are stored for ids laid out as in the preprocessing of the circuit: a mask share
+ * for each of the 256 input bits, a TinyTable for each AND gate among the following gates, and a
+ * mask share for each of the 128 output bits. The <code>store</code> benchmark fills a new
+ * storage, so running it with <code>-prof gc</code> reports the memory used by the storage as the
+ * normalized allocation rate <code>gc.alloc.rate.norm</code>. The <code>lookup</code> benchmark
+ * reads all values back, as the online phase does.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TinyTablesStorageBenchmark {
+
+  private static final String CIRCUIT = "circuits/AES-non-expanded.txt";
+  private static final int INPUTS = 256;
+  private static final int OUTPUTS = 128;
+
+  @Param({"map", "dense"})
+  public String storage;
+
+  private boolean[] isAnd;
+  private TinyTable[] tables;
+  private TinyTablesElement[] masks;
+  private TinyTablesStorage filled;
+
+  @Setup
+  public void setup() {
+    isAnd = readAndGates();
+    int ids = INPUTS + isAnd.length + OUTPUTS;
+    Random random = new Random(42);
+    tables = new TinyTable[ids];
+    masks = new TinyTablesElement[ids];
+    for (int id = 0; id < ids; id++) {
+      TinyTablesElement[] values = new TinyTablesElement[4];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = TinyTablesElement.getInstance(random.nextBoolean());
+      }
+      tables[id] = new TinyTable(values);
+      masks[id] = TinyTablesElement.getInstance(random.nextBoolean());
+    }
+    filled = store();
+  }
+
+  /**
+   * Reads which of the gates of the circuit are AND gates.
+   */
+  private static boolean[] readAndGates() {
+    InputStream in = TinyTablesStorageBenchmark.class.getClassLoader().getResourceAsStream(CIRCUIT);
+    if (in == null) {
+      throw new IllegalStateException("Couldn't find circuit " + CIRCUIT);
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      int gates = Integer.parseInt(reader.readLine().trim().split("\\s+")[0]);
+      boolean[] isAnd = new boolean[gates];
+      int gate = 0;
+      String line;
+      while ((line = reader.readLine()) != null && gate < gates) {
+        line = line.trim();
+        if (line.isEmpty() || !Character.isDigit(line.charAt(0)) || line.split("\\s+").length < 4) {
+          continue;
+        }
+        isAnd[gate++] = line.endsWith("AND");
+      }
+      return isAnd;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Benchmark
+  public TinyTablesStorage store() {
+    TinyTablesStorage result =
+        storage.equals("map") ? new TinyTablesStorageImpl() : new DenseTinyTablesStorage();
+    int id = 0;
+    for (int i = 0; i < INPUTS; i++, id++) {
+      result.storeMaskShare(id, masks[id]);
+    }
+    for (boolean and : isAnd) {
+      if (and) {
+        result.storeTinyTable(id, tables[id]);
+      }
+      id++;
+    }
+    for (int i = 0; i < OUTPUTS; i++, id++) {
+      result.storeMaskShare(id, masks[id]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public int lookup() {
+    int ones = 0;
+    TinyTablesElement zero = TinyTablesElement.getInstance(false);
+    for (int id = 0; id < tables.length; id++) {
+      TinyTable table = filled.getTinyTable(id);
+      if (table != null && table.getValue(zero, zero).getShare()) {
+        ones++;
+      }
+      TinyTablesElement mask = filled.getMaskShare(id);
+      if (mask != null && mask.getShare()) {
+        ones++;
+      }
+    }
+    return ones;
+  }
+}
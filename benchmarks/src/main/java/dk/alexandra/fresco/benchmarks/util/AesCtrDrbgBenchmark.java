@@ -0,0 +1,52 @@
+package dk.alexandra.fresco.benchmarks.util;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks generating pseudo random bytes and creating new generators with {@link AesCtrDrbg}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesCtrDrbgBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  private AesCtrDrbg drbg;
+  private byte[] seed;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    drbg = new AesCtrDrbg(seed);
+    bytes = new byte[size];
+  }
+
+  @Benchmark
+  public byte[] nextBytes() {
+    drbg.nextBytes(bytes);
+    return bytes;
+  }
+
+  @Benchmark
+  public AesCtrDrbg create() {
+    return new AesCtrDrbg(seed);
+  }
+}
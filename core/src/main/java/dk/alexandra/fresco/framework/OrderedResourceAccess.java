@@ -0,0 +1,36 @@
+package dk.alexandra.fresco.framework;
+
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Implemented by native protocols using resources which all parties must use in the same order,
+ * such as preprocessed material or a store of opened values, in order to let these protocols be
+ * evaluated concurrently with the other protocols of their batch.
+ *
+ * <p>A strategy evaluating the protocols of a round concurrently calls {@link #beforeRound} for
+ * each protocol of the round in the order of the batch before evaluating any of them, and {@link
+ * #afterRound} for each of them in the same order when all of them have been evaluated. Between
+ * these calls {@link NativeProtocol#evaluate} must not use the order sensitive resources. As
+ * strategies evaluating one protocol at a time do not call these methods, a protocol must use the
+ * resources from within evaluate in rounds where {@link #beforeRound} was not called.</p>
+ *
+ * @param <ResourcePoolT> The resource pool type
+ */
+public interface OrderedResourceAccess<ResourcePoolT extends ResourcePool> {
+
+  /**
+   * Takes the order sensitive resources needed in a round from the resource pool.
+   *
+   * @param round the round about to be evaluated
+   * @param resourcePool the resource pool
+   */
+  void beforeRound(int round, ResourcePoolT resourcePool);
+
+  /**
+   * Stores the results of a round which must be stored in order, e.g. opened values.
+   *
+   * @param round the round just evaluated
+   * @param resourcePool the resource pool
+   */
+  void afterRound(int round, ResourcePoolT resourcePool);
+}
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.framework;
 
+import dk.alexandra.fresco.framework.builder.ComputationTrace;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 
 /**
@@ -16,6 +17,17 @@ public interface ProtocolCollection<ResourcePoolT extends ResourcePool>
    */
   void addProtocol(NativeProtocol<?, ResourcePoolT> protocol);
 
+  /**
+   * Receives a protocol to be added to the collection along with the trace of the computation that
+   * appended it. Collections not interested in traces simply add the protocol.
+   *
+   * @param protocol new protocol
+   * @param trace the computation trace of the protocol
+   */
+  default void addProtocol(NativeProtocol<?, ResourcePoolT> protocol, ComputationTrace trace) {
+    addProtocol(protocol);
+  }
+
   /**
    * Checks if this collection has a free slots.
    *
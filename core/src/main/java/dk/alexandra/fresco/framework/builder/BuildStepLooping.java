@@ -14,11 +14,13 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
 
   private final Predicate<InputT> predicate;
   private final FrescoLambda<InputT, BuilderT, InputT> function;
+  private final ComputationTrace trace;
 
   BuildStepLooping(Predicate<InputT> predicate, FrescoLambda<InputT, BuilderT, InputT> function) {
     super();
     this.predicate = predicate;
     this.function = function;
+    this.trace = ComputationTrace.enter(function);
   }
 
   public Pair<ProtocolProducer, DRes<InputT>> createNextStep(
@@ -26,7 +28,7 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
       BuilderFactory<BuilderT> factory,
       BuildStep<InputT, BuilderT, ?> next) {
     LoopProtocolProducer<BuilderT, InputT> loopProtocolProducer =
-        new LoopProtocolProducer<>(factory, input, predicate, function, next);
+        new LoopProtocolProducer<>(factory, input, predicate, function, trace, next);
     return new Pair<>(loopProtocolProducer, loopProtocolProducer);
   }
 
@@ -42,6 +44,7 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
     private ProtocolProducer currentProducer;
     private Predicate<InputT> predicate;
     private FrescoLambda<InputT, BuilderT, InputT> function;
+    private ComputationTrace trace;
     private BuildStep<InputT, BuilderT, ?> next;
 
     LoopProtocolProducer(
@@ -49,10 +52,12 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
         InputT input,
         Predicate<InputT> predicate,
         FrescoLambda<InputT, BuilderT, InputT> function,
+        ComputationTrace trace,
         BuildStep<InputT, BuilderT, ?> next) {
       this.factory = factory;
       this.predicate = predicate;
       this.function = function;
+      this.trace = trace;
       this.next = next;
       isDone = false;
       doneWithOwn = false;
@@ -79,7 +84,12 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
       } else {
         if (predicate.test(input)) {
           BuilderT builder = factory.createSequential();
-          currentResult = function.buildComputation(builder, input);
+          if (trace == null) {
+            currentResult = function.buildComputation(builder, input);
+          } else {
+            currentResult =
+                ComputationTrace.within(trace, () -> function.buildComputation(builder, input));
+          }
           currentProducer = builder.build();
         } else {
           doneWithOwn = true;
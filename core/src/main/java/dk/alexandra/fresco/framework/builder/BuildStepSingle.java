@@ -14,11 +14,25 @@ class BuildStepSingle<BuilderT extends ProtocolBuilderImpl<BuilderT>, OutputT, I
 
   private boolean parallel;
   private FrescoLambda<InputT, BuilderT, OutputT> function;
+  private ComputationTrace trace;
 
   BuildStepSingle(FrescoLambda<InputT, BuilderT, OutputT> function, boolean parallel) {
+    this(function, parallel, function);
+  }
+
+  /**
+   * Creates a step building the given function, traced as the given computation.
+   *
+   * @param function the function building the step
+   * @param parallel true if the protocols of the step are independent
+   * @param computation the computation the function builds, used for tracing
+   */
+  BuildStepSingle(FrescoLambda<InputT, BuilderT, OutputT> function, boolean parallel,
+      Object computation) {
     super();
     this.function = function;
     this.parallel = parallel;
+    this.trace = ComputationTrace.enter(computation);
   }
 
   public Pair<ProtocolProducer, DRes<OutputT>> createNextStep(
@@ -27,7 +41,12 @@ class BuildStepSingle<BuilderT extends ProtocolBuilderImpl<BuilderT>, OutputT, I
       BuildStep<OutputT, BuilderT, ?> next) {
 
     BuilderT builder = createBuilder(factory);
-    DRes<OutputT> output = function.buildComputation(builder, input);
+    DRes<OutputT> output;
+    if (trace == null) {
+      output = function.buildComputation(builder, input);
+    } else {
+      output = ComputationTrace.within(trace, () -> function.buildComputation(builder, input));
+    }
     if (next != null) {
       List<ProtocolProducer> protocols = Arrays.asList(
           builder.build(),
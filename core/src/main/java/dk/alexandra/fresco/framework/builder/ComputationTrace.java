@@ -0,0 +1,158 @@
+package dk.alexandra.fresco.framework.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * The nesting of computations through which a native protocol was appended, i.e. the computations
+ * given to {@link ProtocolBuilderImpl#seq}, {@link ProtocolBuilderImpl#par} and the steps of a
+ * {@link BuildStep}.
+ *
+ * <p>Since computations are built lazily the Java call stack does not reflect this nesting, so
+ * when tracing is enabled the builders keep track of it explicitly. Traces are interned, i.e. the
+ * same nesting of computation classes results in the same trace instance, such that traces can be
+ * used as keys when aggregating measurements.</p>
+ *
+ * <p>Tracing is disabled by default and is enabled for the entire JVM with {@link
+ * #setEnabled(boolean)}. Only protocols appended after tracing is enabled are traced.</p>
+ */
+public final class ComputationTrace {
+
+  private static final ComputationTrace ROOT = new ComputationTrace(null, "");
+  private static final String LAMBDA = "$$Lambda";
+  private static final ThreadLocal<ComputationTrace> CURRENT = new ThreadLocal<>();
+  private static final ClassValue<String> NAMES = new ClassValue<String>() {
+    @Override
+    protected String computeValue(Class<?> type) {
+      String name = type.getName();
+      // lambdas are named after the enclosing class followed by an id and a unique suffix
+      int lambda = name.indexOf(LAMBDA);
+      if (lambda >= 0) {
+        name = name.substring(0, lambda + LAMBDA.length());
+      }
+      return name.substring(name.lastIndexOf('.') + 1);
+    }
+  };
+  private static volatile boolean enabled = false;
+
+  private final ComputationTrace parent;
+  private final String name;
+  private final ConcurrentMap<String, ComputationTrace> children;
+
+  private ComputationTrace(ComputationTrace parent, String name) {
+    this.parent = parent;
+    this.name = name;
+    this.children = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Enables or disables tracing of computations.
+   *
+   * @param enabled true if computations should be traced
+   */
+  public static void setEnabled(boolean enabled) {
+    ComputationTrace.enabled = enabled;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Gets the trace of protocols appended outside any nested computation.
+   */
+  public static ComputationTrace root() {
+    return ROOT;
+  }
+
+  /**
+   * Gets the trace of the computation currently being built by this thread.
+   *
+   * @return the current trace or {@link #root()} if no traced computation is being built
+   */
+  public static ComputationTrace current() {
+    ComputationTrace current = CURRENT.get();
+    return current == null ? ROOT : current;
+  }
+
+  /**
+   * Gets the short name used for a class in traces. This is the class name without package, and
+   * for lambdas the name of the enclosing class followed by <code>$$Lambda</code>, as the ids of
+   * lambda classes differ between runs. All lambdas of a class thus share a name.
+   *
+   * @param type the class
+   * @return the name
+   */
+  public static String nameOf(Class<?> type) {
+    return NAMES.get(type);
+  }
+
+  /**
+   * Gets the trace of the given computation nested in the current computation, or null if tracing
+   * is disabled.
+   */
+  static ComputationTrace enter(Object computation) {
+    if (!enabled) {
+      return null;
+    }
+    return current().child(nameOf(computation.getClass()));
+  }
+
+  /**
+   * Builds a computation with the given trace as the current trace.
+   *
+   * @param trace the trace or null if not traced
+   * @param build builds the computation
+   * @param <T> the result type
+   * @return the result of building
+   */
+  static <T> T within(ComputationTrace trace, Supplier<T> build) {
+    if (trace == null) {
+      return build.get();
+    }
+    ComputationTrace previous = CURRENT.get();
+    CURRENT.set(trace);
+    try {
+      return build.get();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  private ComputationTrace child(String name) {
+    return children.computeIfAbsent(name, n -> new ComputationTrace(this, n));
+  }
+
+  public ComputationTrace getParent() {
+    return parent;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isRoot() {
+    return parent == null;
+  }
+
+  /**
+   * Gets the names of the nested computations, outermost first.
+   */
+  public List<String> getFrames() {
+    List<String> frames = new ArrayList<>();
+    for (ComputationTrace trace = this; !trace.isRoot(); trace = trace.parent) {
+      frames.add(trace.name);
+    }
+    Collections.reverse(frames);
+    return frames;
+  }
+
+  @Override
+  public String toString() {
+    return isRoot() ? "<root>" : String.join(";", getFrames());
+  }
+}
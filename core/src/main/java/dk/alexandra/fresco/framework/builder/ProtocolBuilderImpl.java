@@ -75,7 +75,7 @@ public abstract class ProtocolBuilderImpl<BuilderT extends ProtocolBuilderImpl<B
     FrescoLambda<Void, BuilderT, R> innerBuilder =
         (inner, ignored) -> function.buildComputation(inner);
     BuildStep<Void, BuilderT, R> builder =
-        new BuildStep<>(new BuildStepSingle<>(innerBuilder, false));
+        new BuildStep<>(new BuildStepSingle<>(innerBuilder, false, function));
     createAndAppend(new LazyProtocolProducerDecorator(() -> builder.createProducer(null, factory)));
     return builder;
   }
@@ -89,7 +89,7 @@ public abstract class ProtocolBuilderImpl<BuilderT extends ProtocolBuilderImpl<B
   public <R> BuildStep<Void, BuilderT, R> par(ComputationParallel<R, BuilderT> f) {
     FrescoLambda<Void, BuilderT, R> innerBuilder = (inner, ignored) -> f.buildComputation(inner);
     BuildStep<Void, BuilderT, R> builder =
-        new BuildStep<>(new BuildStepSingle<>(innerBuilder, true));
+        new BuildStep<>(new BuildStepSingle<>(innerBuilder, true, f));
     createAndAppend(new LazyProtocolProducerDecorator(() -> builder.createProducer(null, factory)));
     return builder;
   }
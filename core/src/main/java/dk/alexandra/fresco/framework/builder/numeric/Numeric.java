@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -88,6 +90,29 @@ public interface Numeric extends ComputationDirectory {
    */
   DRes<SInt> mult(DRes<SInt> a, DRes<SInt> b);
 
+  /**
+   * Multiplies two lists of secret values element-wise and returns the results.
+   *
+   * <p>The default implementation simply calls {@link #mult(DRes, DRes)} for each pair of
+   * values. Protocol suites may override this with a native protocol handling all multiplications
+   * at once.</p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as <code>a</code>
+   * @return A deferred result computing a[i]*b[i] for each i
+   */
+  default DRes<List<DRes<SInt>>> multAll(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size but were " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(mult(a.get(i), b.get(i)));
+    }
+    return () -> products;
+  }
+
   /**
    * Multiplies a public value onto a secret value and returns the result.
    *
@@ -161,6 +186,29 @@ public interface Numeric extends ComputationDirectory {
    */
   DRes<BigInteger> open(DRes<SInt> secretShare);
 
+  /**
+   * Opens a list of values to all MPC parties.
+   *
+   * <p>The default implementation simply calls {@link #open(DRes)} for each value. Protocol
+   * suites may override this with a native protocol opening all values at once.</p>
+   *
+   * @param secretShares The values to open.
+   * @return The opened values represented by the closed values.
+   */
+  default DRes<List<BigInteger>> openAll(List<DRes<SInt>> secretShares) {
+    List<DRes<BigInteger>> opened = new ArrayList<>(secretShares.size());
+    for (DRes<SInt> secretShare : secretShares) {
+      opened.add(open(secretShare));
+    }
+    return () -> {
+      List<BigInteger> values = new ArrayList<>(opened.size());
+      for (DRes<BigInteger> value : opened) {
+        values.add(value.out());
+      }
+      return values;
+    };
+  }
+
   /**
    * Opens a value to a single given party.
    *
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -95,4 +96,9 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
   public List<FieldElement> deserializeList(byte[] bytes) {
     return utils.deserializeList(bytes);
   }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    return utils.deserializeList(buffer);
+  }
 }
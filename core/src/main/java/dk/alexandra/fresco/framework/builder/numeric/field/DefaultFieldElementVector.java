@@ -0,0 +1,116 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} backed by an array of field elements, used for field definitions
+ * without a primitive representation of their elements.
+ */
+final class DefaultFieldElementVector implements FieldElementVector {
+
+  private final FieldDefinition definition;
+  private final FieldElement[] elements;
+
+  DefaultFieldElementVector(FieldDefinition definition, List<FieldElement> elements) {
+    this(definition, elements.toArray(new FieldElement[0]));
+  }
+
+  private DefaultFieldElementVector(FieldDefinition definition, FieldElement[] elements) {
+    this.definition = definition;
+    this.elements = elements;
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return elements[index];
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    FieldElement[] operand = extract(other, elements.length);
+    FieldElement[] result = new FieldElement[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i].add(operand[i]);
+    }
+    return new DefaultFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    FieldElement[] operand = extract(other, elements.length);
+    FieldElement[] result = new FieldElement[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i].subtract(operand[i]);
+    }
+    return new DefaultFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    FieldElement[] operand = extract(other, elements.length);
+    FieldElement[] result = new FieldElement[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i].multiply(operand[i]);
+    }
+    return new DefaultFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    FieldElement[] result = new FieldElement[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i].multiply(scalar);
+    }
+    return new DefaultFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    FieldElement[] operand = extract(other, elements.length);
+    FieldElement result = definition.createElement(0);
+    for (int i = 0; i < elements.length; i++) {
+      result = result.add(elements[i].multiply(operand[i]));
+    }
+    return result;
+  }
+
+  @Override
+  public FieldElementVector stretch(int factor) {
+    FieldElement[] result = new FieldElement[elements.length * factor];
+    for (int i = 0; i < elements.length; i++) {
+      Arrays.fill(result, i * factor, (i + 1) * factor, elements[i]);
+    }
+    return new DefaultFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector subVector(int from, int to) {
+    return new DefaultFieldElementVector(definition, Arrays.copyOfRange(elements, from, to));
+  }
+
+  @Override
+  public List<FieldElement> asList() {
+    return new ArrayList<>(Arrays.asList(elements));
+  }
+
+  private static FieldElement[] extract(FieldElementVector vector, int size) {
+    if (vector.size() != size) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+    return ((DefaultFieldElementVector) vector).elements;
+  }
+
+  @Override
+  public String toString() {
+    return "DefaultFieldElementVector{"
+        + "elements=" + Arrays.toString(elements)
+        + '}';
+  }
+}
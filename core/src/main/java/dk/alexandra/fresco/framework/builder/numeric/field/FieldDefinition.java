@@ -3,6 +3,8 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Describes a finite field.
@@ -85,5 +87,68 @@ public interface FieldDefinition extends ByteSerializer<FieldElement> {
    *     close to modulus
    */
   BigInteger convertToSigned(BigInteger asUnsigned);
-}
 
+  /**
+   * Reads a list of elements from the remaining bytes of a buffer using the same format as {@link
+   * #deserializeList(byte[])}. This allows reading elements directly from a message received
+   * through {@link dk.alexandra.fresco.framework.network.Network#receiveBuffer(int)}. The default
+   * implementation copies the remaining bytes to an array.
+   *
+   * @param buffer the buffer to read from
+   * @return the deserialized elements
+   */
+  default List<FieldElement> deserializeList(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return deserializeList(bytes);
+  }
+
+  /**
+   * Tells whether this field definition stores vectors in a primitive representation. If not,
+   * vectors hold the element objects and converting lists to vectors and back only adds copies,
+   * so callers working on lists should operate on them directly instead.
+   *
+   * @return true if {@link #createVector(List)} is overridden with a primitive representation
+   */
+  default boolean hasPrimitiveVectors() {
+    return false;
+  }
+
+  /**
+   * Creates a vector holding the supplied elements of this field.
+   * <p>
+   * The default implementation keeps the elements as objects. Field definitions with a primitive
+   * representation of their elements should override this to store the vector contiguously, and
+   * override {@link #hasPrimitiveVectors()} to return true.
+   * </p>
+   *
+   * @param elements the elements of the vector
+   * @return the vector
+   */
+  default FieldElementVector createVector(List<FieldElement> elements) {
+    return new DefaultFieldElementVector(this, elements);
+  }
+
+  /**
+   * Writes a vector into a buffer using the same format as {@link #serialize(List)}.
+   *
+   * @param vector the vector to serialize
+   * @param buffer the buffer to write to
+   */
+  default void serializeInto(FieldElementVector vector, ByteBuffer buffer) {
+    buffer.put(serialize(vector.asList()));
+  }
+
+  /**
+   * Reads a vector from the remaining bytes of a buffer using the same format as {@link
+   * #deserializeList(byte[])}.
+   *
+   * @param buffer the buffer to read from
+   * @return the deserialized vector
+   */
+  default FieldElementVector deserializeFrom(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return createVector(deserializeList(bytes));
+  }
+}
@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.List;
+
+/**
+ * An immutable vector of elements of a finite field defined by a {@link FieldDefinition}.
+ * <p>
+ * Vectors are created by {@link FieldDefinition#createVector(List)} and {@link
+ * FieldDefinition#deserializeFrom(java.nio.ByteBuffer)}. Field definitions with a primitive
+ * representation of their elements store a vector in a single contiguous array, so bulk
+ * operations do not allocate an object per element. Vectors used together in an operation must
+ * come from the same field definition.
+ * </p>
+ */
+public interface FieldElementVector {
+
+  /**
+   * Gets the number of elements in this vector.
+   *
+   * @return the size
+   */
+  int size();
+
+  /**
+   * Gets a single element of this vector.
+   *
+   * @param index the index of the element
+   * @return the element
+   */
+  FieldElement get(int index);
+
+  /**
+   * Computes the entry-wise sum of this and another vector of the same size.
+   *
+   * @param other operand
+   * @return <code>this + other</code>
+   */
+  FieldElementVector add(FieldElementVector other);
+
+  /**
+   * Computes the entry-wise difference of this and another vector of the same size.
+   *
+   * @param other operand
+   * @return <code>this - other</code>
+   */
+  FieldElementVector subtract(FieldElementVector other);
+
+  /**
+   * Computes the entry-wise product of this and another vector of the same size.
+   *
+   * @param other operand
+   * @return the vector of products
+   */
+  FieldElementVector multiply(FieldElementVector other);
+
+  /**
+   * Multiplies each element of this vector by a scalar.
+   *
+   * @param scalar the scalar
+   * @return the scaled vector
+   */
+  FieldElementVector scale(FieldElement scalar);
+
+  /**
+   * Computes the inner product of this and another vector of the same size.
+   *
+   * @param other operand
+   * @return the inner product
+   */
+  FieldElement innerProduct(FieldElementVector other);
+
+  /**
+   * Repeats each element of this vector. For instance, stretching <i>[e0, e1]</i> by 2 results in
+   * <i>[e0, e0, e1, e1]</i>.
+   *
+   * @param factor the number of times to repeat each element
+   * @return the stretched vector
+   */
+  FieldElementVector stretch(int factor);
+
+  /**
+   * Copies a range of this vector.
+   *
+   * @param from the first index to include
+   * @param to the first index not to include
+   * @return the elements from index <code>from</code> to <code>to - 1</code>
+   */
+  FieldElementVector subVector(int from, int to);
+
+  /**
+   * Gets the elements of this vector as a list.
+   *
+   * @return a new list holding the elements
+   */
+  List<FieldElement> asList();
+}
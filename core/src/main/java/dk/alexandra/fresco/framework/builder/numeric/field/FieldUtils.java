@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -108,6 +109,23 @@ final class FieldUtils {
     return elements;
   }
 
+  /**
+   * Reads a list of serialized field elements from the remaining bytes of a buffer, in the same
+   * format as {@link #deserializeList(byte[])}.
+   *
+   * @param buffer the values in a buffer
+   * @return value deserialized
+   */
+  List<FieldElement> deserializeList(ByteBuffer buffer) {
+    ArrayList<FieldElement> elements = new ArrayList<>(buffer.remaining() / modulusLength);
+    while (buffer.hasRemaining()) {
+      byte[] actual = new byte[modulusLength];
+      buffer.get(actual);
+      elements.add(creator.apply(new BigInteger(1, actual)));
+    }
+    return elements;
+  }
+
   /**
    * Implementation of {@link FieldDefinition#convertToSigned(BigInteger)}.
    *
@@ -0,0 +1,198 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines a field with a modulus of at most 63 bits. Elements are backed by a primitive long
+ * rather than a {@link BigInteger}, making arithmetic considerably cheaper than in {@link
+ * BigIntegerFieldDefinition} and {@link MersennePrimeFieldDefinition}.
+ * <p>
+ * Elements are always serialized as 8 bytes in big-endian order regardless of the bit length of
+ * the modulus. Accordingly, a single element can only be deserialized from exactly 8 bytes and a
+ * list only from a multiple of 8 bytes. When deserializing, values larger than the modulus are
+ * reduced.
+ * </p>
+ */
+public final class LongFieldDefinition implements FieldDefinition {
+
+  /**
+   * The Mersenne prime <i>2<sup>61</sup> - 1</i> for which multiplication is particularly cheap.
+   */
+  public static final long MERSENNE_PRIME_61 = (1L << 61) - 1;
+  private static final int BYTE_LENGTH = Long.BYTES;
+  private final LongModulus modulus;
+  private final BigInteger modulusBig;
+  private final BigInteger modulusHalf;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, at least 2 and not <i>2<sup>62</sup></i>
+   */
+  public LongFieldDefinition(long modulus) {
+    this.modulus = new LongModulus(modulus);
+    this.modulusBig = BigInteger.valueOf(modulus);
+    this.modulusHalf = modulusBig.shiftRight(1);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, at least 2 and of at most 63 bits
+   */
+  public LongFieldDefinition(BigInteger modulus) {
+    this(toLong(modulus));
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string.
+   */
+  public LongFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  private static long toLong(BigInteger modulus) {
+    if (modulus.bitLength() > 63) {
+      throw new IllegalArgumentException(
+          "Modulus must be of at most 63 bits, was " + modulus.bitLength());
+    }
+    return modulus.longValue();
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulusBig;
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulus.getBitLength();
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return LongFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, modulusBig, modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[BYTE_LENGTH];
+    writeLong(LongFieldElement.extractLong(fieldElement), bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[BYTE_LENGTH * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      writeLong(LongFieldElement.extractLong(fieldElements.get(i)), bytes, i * BYTE_LENGTH);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    checkLength(bytes.length == BYTE_LENGTH, bytes.length);
+    return LongFieldElement.createUnsigned(readLong(bytes, 0), modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    checkLength(bytes.length % BYTE_LENGTH == 0, bytes.length);
+    List<FieldElement> elements = new ArrayList<>(bytes.length / BYTE_LENGTH);
+    for (int i = 0; i < bytes.length; i += BYTE_LENGTH) {
+      elements.add(LongFieldElement.createUnsigned(readLong(bytes, i), modulus));
+    }
+    return elements;
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    checkLength(buffer.remaining() % BYTE_LENGTH == 0, buffer.remaining());
+    List<FieldElement> elements = new ArrayList<>(buffer.remaining() / BYTE_LENGTH);
+    while (buffer.hasRemaining()) {
+      elements.add(LongFieldElement.createUnsigned(buffer.getLong(), modulus));
+    }
+    return elements;
+  }
+
+  @Override
+  public boolean hasPrimitiveVectors() {
+    return true;
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return LongFieldElementVector.create(elements, modulus);
+  }
+
+  @Override
+  public void serializeInto(FieldElementVector vector, ByteBuffer buffer) {
+    for (long value : ((LongFieldElementVector) vector).getValues()) {
+      buffer.putLong(value);
+    }
+  }
+
+  @Override
+  public FieldElementVector deserializeFrom(ByteBuffer buffer) {
+    checkLength(buffer.remaining() % BYTE_LENGTH == 0, buffer.remaining());
+    long[] values = new long[buffer.remaining() / BYTE_LENGTH];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.reduceUnsigned(buffer.getLong());
+    }
+    return new LongFieldElementVector(values, modulus);
+  }
+
+  private static void checkLength(boolean valid, int length) {
+    if (!valid) {
+      throw new IllegalArgumentException(
+          "Elements are serialized as " + BYTE_LENGTH + " bytes each, got " + length + " bytes");
+    }
+  }
+
+  private static void writeLong(long value, byte[] bytes, int offset) {
+    for (int i = BYTE_LENGTH - 1; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static long readLong(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = 0; i < BYTE_LENGTH; i++) {
+      value = (value << 8) | (bytes[offset + i] & 0xFF);
+    }
+    return value;
+  }
+}
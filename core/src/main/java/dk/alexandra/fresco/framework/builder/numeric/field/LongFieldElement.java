@@ -0,0 +1,100 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link LongModulus}. The value is kept as a primitive long
+ * so arithmetic only allocates the resulting element.
+ */
+final class LongFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 4508469524536512117L;
+
+  private final long value;
+  private final LongModulus modulus;
+
+  private LongFieldElement(long value, LongModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long value) {
+    return new LongFieldElement(value, modulus);
+  }
+
+  static FieldElement create(long value, LongModulus modulus) {
+    return new LongFieldElement(Math.floorMod(value, modulus.getValue()), modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongModulus modulus) {
+    return new LongFieldElement(
+        value.mod(BigInteger.valueOf(modulus.getValue())).longValue(), modulus);
+  }
+
+  static FieldElement create(String string, LongModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Creates an element from a value known to be in the range <i>0, ..., M - 1</i>.
+   */
+  static FieldElement createReduced(long value, LongModulus modulus) {
+    return new LongFieldElement(value, modulus);
+  }
+
+  /**
+   * Creates an element from an arbitrary value interpreted as an unsigned long.
+   */
+  static FieldElement createUnsigned(long value, LongModulus modulus) {
+    return new LongFieldElement(modulus.reduceUnsigned(value), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractLong(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractLong(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractLong(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    BigInteger sqrt = MathUtils.modularSqrt(BigInteger.valueOf(value),
+        BigInteger.valueOf(modulus.getValue()));
+    return create(sqrt.longValue());
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(modulus.inverse(value));
+  }
+
+  static long extractLong(FieldElement element) {
+    return ((LongFieldElement) element).value;
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    return BigInteger.valueOf(extractLong(element));
+  }
+
+  @Override
+  public String toString() {
+    return "LongFieldElement{"
+        + "value=" + value
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,130 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for a {@link LongFieldDefinition}, backed by a single array of
+ * primitive longs.
+ */
+final class LongFieldElementVector implements FieldElementVector {
+
+  private final long[] values;
+  private final LongModulus modulus;
+
+  LongFieldElementVector(long[] values, LongModulus modulus) {
+    this.values = values;
+    this.modulus = modulus;
+  }
+
+  static LongFieldElementVector create(List<FieldElement> elements, LongModulus modulus) {
+    long[] values = new long[elements.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = LongFieldElement.extractLong(elements.get(i));
+    }
+    return new LongFieldElementVector(values, modulus);
+  }
+
+  long[] getValues() {
+    return values;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return LongFieldElement.createReduced(values[index], modulus);
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    long[] operand = extract(other, values.length);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.add(values[i], operand[i]);
+    }
+    return new LongFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    long[] operand = extract(other, values.length);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.subtract(values[i], operand[i]);
+    }
+    return new LongFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    long[] operand = extract(other, values.length);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.multiply(values[i], operand[i]);
+    }
+    return new LongFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long factor = LongFieldElement.extractLong(scalar);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.multiply(values[i], factor);
+    }
+    return new LongFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    long[] operand = extract(other, values.length);
+    long result = 0;
+    for (int i = 0; i < values.length; i++) {
+      result = modulus.add(result, modulus.multiply(values[i], operand[i]));
+    }
+    return LongFieldElement.createReduced(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector stretch(int factor) {
+    long[] result = new long[values.length * factor];
+    for (int i = 0; i < values.length; i++) {
+      Arrays.fill(result, i * factor, (i + 1) * factor, values[i]);
+    }
+    return new LongFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector subVector(int from, int to) {
+    return new LongFieldElementVector(Arrays.copyOfRange(values, from, to), modulus);
+  }
+
+  @Override
+  public List<FieldElement> asList() {
+    List<FieldElement> elements = new ArrayList<>(values.length);
+    for (long value : values) {
+      elements.add(LongFieldElement.createReduced(value, modulus));
+    }
+    return elements;
+  }
+
+  private static long[] extract(FieldElementVector vector, int size) {
+    if (vector.size() != size) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+    return ((LongFieldElementVector) vector).values;
+  }
+
+  @Override
+  public String toString() {
+    return "LongFieldElementVector{"
+        + "values=" + Arrays.toString(values)
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,182 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * A modulus fitting in a single (positive) long, i.e., of at most 63 bits.
+ * <p>
+ * Products are computed as 128 bit values using {@link #multiplyHigh(long, long)} and reduced
+ * using Barrett reduction. If the modulus is a Mersenne number <i>2<sup>k</sup> - 1</i> (e.g. the
+ * prime <i>2<sup>61</sup> - 1</i>) reduction only requires a shift, a mask and an addition.
+ * </p>
+ */
+final class LongModulus implements Serializable {
+
+  private static final long serialVersionUID = -2460539213485426372L;
+  private final long value;
+  private final int bitLength;
+  private final boolean mersenne;
+  // floor(2^(2 * bitLength) / value), interpreted as an unsigned long
+  private final long mu;
+
+  /**
+   * Creates a new modulus.
+   *
+   * @param value the modulus, must be at least 2. The only other value rejected is
+   *     <i>2<sup>62</sup></i>, for which the Barrett constant does not fit in 64 bits
+   */
+  LongModulus(long value) {
+    if (value < 2) {
+      throw new IllegalArgumentException("Modulus must be at least 2, was " + value);
+    }
+    this.value = value;
+    this.bitLength = 64 - Long.numberOfLeadingZeros(value);
+    this.mersenne = bitLength < 63 && value == (1L << bitLength) - 1;
+    // mu is at most 2^(bitLength + 1), with equality only when value is a power of two
+    BigInteger exactMu =
+        BigInteger.ONE.shiftLeft(2 * bitLength).divide(BigInteger.valueOf(value));
+    if (exactMu.bitLength() > Long.SIZE) {
+      throw new IllegalArgumentException("Modulus " + value
+          + " is not supported as floor(2^(2 * bitLength) / modulus) exceeds 64 bits");
+    }
+    this.mu = exactMu.longValue();
+  }
+
+  long getValue() {
+    return value;
+  }
+
+  int getBitLength() {
+    return bitLength;
+  }
+
+  /**
+   * Computes <code>a + b mod this</code> for <i>a, b</i> in the field.
+   */
+  long add(long a, long b) {
+    long result = a - (value - b);
+    return result < 0 ? result + value : result;
+  }
+
+  /**
+   * Computes <code>a - b mod this</code> for <i>a, b</i> in the field.
+   */
+  long subtract(long a, long b) {
+    long result = a - b;
+    return result < 0 ? result + value : result;
+  }
+
+  /**
+   * Computes <code>-a mod this</code> for <i>a</i> in the field.
+   */
+  long negate(long a) {
+    return a == 0 ? 0 : value - a;
+  }
+
+  /**
+   * Computes <code>a * b mod this</code> for <i>a, b</i> in the field.
+   */
+  long multiply(long a, long b) {
+    return reduce(multiplyHigh(a, b), a * b);
+  }
+
+  /**
+   * Reduces the 128 bit value <code>x = high * 2<sup>64</sup> + low</code> modulo this modulus,
+   * assuming that <i>0 &le; x < M<sup>2</sup></i>.
+   *
+   * @param high the upper 64 bits of <i>x</i>
+   * @param low the lower 64 bits of <i>x</i>
+   * @return <code>x mod this</code>
+   */
+  long reduce(long high, long low) {
+    if (mersenne) {
+      long result = (low & value) + ((high << (64 - bitLength)) | (low >>> bitLength));
+      return result >= value ? result - value : result;
+    }
+    // Barrett reduction, see HAC algorithm 14.42 with base 2
+    long q1 = (high << (65 - bitLength)) | (low >>> (bitLength - 1));
+    long q2High = unsignedMultiplyHigh(q1, mu);
+    long q2Low = q1 * mu;
+    long q3 = (q2High << (63 - bitLength)) | ((q2Low >>> bitLength) >>> 1);
+    long productLow = q3 * value;
+    long result = low - productLow;
+    // the remainder is less than 3 * value which only exceeds 64 bits for 63 bit moduli
+    if (bitLength < 63) {
+      while (Long.compareUnsigned(result, value) >= 0) {
+        result -= value;
+      }
+    } else {
+      long resultHigh = high - unsignedMultiplyHigh(q3, value)
+          - (Long.compareUnsigned(low, productLow) < 0 ? 1 : 0);
+      while (resultHigh != 0 || Long.compareUnsigned(result, value) >= 0) {
+        resultHigh -= Long.compareUnsigned(result, value) < 0 ? 1 : 0;
+        result -= value;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reduces an arbitrary value, interpreted as an unsigned long, modulo this modulus.
+   */
+  long reduceUnsigned(long x) {
+    return x >= 0 ? x % value : Long.remainderUnsigned(x, value);
+  }
+
+  /**
+   * Computes the inverse of <i>a</i> modulo this modulus using the extended Euclidean algorithm.
+   *
+   * @throws ArithmeticException if <i>a</i> is not invertible
+   */
+  long inverse(long a) {
+    long t = 0;
+    long newT = 1;
+    long r = value;
+    long newR = a;
+    while (newR != 0) {
+      long quotient = r / newR;
+      long tmp = t - quotient * newT;
+      t = newT;
+      newT = tmp;
+      tmp = r - quotient * newR;
+      r = newR;
+      newR = tmp;
+    }
+    if (r != 1) {
+      throw new ArithmeticException("Value " + a + " is not invertible modulo " + value);
+    }
+    return t < 0 ? t + value : t;
+  }
+
+  /**
+   * Returns the upper 64 bits of the 128 bit product of two signed longs. This is equivalent to
+   * <code>Math.multiplyHigh</code> which is not available in Java 8.
+   */
+  static long multiplyHigh(long x, long y) {
+    long x1 = x >> 32;
+    long x2 = x & 0xFFFFFFFFL;
+    long y1 = y >> 32;
+    long y2 = y & 0xFFFFFFFFL;
+    long z2 = x2 * y2;
+    long t = x1 * y2 + (z2 >>> 32);
+    long z1 = t & 0xFFFFFFFFL;
+    long z0 = t >> 32;
+    z1 += x2 * y1;
+    return x1 * y1 + z0 + (z1 >> 32);
+  }
+
+  /**
+   * Returns the upper 64 bits of the 128 bit product of two longs interpreted as unsigned.
+   */
+  static long unsignedMultiplyHigh(long x, long y) {
+    return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+
+  @Override
+  public String toString() {
+    return "LongModulus{"
+        + "value=" + value
+        + '}';
+  }
+}
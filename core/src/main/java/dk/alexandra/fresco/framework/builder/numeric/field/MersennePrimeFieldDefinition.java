@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -104,6 +105,11 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     return utils.deserializeList(bytes);
   }
 
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    return utils.deserializeList(buffer);
+  }
+
   private static Map<Integer, Integer> createPrecomputedModuli() {
     return new HashMap<Integer, Integer>() {{
       put(512, 569);
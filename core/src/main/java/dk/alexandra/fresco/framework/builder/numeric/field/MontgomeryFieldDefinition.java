@@ -0,0 +1,188 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Defines a field over an odd modulus where elements are kept in Montgomery form in fixed size
+ * arrays of 64 bit limbs. This avoids a full {@link BigInteger} reduction after every
+ * multiplication, which makes it well suited for moduli of a few hundred bits.
+ * <p>
+ * Elements are serialized in normal form using the same format as {@link
+ * BigIntegerFieldDefinition} and {@link MersennePrimeFieldDefinition}, i.e., big-endian with a
+ * fixed length determined by the bit length of the modulus.
+ * </p>
+ */
+public final class MontgomeryFieldDefinition implements FieldDefinition {
+
+  private final MontgomeryModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int byteLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd
+   */
+  public MontgomeryFieldDefinition(BigInteger modulus) {
+    this.modulus = new MontgomeryModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+    this.byteLength = 1 + ((modulusBitLength - 1) / 8);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string.
+   */
+  public MontgomeryFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getValue();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return MontgomeryFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[byteLength];
+    writeLimbs(MontgomeryFieldElement.extractLimbs(fieldElement), bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[byteLength * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      writeLimbs(MontgomeryFieldElement.extractLimbs(fieldElements.get(i)), bytes,
+          i * byteLength);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return MontgomeryFieldElement.createFromLimbs(readLimbs(bytes, 0), modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / byteLength);
+    for (int i = 0; i < bytes.length; i += byteLength) {
+      elements.add(MontgomeryFieldElement.createFromLimbs(readLimbs(bytes, i), modulus));
+    }
+    return elements;
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    List<FieldElement> elements = new ArrayList<>(buffer.remaining() / byteLength);
+    byte[] bytes = new byte[byteLength];
+    while (buffer.hasRemaining()) {
+      buffer.get(bytes);
+      elements.add(MontgomeryFieldElement.createFromLimbs(readLimbs(bytes, 0), modulus));
+    }
+    return elements;
+  }
+
+  @Override
+  public boolean hasPrimitiveVectors() {
+    return true;
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return MontgomeryFieldElementVector.create(elements, modulus);
+  }
+
+  @Override
+  public void serializeInto(FieldElementVector vector, ByteBuffer buffer) {
+    long[] limbs = ((MontgomeryFieldElementVector) vector).getLimbs();
+    int n = modulus.getLimbs();
+    long[] normal = new long[n];
+    byte[] bytes = new byte[byteLength];
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.fromMontgomery(limbs, i, normal, 0);
+      writeLimbs(normal, bytes, 0);
+      buffer.put(bytes);
+    }
+  }
+
+  @Override
+  public FieldElementVector deserializeFrom(ByteBuffer buffer) {
+    int size = buffer.remaining() / byteLength;
+    int n = modulus.getLimbs();
+    long[] limbs = new long[size * n];
+    long[] normal = new long[n];
+    byte[] bytes = new byte[byteLength];
+    for (int i = 0; i < size; i++) {
+      buffer.get(bytes);
+      readLimbs(bytes, 0, normal);
+      modulus.toMontgomery(normal, 0, limbs, i * n);
+    }
+    return new MontgomeryFieldElementVector(limbs, modulus);
+  }
+
+  private void writeLimbs(long[] limbs, byte[] bytes, int offset) {
+    for (int i = 0; i < byteLength; i++) {
+      long limb = limbs[i / Long.BYTES];
+      bytes[offset + byteLength - 1 - i] = (byte) (limb >>> (8 * (i % Long.BYTES)));
+    }
+  }
+
+  private long[] readLimbs(byte[] bytes, int offset) {
+    long[] limbs = new long[modulus.getLimbs()];
+    readLimbs(bytes, offset, limbs);
+    return limbs;
+  }
+
+  private void readLimbs(byte[] bytes, int offset, long[] limbs) {
+    Arrays.fill(limbs, 0);
+    for (int i = 0; i < byteLength; i++) {
+      long b = bytes[offset + byteLength - 1 - i] & 0xFF;
+      limbs[i / Long.BYTES] |= b << (8 * (i % Long.BYTES));
+    }
+  }
+}
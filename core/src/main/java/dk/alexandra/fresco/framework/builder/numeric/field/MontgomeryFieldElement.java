@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link MontgomeryModulus}. The value is kept in Montgomery
+ * form and only converted back when the element is serialized or opened.
+ */
+final class MontgomeryFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 2883196617355284416L;
+
+  private final long[] value;
+  private final MontgomeryModulus modulus;
+
+  private MontgomeryFieldElement(long[] value, MontgomeryModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long[] value) {
+    return new MontgomeryFieldElement(value, modulus);
+  }
+
+  static FieldElement create(BigInteger value, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(modulus.toMontgomery(value.mod(modulus.getValue())),
+        modulus);
+  }
+
+  static FieldElement create(long value, MontgomeryModulus modulus) {
+    return create(BigInteger.valueOf(value), modulus);
+  }
+
+  static FieldElement create(String string, MontgomeryModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Creates an element from a value already in Montgomery form.
+   */
+  static FieldElement createFromMontgomery(long[] value, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(value, modulus);
+  }
+
+  /**
+   * Creates an element from a value given as limbs, the value is not required to be reduced.
+   */
+  static FieldElement createFromLimbs(long[] limbs, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(modulus.toMontgomery(limbs), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(modulus.toBigInteger(value), modulus.getValue()),
+        modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(modulus.toBigInteger(value).modInverse(modulus.getValue()), modulus);
+  }
+
+  static long[] extractMontgomery(FieldElement element) {
+    return ((MontgomeryFieldElement) element).value;
+  }
+
+  /**
+   * Gets the value of an element as limbs in normal (i.e., non-Montgomery) form.
+   */
+  static long[] extractLimbs(FieldElement element) {
+    MontgomeryFieldElement montgomery = (MontgomeryFieldElement) element;
+    return montgomery.modulus.fromMontgomery(montgomery.value);
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    MontgomeryFieldElement montgomery = (MontgomeryFieldElement) element;
+    return montgomery.modulus.toBigInteger(montgomery.value);
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElement{"
+        + "value=" + modulus.toBigInteger(value)
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
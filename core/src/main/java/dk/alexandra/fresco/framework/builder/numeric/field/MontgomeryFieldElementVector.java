@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for a {@link MontgomeryFieldDefinition}. The limbs of all elements
+ * are stored consecutively in a single array of primitive longs, element <i>i</i> occupying the
+ * limbs from <i>i n</i> to <i>(i + 1) n - 1</i> for <i>n</i> limbs per element.
+ */
+final class MontgomeryFieldElementVector implements FieldElementVector {
+
+  private final long[] limbs;
+  private final int size;
+  private final MontgomeryModulus modulus;
+
+  MontgomeryFieldElementVector(long[] limbs, MontgomeryModulus modulus) {
+    this.limbs = limbs;
+    this.size = limbs.length / modulus.getLimbs();
+    this.modulus = modulus;
+  }
+
+  static MontgomeryFieldElementVector create(List<FieldElement> elements,
+      MontgomeryModulus modulus) {
+    int n = modulus.getLimbs();
+    long[] limbs = new long[elements.size() * n];
+    for (int i = 0; i < elements.size(); i++) {
+      long[] value = MontgomeryFieldElement.extractMontgomery(elements.get(i));
+      System.arraycopy(value, 0, limbs, i * n, n);
+    }
+    return new MontgomeryFieldElementVector(limbs, modulus);
+  }
+
+  long[] getLimbs() {
+    return limbs;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    int n = modulus.getLimbs();
+    return MontgomeryFieldElement.createFromMontgomery(
+        Arrays.copyOfRange(limbs, index * n, (index + 1) * n), modulus);
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    long[] operand = extract(other, size);
+    long[] result = new long[limbs.length];
+    int n = modulus.getLimbs();
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.add(limbs, i, operand, i, result, i);
+    }
+    return new MontgomeryFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    long[] operand = extract(other, size);
+    long[] result = new long[limbs.length];
+    int n = modulus.getLimbs();
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.subtract(limbs, i, operand, i, result, i);
+    }
+    return new MontgomeryFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    long[] operand = extract(other, size);
+    long[] result = new long[limbs.length];
+    int n = modulus.getLimbs();
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.multiply(limbs, i, operand, i, result, i);
+    }
+    return new MontgomeryFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long[] factor = MontgomeryFieldElement.extractMontgomery(scalar);
+    long[] result = new long[limbs.length];
+    int n = modulus.getLimbs();
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.multiply(limbs, i, factor, 0, result, i);
+    }
+    return new MontgomeryFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    long[] operand = extract(other, size);
+    int n = modulus.getLimbs();
+    long[] result = new long[n];
+    long[] product = new long[n];
+    for (int i = 0; i < limbs.length; i += n) {
+      modulus.multiply(limbs, i, operand, i, product, 0);
+      modulus.add(result, 0, product, 0, result, 0);
+    }
+    return MontgomeryFieldElement.createFromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector stretch(int factor) {
+    int n = modulus.getLimbs();
+    long[] result = new long[limbs.length * factor];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < factor; j++) {
+        System.arraycopy(limbs, i * n, result, (i * factor + j) * n, n);
+      }
+    }
+    return new MontgomeryFieldElementVector(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector subVector(int from, int to) {
+    int n = modulus.getLimbs();
+    return new MontgomeryFieldElementVector(Arrays.copyOfRange(limbs, from * n, to * n), modulus);
+  }
+
+  @Override
+  public List<FieldElement> asList() {
+    List<FieldElement> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
+  private static long[] extract(FieldElementVector vector, int size) {
+    if (vector.size() != size) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+    return ((MontgomeryFieldElementVector) vector).limbs;
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElementVector{"
+        + "elements=" + asList()
+        + '}';
+  }
+}
@@ -0,0 +1,333 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An odd modulus supporting arithmetic on values in Montgomery form.
+ * <p>
+ * Values are represented as fixed size arrays of 64 bit limbs, least significant limb first. A
+ * value <i>x</i> is kept in Montgomery form <i>x R mod M</i> where <i>R = 2<sup>64 n</sup></i>
+ * and <i>n</i> is the number of limbs, so a multiplication is a single interleaved multiply and
+ * reduce pass (the CIOS method of Koç, Acar and Kaliski) without any division.
+ * </p>
+ */
+final class MontgomeryModulus implements Serializable {
+
+  private static final long serialVersionUID = -2187290717542446163L;
+  private final BigInteger value;
+  private final int limbs;
+  private final long[] modulus;
+  // -modulus^-1 mod 2^64
+  private final long inverse;
+  // R^2 mod modulus
+  private final long[] rSquared;
+  private final long[] one;
+
+  /**
+   * Creates a new modulus.
+   *
+   * @param value the modulus, must be odd and larger than 1
+   */
+  MontgomeryModulus(BigInteger value) {
+    if (value.compareTo(BigInteger.ONE) <= 0) {
+      throw new IllegalArgumentException("Modulus must be larger than 1, was " + value);
+    }
+    if (!value.testBit(0)) {
+      throw new IllegalArgumentException("Montgomery representation requires an odd modulus");
+    }
+    this.value = value;
+    this.limbs = (value.bitLength() + 63) / 64;
+    this.modulus = toLimbs(value, limbs);
+    this.inverse = -inverse64(modulus[0]);
+    this.rSquared = toLimbs(BigInteger.ONE.shiftLeft(128 * limbs).mod(value), limbs);
+    this.one = new long[limbs];
+    this.one[0] = 1;
+  }
+
+  BigInteger getValue() {
+    return value;
+  }
+
+  int getLimbs() {
+    return limbs;
+  }
+
+  /**
+   * Converts a value given as limbs into Montgomery form. The value must be less than
+   * <i>R</i> but need not be reduced.
+   */
+  long[] toMontgomery(long[] limbs) {
+    return multiply(limbs, rSquared);
+  }
+
+  /**
+   * Converts a value given as limbs at offset <code>i</code> into Montgomery form, writing the
+   * result into <code>result</code> at offset <code>r</code>.
+   */
+  void toMontgomery(long[] limbs, int i, long[] result, int r) {
+    multiply(limbs, i, rSquared, 0, result, r);
+  }
+
+  /**
+   * Converts a value in the range <i>0, ..., M - 1</i> into Montgomery form.
+   */
+  long[] toMontgomery(BigInteger value) {
+    return toMontgomery(toLimbs(value, limbs));
+  }
+
+  /**
+   * Converts a value out of Montgomery form, returning the result as limbs.
+   */
+  long[] fromMontgomery(long[] value) {
+    return multiply(value, one);
+  }
+
+  /**
+   * Converts a value at offset <code>i</code> out of Montgomery form, writing the result into
+   * <code>result</code> at offset <code>r</code>.
+   */
+  void fromMontgomery(long[] value, int i, long[] result, int r) {
+    multiply(value, i, one, 0, result, r);
+  }
+
+  /**
+   * Converts a value out of Montgomery form, returning the result as a BigInteger.
+   */
+  BigInteger toBigInteger(long[] value) {
+    return fromLimbs(fromMontgomery(value));
+  }
+
+  /**
+   * Computes <code>a + b mod M</code>.
+   */
+  long[] add(long[] a, long[] b) {
+    long[] result = new long[limbs];
+    add(a, 0, b, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes <code>a + b mod M</code> for values stored at the given offsets, writing the result
+   * into <code>result</code> at offset <code>r</code>.
+   */
+  void add(long[] a, int i, long[] b, int j, long[] result, int r) {
+    long carry = 0;
+    for (int k = 0; k < limbs; k++) {
+      long sum = a[i + k] + b[j + k];
+      long nextCarry = Long.compareUnsigned(sum, a[i + k]) < 0 ? 1 : 0;
+      long total = sum + carry;
+      if (Long.compareUnsigned(total, sum) < 0) {
+        nextCarry = 1;
+      }
+      result[r + k] = total;
+      carry = nextCarry;
+    }
+    if (carry != 0 || compareToModulus(result, r) >= 0) {
+      subtractModulus(result, r);
+    }
+  }
+
+  /**
+   * Computes <code>a - b mod M</code>.
+   */
+  long[] subtract(long[] a, long[] b) {
+    long[] result = new long[limbs];
+    subtract(a, 0, b, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes <code>a - b mod M</code> for values stored at the given offsets, writing the result
+   * into <code>result</code> at offset <code>r</code>.
+   */
+  void subtract(long[] a, int i, long[] b, int j, long[] result, int r) {
+    long borrow = 0;
+    for (int k = 0; k < limbs; k++) {
+      long difference = a[i + k] - b[j + k];
+      long nextBorrow = Long.compareUnsigned(a[i + k], b[j + k]) < 0 ? 1 : 0;
+      if (Long.compareUnsigned(difference, borrow) < 0) {
+        nextBorrow = 1;
+      }
+      result[r + k] = difference - borrow;
+      borrow = nextBorrow;
+    }
+    if (borrow != 0) {
+      addModulus(result, r);
+    }
+  }
+
+  /**
+   * Computes <code>-a mod M</code>.
+   */
+  long[] negate(long[] a) {
+    if (isZero(a)) {
+      return new long[limbs];
+    }
+    return subtract(modulus, a);
+  }
+
+  /**
+   * Computes the Montgomery product <code>a b R<sup>-1</sup> mod M</code>, i.e., the Montgomery
+   * form of the product of two values in Montgomery form. The product <i>a b</i> must be less
+   * than <i>M R</i>.
+   */
+  long[] multiply(long[] a, long[] b) {
+    long[] result = new long[limbs];
+    multiply(a, 0, b, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes the Montgomery product for values stored at the given offsets, writing the result
+   * into <code>result</code> at offset <code>r</code>. The result must not overlap either of the
+   * operands.
+   */
+  void multiply(long[] a, int i, long[] b, int j, long[] result, int r) {
+    Arrays.fill(result, r, r + limbs, 0);
+    long top = 0;
+    for (int k = 0; k < limbs; k++) {
+      long factor = b[j + k];
+      long carry = 0;
+      for (int l = 0; l < limbs; l++) {
+        long low = a[i + l] * factor;
+        long high = LongModulus.unsignedMultiplyHigh(a[i + l], factor);
+        long current = result[r + l];
+        low += current;
+        if (Long.compareUnsigned(low, current) < 0) {
+          high++;
+        }
+        low += carry;
+        if (Long.compareUnsigned(low, carry) < 0) {
+          high++;
+        }
+        result[r + l] = low;
+        carry = high;
+      }
+      long sum = top + carry;
+      long overflow = Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+      top = sum;
+
+      long first = result[r];
+      long q = first * inverse;
+      carry = LongModulus.unsignedMultiplyHigh(q, modulus[0]);
+      if (Long.compareUnsigned(q * modulus[0] + first, first) < 0) {
+        carry++;
+      }
+      for (int l = 1; l < limbs; l++) {
+        long low = q * modulus[l];
+        long high = LongModulus.unsignedMultiplyHigh(q, modulus[l]);
+        long current = result[r + l];
+        low += current;
+        if (Long.compareUnsigned(low, current) < 0) {
+          high++;
+        }
+        low += carry;
+        if (Long.compareUnsigned(low, carry) < 0) {
+          high++;
+        }
+        result[r + l - 1] = low;
+        carry = high;
+      }
+      sum = top + carry;
+      result[r + limbs - 1] = sum;
+      top = overflow + (Long.compareUnsigned(sum, carry) < 0 ? 1 : 0);
+    }
+    if (top != 0 || compareToModulus(result, r) >= 0) {
+      subtractModulus(result, r);
+    }
+  }
+
+  private void subtractModulus(long[] value, int offset) {
+    long borrow = 0;
+    for (int k = 0; k < limbs; k++) {
+      long current = value[offset + k];
+      long difference = current - modulus[k];
+      long nextBorrow = Long.compareUnsigned(current, modulus[k]) < 0 ? 1 : 0;
+      if (Long.compareUnsigned(difference, borrow) < 0) {
+        nextBorrow = 1;
+      }
+      value[offset + k] = difference - borrow;
+      borrow = nextBorrow;
+    }
+  }
+
+  private void addModulus(long[] value, int offset) {
+    long carry = 0;
+    for (int k = 0; k < limbs; k++) {
+      long sum = value[offset + k] + modulus[k];
+      long nextCarry = Long.compareUnsigned(sum, modulus[k]) < 0 ? 1 : 0;
+      long total = sum + carry;
+      if (Long.compareUnsigned(total, sum) < 0) {
+        nextCarry = 1;
+      }
+      value[offset + k] = total;
+      carry = nextCarry;
+    }
+  }
+
+  private int compareToModulus(long[] value, int offset) {
+    for (int k = limbs - 1; k >= 0; k--) {
+      int comparison = Long.compareUnsigned(value[offset + k], modulus[k]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static boolean isZero(long[] value) {
+    for (long limb : value) {
+      if (limb != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the inverse of an odd value modulo 2<sup>64</sup> using Newton iteration, each
+   * iteration doubling the number of correct bits.
+   */
+  private static long inverse64(long value) {
+    long inverse = value;
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - value * inverse;
+    }
+    return inverse;
+  }
+
+  /**
+   * Converts a non-negative value into the given number of limbs, dropping any higher bits.
+   */
+  static long[] toLimbs(BigInteger value, int limbs) {
+    long[] result = new long[limbs];
+    for (int i = 0; i < limbs; i++) {
+      result[i] = value.shiftRight(64 * i).longValue();
+    }
+    return result;
+  }
+
+  /**
+   * Converts limbs into a non-negative value.
+   */
+  static BigInteger fromLimbs(long[] limbs) {
+    byte[] bytes = new byte[limbs.length * Long.BYTES];
+    for (int i = 0; i < limbs.length; i++) {
+      long limb = limbs[i];
+      for (int j = 0; j < Long.BYTES; j++) {
+        bytes[bytes.length - 1 - (i * Long.BYTES + j)] = (byte) limb;
+        limb >>>= 8;
+      }
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryModulus{"
+        + "value=" + value
+        + '}';
+  }
+}
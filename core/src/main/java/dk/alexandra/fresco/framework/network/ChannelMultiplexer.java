@@ -0,0 +1,379 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Multiplexes a number of logical channels over a single {@link CloseableNetwork}.
+ *
+ * <p>Each channel is itself a {@link CloseableNetwork}, identified by a name which must be the same
+ * for all parties. Messages sent on a channel are only received on the channel with the same name,
+ * and the order of messages is only preserved within a channel, so a protocol running on one
+ * channel is never blocked by unread messages on another. This allows e.g. preprocessing or mac
+ * checks to run in the background on their own channels without opening additional
+ * connections.</p>
+ *
+ * <p>Each message is framed with a tag identifying the channel. Incoming frames are dispatched to
+ * their channels by a thread per other party. Flow control is done per channel and party: a party
+ * can send at most a window of messages on a channel which the receiver has not yet consumed,
+ * after which sending blocks until the receiver has consumed more messages. Note that this means
+ * that a protocol which lets two parties send more than a window of messages to each other before
+ * receiving any will block.</p>
+ *
+ * <p>The underlying network must allow concurrent communication with different parties, as do
+ * {@link dk.alexandra.fresco.framework.network.socket.SocketNetwork} and {@link
+ * dk.alexandra.fresco.framework.network.socket.NioNetwork}. Closing the multiplexer closes the
+ * underlying network and all channels.</p>
+ */
+public class ChannelMultiplexer implements Closeable {
+
+  /**
+   * The default number of unconsumed messages allowed per channel and party.
+   */
+  public static final int DEFAULT_WINDOW = 4096;
+  private static final Logger logger = LoggerFactory.getLogger(ChannelMultiplexer.class);
+  private static final byte DATA = 0;
+  private static final byte CREDIT = 1;
+  private static final int HEADER_LENGTH = 1 + Integer.BYTES;
+  private static final Duration RECEIVE_TIMEOUT = Duration.ofMillis(100);
+  private final int myId;
+  private final CloseableNetwork network;
+  private final int window;
+  private final Map<Integer, ChannelState> channels;
+  private final Map<String, MultiplexedChannel> openChannels;
+  private final Object[] sendLocks;
+  private final Set<Integer> failedParties;
+  private volatile boolean alive;
+
+  /**
+   * Creates a new multiplexer on top of a connected network, with the default window.
+   *
+   * @param myId the id of this party
+   * @param network the underlying network
+   */
+  public ChannelMultiplexer(int myId, CloseableNetwork network) {
+    this(myId, network, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Creates a new multiplexer on top of a connected network.
+   *
+   * @param myId the id of this party
+   * @param network the underlying network
+   * @param window the number of messages a party can send on a channel before the receiver
+   *     consumes them. Must be at least 2.
+   */
+  public ChannelMultiplexer(int myId, CloseableNetwork network, int window) {
+    if (window < 2) {
+      throw new IllegalArgumentException("Window must be at least 2 but was " + window);
+    }
+    this.myId = myId;
+    this.network = network;
+    this.window = window;
+    this.channels = new ConcurrentHashMap<>();
+    this.openChannels = new HashMap<>();
+    this.sendLocks = new Object[network.getNoOfParties() + 1];
+    this.failedParties = ConcurrentHashMap.newKeySet();
+    this.alive = true;
+    for (int partyId = 1; partyId <= network.getNoOfParties(); partyId++) {
+      sendLocks[partyId] = new Object();
+      if (partyId != myId) {
+        int otherId = partyId;
+        Thread thread = new Thread(() -> dispatch(otherId),
+            "ChannelMultiplexer-P" + myId + "-P" + otherId);
+        thread.setDaemon(true);
+        thread.start();
+      }
+    }
+  }
+
+  /**
+   * Opens a new channel. All parties must open a channel with the same name in order to
+   * communicate on it.
+   *
+   * @param name the name of the channel
+   * @return the channel
+   * @throws IllegalArgumentException if a channel with this name, or a name with the same tag, is
+   *     already open
+   */
+  public synchronized CloseableNetwork openChannel(String name) {
+    if (!alive) {
+      throw new IllegalStateException("Multiplexer is closed");
+    }
+    if (openChannels.containsKey(name)) {
+      throw new IllegalArgumentException("Channel " + name + " is already open");
+    }
+    int tag = name.hashCode();
+    for (MultiplexedChannel channel : openChannels.values()) {
+      if (channel.state.tag == tag) {
+        throw new IllegalArgumentException(
+            "Channel " + name + " has the same tag as open channel " + channel.name);
+      }
+    }
+    MultiplexedChannel channel = new MultiplexedChannel(name, getState(tag));
+    openChannels.put(name, channel);
+    return channel;
+  }
+
+  /**
+   * Creates a supplier which opens the channel of the given name the first time it is called and
+   * then keeps returning the same channel. Useful for components which take a network supplier
+   * and which should run on their own channel.
+   *
+   * @param name the name of the channel
+   * @return supplier of the channel
+   */
+  public Supplier<Network> channelSupplier(String name) {
+    return new Supplier<Network>() {
+
+      private Network channel;
+
+      @Override
+      public synchronized Network get() {
+        if (channel == null) {
+          channel = openChannel(name);
+        }
+        return channel;
+      }
+    };
+  }
+
+  /**
+   * Gets the number of parties of the underlying network.
+   *
+   * @return the number of parties
+   */
+  public int getNoOfParties() {
+    return network.getNoOfParties();
+  }
+
+  /**
+   * Closes all channels and the underlying network.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (!alive) {
+        return;
+      }
+      alive = false;
+      openChannels.clear();
+    }
+    network.close();
+    channels.values().forEach(ChannelState::wakeUp);
+  }
+
+  private ChannelState getState(int tag) {
+    return channels.computeIfAbsent(tag, ChannelState::new);
+  }
+
+  /**
+   * Receives frames from a single party and dispatches them to the channels until the underlying
+   * network fails or is closed.
+   */
+  private void dispatch(int partyId) {
+    try {
+      while (alive) {
+        ByteBuffer frame = ByteBuffer.wrap(network.receive(partyId));
+        byte type = frame.get();
+        int tag = frame.getInt();
+        if (type == DATA) {
+          getState(tag).incoming[partyId].add(Arrays.copyOfRange(frame.array(), HEADER_LENGTH,
+              frame.limit()));
+        } else {
+          // credits for a channel which has since been closed are dropped
+          ChannelState state = channels.get(tag);
+          if (state != null) {
+            state.addCredits(partyId, frame.getInt());
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      if (alive) {
+        logger.warn("P{}: Receiving from P{} failed", myId, partyId, e);
+      }
+    }
+    failedParties.add(partyId);
+    channels.values().forEach(ChannelState::wakeUp);
+  }
+
+  private boolean isConnected(int partyId) {
+    return alive && !failedParties.contains(partyId);
+  }
+
+  private void sendFrame(int partyId, byte type, int tag, byte[] payload) {
+    byte[] frame = new byte[HEADER_LENGTH + payload.length];
+    ByteBuffer.wrap(frame).put(type).putInt(tag);
+    System.arraycopy(payload, 0, frame, HEADER_LENGTH, payload.length);
+    synchronized (sendLocks[partyId]) {
+      network.send(partyId, frame);
+    }
+  }
+
+  /**
+   * The state of a channel shared between the channel and the dispatching threads. The state is
+   * created when either the channel is opened or the first frame of the channel is received.
+   */
+  private final class ChannelState {
+
+    private final int tag;
+    private final BlockingQueue<byte[]>[] incoming;
+    private final int[] credits;
+    private final int[] consumed;
+
+    @SuppressWarnings("unchecked")
+    private ChannelState(int tag) {
+      this.tag = tag;
+      int noOfParties = network.getNoOfParties();
+      this.incoming = new BlockingQueue[noOfParties + 1];
+      this.credits = new int[noOfParties + 1];
+      this.consumed = new int[noOfParties + 1];
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        incoming[partyId] = new LinkedBlockingQueue<>();
+        credits[partyId] = window;
+      }
+    }
+
+    private synchronized void takeCredit(int partyId) {
+      while (credits[partyId] == 0 && isConnected(partyId)) {
+        ExceptionConverter.safe(() -> {
+          wait(RECEIVE_TIMEOUT.toMillis());
+          return null;
+        }, "Interrupted while waiting to send");
+      }
+      if (!isConnected(partyId)) {
+        throw new RuntimeException(
+            "P" + myId + ": Unable to send to P" + partyId + ". Connection closed");
+      }
+      credits[partyId]--;
+    }
+
+    private synchronized void addCredits(int partyId, int count) {
+      credits[partyId] += count;
+      notifyAll();
+    }
+
+    /**
+     * Registers that a message has been consumed and returns the number of credits to send back
+     * to the sender, if any.
+     */
+    private synchronized int consume(int partyId) {
+      consumed[partyId]++;
+      if (consumed[partyId] >= window / 2) {
+        int count = consumed[partyId];
+        consumed[partyId] = 0;
+        return count;
+      }
+      return 0;
+    }
+
+    private synchronized void wakeUp() {
+      notifyAll();
+    }
+  }
+
+  /**
+   * A single logical channel.
+   */
+  private final class MultiplexedChannel implements CloseableNetwork {
+
+    private final String name;
+    private final ChannelState state;
+    private volatile boolean open;
+
+    private MultiplexedChannel(String name, ChannelState state) {
+      this.name = name;
+      this.state = state;
+      this.open = true;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      inRange(partyId);
+      if (!open || !alive) {
+        throw new RuntimeException(
+            "P" + myId + ": Unable to send to P" + partyId + ". Channel " + name + " closed");
+      }
+      if (partyId == myId) {
+        state.incoming[partyId].add(data);
+      } else {
+        state.takeCredit(partyId);
+        sendFrame(partyId, DATA, state.tag, data);
+      }
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      inRange(partyId);
+      if (!open) {
+        throw new RuntimeException(
+            "P" + myId + ": Unable to receive from P" + partyId + ". Channel " + name + " closed");
+      }
+      byte[] data = poll(state.incoming[partyId]);
+      while (data == null) {
+        if (!isConnected(partyId)) {
+          throw new RuntimeException("P" + myId + ": Unable to receive from P" + partyId
+              + ". Connection closed");
+        }
+        data = poll(state.incoming[partyId]);
+      }
+      if (partyId != myId) {
+        int credits = state.consume(partyId);
+        if (credits > 0) {
+          sendFrame(partyId, CREDIT, state.tag, ByteBuffer.allocate(Integer.BYTES)
+              .putInt(credits).array());
+        }
+      }
+      return data;
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+
+    /**
+     * Closes the channel and discards its state, including any messages which have not been
+     * received, so a channel opened later with the same name starts with empty queues and a full
+     * window. The parties should therefore have received all messages of the channel before
+     * closing it.
+     */
+    @Override
+    public void close() {
+      synchronized (ChannelMultiplexer.this) {
+        if (open) {
+          open = false;
+          openChannels.remove(name);
+          channels.remove(state.tag, state);
+        }
+      }
+    }
+
+    private byte[] poll(BlockingQueue<byte[]> queue) {
+      return ExceptionConverter.safe(
+          () -> queue.poll(RECEIVE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS),
+          "Receive interrupted");
+    }
+
+    private void inRange(int partyId) {
+      if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+        throw new IllegalArgumentException(
+            "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+      }
+    }
+  }
+}
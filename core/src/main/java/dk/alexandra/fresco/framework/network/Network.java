@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.framework.network;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,6 +31,19 @@ public interface Network {
    */
   byte[] receive(int partyId);
 
+  /**
+   * Blocking call that only returns once the data has been fully received. As opposed to {@link
+   * #receive(int)} the returned buffer may be a read-only view of data owned by the network, which
+   * allows implementations to avoid copying the data. The default implementation simply wraps the
+   * result of {@link #receive(int)}.
+   *
+   * @param partyId the party to receive from
+   * @return the data send by the given partyId
+   */
+  default ByteBuffer receiveBuffer(int partyId) {
+    return ByteBuffer.wrap(receive(partyId));
+  }
+
   /**
    * Gets the total amount of players. Used for building the default methods.
    *
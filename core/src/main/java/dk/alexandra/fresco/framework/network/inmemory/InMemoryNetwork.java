@@ -0,0 +1,193 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The network of a single party created by an {@link InMemoryNetworkFactory}.
+ *
+ * <p>Messages to and from each party go through a {@link Link}, which is shared with the network
+ * of the other party. Sending copies the message, so the caller is free to reuse the array.</p>
+ */
+final class InMemoryNetwork implements CloseableNetwork {
+
+  private static final long RECEIVE_TIMEOUT_NANOS = Duration.ofMillis(100).toNanos();
+  private final int myId;
+  private final Link[] outgoing;
+  private final Link[] incoming;
+  private volatile boolean alive;
+
+  /**
+   * Creates a new network.
+   *
+   * @param myId the id of the party
+   * @param outgoing the links to each party, indexed by party id
+   * @param incoming the links from each party, indexed by party id
+   */
+  InMemoryNetwork(int myId, Link[] outgoing, Link[] incoming) {
+    this.myId = myId;
+    this.outgoing = outgoing;
+    this.incoming = incoming;
+    this.alive = true;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    inRange(partyId);
+    if (!alive) {
+      throw new RuntimeException(
+          "P" + myId + ": Unable to send to P" + partyId + ". Network closed");
+    }
+    if (!outgoing[partyId].send(Arrays.copyOf(data, data.length))) {
+      throw new RuntimeException(
+          "P" + myId + ": Unable to send to P" + partyId + ". Connection closed");
+    }
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    inRange(partyId);
+    Link link = incoming[partyId];
+    byte[] data = null;
+    while (data == null) {
+      if (!alive) {
+        throw new RuntimeException(
+            "P" + myId + ": Unable to receive from P" + partyId + ". Network closed");
+      }
+      if (link.isClosed() && !link.hasMessages()) {
+        throw new RuntimeException(
+            "P" + myId + ": Unable to receive from P" + partyId + ". Connection closed");
+      }
+      data = link.receive(RECEIVE_TIMEOUT_NANOS);
+    }
+    return data;
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return outgoing.length - 1;
+  }
+
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      for (int partyId = 1; partyId < outgoing.length; partyId++) {
+        outgoing[partyId].close();
+        incoming[partyId].close();
+      }
+    }
+  }
+
+  private void inRange(int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  /**
+   * A one-directional link between two parties, optionally simulating latency and limited
+   * bandwidth.
+   *
+   * <p>When simulating, each message is given the time at which it is delivered when it is sent.
+   * Messages are transmitted one at a time at the given bandwidth, so a message can not start
+   * before the previous message on the link is transmitted, and is delivered the given latency
+   * after it is transmitted. The receiver does not see a message before its delivery time. As the
+   * delivery times only depend on the send times and sizes of the messages the simulation is
+   * deterministic given the sending pattern, and independent of the speed of the receiver.</p>
+   */
+  static final class Link {
+
+    private final SpscRingBuffer<Message> buffer;
+    private final long latencyNanos;
+    private final double nanosPerByte;
+    private final boolean isSimulated;
+    private final Object sendLock;
+    private final Object receiveLock;
+    private long transmittedAt;
+
+    /**
+     * Creates a new link.
+     *
+     * @param capacity the maximum number of messages in transit
+     * @param latency the simulated latency
+     * @param bandwidth the simulated bandwidth in bytes per second, or {@link
+     *     InMemoryNetworkFactory#UNLIMITED_BANDWIDTH}
+     */
+    Link(int capacity, Duration latency, long bandwidth) {
+      this.buffer = new SpscRingBuffer<>(capacity);
+      this.latencyNanos = latency.toNanos();
+      this.nanosPerByte = bandwidth == InMemoryNetworkFactory.UNLIMITED_BANDWIDTH
+          ? 0.0 : 1e9 / bandwidth;
+      this.isSimulated = latencyNanos > 0 || nanosPerByte > 0;
+      this.sendLock = new Object();
+      this.receiveLock = new Object();
+    }
+
+    /**
+     * Sends a message, waiting if the maximum number of messages are in transit.
+     *
+     * @return false if the link is closed
+     */
+    boolean send(byte[] data) {
+      synchronized (sendLock) {
+        long deliveredAt = 0;
+        if (isSimulated) {
+          long start = Math.max(System.nanoTime(), transmittedAt);
+          transmittedAt = start + (long) (data.length * nanosPerByte);
+          deliveredAt = transmittedAt + latencyNanos;
+        }
+        try {
+          buffer.put(new Message(data, deliveredAt));
+          return true;
+        } catch (IllegalStateException e) {
+          return false;
+        }
+      }
+    }
+
+    /**
+     * Receives the next message, waiting at most the given time for it to be sent.
+     *
+     * @return the message or null if no message was sent in time
+     */
+    byte[] receive(long timeoutNanos) {
+      synchronized (receiveLock) {
+        Message message = buffer.awaitPeek(System.nanoTime() + timeoutNanos);
+        if (message == null) {
+          return null;
+        }
+        if (isSimulated) {
+          buffer.awaitTime(message.deliveredAt);
+        }
+        buffer.poll();
+        return message.data;
+      }
+    }
+
+    boolean hasMessages() {
+      return buffer.peek() != null;
+    }
+
+    boolean isClosed() {
+      return buffer.isClosed();
+    }
+
+    void close() {
+      buffer.close();
+    }
+  }
+
+  private static final class Message {
+
+    private final byte[] data;
+    private final long deliveredAt;
+
+    private Message(byte[] data, long deliveredAt) {
+      this.data = data;
+      this.deliveredAt = deliveredAt;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetwork.Link;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Creates networks connecting a number of parties running in the same process, without the use of
+ * sockets.
+ *
+ * <p>Messages are passed between the parties through bounded lock-free queues, one for each
+ * ordered pair of parties. This is intended for tests and benchmarks, where the overhead of the
+ * socket based networks would otherwise dominate the time spent in the protocols. Optionally, the
+ * links between different parties can simulate a given latency and bandwidth, in order to get an
+ * impression of how a protocol performs over a real network.</p>
+ *
+ * <p>A sender waits when the maximum number of messages are in transit to a party. A protocol
+ * sending more messages than this before receiving any will therefore deadlock, so the capacity
+ * should not be set too low.</p>
+ */
+public class InMemoryNetworkFactory {
+
+  /**
+   * The default maximum number of messages in transit from one party to another.
+   */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+  /**
+   * Indicates that no bandwidth limit should be simulated.
+   */
+  public static final long UNLIMITED_BANDWIDTH = Long.MAX_VALUE;
+  private final int noOfParties;
+  private final int capacity;
+  private final Duration latency;
+  private final long bandwidth;
+
+  /**
+   * Creates a factory for networks without simulated latency or bandwidth limit.
+   *
+   * @param noOfParties the number of parties
+   */
+  public InMemoryNetworkFactory(int noOfParties) {
+    this(noOfParties, Duration.ZERO, UNLIMITED_BANDWIDTH);
+  }
+
+  /**
+   * Creates a factory for networks simulating the given latency and bandwidth.
+   *
+   * @param noOfParties the number of parties
+   * @param latency the latency of messages between different parties
+   * @param bandwidth the bandwidth between each pair of parties in bytes per second, or {@link
+   *     #UNLIMITED_BANDWIDTH}
+   */
+  public InMemoryNetworkFactory(int noOfParties, Duration latency, long bandwidth) {
+    this(noOfParties, DEFAULT_CAPACITY, latency, bandwidth);
+  }
+
+  /**
+   * Creates a factory for networks simulating the given latency and bandwidth.
+   *
+   * @param noOfParties the number of parties
+   * @param capacity the maximum number of messages in transit from one party to another
+   * @param latency the latency of messages between different parties
+   * @param bandwidth the bandwidth between each pair of parties in bytes per second, or {@link
+   *     #UNLIMITED_BANDWIDTH}
+   */
+  public InMemoryNetworkFactory(int noOfParties, int capacity, Duration latency,
+      long bandwidth) {
+    if (noOfParties < 1) {
+      throw new IllegalArgumentException("Number of parties must be positive but was "
+          + noOfParties);
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+    }
+    if (Objects.requireNonNull(latency).isNegative()) {
+      throw new IllegalArgumentException("Latency must be non-negative but was " + latency);
+    }
+    if (bandwidth < 1) {
+      throw new IllegalArgumentException("Bandwidth must be positive but was " + bandwidth);
+    }
+    this.noOfParties = noOfParties;
+    this.capacity = capacity;
+    this.latency = latency;
+    this.bandwidth = bandwidth;
+  }
+
+  public int getNoOfParties() {
+    return noOfParties;
+  }
+
+  /**
+   * Creates a new set of connected networks, one for each party. Messages a party sends to itself
+   * are delivered without simulated latency or bandwidth limit.
+   *
+   * @return a map from party id to the network of that party
+   */
+  public Map<Integer, CloseableNetwork> createNetworks() {
+    Link[][] links = new Link[noOfParties + 1][noOfParties + 1];
+    for (int from = 1; from <= noOfParties; from++) {
+      for (int to = 1; to <= noOfParties; to++) {
+        links[from][to] = from == to
+            ? new Link(capacity, Duration.ZERO, UNLIMITED_BANDWIDTH)
+            : new Link(capacity, latency, bandwidth);
+      }
+    }
+    Map<Integer, CloseableNetwork> networks = new HashMap<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      Link[] incoming = new Link[noOfParties + 1];
+      for (int from = 1; from <= noOfParties; from++) {
+        incoming[from] = links[from][partyId];
+      }
+      networks.put(partyId, new InMemoryNetwork(partyId, links[partyId], incoming));
+    }
+    return networks;
+  }
+}
@@ -0,0 +1,201 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free queue for a single producer thread and a single consumer thread.
+ *
+ * <p>The elements are kept in a ring of slots indexed by two ever increasing counters, one written
+ * only by the producer and one written only by the consumer, so no locks or compare-and-set
+ * operations are needed. The blocking operations spin and yield briefly before parking, and the
+ * other side unparks a parked thread when it makes progress.</p>
+ *
+ * <p>The queue must only be used by one producer and one consumer at a time. Callers using the
+ * queue from more threads must ensure this by other means.</p>
+ *
+ * @param <T> the type of elements
+ */
+final class SpscRingBuffer<T> {
+
+  private static final int SPINS = 64;
+  private static final int YIELDS = 16;
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private final AtomicReferenceArray<T> slots;
+  private final int mask;
+  private final AtomicLong head;
+  private final AtomicLong tail;
+  private volatile boolean closed;
+  private volatile Thread parkedProducer;
+  private volatile Thread parkedConsumer;
+
+  /**
+   * Creates a new ring buffer.
+   *
+   * @param capacity the maximum number of elements in the buffer. Rounded up to a power of two.
+   */
+  SpscRingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be in range 1 ... 2^30 but was "
+          + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.head = new AtomicLong();
+    this.tail = new AtomicLong();
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an element if there is room for it.
+   *
+   * @param element the element to add
+   * @return true if the element was added, false if the buffer is full
+   */
+  boolean offer(T element) {
+    long currentTail = tail.get();
+    if (currentTail - head.get() > mask) {
+      return false;
+    }
+    slots.lazySet((int) currentTail & mask, element);
+    // a full volatile write, such that a consumer registering to be parked either sees the new
+    // element or is seen by us
+    tail.set(currentTail + 1);
+    wakeUp(parkedConsumer);
+    return true;
+  }
+
+  /**
+   * Returns the next element without removing it, or null if the buffer is empty.
+   */
+  T peek() {
+    long currentHead = head.get();
+    if (currentHead == tail.get()) {
+      return null;
+    }
+    return slots.get((int) currentHead & mask);
+  }
+
+  /**
+   * Removes and returns the next element, or returns null if the buffer is empty.
+   */
+  T poll() {
+    long currentHead = head.get();
+    if (currentHead == tail.get()) {
+      return null;
+    }
+    int index = (int) currentHead & mask;
+    T element = slots.get(index);
+    slots.lazySet(index, null);
+    head.set(currentHead + 1);
+    wakeUp(parkedProducer);
+    return element;
+  }
+
+  /**
+   * Adds an element, waiting for room if the buffer is full.
+   *
+   * @param element the element to add
+   * @throws IllegalStateException if the buffer is closed
+   */
+  void put(T element) {
+    int attempts = 0;
+    while (!closed) {
+      if (offer(element)) {
+        return;
+      }
+      attempts = backOff(attempts, true, Long.MAX_VALUE);
+    }
+    throw new IllegalStateException("Buffer is closed");
+  }
+
+  /**
+   * Waits for the next element without removing it.
+   *
+   * @param deadline the value of {@link System#nanoTime()} at which to give up waiting
+   * @return the next element, or null if the buffer is empty and either closed or the deadline has
+   *     passed
+   */
+  T awaitPeek(long deadline) {
+    int attempts = 0;
+    T element = peek();
+    while (element == null && !closed && deadline - System.nanoTime() > 0) {
+      attempts = backOff(attempts, false, deadline);
+      element = peek();
+    }
+    return element == null ? peek() : element;
+  }
+
+  /**
+   * Waits until the given time, returning early if the buffer is closed.
+   *
+   * @param deadline the value of {@link System#nanoTime()} to wait for
+   */
+  void awaitTime(long deadline) {
+    long remaining = deadline - System.nanoTime();
+    while (remaining > 0 && !closed) {
+      LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+      remaining = deadline - System.nanoTime();
+    }
+  }
+
+  /**
+   * Closes the buffer, waking up any waiting threads. Elements already in the buffer can still be
+   * removed.
+   */
+  void close() {
+    closed = true;
+    wakeUp(parkedProducer);
+    wakeUp(parkedConsumer);
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  private int backOff(int attempts, boolean isProducer, long deadline) {
+    if (attempts < SPINS) {
+      return attempts + 1;
+    }
+    if (attempts < SPINS + YIELDS) {
+      Thread.yield();
+      return attempts + 1;
+    }
+    // register before the final check, such that the other side will see us and unpark us
+    Thread current = Thread.currentThread();
+    if (isProducer) {
+      parkedProducer = current;
+      if (tail.get() - head.get() > mask && !closed) {
+        park(deadline);
+      }
+      parkedProducer = null;
+    } else {
+      parkedConsumer = current;
+      if (head.get() == tail.get() && !closed) {
+        park(deadline);
+      }
+      parkedConsumer = null;
+    }
+    return attempts;
+  }
+
+  private void park(long deadline) {
+    LockSupport.parkNanos(this, Math.max(0, Math.min(deadline - System.nanoTime(),
+        MAX_PARK_NANOS)));
+  }
+
+  private static void wakeUp(Thread thread) {
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+}
@@ -0,0 +1,507 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * As opposed to {@link SocketNetwork}, which uses two threads per external party, all
+ * communication is handled by a single selector thread operating on non-blocking
+ * {@link SocketChannel}s. Outgoing messages are queued by the calling thread and written by the
+ * selector thread using gathering writes, incoming messages are read into a direct buffer and
+ * handed to the receiving thread, which blocks until a message arrives.
+ * </p>
+ * <p>
+ * The message format is the same as for {@link SocketNetwork}, i.e., each message is prefixed by
+ * an integer indicating the byte length of the message, and a negative length signals that the
+ * sender has closed the connection.
+ * </p>
+ */
+public class NioNetwork implements CloseableNetwork {
+
+  private static final Logger logger = LoggerFactory.getLogger(NioNetwork.class);
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+  private static final int MAX_GATHER = 64;
+  private static final byte[] CLOSED = new byte[0];
+  private final NetworkConfiguration conf;
+  private final BlockingQueue<byte[]> selfQueue;
+  private final Map<Integer, Peer> peers;
+  private final CountDownLatch closeLatch;
+  private final Selector selector;
+  private final Thread thread;
+  private volatile boolean running;
+  private volatile boolean alive;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to sockets.
+   *
+   * <p>
+   * The mapping of party ids to sockets must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the sockets must be connected and open, and must have an associated
+   * {@link SocketChannel}, e.g., as made by a {@link Connector} using the factories returned by
+   * {@link #socketFactory()} and {@link #serverSocketFactory()}.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param socketMap a mapping from party ids to the socket to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code socketMap} and {@code conf} are inconsistent or
+   *     the sockets are not open, connected and backed by a channel.
+   */
+  public NioNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(socketMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!socketMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing socket for P" + i);
+      }
+      Socket s = socketMap.get(i);
+      if (s.isClosed()) {
+        throw new IllegalArgumentException("Closed socket for P" + i);
+      }
+      if (!s.isConnected()) {
+        throw new IllegalArgumentException("Unconnected socket for P" + i);
+      }
+      if (s.getChannel() == null) {
+        throw new IllegalArgumentException("Socket for P" + i + " has no channel");
+      }
+    }
+    this.conf = conf;
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.peers = new HashMap<>(conf.noOfParties() - 1);
+    this.alive = true;
+    if (conf.noOfParties() > 1) {
+      this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+      for (Entry<Integer, Socket> entry : socketMap.entrySet()) {
+        inRange(entry.getKey());
+        SocketChannel channel = entry.getValue().getChannel();
+        Peer peer = new Peer(entry.getKey(), channel);
+        peer.key = ExceptionConverter.safe(() -> {
+          channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+          channel.configureBlocking(false);
+          return channel.register(selector, SelectionKey.OP_READ, peer);
+        }, "Unable to register channel for P" + entry.getKey());
+        peers.put(entry.getKey(), peer);
+      }
+      this.closeLatch = new CountDownLatch(peers.size());
+      this.running = true;
+      this.thread = new Thread(this::run);
+      this.thread.setDaemon(true);
+      this.thread.setName("nio-network-P" + conf.getMyId());
+      this.thread.start();
+    } else {
+      this.selector = null;
+      this.closeLatch = null;
+      this.thread = null;
+    }
+  }
+
+  /**
+   * Creates a network connected by a {@link Connector} with the given timeout.
+   *
+   * @param conf the configuration to load the network from.
+   * @param timeout duration to wait for the network to connect
+   */
+  public NioNetwork(NetworkConfiguration conf, Duration timeout) {
+    this(conf, new Connector(conf, timeout, socketFactory(), serverSocketFactory())
+        .getSocketMap());
+  }
+
+  /**
+   * Default constructor using the default connection timeout of the {@link Connector}.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioNetwork(NetworkConfiguration conf) {
+    this(conf, Connector.DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      this.selfQueue.add(data);
+    } else {
+      inRange(partyId);
+      Peer peer = peers.get(partyId);
+      if (!alive || peer.failed) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Connection closed");
+      }
+      queue(peer, data);
+    }
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    inRange(partyId);
+    Peer peer = peers.get(partyId);
+    byte[] data = ExceptionConverter.safe(peer.incoming::take, "Receive interrupted");
+    if (data == CLOSED) {
+      // leave the marker for subsequent calls
+      peer.incoming.add(CLOSED);
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to receive from P" + partyId
+          + ". Connection closed");
+    }
+    return data;
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return conf.noOfParties();
+  }
+
+  /**
+   * Closes the network down and releases held resources. This will block until all pending
+   * messages have been written.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      if (conf.noOfParties() > 1) {
+        for (Peer peer : peers.values()) {
+          queue(peer, CLOSED);
+        }
+        ExceptionConverter.safe(() -> {
+          closeLatch.await();
+          running = false;
+          selector.wakeup();
+          thread.join();
+          for (Peer peer : peers.values()) {
+            peer.channel.close();
+            peer.incoming.add(CLOSED);
+          }
+          selector.close();
+          return null;
+        }, "Unable to properly close the network.");
+      }
+      logger.info("P{}: Network closed", conf.getMyId());
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  /**
+   * Gets a socket factory making sockets backed by a {@link SocketChannel}, suitable for use with
+   * this network.
+   *
+   * @return the socket factory
+   */
+  public static SocketFactory socketFactory() {
+    return new ChannelSocketFactory();
+  }
+
+  /**
+   * Gets a server socket factory making server sockets backed by a {@link ServerSocketChannel},
+   * suitable for use with this network.
+   *
+   * @return the server socket factory
+   */
+  public static ServerSocketFactory serverSocketFactory() {
+    return new ChannelServerSocketFactory();
+  }
+
+  private void queue(Peer peer, byte[] data) {
+    peer.outgoing.add(data);
+    if (peer.writeRequested.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        selector.select();
+        for (Peer peer : peers.values()) {
+          if (peer.writeRequested.get() && !peer.failed && !peer.isWriting()) {
+            write(peer);
+          }
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          Peer peer = (Peer) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            read(peer);
+          }
+          if (key.isValid() && key.isWritable()) {
+            write(peer);
+          }
+        }
+      }
+    } catch (Exception e) {
+      logger.error("P" + conf.getMyId() + ": Network failed unexpectedly", e);
+      for (Peer peer : peers.values()) {
+        fail(peer, e);
+      }
+    }
+  }
+
+  private void write(Peer peer) {
+    try {
+      while (true) {
+        if (!peer.isWriting() && !peer.fill()) {
+          peer.writeRequested.set(false);
+          if (peer.outgoing.isEmpty() || !peer.writeRequested.compareAndSet(false, true)) {
+            peer.setInterest(SelectionKey.OP_WRITE, false);
+            return;
+          }
+          continue;
+        }
+        peer.channel.write(peer.writing, peer.writingOffset,
+            peer.writingLength - peer.writingOffset);
+        while (peer.writingOffset < peer.writingLength
+            && !peer.writing[peer.writingOffset].hasRemaining()) {
+          peer.writingOffset++;
+        }
+        if (peer.isWriting()) {
+          peer.setInterest(SelectionKey.OP_WRITE, true);
+          return;
+        }
+        if (peer.closeWritten) {
+          peer.setInterest(SelectionKey.OP_WRITE, false);
+          done(peer);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  private void read(Peer peer) {
+    try {
+      ByteBuffer buffer = peer.readBuffer;
+      int read;
+      while ((read = peer.channel.read(peer.body == null ? buffer : peer.body)) > 0) {
+        if (peer.body != null) {
+          if (!peer.body.hasRemaining()) {
+            peer.incoming.add(peer.body.array());
+            peer.body = null;
+          }
+          continue;
+        }
+        buffer.flip();
+        while (peer.body == null && buffer.remaining() >= Integer.BYTES) {
+          int length = buffer.getInt(buffer.position());
+          if (length < 0) {
+            peer.setInterest(SelectionKey.OP_READ, false);
+            peer.incoming.add(CLOSED);
+            return;
+          }
+          buffer.position(buffer.position() + Integer.BYTES);
+          byte[] message = new byte[length];
+          int available = Math.min(length, buffer.remaining());
+          buffer.get(message, 0, available);
+          if (available == length) {
+            peer.incoming.add(message);
+          } else {
+            peer.body = ByteBuffer.wrap(message, available, length - available);
+          }
+        }
+        buffer.compact();
+      }
+      if (read < 0) {
+        peer.setInterest(SelectionKey.OP_READ, false);
+        peer.incoming.add(CLOSED);
+      }
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  private void fail(Peer peer, Exception e) {
+    if (!peer.failed) {
+      peer.failed = true;
+      if (alive) {
+        logger.error("P" + conf.getMyId() + ": Connection to P" + peer.id + " failed", e);
+      }
+      peer.key.cancel();
+      peer.incoming.add(CLOSED);
+      done(peer);
+    }
+  }
+
+  /**
+   * Marks that no more data will be written to a party.
+   */
+  private void done(Peer peer) {
+    if (!peer.done) {
+      peer.done = true;
+      closeLatch.countDown();
+    }
+  }
+
+  /**
+   * The state of the connection to a single external party.
+   */
+  private static class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final Queue<byte[]> outgoing;
+    private final BlockingQueue<byte[]> incoming;
+    private final AtomicBoolean writeRequested;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer headers;
+    private final ByteBuffer[] writing;
+    private SelectionKey key;
+    private int writingOffset;
+    private int writingLength;
+    private ByteBuffer body;
+    private boolean closeWritten;
+    private boolean done;
+    private volatile boolean failed;
+
+    private Peer(int id, SocketChannel channel) {
+      this.id = id;
+      this.channel = channel;
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.incoming = new LinkedBlockingQueue<>();
+      this.writeRequested = new AtomicBoolean(false);
+      this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+      this.headers = ByteBuffer.allocateDirect(Integer.BYTES * MAX_GATHER);
+      this.writing = new ByteBuffer[2 * MAX_GATHER];
+    }
+
+    private boolean isWriting() {
+      return writingOffset < writingLength;
+    }
+
+    /**
+     * Moves queued messages to the buffers to be written next.
+     *
+     * @return true if any messages were queued
+     */
+    private boolean fill() {
+      writingOffset = 0;
+      writingLength = 0;
+      headers.clear();
+      byte[] data;
+      while (writingLength < writing.length && !closeWritten
+          && (data = outgoing.poll()) != null) {
+        int position = headers.position();
+        headers.putInt(data == CLOSED ? -1 : data.length);
+        ByteBuffer header = headers.duplicate();
+        header.position(position);
+        header.limit(position + Integer.BYTES);
+        writing[writingLength++] = header;
+        if (data == CLOSED) {
+          closeWritten = true;
+        } else {
+          writing[writingLength++] = ByteBuffer.wrap(data);
+        }
+      }
+      return writingLength > 0;
+    }
+
+    private void setInterest(int operation, boolean enabled) {
+      if (key.isValid()) {
+        int ops = key.interestOps();
+        key.interestOps(enabled ? ops | operation : ops & ~operation);
+      }
+    }
+  }
+
+  /**
+   * Makes client sockets by connecting a {@link SocketChannel}.
+   */
+  private static class ChannelSocketFactory extends SocketFactory {
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      return createSocket(InetAddress.getByName(host), port, localHost, localPort);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+        int localPort) throws IOException {
+      SocketChannel channel = SocketChannel.open();
+      channel.bind(new InetSocketAddress(localAddress, localPort));
+      channel.connect(new InetSocketAddress(address, port));
+      return channel.socket();
+    }
+  }
+
+  /**
+   * Makes server sockets by binding a {@link ServerSocketChannel}. Sockets accepted by these are
+   * backed by a {@link SocketChannel}.
+   */
+  private static class ChannelServerSocketFactory extends ServerSocketFactory {
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+      return createServerSocket(port, 0, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+      return createServerSocket(port, backlog, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address)
+        throws IOException {
+      ServerSocketChannel channel = ServerSocketChannel.open();
+      channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      channel.bind(new InetSocketAddress(address, port), backlog);
+      return channel.socket();
+    }
+  }
+}
@@ -19,4 +19,15 @@ public interface BatchEvaluationStrategy<ResourcePoolT extends ResourcePool> {
   void processBatch(
       ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
       NetworkBatchDecorator network);
+
+  /**
+   * Tells whether this strategy evaluates the native protocols of a batch concurrently, which is
+   * only allowed for protocol suites supporting it, see {@link
+   * dk.alexandra.fresco.suite.ProtocolSuite#supportsConcurrentEvaluation()}.
+   *
+   * @return true if protocols are evaluated concurrently, false by default
+   */
+  default boolean evaluatesConcurrently() {
+    return false;
+  }
 }
@@ -34,6 +34,10 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
   public BatchedProtocolEvaluator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
       ProtocolSuite<ResourcePoolT, ?> protocolSuite, int maxBatchSize) {
+    if (batchEvaluator.evaluatesConcurrently() && !protocolSuite.supportsConcurrentEvaluation()) {
+      throw new IllegalArgumentException(protocolSuite.getClass().getSimpleName()
+          + " does not support evaluating native protocols concurrently");
+    }
     this.batchEvaluator = batchEvaluator;
     this.maxBatchSize = maxBatchSize;
     this.protocolSuite = protocolSuite;
@@ -49,23 +53,32 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, network);
     ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
         protocolSuite.createRoundSynchronization();
-    do {
-      ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
-      protocolProducer.getNextProtocols(protocols);
-      int size = protocols.size();
+    boolean finished = false;
+    try {
+      do {
+        ProtocolCollectionList<ResourcePoolT> protocols =
+            new ProtocolCollectionList<>(maxBatchSize);
+        protocolProducer.getNextProtocols(protocols);
+        int size = protocols.size();
 
-      roundSynchronization.beforeBatch(protocols, resourcePool, network);
-      batchEvaluator.processBatch(protocols, resourcePool, networkBatchDecorator);
-      logger.trace("Done evaluating batch: " + batch++ + " with " + size + " native protocols");
-      if (size == 0) {
-        logger.debug("Batch " + batch + " is empty");
-      }
-      totalProtocols += size;
-      totalBatches += 1;
-      roundSynchronization.finishedBatch(size, resourcePool, network);
-    } while (protocolProducer.hasNextProtocols());
+        roundSynchronization.beforeBatch(protocols, resourcePool, network);
+        batchEvaluator.processBatch(protocols, resourcePool, networkBatchDecorator);
+        logger.trace("Done evaluating batch: " + batch++ + " with " + size + " native protocols");
+        if (size == 0) {
+          logger.debug("Batch " + batch + " is empty");
+        }
+        totalProtocols += size;
+        totalBatches += 1;
+        roundSynchronization.finishedBatch(size, resourcePool, network);
+      } while (protocolProducer.hasNextProtocols());
 
-    roundSynchronization.finishedEval(resourcePool, network);
+      roundSynchronization.finishedEval(resourcePool, network);
+      finished = true;
+    } finally {
+      if (!finished) {
+        roundSynchronization.abortedEval(resourcePool, network);
+      }
+    }
     return new EvaluationStatistics(totalProtocols, totalBatches);
   }
 
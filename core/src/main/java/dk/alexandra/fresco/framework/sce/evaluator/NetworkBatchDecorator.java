@@ -1,10 +1,10 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Default network for the evaluators, this interface bridges the raw network4
@@ -12,35 +12,64 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br>
+ * Within a batch each message is framed by its length encoded as a varint, i.e., seven bits per
+ * byte, least significant group first, with the high bit set on all but the last byte. Messages
+ * shorter than 128 bytes thus carry a single byte of overhead. As the network takes ownership of
+ * the data sent, outgoing messages are only referenced until the next flush, where they are
+ * written once into an array of the exact size of the batch which is handed to the network.
+ * Incoming batches are sliced without copying when received through {@link #receiveBuffer(int)}.
+ * <br>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
-  private int noOfParties;
+  private final int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private final List<List<byte[]>> output;
+  private final int[] outputLength;
+  private final ByteBuffer[] input;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
     this.network = network;
-    this.output = new HashMap<>();
-    this.input = new HashMap<>();
+    this.output = new ArrayList<>(noOfParties + 1);
+    for (int i = 0; i <= noOfParties; i++) {
+      output.add(new ArrayList<>());
+    }
+    this.outputLength = new int[noOfParties + 1];
+    this.input = new ByteBuffer[noOfParties + 1];
   }
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
-      byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
-    }
+    ByteBuffer buffer = nextMessage(id);
+    return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset() + buffer.position(),
+        buffer.arrayOffset() + buffer.limit());
+  }
 
-    int count = byteInputStream.read();
-    byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
-    return bytes;
+  /**
+   * Receives the next message from a party as a read-only view of the data received for the
+   * current batch, i.e., without copying the message.
+   *
+   * @param id the party to receive from
+   * @return the message
+   */
+  @Override
+  public ByteBuffer receiveBuffer(int id) {
+    return nextMessage(id).asReadOnlyBuffer();
+  }
+
+  private ByteBuffer nextMessage(int id) {
+    ByteBuffer buffer = input[id];
+    if (buffer == null) {
+      buffer = ByteBuffer.wrap(network.receive(id));
+      input[id] = buffer;
+    }
+    int count = readLength(buffer);
+    ByteBuffer message = buffer.slice();
+    message.limit(count);
+    buffer.position(buffer.position() + count);
+    return message;
   }
 
   @Override
@@ -50,14 +79,8 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
-    }
-    buffer.write(data.length);
-    buffer.write(data, 0, data.length);
+    output.get(id).add(data);
+    outputLength[id] += lengthOfLength(data.length) + data.length;
   }
 
   /**
@@ -65,13 +88,80 @@ public class NetworkBatchDecorator implements Network {
    */
   public void flush() {
     for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
-        network.send(i, data);
+      List<byte[]> messages = output.get(i);
+      if (!messages.isEmpty()) {
+        ByteBuffer buffer = ByteBuffer.allocate(outputLength[i]);
+        for (byte[] message : messages) {
+          writeLength(buffer, message.length);
+          buffer.put(message);
+        }
+        network.send(i, buffer.array());
+        messages.clear();
+        outputLength[i] = 0;
+      }
+      input[i] = null;
+    }
+  }
+
+  /**
+   * Sends data directly on the underlying network, bypassing the buffering and framing of this
+   * decorator. Used by strategies that do their own framing of a batch.
+   *
+   * @param id the party to send data to
+   * @param data the data to send
+   */
+  void sendUnframed(int id, byte[] data) {
+    network.send(id, data);
+  }
+
+  /**
+   * Receives data directly from the underlying network, bypassing the buffering and framing of
+   * this decorator. Used by strategies that do their own framing of a batch.
+   *
+   * @param id the party to receive from
+   * @return the data received
+   */
+  byte[] receiveUnframed(int id) {
+    return network.receive(id);
+  }
+
+  private static int lengthOfLength(int length) {
+    int bytes = 1;
+    while ((length & ~0x7F) != 0) {
+      length >>>= 7;
+      bytes++;
+    }
+    return bytes;
+  }
+
+  private static void writeLength(ByteBuffer buffer, int length) {
+    while ((length & ~0x7F) != 0) {
+      buffer.put((byte) ((length & 0x7F) | 0x80));
+      length >>>= 7;
+    }
+    buffer.put((byte) length);
+  }
+
+  private static int readLength(ByteBuffer buffer) {
+    int length = 0;
+    int shift = 0;
+    byte b;
+    do {
+      if (!buffer.hasRemaining()) {
+        throw new IllegalStateException("Malformed batch: truncated message length");
+      }
+      b = buffer.get();
+      if (shift == 28 && (b & ~0x07) != 0) {
+        // The fifth byte holds the top bits of a non-negative int and ends the length
+        throw new IllegalStateException("Malformed batch: message length exceeds 2^31 - 1");
       }
-      output.remove(i);
+      length |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    if (length > buffer.remaining()) {
+      throw new IllegalStateException("Malformed batch: message length " + length
+          + " exceeds the " + buffer.remaining() + " remaining bytes");
     }
-    input.clear();
+    return length;
   }
 }
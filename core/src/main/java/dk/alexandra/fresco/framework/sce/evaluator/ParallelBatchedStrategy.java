@@ -0,0 +1,271 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.OrderedResourceAccess;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A batched strategy that evaluates the native protocols of a batch concurrently. The round
+ * structure is the same as in {@link BatchedStrategy}, but each batch is split into partitions of
+ * consecutive protocols which are evaluated in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * Each partition buffers its own outgoing messages. At the end of a round the buffers are merged
+ * in partition order, each prefixed with its length, and sent as a single message per party. The
+ * receiving party splits the message in the same way and hands each partition its own part. Since
+ * a partition is determined only by the position of a protocol in the batch and the partition
+ * size, the layout is the same for all parties regardless of the number of threads used locally.
+ * All parties must however use this strategy with the same partition size.
+ * </p>
+ * <p>
+ * Native protocols are evaluated concurrently, so this strategy can only be used with protocol
+ * suites that {@link dk.alexandra.fresco.suite.ProtocolSuite#supportsConcurrentEvaluation()
+ * support it}, which is checked by the {@link BatchedProtocolEvaluator}. Protocols which must use
+ * the resource pool in the same order at all parties, e.g. when fetching preprocessed material,
+ * implement {@link OrderedResourceAccess}. Before a round is evaluated concurrently, such
+ * protocols are given the resource pool one at a time in the order of the batch, and likewise
+ * after the round.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int DEFAULT_PARTITION_SIZE = 256;
+  private final ForkJoinPool pool;
+  private final int partitionSize;
+
+  /**
+   * Creates a new strategy evaluating on the common {@link ForkJoinPool} with the default
+   * partition size.
+   */
+  public ParallelBatchedStrategy() {
+    this(ForkJoinPool.commonPool(), DEFAULT_PARTITION_SIZE);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param pool the pool to evaluate partitions on
+   * @param partitionSize the maximum number of native protocols in a partition, this must be the
+   *     same for all parties
+   */
+  public ParallelBatchedStrategy(ForkJoinPool pool, int partitionSize) {
+    if (partitionSize < 1) {
+      throw new IllegalArgumentException("Partition size must be positive, was " + partitionSize);
+    }
+    this.pool = pool;
+    this.partitionSize = partitionSize;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    int noOfPartitions = (protocols.size() + partitionSize - 1) / partitionSize;
+    Incoming incoming = new Incoming(networkBatchDecorator, noOfPartitions);
+    List<Partition<ResourcePoolT>> partitions =
+        partition(protocols, noOfPartitions, networkBatchDecorator.getNoOfParties(), incoming);
+    int round = 0;
+    while (evaluateCurrentRound(partitions, resourcePool, round)) {
+      flush(partitions, networkBatchDecorator);
+      incoming.clear();
+      round++;
+    }
+  }
+
+  private List<Partition<ResourcePoolT>> partition(ProtocolCollection<ResourcePoolT> protocols,
+      int noOfPartitions, int noOfParties, Incoming incoming) {
+    List<Partition<ResourcePoolT>> partitions = new ArrayList<>(noOfPartitions);
+    Partition<ResourcePoolT> current = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (current == null || current.protocols.size() == partitionSize) {
+        current = new Partition<>(partitions.size(), noOfParties, incoming, partitionSize);
+        partitions.add(current);
+      }
+      current.protocols.add(protocol);
+    }
+    return partitions;
+  }
+
+  /**
+   * Evaluates the current round of all partitions that still hold protocols.
+   *
+   * @return true if any protocols were evaluated in this round
+   */
+  private boolean evaluateCurrentRound(List<Partition<ResourcePoolT>> partitions,
+      ResourcePoolT resourcePool, int round) {
+    List<Partition<ResourcePoolT>> active = new ArrayList<>(partitions.size());
+    for (Partition<ResourcePoolT> partition : partitions) {
+      if (!partition.protocols.isEmpty()) {
+        active.add(partition);
+      }
+    }
+    for (Partition<ResourcePoolT> partition : active) {
+      partition.beforeRound(round, resourcePool);
+    }
+    if (active.size() == 1) {
+      active.get(0).evaluate(round, resourcePool);
+    } else if (active.size() > 1) {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(active.size());
+      for (Partition<ResourcePoolT> partition : active) {
+        tasks.add(pool.submit(() -> partition.evaluate(round, resourcePool)));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    }
+    for (Partition<ResourcePoolT> partition : active) {
+      partition.afterRound(round, resourcePool);
+    }
+    return !active.isEmpty();
+  }
+
+  @Override
+  public boolean evaluatesConcurrently() {
+    return true;
+  }
+
+  private void flush(List<Partition<ResourcePoolT>> partitions, NetworkBatchDecorator network) {
+    for (int partyId = 1; partyId <= network.getNoOfParties(); partyId++) {
+      int length = 0;
+      boolean hasData = false;
+      for (Partition<ResourcePoolT> partition : partitions) {
+        byte[] data = partition.outgoing.get(partyId);
+        if (data != null) {
+          hasData = true;
+          length += data.length;
+        }
+        length += Integer.BYTES;
+      }
+      if (hasData) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (Partition<ResourcePoolT> partition : partitions) {
+          byte[] data = partition.outgoing.get(partyId);
+          if (data == null) {
+            buffer.putInt(0);
+          } else {
+            buffer.putInt(data.length);
+            buffer.put(data);
+          }
+        }
+        network.sendUnframed(partyId, buffer.array());
+      }
+    }
+    for (Partition<ResourcePoolT> partition : partitions) {
+      partition.outgoing.clear();
+    }
+  }
+
+  /**
+   * A set of consecutive protocols of a batch along with a network view of its own.
+   */
+  private static class Partition<ResourcePoolT extends ResourcePool> implements Network {
+
+    private final int index;
+    private final int noOfParties;
+    private final Incoming incoming;
+    private final List<NativeProtocol<?, ResourcePoolT>> protocols;
+    private final Map<Integer, byte[]> outgoing;
+    private final NetworkBatchDecorator network;
+    private boolean[] done;
+
+    private Partition(int index, int noOfParties, Incoming incoming, int capacity) {
+      this.index = index;
+      this.noOfParties = noOfParties;
+      this.incoming = incoming;
+      this.protocols = new ArrayList<>(capacity);
+      this.outgoing = new HashMap<>();
+      this.network = new NetworkBatchDecorator(noOfParties, this);
+    }
+
+    private void beforeRound(int round, ResourcePoolT resourcePool) {
+      for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+        if (protocol instanceof OrderedResourceAccess) {
+          ((OrderedResourceAccess<ResourcePoolT>) protocol).beforeRound(round, resourcePool);
+        }
+      }
+    }
+
+    private void evaluate(int round, ResourcePoolT resourcePool) {
+      done = new boolean[protocols.size()];
+      for (int i = 0; i < protocols.size(); i++) {
+        EvaluationStatus status = protocols.get(i).evaluate(round, resourcePool, network);
+        done[i] = status.equals(EvaluationStatus.IS_DONE);
+      }
+      network.flush();
+    }
+
+    private void afterRound(int round, ResourcePoolT resourcePool) {
+      Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+      for (int i = 0; iterator.hasNext(); i++) {
+        NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+        if (protocol instanceof OrderedResourceAccess) {
+          ((OrderedResourceAccess<ResourcePoolT>) protocol).afterRound(round, resourcePool);
+        }
+        if (done[i]) {
+          iterator.remove();
+        }
+      }
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      outgoing.put(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return incoming.get(partyId, index);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return noOfParties;
+    }
+  }
+
+  /**
+   * The data received in the current round, split into the parts belonging to each partition.
+   * Data from a party is only received once a partition asks for it.
+   */
+  private static class Incoming {
+
+    private final NetworkBatchDecorator network;
+    private final int noOfPartitions;
+    private final Map<Integer, byte[][]> received;
+
+    private Incoming(NetworkBatchDecorator network, int noOfPartitions) {
+      this.network = network;
+      this.noOfPartitions = noOfPartitions;
+      this.received = new HashMap<>();
+    }
+
+    private synchronized byte[] get(int partyId, int partition) {
+      byte[][] parts = received.get(partyId);
+      if (parts == null) {
+        ByteBuffer buffer = ByteBuffer.wrap(network.receiveUnframed(partyId));
+        parts = new byte[noOfPartitions][];
+        for (int i = 0; i < noOfPartitions; i++) {
+          parts[i] = new byte[buffer.getInt()];
+          buffer.get(parts[i]);
+        }
+        received.put(partyId, parts);
+      }
+      return parts[partition];
+    }
+
+    private synchronized void clear() {
+      received.clear();
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A batched strategy that overlaps the network communication of each round with local
+ * computation.
+ * <p>
+ * The batch is split into a bounded number of stages of consecutive protocols, which are all
+ * evaluated round by round like in {@link BatchedStrategy}. However, each stage sends its own
+ * messages as soon as it has evaluated a round, before the next stage evaluates the same round.
+ * Hence the messages of the first stages are in flight while the last stages compute, and by the
+ * time the first stage evaluates the next round the messages it waits for have typically already
+ * arrived. All stages evaluate the same round in each step, so the batch still takes the same
+ * number of round trips as with {@link BatchedStrategy}. With a single stage the two strategies
+ * are the same.
+ * </p>
+ * <p>
+ * The next batch cannot be fetched while the messages of a batch are in flight, as the protocol
+ * producer may build it from the outputs of the current batch. Raising the maximum batch size of
+ * the evaluator gives the stages more work to overlap.
+ * </p>
+ * <p>
+ * All parties evaluate the stages in the same order, so messages are sent and received in the same
+ * order as well. This requires that all parties use the same number of stages. As opposed to
+ * {@link ParallelBatchedStrategy} everything is evaluated on the calling thread and the resource
+ * pool is accessed in a deterministic order, so this strategy can be used with any protocol suite.
+ * </p>
+ */
+public class PipelinedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int DEFAULT_STAGES = 4;
+  private final int stages;
+
+  /**
+   * Creates a new strategy splitting each batch into the default number of stages.
+   */
+  public PipelinedStrategy() {
+    this(DEFAULT_STAGES);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param stages the maximum number of stages a batch is split into, i.e., the maximum number of
+   *     messages in flight to each party. This must be the same for all parties
+   */
+  public PipelinedStrategy(int stages) {
+    if (stages < 1) {
+      throw new IllegalArgumentException("Number of stages must be positive, was " + stages);
+    }
+    this.stages = stages;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    List<Stage<ResourcePoolT>> pipeline = split(protocols, networkBatchDecorator);
+    int round = 0;
+    boolean active = true;
+    while (active) {
+      active = false;
+      for (Stage<ResourcePoolT> stage : pipeline) {
+        if (!stage.protocols.isEmpty()) {
+          stage.evaluate(round, resourcePool);
+          active = true;
+        }
+      }
+      round++;
+    }
+  }
+
+  private List<Stage<ResourcePoolT>> split(ProtocolCollection<ResourcePoolT> protocols,
+      NetworkBatchDecorator network) {
+    int stageSize = Math.max(1, (protocols.size() + stages - 1) / stages);
+    Network unframed = new Unframed(network);
+    List<Stage<ResourcePoolT>> pipeline = new ArrayList<>(stages);
+    Stage<ResourcePoolT> current = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (current == null || current.protocols.size() == stageSize) {
+        current = new Stage<>(new NetworkBatchDecorator(network.getNoOfParties(), unframed),
+            stageSize);
+        pipeline.add(current);
+      }
+      current.protocols.add(protocol);
+    }
+    return pipeline;
+  }
+
+  /**
+   * A set of consecutive protocols of a batch with its own message buffers.
+   */
+  private static class Stage<ResourcePoolT extends ResourcePool> {
+
+    private final NetworkBatchDecorator network;
+    private final List<NativeProtocol<?, ResourcePoolT>> protocols;
+
+    private Stage(NetworkBatchDecorator network, int capacity) {
+      this.network = network;
+      this.protocols = new ArrayList<>(capacity);
+    }
+
+    private void evaluate(int round, ResourcePoolT resourcePool) {
+      Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+      while (iterator.hasNext()) {
+        NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+        EvaluationStatus status = protocol.evaluate(round, resourcePool, network);
+        if (status.equals(EvaluationStatus.IS_DONE)) {
+          iterator.remove();
+        }
+      }
+      network.flush();
+    }
+  }
+
+  /**
+   * Gives the stages direct access to the network underlying the decorator given to the strategy.
+   */
+  private static class Unframed implements Network {
+
+    private final NetworkBatchDecorator network;
+
+    private Unframed(NetworkBatchDecorator network) {
+      this.network = network;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      network.sendUnframed(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receiveUnframed(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+}
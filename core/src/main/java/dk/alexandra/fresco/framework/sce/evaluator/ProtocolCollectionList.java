@@ -2,16 +2,20 @@ package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.builder.ComputationTrace;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
     implements ProtocolCollection<ResourcePoolT> {
 
   private int capacity;
   private List<NativeProtocol<?, ResourcePoolT>> protocols;
+  private Map<NativeProtocol<?, ResourcePoolT>, ComputationTrace> traces;
 
   public ProtocolCollectionList(int capacity) {
     this.capacity = capacity;
@@ -23,6 +27,26 @@ public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
     protocols.add(protocol);
   }
 
+  @Override
+  public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol, ComputationTrace trace) {
+    addProtocol(protocol);
+    if (traces == null) {
+      traces = new IdentityHashMap<>();
+    }
+    traces.put(protocol, trace);
+  }
+
+  /**
+   * Gets the computation trace a protocol was added with.
+   *
+   * @param protocol a protocol of this collection
+   * @return the trace or {@link ComputationTrace#root()} if the protocol was added without a trace
+   */
+  public ComputationTrace getTrace(NativeProtocol<?, ResourcePoolT> protocol) {
+    ComputationTrace trace = traces == null ? null : traces.get(protocol);
+    return trace == null ? ComputationTrace.root() : trace;
+  }
+
   @Override
   public boolean hasFreeCapacity() {
     return protocols.size() < capacity;
@@ -4,6 +4,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.builder.ComputationTrace;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 
 /**
@@ -12,11 +13,13 @@ import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
 
   private NativeProtocol<T, ?> protocol;
+  private final ComputationTrace trace;
   private boolean evaluated = false;
   private T result;
 
   public SingleProtocolProducer(NativeProtocol<T, ?> protocol) {
     this.protocol = protocol;
+    this.trace = ComputationTrace.isEnabled() ? ComputationTrace.current() : null;
   }
 
   @SuppressWarnings({"unchecked"})
@@ -24,7 +27,11 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
   public <ResourcePoolT extends ResourcePool> void getNextProtocols(
       ProtocolCollection<ResourcePoolT> protocolCollection) {
     evaluated = true;
-    protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
+    if (trace == null) {
+      protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
+    } else {
+      protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol, trace);
+    }
   }
 
   @Override
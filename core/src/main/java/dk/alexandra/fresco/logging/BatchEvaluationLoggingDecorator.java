@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.logging.MetricsRegistry.Counter;
+import dk.alexandra.fresco.logging.MetricsRegistry.Histogram;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,8 +16,12 @@ public class BatchEvaluationLoggingDecorator<ResourcePoolT extends ResourcePool>
   public static final String BATCH_NATIVE_PROTOCOLS = "TOTAL_AMOUNT";
   public static final String BATCH_MIN_PROTOCOLS = "MIN_AMOUNT_PER_BATCH";
   public static final String BATCH_MAX_PROTOCOLS = "MAX_AMOUNT_PER_BATCH";
-  
+  public static final String BATCH_NANOS = "BATCH_EVALUATION_NANOS";
+
   private BatchEvaluationStrategy<ResourcePoolT> delegate;
+  private final Counter batchCounter;
+  private final Counter protocolCounter;
+  private final Histogram batchNanos;
   private long counter = 0;
   private long noNativeProtocols = 0;
   private long minNoNativeProtocolsPerBatch = Integer.MAX_VALUE;
@@ -23,7 +29,24 @@ public class BatchEvaluationLoggingDecorator<ResourcePoolT extends ResourcePool>
 
   public BatchEvaluationLoggingDecorator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluation) {
+    this(batchEvaluation, MetricsRegistry.noop());
+  }
+
+  /**
+   * Creates a decorator which also reports live to a metrics registry. The number of batches and
+   * native protocols are counted in the counters named {@link #BATCH_COUNTER} and {@link
+   * #BATCH_NATIVE_PROTOCOLS}, and the time it takes to evaluate each batch is recorded in the
+   * histogram named {@link #BATCH_NANOS}.
+   *
+   * @param batchEvaluation the strategy to decorate
+   * @param metrics the registry to report to
+   */
+  public BatchEvaluationLoggingDecorator(
+      BatchEvaluationStrategy<ResourcePoolT> batchEvaluation, MetricsRegistry metrics) {
     this.delegate = batchEvaluation;
+    this.batchCounter = metrics.counter(BATCH_COUNTER);
+    this.protocolCounter = metrics.counter(BATCH_NATIVE_PROTOCOLS);
+    this.batchNanos = metrics.histogram(BATCH_NANOS);
   }
 
   @Override
@@ -39,7 +62,16 @@ public class BatchEvaluationLoggingDecorator<ResourcePoolT extends ResourcePool>
     if (maxNoNativeProtocolsPerBatch < size) {
       maxNoNativeProtocolsPerBatch = size;
     }
+    batchCounter.increment();
+    protocolCounter.add(size);
+    long then = System.nanoTime();
     delegate.processBatch(protocols, resourcePool, network);
+    batchNanos.record(System.nanoTime() - then);
+  }
+
+  @Override
+  public boolean evaluatesConcurrently() {
+    return delegate.evaluatesConcurrently();
   }
 
   @Override
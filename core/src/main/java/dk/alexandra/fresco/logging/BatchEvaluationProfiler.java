@@ -0,0 +1,355 @@
+package dk.alexandra.fresco.logging;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.OrderedResourceAccess;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.builder.ComputationTrace;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * A batch evaluation strategy decorator attributing the thread CPU time, rounds and bytes sent of
+ * each native protocol to the class of the protocol and to the computations that appended it.
+ *
+ * <p>A profiler enables {@link ComputationTrace tracing} of computations until it is {@link
+ * #close() closed}. The results can be read as logged values per native protocol class, or as
+ * folded stacks per computation trace that can be given directly to flame graph tools.</p>
+ *
+ * <p>The CPU time of each evaluating thread is measured once per round, i.e., when the thread
+ * starts evaluating a new round or the batch is done, and split evenly between the protocols the
+ * thread evaluated in the round. Reading the clock around each call to {@link
+ * NativeProtocol#evaluate} would cost more than evaluating most protocols. The elapsed time would
+ * include the time spent waiting for messages, as the {@link NetworkBatchDecorator} only receives
+ * the batch of another party when a protocol first reads a message from it, which would then be
+ * charged to that protocol. Only bytes sent to other parties are counted.</p>
+ *
+ * @param <ResourcePoolT> The resource pool type to use
+ */
+public class BatchEvaluationProfiler<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT>, PerformanceLogger, Closeable {
+
+  public static final String PROFILE_PROTOCOLS = "NATIVE_PROTOCOLS_";
+  public static final String PROFILE_THREAD_CPU_NANOS = "THREAD_CPU_NANOS_";
+  public static final String PROFILE_ROUNDS = "ROUNDS_";
+  public static final String PROFILE_BYTES_SENT = "BYTES_SENT_";
+
+  /**
+   * The measurements available as folded stacks.
+   */
+  public enum Metric {
+    PROTOCOLS(stats -> stats.protocols),
+    THREAD_CPU_NANOS(stats -> stats.cpuNanos),
+    ROUNDS(stats -> stats.rounds),
+    BYTES_SENT(stats -> stats.bytesSent);
+
+    private final ToLongFunction<Stats> value;
+
+    Metric(ToLongFunction<Stats> value) {
+      this.value = value;
+    }
+  }
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  private final BatchEvaluationStrategy<ResourcePoolT> delegate;
+  private final ConcurrentMap<ComputationTrace, ConcurrentMap<Class<?>, Stats>> stats;
+  private final Queue<Round> rounds;
+  private final ThreadLocal<Round> currentRound;
+  private final boolean tracingWasEnabled;
+  private boolean closed;
+
+  /**
+   * Creates a new profiler.
+   *
+   * @param delegate the strategy evaluating the batches
+   * @throws UnsupportedOperationException if the JVM cannot measure the CPU time of a thread
+   */
+  public BatchEvaluationProfiler(BatchEvaluationStrategy<ResourcePoolT> delegate) {
+    if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+      throw new UnsupportedOperationException("Profiling requires thread CPU time measurement");
+    }
+    THREADS.setThreadCpuTimeEnabled(true);
+    this.delegate = delegate;
+    this.stats = new ConcurrentHashMap<>();
+    this.rounds = new ConcurrentLinkedQueue<>();
+    this.currentRound = ThreadLocal.withInitial(() -> {
+      Round round = new Round(Thread.currentThread().getId());
+      rounds.add(round);
+      return round;
+    });
+    this.tracingWasEnabled = ComputationTrace.isEnabled();
+    ComputationTrace.setEnabled(true);
+  }
+
+  /**
+   * Restores tracing of computations to what it was when the profiler was created. Profilers
+   * should thus be closed in the reverse order of creation.
+   */
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      ComputationTrace.setEnabled(tracingWasEnabled);
+    }
+  }
+
+  @Override
+  public void processBatch(ProtocolCollection<ResourcePoolT> protocols,
+      ResourcePoolT resourcePool, NetworkBatchDecorator network) {
+    ProtocolCollectionList<ResourcePoolT> profiled = new ProtocolCollectionList<>(protocols.size());
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      ComputationTrace trace = protocols instanceof ProtocolCollectionList
+          ? ((ProtocolCollectionList<ResourcePoolT>) protocols).getTrace(protocol)
+          : ComputationTrace.root();
+      profiled.addProtocol(new ProfiledProtocol<>(protocol, getStats(trace, protocol.getClass()),
+          currentRound));
+    }
+    try {
+      delegate.processBatch(profiled, resourcePool, network);
+    } finally {
+      // the threads evaluating the batch are done, so the time until now is spent on their last
+      // rounds
+      for (Round round : rounds) {
+        round.end(THREADS.getThreadCpuTime(round.threadId));
+      }
+    }
+  }
+
+  @Override
+  public boolean evaluatesConcurrently() {
+    return delegate.evaluatesConcurrently();
+  }
+
+  private Stats getStats(ComputationTrace trace, Class<?> protocolClass) {
+    return stats.computeIfAbsent(trace, t -> new ConcurrentHashMap<>())
+        .computeIfAbsent(protocolClass, c -> new Stats());
+  }
+
+  @Override
+  public void reset() {
+    stats.clear();
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    for (Map<Class<?>, Stats> perClass : stats.values()) {
+      for (Map.Entry<Class<?>, Stats> entry : perClass.entrySet()) {
+        String name = ComputationTrace.nameOf(entry.getKey());
+        Stats stats = entry.getValue();
+        synchronized (stats) {
+          values.merge(PROFILE_PROTOCOLS + name, stats.protocols, Long::sum);
+          values.merge(PROFILE_THREAD_CPU_NANOS + name, stats.cpuNanos, Long::sum);
+          values.merge(PROFILE_ROUNDS + name, stats.rounds, Long::sum);
+          values.merge(PROFILE_BYTES_SENT + name, stats.bytesSent, Long::sum);
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Gets the measurements in the folded stack format used by flame graph tools. Each line holds
+   * the names of the nested computations and the native protocol class separated by semicolons,
+   * followed by a space and the measured value.
+   *
+   * @param metric the measurement to output
+   * @return a line for each combination of computation trace and native protocol class
+   */
+  public List<String> getFoldedStacks(Metric metric) {
+    List<String> lines = new ArrayList<>();
+    for (Map.Entry<ComputationTrace, ConcurrentMap<Class<?>, Stats>> perTrace : stats.entrySet()) {
+      String prefix = perTrace.getKey().isRoot() ? "" : perTrace.getKey() + ";";
+      for (Map.Entry<Class<?>, Stats> entry : perTrace.getValue().entrySet()) {
+        long value;
+        synchronized (entry.getValue()) {
+          value = metric.value.applyAsLong(entry.getValue());
+        }
+        lines.add(prefix + ComputationTrace.nameOf(entry.getKey()) + " " + value);
+      }
+    }
+    return lines;
+  }
+
+  private static final class Stats {
+
+    private long protocols;
+    private long cpuNanos;
+    private long rounds;
+    private long bytesSent;
+
+    private synchronized void record(long cpuNanos, long rounds, long bytesSent) {
+      this.protocols++;
+      this.cpuNanos += cpuNanos;
+      this.rounds += rounds;
+      this.bytesSent += bytesSent;
+    }
+  }
+
+  /**
+   * The protocols evaluated by a thread in its current round, which share the CPU time the thread
+   * spends until it starts the next round.
+   */
+  private static final class Round {
+
+    private final long threadId;
+    private final List<ProfiledProtocol<?>> protocols;
+    private int round;
+    private long start;
+
+    private Round(long threadId) {
+      this.threadId = threadId;
+      this.protocols = new ArrayList<>();
+    }
+
+    /**
+     * Called by the thread of this before evaluating a protocol in the given round.
+     */
+    private synchronized void enter(int round, ProfiledProtocol<?> protocol) {
+      if (protocols.isEmpty()) {
+        this.start = THREADS.getCurrentThreadCpuTime();
+      } else if (round != this.round) {
+        long now = THREADS.getCurrentThreadCpuTime();
+        end(now);
+        this.start = now;
+      }
+      this.round = round;
+      protocols.add(protocol);
+    }
+
+    /**
+     * Splits the CPU time spent by the thread since the round started between its protocols.
+     *
+     * @param now the CPU time of the thread, or -1 if the thread is no longer alive
+     */
+    private synchronized void end(long now) {
+      if (protocols.isEmpty()) {
+        return;
+      }
+      long share = now < start ? 0 : (now - start) / protocols.size();
+      for (ProfiledProtocol<?> protocol : protocols) {
+        protocol.charge(share);
+      }
+      protocols.clear();
+    }
+  }
+
+  /**
+   * Measures a native protocol while it is being evaluated. The protocol is given this as its
+   * network in order to count the bytes it sends to other parties, and the measurements are
+   * recorded when the protocol is done and the CPU time of all its rounds has been charged.
+   */
+  private static final class ProfiledProtocol<ResourcePoolT extends ResourcePool>
+      implements NativeProtocol<Object, ResourcePoolT>, OrderedResourceAccess<ResourcePoolT>,
+      Network {
+
+    private final NativeProtocol<?, ResourcePoolT> protocol;
+    private final Stats stats;
+    private final ThreadLocal<Round> currentRound;
+    private Network network;
+    private int myId;
+    private long cpuNanos;
+    private long rounds;
+    private long bytesSent;
+    private int unchargedRounds;
+    private boolean done;
+
+    private ProfiledProtocol(NativeProtocol<?, ResourcePoolT> protocol, Stats stats,
+        ThreadLocal<Round> currentRound) {
+      this.protocol = protocol;
+      this.stats = stats;
+      this.currentRound = currentRound;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolT resourcePool, Network network) {
+      this.network = network;
+      this.myId = resourcePool.getMyId();
+      synchronized (this) {
+        unchargedRounds++;
+      }
+      currentRound.get().enter(round, this);
+      EvaluationStatus status = protocol.evaluate(round, resourcePool, this);
+      this.network = null;
+      synchronized (this) {
+        rounds++;
+        done = status == EvaluationStatus.IS_DONE;
+        recordIfCharged();
+      }
+      return status;
+    }
+
+    /**
+     * Charges the CPU time of one of the rounds. The rounds may be evaluated by different threads,
+     * which may charge them in any order.
+     */
+    private synchronized void charge(long cpuNanos) {
+      this.cpuNanos += cpuNanos;
+      unchargedRounds--;
+      recordIfCharged();
+    }
+
+    private void recordIfCharged() {
+      if (done && unchargedRounds == 0) {
+        stats.record(cpuNanos, rounds, bytesSent);
+      }
+    }
+
+    @Override
+    public void beforeRound(int round, ResourcePoolT resourcePool) {
+      if (protocol instanceof OrderedResourceAccess) {
+        ((OrderedResourceAccess<ResourcePoolT>) protocol).beforeRound(round, resourcePool);
+      }
+    }
+
+    @Override
+    public void afterRound(int round, ResourcePoolT resourcePool) {
+      if (protocol instanceof OrderedResourceAccess) {
+        ((OrderedResourceAccess<ResourcePoolT>) protocol).afterRound(round, resourcePool);
+      }
+    }
+
+    @Override
+    public Object out() {
+      return protocol.out();
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (partyId != myId) {
+        bytesSent += data.length;
+      }
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receive(partyId);
+    }
+
+    @Override
+    public ByteBuffer receiveBuffer(int partyId) {
+      return network.receiveBuffer(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+}
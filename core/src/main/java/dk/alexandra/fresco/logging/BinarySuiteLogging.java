@@ -56,6 +56,11 @@ public class BinarySuiteLogging<ResourcePoolT extends ResourcePool>
     return delegateSuite.createRoundSynchronization();
   }
 
+  @Override
+  public boolean supportsConcurrentEvaluation() {
+    return delegateSuite.supportsConcurrentEvaluation();
+  }
+
   @Override
   public void reset() {
     aggregate.reset();
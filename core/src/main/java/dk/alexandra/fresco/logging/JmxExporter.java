@@ -0,0 +1,145 @@
+package dk.alexandra.fresco.logging;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Exports the values of a {@link PerformanceLogger}, typically a {@link MetricsRegistry}, as the
+ * attributes of an MBean, such that they can be monitored live with any JMX client.
+ *
+ * <p>The MBean is registered with the platform MBean server under the name
+ * <code>dk.alexandra.fresco:type=PerformanceLogger,name=&lt;name&gt;</code> when the exporter is
+ * created, and unregistered when it is closed. Each logged value is a read-only attribute of type
+ * long, read from the logger whenever the attribute is read. The MBean also has a
+ * <code>reset</code> operation resetting the logger.</p>
+ */
+public class JmxExporter implements DynamicMBean, Closeable {
+
+  public static final String DOMAIN = "dk.alexandra.fresco";
+  private static final String RESET = "reset";
+  private final PerformanceLogger logger;
+  private final MBeanServer server;
+  private final ObjectName objectName;
+
+  /**
+   * Exports a performance logger with the platform MBean server.
+   *
+   * @param logger the logger to export
+   * @param name the name of the MBean, e.g. identifying the party
+   */
+  public JmxExporter(PerformanceLogger logger, String name) {
+    this(logger, name, ManagementFactory.getPlatformMBeanServer());
+  }
+
+  /**
+   * Exports a performance logger with the given MBean server.
+   *
+   * @param logger the logger to export
+   * @param name the name of the MBean, e.g. identifying the party
+   * @param server the server to register the MBean with
+   */
+  public JmxExporter(PerformanceLogger logger, String name, MBeanServer server) {
+    this.logger = logger;
+    this.server = server;
+    try {
+      this.objectName = new ObjectName(DOMAIN + ":type=PerformanceLogger,name="
+          + ObjectName.quote(name));
+      server.registerMBean(this, objectName);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Unable to export performance logger as " + name, e);
+    }
+  }
+
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+  @Override
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    Long value = logger.getLoggedValues().get(attribute);
+    if (value == null) {
+      throw new AttributeNotFoundException("No logged value named " + attribute);
+    }
+    return value;
+  }
+
+  @Override
+  public AttributeList getAttributes(String[] attributes) {
+    Map<String, Long> values = logger.getLoggedValues();
+    AttributeList list = new AttributeList();
+    for (String attribute : attributes) {
+      Long value = values.get(attribute);
+      if (value != null) {
+        list.add(new Attribute(attribute, value));
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("Logged values are read-only");
+  }
+
+  @Override
+  public AttributeList setAttributes(AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  @Override
+  public Object invoke(String actionName, Object[] params, String[] signature)
+      throws ReflectionException {
+    if (RESET.equals(actionName) && (params == null || params.length == 0)) {
+      logger.reset();
+      return null;
+    }
+    throw new ReflectionException(new NoSuchMethodException(actionName),
+        "No operation named " + actionName);
+  }
+
+  /**
+   * Describes the MBean. As loggers may add values during a computation the attributes are found
+   * from the values logged when this is called.
+   */
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    List<MBeanAttributeInfo> attributes = new ArrayList<>();
+    for (String name : new TreeSet<>(logger.getLoggedValues().keySet())) {
+      attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), name, true, false,
+          false));
+    }
+    MBeanOperationInfo reset = new MBeanOperationInfo(RESET, "Resets the logged values",
+        new MBeanParameterInfo[0], void.class.getName(), MBeanOperationInfo.ACTION);
+    return new MBeanInfo(getClass().getName(), "Values of " + logger.getClass().getName(),
+        attributes.toArray(new MBeanAttributeInfo[0]), null,
+        new MBeanOperationInfo[]{reset}, null);
+  }
+
+  /**
+   * Unregisters the MBean.
+   */
+  @Override
+  public void close() {
+    try {
+      server.unregisterMBean(objectName);
+    } catch (JMException e) {
+      throw new IllegalStateException("Unable to unregister " + objectName, e);
+    }
+  }
+}
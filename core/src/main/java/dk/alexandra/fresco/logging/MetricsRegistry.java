@@ -0,0 +1,99 @@
+package dk.alexandra.fresco.logging;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A registry of live metrics which can be read while a computation is running, as opposed to the
+ * values of most {@link PerformanceLogger}s which are only meaningful once the computation is done.
+ *
+ * <p>Metrics are identified by their name, and asking for a metric with the same name twice gives
+ * the same metric. The registry is itself a performance logger, so its current values can be
+ * printed with a {@link PerformancePrinter} or exported with a {@link JmxExporter}. Other
+ * monitoring systems can be supported by implementing this interface on top of their
+ * registries.</p>
+ *
+ * <p>Implementations must be thread safe, since metrics are typically updated from the threads
+ * running the computation and read from others.</p>
+ */
+public interface MetricsRegistry extends PerformanceLogger {
+
+  /**
+   * Gets the counter with the given name, creating it if it does not exist.
+   *
+   * @param name the name of the counter
+   * @return the counter
+   */
+  Counter counter(String name);
+
+  /**
+   * Gets the histogram with the given name, creating it if it does not exist.
+   *
+   * @param name the name of the histogram
+   * @return the histogram
+   */
+  Histogram histogram(String name);
+
+  /**
+   * Registers a gauge, i.e. a value which is read when the metrics are read, such as the current
+   * number of elements in a pool. Replaces any gauge already registered with the given name.
+   *
+   * @param name the name of the gauge
+   * @param value supplies the current value
+   */
+  void gauge(String name, LongSupplier value);
+
+  /**
+   * Gets a registry discarding all measurements, for use when no metrics are wanted.
+   */
+  static MetricsRegistry noop() {
+    return NoopMetricsRegistry.INSTANCE;
+  }
+
+  /**
+   * A monotonically increasing count, such as the number of batches evaluated. Rates are found by
+   * sampling the count.
+   */
+  interface Counter {
+
+    /**
+     * Adds one to the count.
+     */
+    void increment();
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount a non-negative amount
+     */
+    void add(long amount);
+
+    long getCount();
+  }
+
+  /**
+   * The distribution of a measured value, such as the duration of a round.
+   */
+  interface Histogram {
+
+    /**
+     * Records a measurement.
+     *
+     * @param value a non-negative value
+     */
+    void record(long value);
+
+    long getCount();
+
+    long getSum();
+
+    long getMax();
+
+    /**
+     * Gets an estimate of a percentile of the recorded values.
+     *
+     * @param percentile the percentile in the range 0 ... 100
+     * @return the estimate, or 0 if no values are recorded
+     */
+    long getPercentile(double percentile);
+  }
+}
@@ -1,34 +1,70 @@
 package dk.alexandra.fresco.logging;
 
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.logging.MetricsRegistry.Counter;
+import dk.alexandra.fresco.logging.MetricsRegistry.Histogram;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NetworkLoggingDecorator implements Network, PerformanceLogger, Closeable {
 
   public static final String NETWORK_PARTY_BYTES = "Amount of bytes received pr. party";
   public static final String NETWORK_TOTAL_BYTES = "Total amount of bytes received";
   public static final String NETWORK_TOTAL_BATCHES = "Total amount of batches received";
+  public static final String NETWORK_BYTES_RECEIVED = "NETWORK_BYTES_RECEIVED_";
+  public static final String NETWORK_BYTES_SENT = "NETWORK_BYTES_SENT_";
+  public static final String NETWORK_RECEIVE_NANOS = "NETWORK_RECEIVE_NANOS";
 
   private Network delegate;
   private Map<Integer, PartyStats> partyStatsMap;
-  
+  private final MetricsRegistry metrics;
+  private final Histogram receiveNanos;
+  private final Map<Integer, Counter> bytesReceived = new ConcurrentHashMap<>();
+  private final Map<Integer, Counter> bytesSent = new ConcurrentHashMap<>();
+
   public NetworkLoggingDecorator(Network network) {
-    this(network, new HashMap<>());
+    this(network, MetricsRegistry.noop());
+  }
+
+  /**
+   * Creates a decorator which also reports live to a metrics registry. The bytes sent to and
+   * received from each party are counted in the counters named {@link #NETWORK_BYTES_SENT} and
+   * {@link #NETWORK_BYTES_RECEIVED} followed by the party id. The time spent waiting for each
+   * message is recorded in the histogram named {@link #NETWORK_RECEIVE_NANOS}. When decorating the
+   * network given to an evaluator, a message is received from each party in each round, so this is
+   * the latency of the rounds as seen by this party.
+   *
+   * @param network the network to decorate
+   * @param metrics the registry to report to
+   */
+  public NetworkLoggingDecorator(Network network, MetricsRegistry metrics) {
+    this(network, new ConcurrentHashMap<>(), metrics);
   }
 
   protected NetworkLoggingDecorator(Network network, Map<Integer, PartyStats> partyStatsMap){
+    this(network, partyStatsMap, MetricsRegistry.noop());
+  }
+
+  private NetworkLoggingDecorator(Network network, Map<Integer, PartyStats> partyStatsMap,
+      MetricsRegistry metrics) {
     this.delegate= network;
     this.partyStatsMap = partyStatsMap;
+    this.metrics = metrics;
+    this.receiveNanos = metrics.histogram(NETWORK_RECEIVE_NANOS);
   }
 
   @Override
   public byte[] receive(int partyId) {
+    long then = System.nanoTime();
     byte[] res = this.delegate.receive(partyId);
+    receiveNanos.record(System.nanoTime() - then);
     int noBytes = res.length;
     partyStatsMap.computeIfAbsent(partyId, (i) -> new PartyStats()).recordTransmission(noBytes);
+    bytesReceived.computeIfAbsent(partyId, (i) -> metrics.counter(NETWORK_BYTES_RECEIVED + i))
+        .add(noBytes);
     return res;
   }
 
@@ -40,6 +76,8 @@ public class NetworkLoggingDecorator implements Network, PerformanceLogger, Clos
   @Override
   public void send(int partyId, byte[] data) {
     this.delegate.send(partyId, data);
+    bytesSent.computeIfAbsent(partyId, (i) -> metrics.counter(NETWORK_BYTES_SENT + i))
+        .add(data.length);
   }
 
   @Override
@@ -0,0 +1,78 @@
+package dk.alexandra.fresco.logging;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A metrics registry discarding all measurements.
+ */
+final class NoopMetricsRegistry implements MetricsRegistry {
+
+  static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+  private static final Counter COUNTER = new Counter() {
+    @Override
+    public void increment() {
+    }
+
+    @Override
+    public void add(long amount) {
+    }
+
+    @Override
+    public long getCount() {
+      return 0;
+    }
+  };
+  private static final Histogram HISTOGRAM = new Histogram() {
+    @Override
+    public void record(long value) {
+    }
+
+    @Override
+    public long getCount() {
+      return 0;
+    }
+
+    @Override
+    public long getSum() {
+      return 0;
+    }
+
+    @Override
+    public long getMax() {
+      return 0;
+    }
+
+    @Override
+    public long getPercentile(double percentile) {
+      return 0;
+    }
+  };
+
+  private NoopMetricsRegistry() {
+  }
+
+  @Override
+  public Counter counter(String name) {
+    return COUNTER;
+  }
+
+  @Override
+  public Histogram histogram(String name) {
+    return HISTOGRAM;
+  }
+
+  @Override
+  public void gauge(String name, LongSupplier value) {
+  }
+
+  @Override
+  public void reset() {
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    return Collections.emptyMap();
+  }
+}
@@ -61,6 +61,11 @@ public class NumericSuiteLogging<ResourcePoolT extends NumericResourcePool>
     return delegateSuite.createRoundSynchronization();
   }
 
+  @Override
+  public boolean supportsConcurrentEvaluation() {
+    return delegateSuite.supportsConcurrentEvaluation();
+  }
+
   @Override
   public void reset() {
     aggregate.reset();
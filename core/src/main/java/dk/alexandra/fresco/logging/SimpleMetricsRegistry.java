@@ -0,0 +1,194 @@
+package dk.alexandra.fresco.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A self-contained, in-memory {@link MetricsRegistry}.
+ *
+ * <p>The logged values hold the count of each counter, the value of each gauge, and for each
+ * histogram the count, sum, maximum and the 50th, 90th and 99th percentiles, named by adding
+ * {@link #COUNT}, {@link #SUM}, {@link #MAX}, {@link #P50}, {@link #P90} and {@link #P99} to the
+ * name of the histogram.</p>
+ *
+ * <p>Histograms keep a count for each of a fixed number of buckets, whose widths grow
+ * exponentially with the values. Recording a value is therefore cheap and uses no extra memory,
+ * and percentiles are estimated with a relative error of at most 1/8.</p>
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+  public static final String COUNT = "_COUNT";
+  public static final String SUM = "_SUM";
+  public static final String MAX = "_MAX";
+  public static final String P50 = "_P50";
+  public static final String P90 = "_P90";
+  public static final String P99 = "_P99";
+
+  private final ConcurrentMap<String, SimpleCounter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, SimpleHistogram> histograms = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  @Override
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(name, n -> new SimpleCounter());
+  }
+
+  @Override
+  public Histogram histogram(String name) {
+    return histograms.computeIfAbsent(name, n -> new SimpleHistogram());
+  }
+
+  @Override
+  public void gauge(String name, LongSupplier value) {
+    gauges.put(name, value);
+  }
+
+  /**
+   * Resets all counters and histograms. Gauges are kept.
+   */
+  @Override
+  public void reset() {
+    counters.values().forEach(SimpleCounter::reset);
+    histograms.values().forEach(SimpleHistogram::reset);
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+    gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+    histograms.forEach((name, histogram) -> {
+      values.put(name + COUNT, histogram.getCount());
+      values.put(name + SUM, histogram.getSum());
+      values.put(name + MAX, histogram.getMax());
+      values.put(name + P50, histogram.getPercentile(50));
+      values.put(name + P90, histogram.getPercentile(90));
+      values.put(name + P99, histogram.getPercentile(99));
+    });
+    return values;
+  }
+
+  private static final class SimpleCounter implements Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void increment() {
+      count.increment();
+    }
+
+    @Override
+    public void add(long amount) {
+      count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+      return count.sum();
+    }
+
+    private void reset() {
+      count.reset();
+    }
+  }
+
+  /**
+   * A histogram with buckets of exponentially growing width. Values below 2^SUB_BITS have a bucket
+   * each, larger values are split in ranges [2^e, 2^(e+1)) which are each divided in 2^SUB_BITS
+   * buckets of equal width.
+   */
+  static final class SimpleHistogram implements Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    @Override
+    public void record(long value) {
+      if (value < 0) {
+        throw new IllegalArgumentException("Value must be non-negative but was " + value);
+      }
+      buckets.incrementAndGet(indexOf(value));
+      count.increment();
+      sum.add(value);
+      max.accumulateAndGet(value, Math::max);
+    }
+
+    static int indexOf(long value) {
+      int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+      if (exponent < SUB_BITS) {
+        return (int) value;
+      }
+      int shift = exponent - SUB_BITS;
+      return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBoundOf(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      int shift = index / SUB_BUCKETS - 1;
+      return ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+    }
+
+    @Override
+    public long getCount() {
+      return count.sum();
+    }
+
+    @Override
+    public long getSum() {
+      return sum.sum();
+    }
+
+    @Override
+    public long getMax() {
+      return max.get();
+    }
+
+    @Override
+    public long getPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("Percentile must be in range 0 ... 100 but was "
+            + percentile);
+      }
+      long[] counts = new long[BUCKETS];
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets.get(i);
+        total += counts[i];
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(lowerBoundOf(i), getMax());
+        }
+      }
+      return getMax();
+    }
+
+    private void reset() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets.set(i, 0);
+      }
+      count.reset();
+      sum.reset();
+      max.set(0);
+    }
+  }
+}
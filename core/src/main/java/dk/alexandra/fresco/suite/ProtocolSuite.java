@@ -27,6 +27,20 @@ public interface ProtocolSuite<ResourcePoolT extends ResourcePool,
    */
   RoundSynchronization<ResourcePoolT> createRoundSynchronization();
 
+  /**
+   * Tells whether the native protocols of this suite may be evaluated concurrently with the other
+   * protocols of their batch, e.g. by the {@link
+   * dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy}. This requires that
+   * evaluating the protocols is thread safe, and that protocols using resources in an order which
+   * must be the same for all parties implement {@link
+   * dk.alexandra.fresco.framework.OrderedResourceAccess}.
+   *
+   * @return true if native protocols may be evaluated concurrently, false by default
+   */
+  default boolean supportsConcurrentEvaluation() {
+    return false;
+  }
+
   interface RoundSynchronization<ResourcePoolT extends ResourcePool> {
 
     /**
@@ -63,6 +77,18 @@ public interface ProtocolSuite<ResourcePoolT extends ResourcePool,
      * @param network network to use for the synchronization
      */
     void finishedEval(ResourcePoolT resourcePool, Network network);
+
+    /**
+     * Lets the protocol suite know that the evaluation failed, such that it can release any
+     * threads or networks it holds. This is called instead of, or after a failing call to, {@link
+     * #finishedEval}. As the parties may have aborted at different points, this must not
+     * communicate with the other parties.
+     *
+     * @param resourcePool The resource pool used
+     * @param network network used for the evaluation
+     */
+    default void abortedEval(ResourcePoolT resourcePool, Network network) {
+    }
   }
 
   /**
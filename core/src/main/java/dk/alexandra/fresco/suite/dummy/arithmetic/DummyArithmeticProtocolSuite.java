@@ -55,4 +55,9 @@ public class DummyArithmeticProtocolSuite
       }
     };
   }
+
+  @Override
+  public boolean supportsConcurrentEvaluation() {
+    return true;
+  }
 }
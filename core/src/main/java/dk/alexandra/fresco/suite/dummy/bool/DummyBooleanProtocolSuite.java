@@ -23,5 +23,9 @@ public class DummyBooleanProtocolSuite
     return new DummyBooleanBuilderFactory();
   }
 
+  @Override
+  public boolean supportsConcurrentEvaluation() {
+    return true;
+  }
 
 }
@@ -0,0 +1,162 @@
+package dk.alexandra.fresco.framework.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestComputationTrace {
+
+  @After
+  public void tearDown() {
+    ComputationTrace.setEnabled(false);
+  }
+
+  @Test
+  public void testTracesOfNestedComputations() {
+    ComputationTrace.setEnabled(true);
+    ProtocolCollectionList<ResourcePool> protocols = evaluate(builder -> builder.seq(new Outer()));
+    List<List<String>> frames = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      frames.add(protocols.getTrace(protocol).getFrames());
+    }
+    assertEquals(4, frames.size());
+    assertEquals(Collections.singletonList("TestComputationTrace$Outer"), frames.get(0));
+    assertEquals(Arrays.asList("TestComputationTrace$Outer", "TestComputationTrace$Inner"),
+        frames.get(1));
+    assertEquals(frames.get(1), frames.get(2));
+    // the lambda given to par is a nested computation of its own
+    assertEquals(frames.get(1), frames.get(3).subList(0, 2));
+    assertTrue(frames.get(3).get(2).startsWith("TestComputationTrace$Inner$$Lambda"));
+  }
+
+  @Test
+  public void testTracesAreInterned() {
+    ComputationTrace.setEnabled(true);
+    ProtocolCollectionList<ResourcePool> protocols = evaluate(builder -> builder.seq(new Outer()));
+    List<ComputationTrace> traces = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      traces.add(protocols.getTrace(protocol));
+    }
+    assertSame(traces.get(1), traces.get(2));
+    assertSame(traces.get(0), traces.get(1).getParent());
+    assertSame(ComputationTrace.root(), traces.get(0).getParent());
+    assertEquals("TestComputationTrace$Outer;TestComputationTrace$Inner",
+        traces.get(1).toString());
+  }
+
+  @Test
+  public void testLoopIterationsAreTraced() {
+    ComputationTrace.setEnabled(true);
+    ProtocolCollectionList<ResourcePool> protocols = evaluate(
+        builder -> builder.seq(seq -> () -> 0).whileLoop(i -> i < 3, new Loop()));
+    assertEquals(3, protocols.size());
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      assertEquals(Collections.singletonList("TestComputationTrace$Loop"),
+          protocols.getTrace(protocol).getFrames());
+    }
+  }
+
+  @Test
+  public void testDisabled() {
+    ProtocolCollectionList<ResourcePool> protocols = evaluate(builder -> builder.seq(new Outer()));
+    assertEquals(4, protocols.size());
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      assertTrue(protocols.getTrace(protocol).isRoot());
+    }
+  }
+
+  @Test
+  public void testNameOfLambda() {
+    Runnable lambda = () -> {
+    };
+    String name = ComputationTrace.nameOf(lambda.getClass());
+    assertEquals("TestComputationTrace$$Lambda", name);
+  }
+
+  private static <T> ProtocolCollectionList<ResourcePool> evaluate(
+      Computation<T, BuilderTestClass> computation) {
+    BuilderTestClass builder = new BuilderTestClass(false);
+    computation.buildComputation(builder);
+    ProtocolProducer producer = builder.build();
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(100);
+    while (producer.hasNextProtocols()) {
+      producer.getNextProtocols(protocols);
+    }
+    return protocols;
+  }
+
+  private static class Outer implements Computation<Void, BuilderTestClass> {
+
+    @Override
+    public DRes<Void> buildComputation(BuilderTestClass builder) {
+      builder.append(new TestProtocol());
+      return builder.seq(new Inner());
+    }
+  }
+
+  private static class Inner implements Computation<Void, BuilderTestClass> {
+
+    @Override
+    public DRes<Void> buildComputation(BuilderTestClass builder) {
+      builder.append(new TestProtocol());
+      builder.append(new TestProtocol());
+      return builder.par(par -> {
+        par.append(new TestProtocol());
+        return null;
+      }).seq((seq, ignored) -> null);
+    }
+  }
+
+  private static class Loop implements FrescoLambda<Integer, BuilderTestClass, Integer> {
+
+    @Override
+    public DRes<Integer> buildComputation(BuilderTestClass builder, Integer input) {
+      builder.append(new TestProtocol());
+      return () -> input + 1;
+    }
+  }
+
+  private static class BuilderTestClass extends ProtocolBuilderImpl<BuilderTestClass> {
+
+    private BuilderTestClass(boolean parallel) {
+      super(new BuilderFactory<BuilderTestClass>() {
+        @Override
+        public BuilderTestClass createSequential() {
+          return new BuilderTestClass(false);
+        }
+
+        @Override
+        public BuilderTestClass createParallel() {
+          return new BuilderTestClass(true);
+        }
+      }, parallel);
+    }
+  }
+
+  private static class TestProtocol implements NativeProtocol<Void, ResourcePool> {
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+}
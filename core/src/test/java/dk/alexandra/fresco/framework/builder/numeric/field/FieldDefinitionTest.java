@@ -4,6 +4,7 @@ import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -45,14 +46,17 @@ public final class FieldDefinitionTest {
         BigIntegerFieldElement::extractValue);
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant),
         MersennePrimeFieldElement::extractValue);
+    test.accept(new MontgomeryFieldDefinition(modulusValue),
+        MontgomeryFieldElement::extractValue);
   }
 
   /**
-   * Runs the test on two field definitions, simple and mersenne
+   * Runs the test on three field definitions, simple, mersenne and montgomery
    */
   private void testDefinition(Consumer<FieldDefinition> test) {
     test.accept(new BigIntegerFieldDefinition(modulusValue));
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant));
+    test.accept(new MontgomeryFieldDefinition(modulusValue));
   }
 
   private List<BigInteger> toBigIntegers(List<FieldElement> elements,
@@ -95,6 +99,17 @@ public final class FieldDefinitionTest {
     });
   }
 
+  @Test
+  public void deserializeListFromBuffer() {
+    testDefinition((definition, converter) -> {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+      List<FieldElement> result = definition.deserializeList(buffer);
+      assertThat(toBigIntegers(result, converter),
+          Is.is(toBigIntegers(getElements(definition), converter)));
+      assertThat(buffer.hasRemaining(), Is.is(false));
+    });
+  }
+
   @Test
   public void serialize() {
     testDefinition((definition, converter) -> {
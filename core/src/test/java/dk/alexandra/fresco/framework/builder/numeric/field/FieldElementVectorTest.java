@@ -0,0 +1,155 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Test;
+
+public class FieldElementVectorTest {
+
+  private static final BigInteger PRIME_127 = BigInteger.ONE.shiftLeft(127)
+      .subtract(BigInteger.ONE);
+
+  private final List<FieldDefinition> definitions = Arrays.asList(
+      new BigIntegerFieldDefinition(PRIME_127),
+      MersennePrimeFieldDefinition.find(128),
+      new LongFieldDefinition(LongFieldDefinition.MERSENNE_PRIME_61),
+      new LongFieldDefinition(251),
+      new MontgomeryFieldDefinition(PRIME_127),
+      new MontgomeryFieldDefinition(new BigInteger(
+          "115792089210356248762697446949407573530086143415290314195533631308867097853951")));
+
+  private List<FieldElement> randomElements(FieldDefinition definition, int size, Random random) {
+    List<FieldElement> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      BigInteger value = new BigInteger(definition.getBitLength() + 8, random);
+      elements.add(definition.createElement(value));
+    }
+    return elements;
+  }
+
+  private void assertEqual(FieldDefinition definition, List<FieldElement> actual,
+      List<FieldElement> expected) {
+    assertThat(actual.size(), Is.is(expected.size()));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEqual(definition, actual.get(i), expected.get(i));
+    }
+  }
+
+  private void assertEqual(FieldDefinition definition, FieldElement actual,
+      FieldElement expected) {
+    assertThat(definition.convertToUnsigned(actual),
+        Is.is(definition.convertToUnsigned(expected)));
+  }
+
+  @Test
+  public void primitiveVectorsSelected() {
+    FieldDefinition longDefinition = new LongFieldDefinition(251);
+    assertThat(longDefinition.hasPrimitiveVectors(), Is.is(true));
+    assertThat(longDefinition.createVector(randomElements(longDefinition, 3, new Random(42))),
+        IsInstanceOf.instanceOf(LongFieldElementVector.class));
+    FieldDefinition montgomery = new MontgomeryFieldDefinition(PRIME_127);
+    assertThat(montgomery.hasPrimitiveVectors(), Is.is(true));
+    assertThat(montgomery.createVector(randomElements(montgomery, 3, new Random(42))),
+        IsInstanceOf.instanceOf(MontgomeryFieldElementVector.class));
+    assertThat(new BigIntegerFieldDefinition(PRIME_127).hasPrimitiveVectors(), Is.is(false));
+    assertThat(MersennePrimeFieldDefinition.find(128).hasPrimitiveVectors(), Is.is(false));
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(42);
+    for (FieldDefinition definition : definitions) {
+      List<FieldElement> left = randomElements(definition, 17, random);
+      List<FieldElement> right = randomElements(definition, 17, random);
+      FieldElement scalar = randomElements(definition, 1, random).get(0);
+      FieldElementVector leftVector = definition.createVector(left);
+      FieldElementVector rightVector = definition.createVector(right);
+      List<FieldElement> sums = new ArrayList<>();
+      List<FieldElement> differences = new ArrayList<>();
+      List<FieldElement> products = new ArrayList<>();
+      List<FieldElement> scaled = new ArrayList<>();
+      FieldElement innerProduct = definition.createElement(0);
+      for (int i = 0; i < left.size(); i++) {
+        sums.add(left.get(i).add(right.get(i)));
+        differences.add(left.get(i).subtract(right.get(i)));
+        products.add(left.get(i).multiply(right.get(i)));
+        scaled.add(left.get(i).multiply(scalar));
+        innerProduct = innerProduct.add(left.get(i).multiply(right.get(i)));
+      }
+      assertThat(leftVector.size(), Is.is(17));
+      assertEqual(definition, leftVector.get(3), left.get(3));
+      assertEqual(definition, leftVector.asList(), left);
+      assertEqual(definition, leftVector.add(rightVector).asList(), sums);
+      assertEqual(definition, leftVector.subtract(rightVector).asList(), differences);
+      assertEqual(definition, leftVector.multiply(rightVector).asList(), products);
+      assertEqual(definition, leftVector.scale(scalar).asList(), scaled);
+      assertEqual(definition, leftVector.innerProduct(rightVector), innerProduct);
+    }
+  }
+
+  @Test
+  public void stretchAndSubVector() {
+    Random random = new Random(42);
+    for (FieldDefinition definition : definitions) {
+      List<FieldElement> elements = randomElements(definition, 3, random);
+      FieldElementVector vector = definition.createVector(elements);
+      assertEqual(definition, vector.stretch(2).asList(), Arrays.asList(
+          elements.get(0), elements.get(0), elements.get(1), elements.get(1), elements.get(2),
+          elements.get(2)));
+      assertEqual(definition, vector.subVector(1, 3).asList(), elements.subList(1, 3));
+    }
+  }
+
+  @Test
+  public void serialization() {
+    Random random = new Random(42);
+    for (FieldDefinition definition : definitions) {
+      List<FieldElement> elements = randomElements(definition, 9, random);
+      byte[] expected = definition.serialize(elements);
+      ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+      definition.serializeInto(definition.createVector(elements), buffer);
+      assertThat(buffer.array(), Is.is(expected));
+      buffer.flip();
+      assertEqual(definition, definition.deserializeFrom(buffer).asList(), elements);
+      assertThat(buffer.remaining(), Is.is(0));
+    }
+  }
+
+  @Test
+  public void emptyVector() {
+    for (FieldDefinition definition : definitions) {
+      FieldElementVector vector = definition.createVector(new ArrayList<>());
+      assertThat(vector.size(), Is.is(0));
+      assertEqual(definition, vector.innerProduct(vector), definition.createElement(0));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void differentSizesLong() {
+    FieldDefinition definition = new LongFieldDefinition(251);
+    definition.createVector(randomElements(definition, 2, new Random(1)))
+        .add(definition.createVector(randomElements(definition, 3, new Random(1))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void differentSizesMontgomery() {
+    FieldDefinition definition = new MontgomeryFieldDefinition(PRIME_127);
+    definition.createVector(randomElements(definition, 2, new Random(1)))
+        .innerProduct(definition.createVector(randomElements(definition, 3, new Random(1))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void differentSizesDefault() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+    definition.createVector(randomElements(definition, 2, new Random(1)))
+        .multiply(definition.createVector(randomElements(definition, 3, new Random(1))));
+  }
+}
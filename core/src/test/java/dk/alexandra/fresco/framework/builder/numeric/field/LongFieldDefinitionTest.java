@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongFieldDefinitionTest {
+
+  private final LongFieldDefinition definition =
+      new LongFieldDefinition(LongFieldDefinition.MERSENNE_PRIME_61);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeModulus() {
+    new LongFieldDefinition(BigInteger.ONE.shiftLeft(63));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallModulus() {
+    new LongFieldDefinition(1);
+  }
+
+  @Test
+  public void getModulus() {
+    assertThat(new LongFieldDefinition("251").getModulus(), Is.is(BigInteger.valueOf(251)));
+    assertThat(definition.getModulus(), Is.is(BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE)));
+    assertThat(definition.getBitLength(), Is.is(61));
+  }
+
+  @Test
+  public void serialize() {
+    FieldElement element = definition.createElement(-1);
+    assertThat(definition.serialize(element),
+        Is.is(new byte[]{31, -1, -1, -1, -1, -1, -1, -2}));
+    assertThat(definition.serialize(definition.createElement(1)),
+        Is.is(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}));
+    // small moduli are serialized with the same width
+    LongFieldDefinition small = new LongFieldDefinition(251);
+    assertThat(small.serialize(small.createElement(250)),
+        Is.is(new byte[]{0, 0, 0, 0, 0, 0, 0, -6}));
+  }
+
+  @Test
+  public void serializeList() {
+    List<FieldElement> elements = Arrays.asList(
+        definition.createElement(1), definition.createElement(-1), definition.createElement(256));
+    byte[] bytes = definition.serialize(elements);
+    assertThat(bytes.length, Is.is(24));
+    List<FieldElement> result = definition.deserializeList(bytes);
+    assertThat(result.size(), Is.is(3));
+    for (int i = 0; i < 3; i++) {
+      assertThat(definition.convertToUnsigned(result.get(i)),
+          Is.is(definition.convertToUnsigned(elements.get(i))));
+    }
+  }
+
+  @Test
+  public void deserializeListFromBuffer() {
+    List<FieldElement> elements = Arrays.asList(
+        definition.createElement(1), definition.createElement(-1), definition.createElement(256));
+    ByteBuffer buffer = ByteBuffer.wrap(definition.serialize(elements));
+    List<FieldElement> result = definition.deserializeList(buffer);
+    assertThat(result.size(), Is.is(3));
+    for (int i = 0; i < 3; i++) {
+      assertThat(definition.convertToUnsigned(result.get(i)),
+          Is.is(definition.convertToUnsigned(elements.get(i))));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeShort() {
+    definition.deserialize(new byte[]{1, 2, 3, 4});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeLong() {
+    definition.deserialize(new byte[9]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeListPartial() {
+    definition.deserializeList(new byte[12]);
+  }
+
+  @Test
+  public void deserializeReduces() {
+    FieldElement element = definition.deserialize(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1});
+    BigInteger expected = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE)
+        .mod(definition.getModulus());
+    assertThat(definition.convertToUnsigned(element), Is.is(expected));
+  }
+
+  @Test
+  public void convertToBitVector() {
+    StrictBitVector vector = definition.convertToBitVector(definition.createElement(1));
+    assertThat(vector, Is.is(new StrictBitVector(new byte[]{0, 0, 0, 0, 0, 0, 0, 1})));
+  }
+
+  @Test
+  public void convertToSigned() {
+    LongFieldDefinition small = new LongFieldDefinition(7);
+    assertThat(small.convertToSigned(BigInteger.valueOf(3)), Is.is(BigInteger.valueOf(3)));
+    assertThat(small.convertToSigned(BigInteger.valueOf(4)), Is.is(BigInteger.valueOf(-3)));
+    assertThat(small.convertToSigned(BigInteger.valueOf(6)), Is.is(BigInteger.valueOf(-1)));
+  }
+}
@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongFieldElementTest {
+
+  private LongModulus modulus;
+  private LongModulus bigModulus;
+  private FieldElement element1;
+  private FieldElement element2;
+
+  @Before
+  public void setUp() {
+    modulus = new LongModulus(113);
+    bigModulus = new LongModulus(LongFieldDefinition.MERSENNE_PRIME_61);
+    element1 = LongFieldElement.create(9, modulus);
+    element2 = LongFieldElement.create(25, modulus);
+  }
+
+  @Test
+  public void creators() {
+    testCreation(27, 27);
+    testCreation(27 + 113, 27);
+    testCreation(27 - 113, 27);
+    testCreation(-1, 113 - 1);
+    testCreation(0, 0);
+  }
+
+  private void testCreation(int value, long expected) {
+    FieldElement element1 = LongFieldElement.create(value, modulus);
+    FieldElement element2 = LongFieldElement.create("" + value, modulus);
+    FieldElement element3 = LongFieldElement.create(BigInteger.valueOf(value), modulus);
+    assertThat(LongFieldElement.extractLong(element1), Is.is(expected));
+    assertThat(LongFieldElement.extractLong(element2), Is.is(expected));
+    assertThat(LongFieldElement.extractLong(element3), Is.is(expected));
+  }
+
+  @Test
+  public void arithmetic() {
+    assertThat(LongFieldElement.extractLong(element1.add(element2)), Is.is(34L));
+    assertThat(LongFieldElement.extractLong(element1.subtract(element2)), Is.is(113L - 16));
+    assertThat(LongFieldElement.extractLong(element1.multiply(element2)), Is.is(225L - 226 + 113));
+    assertThat(LongFieldElement.extractLong(element1.negate()), Is.is(113L - 9));
+    assertThat(LongFieldElement.extractValue(element1), Is.is(BigInteger.valueOf(9)));
+  }
+
+  @Test
+  public void sqrt() {
+    FieldElement element = LongFieldElement.create(2, modulus);
+    assertThat(LongFieldElement.extractLong(element.sqrt()), Is.is(62L));
+
+    element = LongFieldElement.create(123456789, bigModulus);
+    FieldElement sqrt = element.multiply(element).sqrt();
+    BigInteger value = LongFieldElement.extractValue(sqrt);
+    assertThat(value.pow(2).mod(BigInteger.valueOf(bigModulus.getValue())),
+        Is.is(BigInteger.valueOf(123456789L * 123456789L % bigModulus.getValue())));
+  }
+
+  @Test
+  public void modInverse() {
+    FieldElement element = LongFieldElement.create(-12345, bigModulus);
+    FieldElement inverse = element.modInverse();
+    assertThat(LongFieldElement.extractLong(element.multiply(inverse)), Is.is(1L));
+  }
+
+  @Test
+  public void toStringTest() {
+    FieldElement element = LongFieldElement.create(7854, bigModulus);
+    assertThat(element.toString(), StringContains.containsString("7854"));
+  }
+}
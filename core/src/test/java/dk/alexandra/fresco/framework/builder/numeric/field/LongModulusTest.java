@@ -0,0 +1,138 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.hamcrest.core.StringContains;
+import org.hamcrest.core.Is;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongModulusTest {
+
+  private static final long[] MODULI = {
+      2, 3, 251, (1L << 31) - 1, LongFieldDefinition.MERSENNE_PRIME_61, (1L << 62) - 57,
+      Long.MAX_VALUE - 24
+  };
+
+  // moduli at the edges of the bit lengths, where mu = floor(2^(2 * bitLength) / modulus) is
+  // largest
+  private static final long[] BOUNDARY_MODULI = {
+      4, 1L << 61, (1L << 61) + 1, (1L << 62) - 1, (1L << 62) + 1, (1L << 62) + 2,
+      Long.MAX_VALUE
+  };
+
+  @Test
+  public void toStringTest() {
+    LongModulus modulus = new LongModulus(251);
+    assertThat(modulus.toString(), StringContains.containsString("251"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmall() {
+    new LongModulus(1);
+  }
+
+  @Test
+  public void twoToThe62() {
+    try {
+      new LongModulus(1L << 62);
+      Assert.fail("Expected modulus to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), StringContains.containsString("exceeds 64 bits"));
+    }
+  }
+
+  @Test
+  public void boundaryModuli() {
+    Random random = new Random(42);
+    for (long value : BOUNDARY_MODULI) {
+      LongModulus modulus = new LongModulus(value);
+      testMultiply(modulus, value - 1, value - 1);
+      testMultiply(modulus, value - 1, value - 2);
+      testMultiply(modulus, value / 2, value - 1);
+      for (int i = 0; i < 1000; i++) {
+        testMultiply(modulus, Math.floorMod(random.nextLong(), value),
+            Math.floorMod(random.nextLong(), value));
+      }
+    }
+  }
+
+  @Test
+  public void bitLength() {
+    assertThat(new LongModulus(LongFieldDefinition.MERSENNE_PRIME_61).getBitLength(), Is.is(61));
+    assertThat(new LongModulus(Long.MAX_VALUE - 24).getBitLength(), Is.is(63));
+  }
+
+  @Test
+  public void multiplyHigh() {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      long x = random.nextLong();
+      long y = random.nextLong();
+      BigInteger product = BigInteger.valueOf(x).multiply(BigInteger.valueOf(y));
+      assertThat(LongModulus.multiplyHigh(x, y), Is.is(product.shiftRight(64).longValue()));
+      BigInteger unsigned = toUnsigned(x).multiply(toUnsigned(y));
+      assertThat(LongModulus.unsignedMultiplyHigh(x, y),
+          Is.is(unsigned.shiftRight(64).longValue()));
+    }
+  }
+
+  @Test
+  public void multiply() {
+    Random random = new Random(42);
+    for (long value : MODULI) {
+      LongModulus modulus = new LongModulus(value);
+      BigInteger big = BigInteger.valueOf(value);
+      testMultiply(modulus, value - 1, value - 1);
+      testMultiply(modulus, 0, value - 1);
+      for (int i = 0; i < 1000; i++) {
+        long a = Math.floorMod(random.nextLong(), value);
+        long b = Math.floorMod(random.nextLong(), value);
+        testMultiply(modulus, a, b);
+        assertThat(modulus.add(a, b),
+            Is.is(BigInteger.valueOf(a).add(BigInteger.valueOf(b)).mod(big).longValue()));
+        assertThat(modulus.subtract(a, b),
+            Is.is(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b)).mod(big).longValue()));
+        assertThat(modulus.negate(a), Is.is(BigInteger.valueOf(a).negate().mod(big).longValue()));
+      }
+    }
+  }
+
+  private void testMultiply(LongModulus modulus, long a, long b) {
+    BigInteger expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+        .mod(BigInteger.valueOf(modulus.getValue()));
+    assertThat(modulus.multiply(a, b), Is.is(expected.longValue()));
+  }
+
+  @Test
+  public void reduceUnsigned() {
+    LongModulus modulus = new LongModulus(LongFieldDefinition.MERSENNE_PRIME_61);
+    assertThat(modulus.reduceUnsigned(-1L),
+        Is.is(toUnsigned(-1L).mod(BigInteger.valueOf(modulus.getValue())).longValue()));
+    assertThat(modulus.reduceUnsigned(42), Is.is(42L));
+  }
+
+  @Test
+  public void inverse() {
+    Random random = new Random(42);
+    for (long value : MODULI) {
+      LongModulus modulus = new LongModulus(value);
+      BigInteger big = BigInteger.valueOf(value);
+      for (int i = 0; i < 100; i++) {
+        long a = 1 + Math.floorMod(random.nextLong(), value - 1);
+        assertThat(modulus.inverse(a), Is.is(BigInteger.valueOf(a).modInverse(big).longValue()));
+      }
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void inverseOfZero() {
+    new LongModulus(251).inverse(0);
+  }
+
+  private static BigInteger toUnsigned(long value) {
+    return new BigInteger(Long.toUnsignedString(value));
+  }
+}
@@ -0,0 +1,86 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Test;
+
+public class MontgomeryFieldDefinitionTest {
+
+  private static final BigInteger MODULUS =
+      BigInteger.ONE.shiftLeft(255).add(BigInteger.valueOf(95));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryFieldDefinition("1024");
+  }
+
+  @Test
+  public void getModulus() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    assertThat(definition.getModulus(), Is.is(MODULUS));
+    assertThat(definition.getBitLength(), Is.is(256));
+  }
+
+  @Test
+  public void elementArithmetic() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    Random random = new Random(42);
+    for (int i = 0; i < 50; i++) {
+      BigInteger a = new BigInteger(300, random).subtract(BigInteger.ONE.shiftLeft(299));
+      BigInteger b = new BigInteger(300, random);
+      FieldElement x = definition.createElement(a);
+      FieldElement y = definition.createElement(b.toString());
+      assertThat(definition.convertToUnsigned(x.multiply(y)), Is.is(a.multiply(b).mod(MODULUS)));
+      assertThat(definition.convertToUnsigned(x.add(y)), Is.is(a.add(b).mod(MODULUS)));
+      assertThat(definition.convertToUnsigned(x.subtract(y)), Is.is(a.subtract(b).mod(MODULUS)));
+      assertThat(definition.convertToUnsigned(x.negate()), Is.is(a.negate().mod(MODULUS)));
+      assertThat(definition.convertToUnsigned(x.modInverse()), Is.is(a.modInverse(MODULUS)));
+    }
+    FieldElement minusOne = definition.createElement(-1);
+    assertThat(definition.convertToUnsigned(minusOne), Is.is(MODULUS.subtract(BigInteger.ONE)));
+  }
+
+  @Test
+  public void sqrt() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    FieldElement element = definition.createElement(1234567);
+    FieldElement square = element.multiply(element);
+    FieldElement sqrt = square.sqrt();
+    assertThat(definition.convertToUnsigned(sqrt.multiply(sqrt)),
+        Is.is(definition.convertToUnsigned(square)));
+  }
+
+  @Test
+  public void serializeCompatible() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(MODULUS);
+    List<BigInteger> values = Arrays.asList(BigInteger.ZERO, BigInteger.valueOf(42),
+        MODULUS.shiftRight(1), MODULUS.subtract(BigInteger.ONE));
+    for (BigInteger value : values) {
+      byte[] bytes = definition.serialize(definition.createElement(value));
+      assertThat(bytes, Is.is(reference.serialize(reference.createElement(value))));
+      assertThat(definition.convertToUnsigned(definition.deserialize(bytes)), Is.is(value));
+      assertThat(definition.convertToBitVector(definition.createElement(value)),
+          Is.is(reference.convertToBitVector(reference.createElement(value))));
+    }
+  }
+
+  @Test
+  public void deserializeReduces() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition("251");
+    FieldElement element = definition.deserialize(new byte[]{-1});
+    assertThat(definition.convertToUnsigned(element), Is.is(BigInteger.valueOf(4)));
+  }
+
+  @Test
+  public void toStringTest() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    assertThat(definition.createElement(7854).toString(), StringContains.containsString("7854"));
+  }
+}
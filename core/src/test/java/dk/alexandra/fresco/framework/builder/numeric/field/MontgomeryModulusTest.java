@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Test;
+
+public class MontgomeryModulusTest {
+
+  private static final BigInteger[] MODULI = {
+      BigInteger.valueOf(3),
+      BigInteger.valueOf(251),
+      BigInteger.valueOf(Long.MAX_VALUE - 24),
+      BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(59)),
+      new BigInteger("340282366920938463463374607431768211283"),
+      BigInteger.ONE.shiftLeft(256).subtract(BigInteger.valueOf(587)),
+      BigInteger.ONE.shiftLeft(255).add(BigInteger.valueOf(95)),
+      BigInteger.ONE.shiftLeft(512).subtract(BigInteger.valueOf(569))
+  };
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryModulus(BigInteger.valueOf(256));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallModulus() {
+    new MontgomeryModulus(BigInteger.ONE);
+  }
+
+  @Test
+  public void toStringTest() {
+    MontgomeryModulus modulus = new MontgomeryModulus(BigInteger.valueOf(251));
+    assertThat(modulus.toString(), StringContains.containsString("251"));
+  }
+
+  @Test
+  public void limbs() {
+    BigInteger value = new BigInteger("340282366920938463463374607431768211283");
+    long[] limbs = MontgomeryModulus.toLimbs(value, 2);
+    assertThat(limbs, Is.is(new long[]{-173, -1}));
+    assertThat(MontgomeryModulus.fromLimbs(limbs), Is.is(value));
+    assertThat(new MontgomeryModulus(value).getLimbs(), Is.is(2));
+  }
+
+  @Test
+  public void conversion() {
+    Random random = new Random(42);
+    for (BigInteger value : MODULI) {
+      MontgomeryModulus modulus = new MontgomeryModulus(value);
+      for (int i = 0; i < 100; i++) {
+        BigInteger x = new BigInteger(value.bitLength() + 8, random).mod(value);
+        assertThat(modulus.toBigInteger(modulus.toMontgomery(x)), Is.is(x));
+      }
+    }
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(42);
+    for (BigInteger value : MODULI) {
+      MontgomeryModulus modulus = new MontgomeryModulus(value);
+      BigInteger max = value.subtract(BigInteger.ONE);
+      testArithmetic(modulus, max, max);
+      testArithmetic(modulus, BigInteger.ZERO, max);
+      testArithmetic(modulus, max, BigInteger.ZERO);
+      for (int i = 0; i < 500; i++) {
+        BigInteger a = new BigInteger(value.bitLength() + 8, random).mod(value);
+        BigInteger b = new BigInteger(value.bitLength() + 8, random).mod(value);
+        testArithmetic(modulus, a, b);
+      }
+    }
+  }
+
+  private void testArithmetic(MontgomeryModulus modulus, BigInteger a, BigInteger b) {
+    BigInteger value = modulus.getValue();
+    long[] x = modulus.toMontgomery(a);
+    long[] y = modulus.toMontgomery(b);
+    assertThat(modulus.toBigInteger(modulus.multiply(x, y)), Is.is(a.multiply(b).mod(value)));
+    assertThat(modulus.toBigInteger(modulus.add(x, y)), Is.is(a.add(b).mod(value)));
+    assertThat(modulus.toBigInteger(modulus.subtract(x, y)), Is.is(a.subtract(b).mod(value)));
+    assertThat(modulus.toBigInteger(modulus.negate(x)), Is.is(a.negate().mod(value)));
+  }
+
+  @Test
+  public void toMontgomeryUnreduced() {
+    BigInteger value = BigInteger.valueOf(251);
+    MontgomeryModulus modulus = new MontgomeryModulus(value);
+    long[] montgomery = modulus.toMontgomery(new long[]{-1L});
+    BigInteger expected = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE).mod(value);
+    assertThat(modulus.toBigInteger(montgomery), Is.is(expected));
+  }
+}
@@ -1,6 +1,10 @@
 package dk.alexandra.fresco.framework.network;
 
+import static org.hamcrest.core.StringContains.containsString;
+
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,25 +69,87 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPackets() throws Exception {
+    byte[] data = new byte[300];
+    Arrays.fill(data, (byte) 123);
+    networkBatchDecorator.send(1, data);
+    networkBatchDecorator.send(1, new byte[]{42});
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(1);
+    Assert.assertEquals(2 + 300 + 1 + 1, sent.length);
+    // 300 = 0b10_0101100 is encoded as 0b1_0101100, 0b0_0000010
+    Assert.assertEquals((byte) 0xAC, sent[0]);
+    Assert.assertEquals((byte) 0x02, sent[1]);
+    Assert.assertArrayEquals(data, networkBatchDecorator.receive(1));
+    Assert.assertArrayEquals(new byte[]{42}, networkBatchDecorator.receive(1));
+  }
+
+  @Test
+  public void reuseAfterFlush() throws Exception {
+    networkBatchDecorator.send(2, new byte[2000]);
+    networkBatchDecorator.flush();
+    networkBatchDecorator.send(2, new byte[]{7});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{1, 7}, transmissions.get(2));
+  }
+
+  @Test
+  public void flushSendsExactBatch() throws Exception {
+    networkBatchDecorator.send(3, new byte[]{1, 2});
+    networkBatchDecorator.send(3, new byte[200]);
+    networkBatchDecorator.send(3, new byte[0]);
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(3);
+    Assert.assertEquals(1 + 2 + 2 + 200 + 1, sent.length);
+    Assert.assertArrayEquals(new byte[]{2, 1, 2, (byte) 0xC8, 0x01}, Arrays.copyOf(sent, 5));
+    Assert.assertEquals(0, sent[sent.length - 1]);
+  }
+
+  @Test
+  public void receiveBuffer() throws Exception {
+    transmissions.put(1, new byte[]{2, 5, 6, 1, 7});
+    ByteBuffer first = networkBatchDecorator.receiveBuffer(1);
+    Assert.assertTrue(first.isReadOnly());
+    Assert.assertEquals(2, first.remaining());
+    Assert.assertEquals(5, first.get());
+    Assert.assertEquals(6, first.get());
+    Assert.assertArrayEquals(new byte[]{7}, networkBatchDecorator.receive(1));
+  }
+
+  @Test
+  public void receiveLargestLength() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    try {
+      networkBatchDecorator.receive(1);
+      Assert.fail("Length beyond the batch should be rejected");
+    } catch (IllegalStateException e) {
+      Assert.assertThat(e.getMessage(), containsString("2147483647 exceeds"));
+    }
+  }
+
+  @Test
+  public void receiveOverflowingLength() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08});
+    try {
+      networkBatchDecorator.receive(1);
+      Assert.fail("Length overflowing an int should be rejected");
+    } catch (IllegalStateException e) {
+      Assert.assertThat(e.getMessage(), containsString("exceeds 2^31 - 1"));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void receiveTooLongLength() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+        (byte) 0x80, 0x00});
+    networkBatchDecorator.receive(1);
+  }
 
+  @Test(expected = IllegalStateException.class)
+  public void receiveTruncatedLength() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0x80});
+    networkBatchDecorator.receive(1);
   }
 
   private class DummyNetwork implements Network {
@@ -0,0 +1,202 @@
+package dk.alexandra.fresco.framework.network;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.socket.NioNetwork;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+/**
+ * Runs the network tests on a channel of a {@link ChannelMultiplexer} and tests the channel
+ * specific behaviour.
+ */
+public class TestChannelMultiplexer extends AbstractCloseableNetworkTest {
+
+  private int window = ChannelMultiplexer.DEFAULT_WINDOW;
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    ChannelMultiplexer multiplexer =
+        new ChannelMultiplexer(conf.getMyId(), new NioNetwork(conf, timeout), window);
+    return new OwningChannel(multiplexer, multiplexer.openChannel("test"));
+  }
+
+  private Map<Integer, ChannelMultiplexer> createMultiplexers(int numParties, int window) {
+    this.window = window;
+    networks = createNetworks(numParties);
+    Map<Integer, ChannelMultiplexer> multiplexers = new HashMap<>(numParties);
+    for (Map.Entry<Integer, CloseableNetwork> entry : networks.entrySet()) {
+      multiplexers.put(entry.getKey(), ((OwningChannel) entry.getValue()).multiplexer);
+    }
+    return multiplexers;
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testChannelsAreIndependent() {
+    Map<Integer, ChannelMultiplexer> multiplexers = createMultiplexers(2, 16);
+    CloseableNetwork firstOne = multiplexers.get(1).openChannel("first");
+    CloseableNetwork secondOne = multiplexers.get(1).openChannel("second");
+    CloseableNetwork firstTwo = multiplexers.get(2).openChannel("first");
+    CloseableNetwork secondTwo = multiplexers.get(2).openChannel("second");
+    firstOne.send(2, new byte[]{0x01});
+    secondOne.send(2, new byte[]{0x02});
+    // receive in the opposite order of sending
+    assertArrayEquals(new byte[]{0x02}, secondTwo.receive(1));
+    assertArrayEquals(new byte[]{0x01}, firstTwo.receive(1));
+    firstTwo.send(1, new byte[]{0x03});
+    secondTwo.send(1, new byte[]{0x04});
+    assertArrayEquals(new byte[]{0x03}, firstOne.receive(2));
+    assertArrayEquals(new byte[]{0x04}, secondOne.receive(2));
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testMessagesBeforeChannelIsOpened() {
+    Map<Integer, ChannelMultiplexer> multiplexers = createMultiplexers(2, 16);
+    multiplexers.get(1).openChannel("late").send(2, new byte[]{0x05});
+    assertArrayEquals(new byte[]{0x05}, multiplexers.get(2).openChannel("late").receive(1));
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testBackPressure() throws Exception {
+    Map<Integer, ChannelMultiplexer> multiplexers = createMultiplexers(2, 4);
+    CloseableNetwork sender = multiplexers.get(1).openChannel("flow");
+    CloseableNetwork receiver = multiplexers.get(2).openChannel("flow");
+    CloseableNetwork other = multiplexers.get(1).openChannel("other");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> sending = executor.submit(() -> {
+        for (byte i = 0; i < 8; i++) {
+          sender.send(2, new byte[]{i});
+        }
+      });
+      assertBlocked(sending);
+      // other channels are not blocked
+      other.send(2, new byte[]{0x01});
+      assertArrayEquals(new byte[]{0x01}, multiplexers.get(2).openChannel("other").receive(1));
+      for (byte i = 0; i < 8; i++) {
+        assertArrayEquals(new byte[]{i}, receiver.receive(1));
+      }
+      sending.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void assertBlocked(Future<?> future) throws Exception {
+    try {
+      future.get(500, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      return;
+    }
+    throw new AssertionError("Sending should have blocked");
+  }
+
+  @Test(expected = IllegalArgumentException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testOpenTwice() {
+    ChannelMultiplexer multiplexer = createMultiplexers(1, 16).get(1);
+    multiplexer.openChannel("twice");
+    multiplexer.openChannel("twice");
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReopenAfterClose() throws IOException {
+    ChannelMultiplexer multiplexer = createMultiplexers(1, 16).get(1);
+    multiplexer.openChannel("reopen").close();
+    CloseableNetwork channel = multiplexer.openChannel("reopen");
+    channel.send(1, new byte[]{0x01});
+    assertArrayEquals(new byte[]{0x01}, channel.receive(1));
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReopenDiscardsState() throws IOException {
+    Map<Integer, ChannelMultiplexer> multiplexers = createMultiplexers(2, 2);
+    CloseableNetwork oldOne = multiplexers.get(1).openChannel("reopen");
+    CloseableNetwork oldTwo = multiplexers.get(2).openChannel("reopen");
+    oldOne.send(2, new byte[]{0x01});
+    // once the message on the other channel arrives, the message above has also arrived
+    multiplexers.get(1).openChannel("sync").send(2, new byte[]{0x02});
+    assertArrayEquals(new byte[]{0x02}, multiplexers.get(2).openChannel("sync").receive(1));
+    oldOne.close();
+    oldTwo.close();
+    CloseableNetwork newOne = multiplexers.get(1).openChannel("reopen");
+    CloseableNetwork newTwo = multiplexers.get(2).openChannel("reopen");
+    // the full window is available again, so this does not block
+    newOne.send(2, new byte[]{0x03});
+    newOne.send(2, new byte[]{0x04});
+    assertArrayEquals(new byte[]{0x03}, newTwo.receive(1));
+    assertArrayEquals(new byte[]{0x04}, newTwo.receive(1));
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testChannelSupplier() {
+    ChannelMultiplexer multiplexer = createMultiplexers(1, 16).get(1);
+    Supplier<Network> supplier = multiplexer.channelSupplier("supplied");
+    assertSame(supplier.get(), supplier.get());
+  }
+
+  @Test(expected = RuntimeException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReceiveAfterMultiplexerClosed() throws IOException {
+    Map<Integer, ChannelMultiplexer> multiplexers = createMultiplexers(2, 16);
+    CloseableNetwork channel = multiplexers.get(1).openChannel("closing");
+    multiplexers.get(2).close();
+    channel.receive(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWindow() {
+    new ChannelMultiplexer(1, null, 1);
+  }
+
+  /**
+   * A channel which closes its multiplexer when closed, such that the generic network tests
+   * clean up the underlying network.
+   */
+  private static class OwningChannel implements CloseableNetwork {
+
+    private final ChannelMultiplexer multiplexer;
+    private final CloseableNetwork channel;
+
+    OwningChannel(ChannelMultiplexer multiplexer, CloseableNetwork channel) {
+      this.multiplexer = multiplexer;
+      this.channel = channel;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      channel.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return channel.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return channel.getNoOfParties();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+      multiplexer.close();
+    }
+  }
+}
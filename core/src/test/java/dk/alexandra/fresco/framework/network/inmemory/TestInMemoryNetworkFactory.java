@@ -0,0 +1,261 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestInMemoryNetworkFactory {
+
+  private static final int TIMEOUT_MILLIS = 60000;
+  private Map<Integer, CloseableNetwork> networks;
+  private ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() throws IOException {
+    if (networks != null) {
+      for (CloseableNetwork network : networks.values()) {
+        network.close();
+      }
+    }
+    executor.shutdownNow();
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testCreateNetworks() {
+    InMemoryNetworkFactory factory = new InMemoryNetworkFactory(3);
+    networks = factory.createNetworks();
+    assertThat(factory.getNoOfParties(), is(3));
+    assertThat(networks.size(), is(3));
+    for (int partyId = 1; partyId <= 3; partyId++) {
+      assertThat(networks.get(partyId).getNoOfParties(), is(3));
+    }
+    Map<Integer, CloseableNetwork> other = factory.createNetworks();
+    assertNotSame(networks.get(1), other.get(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testSendAndReceive() {
+    networks = new InMemoryNetworkFactory(3).createNetworks();
+    for (int from = 1; from <= 3; from++) {
+      for (int to = 1; to <= 3; to++) {
+        networks.get(from).send(to, new byte[]{(byte) from, (byte) to});
+      }
+    }
+    for (int to = 1; to <= 3; to++) {
+      for (int from = 3; from >= 1; from--) {
+        assertArrayEquals(new byte[]{(byte) from, (byte) to}, networks.get(to).receive(from));
+      }
+    }
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testSendCopiesData() {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    byte[] data = new byte[]{0x01};
+    networks.get(1).send(2, data);
+    data[0] = 0x02;
+    assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testSendEmpty() {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).send(2, new byte[0]);
+    assertArrayEquals(new byte[0], networks.get(2).receive(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testManyMessagesConcurrently() throws Exception {
+    // a small capacity makes the sender wait for the receiver
+    networks = new InMemoryNetworkFactory(2, 4, Duration.ZERO,
+        InMemoryNetworkFactory.UNLIMITED_BANDWIDTH).createNetworks();
+    int numMessages = 100000;
+    Future<?> sender = executor.submit(() -> {
+      Random random = new Random(1);
+      byte[] data = new byte[32];
+      for (int i = 0; i < numMessages; i++) {
+        random.nextBytes(data);
+        networks.get(1).send(2, data);
+      }
+    });
+    Random random = new Random(1);
+    byte[] expected = new byte[32];
+    for (int i = 0; i < numMessages; i++) {
+      random.nextBytes(expected);
+      assertArrayEquals(expected, networks.get(2).receive(1));
+    }
+    sender.get();
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testCircularSend() throws Exception {
+    int numParties = 5;
+    networks = new InMemoryNetworkFactory(numParties).createNetworks();
+    List<Future<?>> futures = new ArrayList<>(numParties);
+    for (int partyId = 1; partyId <= numParties; partyId++) {
+      int myId = partyId;
+      futures.add(executor.submit(() -> {
+        int next = myId % numParties + 1;
+        int previous = (myId + numParties - 2) % numParties + 1;
+        for (int i = 0; i < 1000; i++) {
+          byte[] data = new byte[1024];
+          Arrays.fill(data, (byte) (myId + i));
+          networks.get(myId).send(next, data);
+          byte[] expected = new byte[1024];
+          Arrays.fill(expected, (byte) (previous + i));
+          assertArrayEquals(expected, networks.get(myId).receive(previous));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testLatency() {
+    Duration latency = Duration.ofMillis(200);
+    networks = new InMemoryNetworkFactory(2, latency, InMemoryNetworkFactory.UNLIMITED_BANDWIDTH)
+        .createNetworks();
+    long start = System.nanoTime();
+    networks.get(1).send(2, new byte[]{0x01});
+    networks.get(1).send(2, new byte[]{0x02});
+    networks.get(2).receive(1);
+    networks.get(2).receive(1);
+    long elapsed = System.nanoTime() - start;
+    // the latency of messages sent back to back overlaps
+    assertTrue(elapsed >= latency.toNanos());
+    assertTrue(elapsed < 2 * latency.toNanos());
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testBandwidth() {
+    networks = new InMemoryNetworkFactory(2, Duration.ZERO, 1000).createNetworks();
+    long start = System.nanoTime();
+    for (int i = 0; i < 4; i++) {
+      networks.get(1).send(2, new byte[50]);
+    }
+    for (int i = 0; i < 4; i++) {
+      networks.get(2).receive(1);
+    }
+    // 200 bytes at 1000 bytes per second
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testSelfSendIsNotDelayed() {
+    networks = new InMemoryNetworkFactory(2, Duration.ofSeconds(30), 1).createNetworks();
+    networks.get(1).send(1, new byte[]{0x01});
+    assertArrayEquals(new byte[]{0x01}, networks.get(1).receive(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testReceiveMessagesSentBeforeClose() throws IOException {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).send(2, new byte[]{0x01});
+    networks.get(1).close();
+    assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS, expected = RuntimeException.class)
+  public void testReceiveFromClosedParty() throws IOException {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).close();
+    networks.get(2).receive(1);
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testCloseWakesUpReceiver() throws Exception {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    Future<?> receiver = executor.submit(() -> networks.get(2).receive(1));
+    try {
+      receiver.get(200, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // the receiver is waiting as expected
+    }
+    networks.get(1).close();
+    try {
+      receiver.get();
+      fail("Receive should fail when the sender closes");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause() instanceof RuntimeException, is(true));
+    }
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS, expected = RuntimeException.class)
+  public void testSendToClosedParty() throws IOException {
+    networks = new InMemoryNetworkFactory(2, 1, Duration.ZERO,
+        InMemoryNetworkFactory.UNLIMITED_BANDWIDTH).createNetworks();
+    networks.get(2).close();
+    networks.get(1).send(2, new byte[]{0x01});
+    networks.get(1).send(2, new byte[]{0x02});
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS, expected = RuntimeException.class)
+  public void testSendAfterClose() throws IOException {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).close();
+    networks.get(1).send(2, new byte[]{0x01});
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS, expected = RuntimeException.class)
+  public void testReceiveAfterClose() throws IOException {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).send(2, new byte[]{0x01});
+    networks.get(2).close();
+    networks.get(2).receive(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSendToTooLargePartyId() {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).send(3, new byte[]{0x01});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReceiveFromNonPositivePartyId() {
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    networks.get(1).receive(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalNumberOfParties() {
+    new InMemoryNetworkFactory(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCapacity() {
+    new InMemoryNetworkFactory(2, 0, Duration.ZERO, InMemoryNetworkFactory.UNLIMITED_BANDWIDTH);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeLatency() {
+    new InMemoryNetworkFactory(2, Duration.ofMillis(-1),
+        InMemoryNetworkFactory.UNLIMITED_BANDWIDTH);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBandwidth() {
+    new InMemoryNetworkFactory(2, Duration.ZERO, 0);
+  }
+}
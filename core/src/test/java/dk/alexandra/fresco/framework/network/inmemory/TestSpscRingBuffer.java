@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.framework.network.inmemory;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestSpscRingBuffer {
+
+  private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testCapacityIsRoundedUp() {
+    assertThat(new SpscRingBuffer<Integer>(1).capacity(), is(1));
+    assertThat(new SpscRingBuffer<Integer>(5).capacity(), is(8));
+    assertThat(new SpscRingBuffer<Integer>(16).capacity(), is(16));
+  }
+
+  @Test
+  public void testOfferAndPoll() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+    assertThat(buffer.poll(), nullValue());
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.offer(i), is(true));
+    }
+    assertThat(buffer.offer(4), is(false));
+    assertThat(buffer.peek(), is(0));
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.poll(), is(i));
+    }
+    assertThat(buffer.peek(), nullValue());
+    assertThat(buffer.offer(5), is(true));
+    assertThat(buffer.poll(), is(5));
+  }
+
+  @Test(timeout = 60000)
+  public void testConcurrentProducer() throws Exception {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(8);
+    int count = 1000000;
+    Future<?> producer = executor.submit(() -> {
+      for (int i = 0; i < count; i++) {
+        buffer.put(i);
+      }
+    });
+    for (int i = 0; i < count; i++) {
+      assertThat(buffer.awaitPeek(System.nanoTime() + TimeUnit.SECONDS.toNanos(10)), is(i));
+      assertThat(buffer.poll(), is(i));
+    }
+    producer.get();
+  }
+
+  @Test(timeout = 60000)
+  public void testAwaitPeekTimesOut() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+    long start = System.nanoTime();
+    assertThat(buffer.awaitPeek(start + TimeUnit.MILLISECONDS.toNanos(50)), nullValue());
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+  }
+
+  @Test(timeout = 60000)
+  public void testCloseWakesUpProducer() throws Exception {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(1);
+    buffer.put(0);
+    Future<?> producer = executor.submit(() -> buffer.put(1));
+    Thread.sleep(50);
+    buffer.close();
+    try {
+      producer.get();
+      fail("Put should fail when the buffer is closed");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause() instanceof IllegalStateException, is(true));
+    }
+    assertThat(buffer.isClosed(), is(true));
+    // elements already in the buffer are still available
+    assertThat(buffer.poll(), is(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPutAfterClose() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+    buffer.close();
+    buffer.put(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCapacity() {
+    new SpscRingBuffer<Integer>(0);
+  }
+}
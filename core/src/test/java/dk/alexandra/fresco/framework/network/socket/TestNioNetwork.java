@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.junit.Test;
+
+public class TestNioNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioNetwork(conf, timeout);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testSocketWithoutChannel() throws InterruptedException, ExecutionException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT,
+            SocketFactory.getDefault(), ServerSocketFactory.getDefault())));
+      }
+      new NioNetwork(confs.get(0), fs.get(0).get().getSocketMap());
+    } finally {
+      closeSockets(fs);
+      es.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testMissingParty() {
+    List<NetworkConfiguration> confs = getNetConfs(3);
+    new NioNetwork(confs.get(0), new HashMap<>());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testUnconnectedSocket() {
+    final int numParties = 3;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    Map<Integer, Socket> socketMap = new HashMap<>(numParties);
+    for (int i = 0; i < numParties; i++) {
+      socketMap.put(i + 1, new Socket());
+    }
+    new NioNetwork(confs.get(0), socketMap);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testReceiveFromClosedParty() {
+    networks = createNetworks(2);
+    networks.get(1).send(2, new byte[]{0x01});
+    closeNetworks(networks);
+    assertArrayEquals(new byte[]{0x01}, networks.get(2).receive(1));
+    networks.get(2).receive(1);
+  }
+
+  @Test
+  public void testInteroperableWithSocketNetwork()
+      throws InterruptedException, ExecutionException, IOException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    try {
+      Future<CloseableNetwork> nio = es.submit(() -> newCloseableNetwork(confs.get(0)));
+      Future<CloseableNetwork> socket = es.submit(() -> new SocketNetwork(confs.get(1)));
+      byte[] data = new byte[100000];
+      data[42] = 0x42;
+      nio.get().send(2, data);
+      assertArrayEquals(data, socket.get().receive(1));
+      socket.get().send(1, data);
+      assertArrayEquals(data, nio.get().receive(2));
+      nio.get().close();
+      socket.get().close();
+    } finally {
+      es.shutdownNow();
+    }
+  }
+
+  private void closeSockets(List<Future<NetworkConnector>> fs)
+      throws InterruptedException, ExecutionException {
+    for (Future<NetworkConnector> futureConn : fs) {
+      for (Socket s : futureConn.get().getSocketMap().values()) {
+        try {
+          s.close();
+        } catch (IOException e) {
+          // ignore
+        }
+      }
+    }
+  }
+}
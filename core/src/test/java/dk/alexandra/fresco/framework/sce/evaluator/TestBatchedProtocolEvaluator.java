@@ -0,0 +1,125 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.lib.helper.SingleProtocolProducer;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class TestBatchedProtocolEvaluator {
+
+  @Test
+  public void testFinishedEval() {
+    RecordingSuite suite = new RecordingSuite();
+    new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)
+        .eval(new SingleProtocolProducer<>(new FailingProtocol(false)),
+            new ResourcePoolImpl(1, 1), null);
+    assertEquals(Arrays.asList("beforeBatch", "finishedBatch", "finishedEval"), suite.events);
+  }
+
+  @Test
+  public void testAbortedEval() {
+    RecordingSuite suite = new RecordingSuite();
+    try {
+      new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)
+          .eval(new SingleProtocolProducer<>(new FailingProtocol(true)),
+              new ResourcePoolImpl(1, 1), null);
+      fail("The failure of the protocol should be propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("Failed", e.getMessage());
+    }
+    assertEquals(Arrays.asList("beforeBatch", "abortedEval"), suite.events);
+  }
+
+  @Test
+  public void testAbortedEvalAfterFailingFinishedEval() {
+    RecordingSuite suite = new RecordingSuite();
+    suite.failFinishedEval = true;
+    try {
+      new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite)
+          .eval(new SingleProtocolProducer<>(new FailingProtocol(false)),
+              new ResourcePoolImpl(1, 1), null);
+      fail("The failure of the round synchronization should be propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("Check failed", e.getMessage());
+    }
+    assertEquals(Arrays.asList("beforeBatch", "finishedBatch", "finishedEval", "abortedEval"),
+        suite.events);
+  }
+
+  private static class FailingProtocol implements NativeProtocol<Void, ResourcePool> {
+
+    private final boolean fail;
+
+    private FailingProtocol(boolean fail) {
+      this.fail = fail;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (fail) {
+        throw new IllegalStateException("Failed");
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  private static class RecordingSuite
+      implements ProtocolSuite<ResourcePool, ProtocolBuilder>,
+      ProtocolSuite.RoundSynchronization<ResourcePool> {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private boolean failFinishedEval;
+
+    @Override
+    public BuilderFactory<ProtocolBuilder> init(ResourcePool resourcePool) {
+      return null;
+    }
+
+    @Override
+    public RoundSynchronization<ResourcePool> createRoundSynchronization() {
+      return this;
+    }
+
+    @Override
+    public void beforeBatch(ProtocolCollection<ResourcePool> protocols,
+        ResourcePool resourcePool, Network network) {
+      events.add("beforeBatch");
+    }
+
+    @Override
+    public void finishedBatch(int gatesEvaluated, ResourcePool resourcePool, Network network) {
+      events.add("finishedBatch");
+    }
+
+    @Override
+    public void finishedEval(ResourcePool resourcePool, Network network) {
+      events.add("finishedEval");
+      if (failFinishedEval) {
+        throw new IllegalStateException("Check failed");
+      }
+    }
+
+    @Override
+    public void abortedEval(ResourcePool resourcePool, Network network) {
+      events.add("abortedEval");
+    }
+  }
+}
@@ -14,5 +14,9 @@ public class TestEvaluationStrategy {
    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL").getStrategy(), instanceOf(SequentialStrategy.class));
    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED"), is(EvaluationStrategy.SEQUENTIAL_BATCHED));
      assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED").getStrategy(), instanceOf(BatchedStrategy.class));
+   assertThat(EvaluationStrategy.valueOf("PARALLEL_BATCHED"), is(EvaluationStrategy.PARALLEL_BATCHED));
+   assertThat(EvaluationStrategy.valueOf("PARALLEL_BATCHED").getStrategy(), instanceOf(ParallelBatchedStrategy.class));
+   assertThat(EvaluationStrategy.valueOf("PIPELINED_BATCHED"), is(EvaluationStrategy.PIPELINED_BATCHED));
+   assertThat(EvaluationStrategy.valueOf("PIPELINED_BATCHED").getStrategy(), instanceOf(PipelinedStrategy.class));
  }
 }
@@ -0,0 +1,177 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.OrderedResourceAccess;
+import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class TestParallelBatchedStrategy {
+
+  @Test
+  public void testSendLayout() {
+    RecordingNetwork network = new RecordingNetwork();
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(3);
+    for (int i = 0; i < 3; i++) {
+      protocols.addProtocol(new EchoProtocol((byte) i));
+    }
+    new ParallelBatchedStrategy<>(ForkJoinPool.commonPool(), 2)
+        .processBatch(protocols, new ResourcePoolImpl(1, 2), new NetworkBatchDecorator(2, network));
+    // the first partition holds two protocols, the second holds one
+    byte[] expected = new byte[]{0, 0, 0, 4, 1, 0, 1, 1, 0, 0, 0, 2, 1, 2};
+    assertEquals(1, network.sent.size());
+    assertArrayEquals(expected, network.sent.get(0));
+  }
+
+  @Test
+  public void testReceiveLayout() {
+    RecordingNetwork network = new RecordingNetwork();
+    network.incoming = new byte[]{0, 0, 0, 4, 1, 10, 1, 11, 0, 0, 0, 2, 1, 12};
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(3);
+    List<EchoProtocol> echoes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      EchoProtocol protocol = new EchoProtocol((byte) i);
+      echoes.add(protocol);
+      protocols.addProtocol(protocol);
+    }
+    new ParallelBatchedStrategy<>(ForkJoinPool.commonPool(), 2)
+        .processBatch(protocols, new ResourcePoolImpl(1, 2), new NetworkBatchDecorator(2, network));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(10 + i, (byte) echoes.get(i).out());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPartitionSize() {
+    new ParallelBatchedStrategy<>(ForkJoinPool.commonPool(), 0);
+  }
+
+  @Test
+  public void testOrderedResourceAccess() {
+    List<String> events = new ArrayList<>();
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(5);
+    for (int i = 0; i < 5; i++) {
+      protocols.addProtocol(new OrderedProtocol(i, events));
+    }
+    new ParallelBatchedStrategy<>(ForkJoinPool.commonPool(), 2)
+        .processBatch(protocols, new ResourcePoolImpl(1, 2), new NetworkBatchDecorator(2, null));
+    assertEquals(Arrays.asList("before 0", "before 1", "before 2", "before 3", "before 4",
+        "after 0", "after 1", "after 2", "after 3", "after 4"), events);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedSuite() {
+    new BatchedProtocolEvaluator<>(new ParallelBatchedStrategy<>(),
+        new ProtocolSuite<ResourcePool, ProtocolBuilder>() {
+
+          @Override
+          public BuilderFactory<ProtocolBuilder> init(ResourcePool resourcePool) {
+            return null;
+          }
+
+          @Override
+          public RoundSynchronization<ResourcePool> createRoundSynchronization() {
+            return new DummyRoundSynchronization<>();
+          }
+        });
+  }
+
+  /**
+   * Records the calls taking and storing resources, which happen outside the concurrent
+   * evaluation.
+   */
+  private static class OrderedProtocol
+      implements NativeProtocol<Void, ResourcePool>, OrderedResourceAccess<ResourcePool> {
+
+    private final int index;
+    private final List<String> events;
+
+    private OrderedProtocol(int index, List<String> events) {
+      this.index = index;
+      this.events = events;
+    }
+
+    @Override
+    public void beforeRound(int round, ResourcePool resourcePool) {
+      events.add("before " + index);
+    }
+
+    @Override
+    public void afterRound(int round, ResourcePool resourcePool) {
+      events.add("after " + index);
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  /**
+   * Sends a single byte to party 2 and outputs the byte received back from party 2.
+   */
+  private static class EchoProtocol implements NativeProtocol<Byte, ResourcePool> {
+
+    private final byte value;
+    private byte received;
+
+    private EchoProtocol(byte value) {
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (round == 0) {
+        network.send(2, new byte[]{value});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      } else {
+        received = network.receive(2)[0];
+        return EvaluationStatus.IS_DONE;
+      }
+    }
+
+    @Override
+    public Byte out() {
+      return received;
+    }
+  }
+
+  private static class RecordingNetwork implements Network {
+
+    private final List<byte[]> sent = new ArrayList<>();
+    private byte[] incoming;
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      assertEquals(2, partyId);
+      sent.add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      assertEquals(2, partyId);
+      return incoming == null ? sent.get(0) : incoming;
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 2;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class TestPipelinedStrategy {
+
+  @Test
+  public void testEvaluationOrder() {
+    List<String> log = new ArrayList<>();
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(4);
+    for (int i = 0; i < 4; i++) {
+      protocols.addProtocol(new LoggingProtocol(i, log));
+    }
+    LoopbackNetwork network = new LoopbackNetwork(log);
+    new PipelinedStrategy<>(2)
+        .processBatch(protocols, new ResourcePoolImpl(1, 1), new NetworkBatchDecorator(1, network));
+    // two stages of two protocols each, the first stage sending its messages before the second
+    // stage is evaluated, and both stages evaluating a round before the next round
+    assertEquals(Arrays.asList("0:0", "1:0", "send", "2:0", "3:0", "send",
+        "0:1", "receive", "1:1", "2:1", "receive", "3:1"), log);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalStages() {
+    new PipelinedStrategy<>(0);
+  }
+
+  /**
+   * Sends its id to itself in the first round and checks it in the second round.
+   */
+  private static class LoggingProtocol implements NativeProtocol<Void, ResourcePool> {
+
+    private final int id;
+    private final List<String> log;
+
+    private LoggingProtocol(int id, List<String> log) {
+      this.id = id;
+      this.log = log;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      log.add(id + ":" + round);
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) id});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      } else {
+        assertEquals(id, network.receive(1)[0]);
+        return EvaluationStatus.IS_DONE;
+      }
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  private static class LoopbackNetwork implements Network {
+
+    private final List<byte[]> queue = new ArrayList<>();
+    private final List<String> log;
+
+    private LoopbackNetwork(List<String> log) {
+      this.log = log;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      log.add("send");
+      queue.add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      log.add("receive");
+      return queue.remove(0);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
@@ -28,4 +28,19 @@ public class BatchEvaluationLoggingDecoratorTest {
     decorator.reset();
     Assert.assertEquals(0, decorator.getLoggedValues().get("AMOUNT_OF_BATCHES").intValue());
   }
+
+  @Test
+  public void metrics() {
+    SimpleMetricsRegistry metrics = new SimpleMetricsRegistry();
+    BatchEvaluationLoggingDecorator<ResourcePool> decorator =
+        new BatchEvaluationLoggingDecorator<>(delegate, metrics);
+
+    decorator.processBatch(collection, mock(ResourcePool.class), mock(NetworkBatchDecorator.class));
+    decorator.processBatch(collection, mock(ResourcePool.class), mock(NetworkBatchDecorator.class));
+    Assert.assertEquals(2,
+        metrics.getLoggedValues().get(BatchEvaluationLoggingDecorator.BATCH_COUNTER).intValue());
+    Assert.assertEquals(2, metrics.getLoggedValues()
+        .get(BatchEvaluationLoggingDecorator.BATCH_NANOS + SimpleMetricsRegistry.COUNT)
+        .intValue());
+  }
 }
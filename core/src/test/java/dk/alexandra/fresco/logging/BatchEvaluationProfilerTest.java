@@ -0,0 +1,214 @@
+package dk.alexandra.fresco.logging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.builder.ComputationTrace;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchEvaluationProfilerTest {
+
+  private Map<Integer, CloseableNetwork> networks;
+  private BatchEvaluationProfiler<ResourcePool> profiler;
+
+  @Before
+  public void setup() {
+    ComputationTrace.setEnabled(false);
+    // only the first party evaluates, the second party just receives what is sent to it
+    networks = new InMemoryNetworkFactory(2).createNetworks();
+    profiler = new BatchEvaluationProfiler<>(new BatchedStrategy<>());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    for (CloseableNetwork network : networks.values()) {
+      network.close();
+    }
+    profiler.close();
+  }
+
+  private void processBatch(NativeProtocol<?, ResourcePool>... protocols) {
+    processBatch(networks.get(1), protocols);
+  }
+
+  private void processBatch(Network network, NativeProtocol<?, ResourcePool>... protocols) {
+    ProtocolCollectionList<ResourcePool> collection = new ProtocolCollectionList<>(10);
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      collection.addProtocol(protocol);
+    }
+    profiler.processBatch(collection, new ResourcePoolImpl(1, 2),
+        new NetworkBatchDecorator(2, network));
+  }
+
+  @Test
+  public void testEnablesTracing() {
+    assertTrue(ComputationTrace.isEnabled());
+  }
+
+  @Test
+  public void testCloseRestoresTracing() {
+    BatchEvaluationProfiler<ResourcePool> nested =
+        new BatchEvaluationProfiler<>(new BatchedStrategy<>());
+    nested.close();
+    assertTrue(ComputationTrace.isEnabled());
+    profiler.close();
+    assertFalse(ComputationTrace.isEnabled());
+    profiler.close();
+    assertFalse(ComputationTrace.isEnabled());
+  }
+
+  @Test
+  public void testLoggedValues() {
+    EchoProtocol first = new EchoProtocol(3);
+    processBatch(first, new EchoProtocol(5), new LocalProtocol());
+    assertArrayEquals(new byte[3], first.out());
+    Map<String, Long> values = profiler.getLoggedValues();
+    assertEquals(2, values.get(BatchEvaluationProfiler.PROFILE_PROTOCOLS
+        + "BatchEvaluationProfilerTest$EchoProtocol").longValue());
+    assertEquals(4, values.get(BatchEvaluationProfiler.PROFILE_ROUNDS
+        + "BatchEvaluationProfilerTest$EchoProtocol").longValue());
+    assertEquals(8, values.get(BatchEvaluationProfiler.PROFILE_BYTES_SENT
+        + "BatchEvaluationProfilerTest$EchoProtocol").longValue());
+    assertTrue(values.get(BatchEvaluationProfiler.PROFILE_THREAD_CPU_NANOS
+        + "BatchEvaluationProfilerTest$EchoProtocol") > 0);
+    assertEquals(1, values.get(BatchEvaluationProfiler.PROFILE_ROUNDS
+        + "BatchEvaluationProfilerTest$LocalProtocol").longValue());
+    assertEquals(0, values.get(BatchEvaluationProfiler.PROFILE_BYTES_SENT
+        + "BatchEvaluationProfilerTest$LocalProtocol").longValue());
+    // the local protocol is done in the first round, which ends when the echo protocols start
+    // their second round
+    assertTrue(values.get(BatchEvaluationProfiler.PROFILE_THREAD_CPU_NANOS
+        + "BatchEvaluationProfilerTest$LocalProtocol") > 0);
+  }
+
+  @Test
+  public void testConcurrentEvaluation() {
+    BatchEvaluationProfiler<ResourcePool> parallel = new BatchEvaluationProfiler<>(
+        new ParallelBatchedStrategy<>(new ForkJoinPool(2), 1));
+    ProtocolCollectionList<ResourcePool> collection = new ProtocolCollectionList<>(10);
+    for (int i = 0; i < 4; i++) {
+      collection.addProtocol(new EchoProtocol(1));
+    }
+    parallel.processBatch(collection, new ResourcePoolImpl(1, 2),
+        new NetworkBatchDecorator(2, networks.get(1)));
+    parallel.close();
+    Map<String, Long> values = parallel.getLoggedValues();
+    assertEquals(4, values.get(BatchEvaluationProfiler.PROFILE_PROTOCOLS
+        + "BatchEvaluationProfilerTest$EchoProtocol").longValue());
+    assertTrue(values.get(BatchEvaluationProfiler.PROFILE_THREAD_CPU_NANOS
+        + "BatchEvaluationProfilerTest$EchoProtocol") > 0);
+  }
+
+  @Test
+  public void testWaitingForMessagesIsNotCharged() {
+    Network network = networks.get(1);
+    Network slowNetwork = new Network() {
+      @Override
+      public void send(int partyId, byte[] data) {
+        network.send(partyId, data);
+      }
+
+      @Override
+      public byte[] receive(int partyId) {
+        ExceptionConverter.safe(() -> {
+          Thread.sleep(200);
+          return null;
+        }, "Interrupted");
+        return network.receive(partyId);
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return network.getNoOfParties();
+      }
+    };
+    processBatch(slowNetwork, new EchoProtocol(1));
+    long nanos = profiler.getLoggedValues().get(BatchEvaluationProfiler.PROFILE_THREAD_CPU_NANOS
+        + "BatchEvaluationProfilerTest$EchoProtocol");
+    assertTrue(nanos < TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  public void testFoldedStacks() {
+    processBatch(new EchoProtocol(1), new LocalProtocol());
+    processBatch(new EchoProtocol(2));
+    List<String> stacks = new ArrayList<>(
+        profiler.getFoldedStacks(BatchEvaluationProfiler.Metric.BYTES_SENT));
+    Collections.sort(stacks);
+    assertEquals(2, stacks.size());
+    assertEquals("BatchEvaluationProfilerTest$EchoProtocol 3", stacks.get(0));
+    assertEquals("BatchEvaluationProfilerTest$LocalProtocol 0", stacks.get(1));
+  }
+
+  @Test
+  public void testReset() {
+    processBatch(new EchoProtocol(1));
+    profiler.reset();
+    assertTrue(profiler.getLoggedValues().isEmpty());
+    assertTrue(profiler.getFoldedStacks(BatchEvaluationProfiler.Metric.ROUNDS).isEmpty());
+  }
+
+  /**
+   * Sends a number of bytes to all parties and outputs the bytes received from itself.
+   */
+  private static class EchoProtocol implements NativeProtocol<byte[], ResourcePool> {
+
+    private final int size;
+    private byte[] received;
+
+    private EchoProtocol(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      if (round == 0) {
+        network.sendToAll(new byte[size]);
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      } else {
+        received = network.receive(1);
+        return EvaluationStatus.IS_DONE;
+      }
+    }
+
+    @Override
+    public byte[] out() {
+      return received;
+    }
+  }
+
+  private static class LocalProtocol implements NativeProtocol<Void, ResourcePool> {
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+}
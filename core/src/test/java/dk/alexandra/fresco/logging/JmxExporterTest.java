@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.logging;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JmxExporterTest {
+
+  private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+  private SimpleMetricsRegistry registry;
+  private JmxExporter exporter;
+
+  @Before
+  public void setup() {
+    registry = new SimpleMetricsRegistry();
+    exporter = new JmxExporter(registry, "party 1");
+  }
+
+  @After
+  public void tearDown() {
+    if (server.isRegistered(exporter.getObjectName())) {
+      exporter.close();
+    }
+  }
+
+  @Test
+  public void testRegistered() {
+    assertTrue(server.isRegistered(exporter.getObjectName()));
+    assertThat(exporter.getObjectName().getDomain(), is(JmxExporter.DOMAIN));
+  }
+
+  @Test
+  public void testAttributes() throws Exception {
+    registry.counter("counter").add(3);
+    registry.histogram("histogram").record(10);
+    assertThat(server.getAttribute(exporter.getObjectName(), "counter"), is(3L));
+    assertThat(server.getAttribute(exporter.getObjectName(),
+        "histogram" + SimpleMetricsRegistry.MAX), is(10L));
+    registry.counter("counter").increment();
+    assertThat(server.getAttribute(exporter.getObjectName(), "counter"), is(4L));
+    MBeanAttributeInfo[] attributes = server.getMBeanInfo(exporter.getObjectName())
+        .getAttributes();
+    assertTrue(Arrays.stream(attributes).anyMatch(a -> a.getName().equals("counter")));
+  }
+
+  @Test(expected = AttributeNotFoundException.class)
+  public void testUnknownAttribute() throws Exception {
+    server.getAttribute(exporter.getObjectName(), "unknown");
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    registry.counter("counter").add(3);
+    server.invoke(exporter.getObjectName(), "reset", null, null);
+    assertThat(server.getAttribute(exporter.getObjectName(), "counter"), is(0L));
+  }
+
+  @Test
+  public void testClose() {
+    exporter.close();
+    assertFalse(server.isRegistered(exporter.getObjectName()));
+  }
+}
@@ -6,9 +6,12 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
 import dk.alexandra.fresco.logging.NetworkLoggingDecorator.PartyStats;
 import java.util.HashMap;
+import java.util.Map;
 import org.junit.Test;
 
 public class NetworkLoggingDecoratorTest {
@@ -44,4 +47,22 @@ public class NetworkLoggingDecoratorTest {
 
     verify(partyStatsMap, times(1)).clear();
   }
+
+  @Test
+  public void metrics() throws Exception {
+    Map<Integer, CloseableNetwork> networks = new InMemoryNetworkFactory(2).createNetworks();
+    SimpleMetricsRegistry metrics = new SimpleMetricsRegistry();
+    try (NetworkLoggingDecorator decorator = new NetworkLoggingDecorator(networks.get(1),
+        metrics)) {
+      decorator.send(2, new byte[3]);
+      networks.get(2).send(1, networks.get(2).receive(1));
+      decorator.receive(2);
+    }
+    networks.get(2).close();
+    Map<String, Long> values = metrics.getLoggedValues();
+    assertThat(values.get(NetworkLoggingDecorator.NETWORK_BYTES_SENT + 2), is(3L));
+    assertThat(values.get(NetworkLoggingDecorator.NETWORK_BYTES_RECEIVED + 2), is(3L));
+    assertThat(values.get(NetworkLoggingDecorator.NETWORK_RECEIVE_NANOS
+        + SimpleMetricsRegistry.COUNT), is(1L));
+  }
 }
@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.logging;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.logging.MetricsRegistry.Counter;
+import dk.alexandra.fresco.logging.MetricsRegistry.Histogram;
+import dk.alexandra.fresco.logging.SimpleMetricsRegistry.SimpleHistogram;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class SimpleMetricsRegistryTest {
+
+  @Test
+  public void testCounter() {
+    SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+    Counter counter = registry.counter("counter");
+    counter.increment();
+    counter.add(41);
+    assertTrue(counter == registry.counter("counter"));
+    assertThat(registry.getLoggedValues().get("counter"), is(42L));
+  }
+
+  @Test
+  public void testGauge() {
+    SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+    AtomicLong value = new AtomicLong(7);
+    registry.gauge("gauge", value::get);
+    assertThat(registry.getLoggedValues().get("gauge"), is(7L));
+    value.set(9);
+    assertThat(registry.getLoggedValues().get("gauge"), is(9L));
+  }
+
+  @Test
+  public void testHistogram() {
+    SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+    Histogram histogram = registry.histogram("histogram");
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    Map<String, Long> values = registry.getLoggedValues();
+    assertThat(values.get("histogram" + SimpleMetricsRegistry.COUNT), is(100L));
+    assertThat(values.get("histogram" + SimpleMetricsRegistry.SUM), is(5050L));
+    assertThat(values.get("histogram" + SimpleMetricsRegistry.MAX), is(100L));
+    assertWithinBucket(values.get("histogram" + SimpleMetricsRegistry.P50), 50);
+    assertWithinBucket(values.get("histogram" + SimpleMetricsRegistry.P90), 90);
+    assertWithinBucket(values.get("histogram" + SimpleMetricsRegistry.P99), 99);
+  }
+
+  @Test
+  public void testEmptyHistogram() {
+    Histogram histogram = new SimpleMetricsRegistry().histogram("histogram");
+    assertThat(histogram.getPercentile(50), is(0L));
+    assertThat(histogram.getMax(), is(0L));
+  }
+
+  @Test
+  public void testPercentileCappedAtMax() {
+    Histogram histogram = new SimpleMetricsRegistry().histogram("histogram");
+    histogram.record(1000);
+    assertThat(histogram.getPercentile(100), is(histogram.getPercentile(0)));
+    assertTrue(histogram.getPercentile(100) <= 1000);
+  }
+
+  @Test
+  public void testBuckets() {
+    long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = SimpleHistogram.indexOf(value);
+      assertTrue(SimpleHistogram.lowerBoundOf(index) <= value);
+      assertWithinBucket(SimpleHistogram.lowerBoundOf(index), value);
+      if (value < Long.MAX_VALUE) {
+        assertTrue(SimpleHistogram.indexOf(value + 1) >= index);
+      }
+    }
+    for (int i = 0; i < 16; i++) {
+      assertThat(SimpleHistogram.lowerBoundOf(SimpleHistogram.indexOf(i)), is((long) i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValue() {
+    new SimpleMetricsRegistry().histogram("histogram").record(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPercentile() {
+    new SimpleMetricsRegistry().histogram("histogram").getPercentile(101);
+  }
+
+  @Test
+  public void testReset() {
+    SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+    registry.counter("counter").add(5);
+    registry.histogram("histogram").record(5);
+    registry.gauge("gauge", () -> 3);
+    registry.reset();
+    Map<String, Long> values = registry.getLoggedValues();
+    assertThat(values.get("counter"), is(0L));
+    assertThat(values.get("histogram" + SimpleMetricsRegistry.COUNT), is(0L));
+    assertThat(values.get("histogram" + SimpleMetricsRegistry.MAX), is(0L));
+    assertThat(values.get("gauge"), is(3L));
+  }
+
+  @Test
+  public void testNoop() {
+    MetricsRegistry registry = MetricsRegistry.noop();
+    registry.counter("counter").increment();
+    registry.histogram("histogram").record(1);
+    registry.gauge("gauge", () -> 1);
+    assertThat(registry.counter("counter").getCount(), is(0L));
+    assertTrue(registry.getLoggedValues().isEmpty());
+  }
+
+  private static void assertWithinBucket(long estimate, long value) {
+    assertTrue(estimate <= value);
+    assertTrue(value - estimate <= value / 8);
+  }
+}
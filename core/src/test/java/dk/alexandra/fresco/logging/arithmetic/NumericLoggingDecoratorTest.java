@@ -8,6 +8,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,6 +73,23 @@ public class NumericLoggingDecoratorTest {
     verify(delegate, times(1)).mult(firstArgument, secondArgument);
   }
 
+  @Test
+  public void multAll() {
+    List<DRes<SInt>> firstArgument = Collections.singletonList(mock(DRes.class));
+    List<DRes<SInt>> secondArgument = Collections.singletonList(mock(DRes.class));
+    decorator.multAll(firstArgument, secondArgument);
+    verify(delegate, times(1)).multAll(firstArgument, secondArgument);
+    Assert.assertEquals(1L,
+        (long) decorator.getLoggedValues().get(NumericLoggingDecorator.ARITHMETIC_BASIC_MULT));
+  }
+
+  @Test
+  public void openAll() {
+    List<DRes<SInt>> argument = Collections.singletonList(mock(DRes.class));
+    decorator.openAll(argument);
+    verify(delegate, times(1)).openAll(argument);
+  }
+
   @Test
   public void testMult() {
     BigInteger firstArgument = mock(BigInteger.class);
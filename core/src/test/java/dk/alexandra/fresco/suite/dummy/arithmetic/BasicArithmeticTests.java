@@ -576,6 +576,39 @@ public class BasicArithmeticTests {
     }
   }
 
+  public static class TestMultAllAndOpenAll<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 100;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> left = new ArrayList<>(size);
+                List<DRes<SInt>> right = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                  left.add(numeric.input(i, 1));
+                  right.add(numeric.known(i + 1));
+                }
+                return Pair.lazy(left, right);
+              }).par((par, pair) -> par.numeric().multAll(pair.getFirst(), pair.getSecond()))
+                  .par((par, products) -> par.numeric().openAll(products));
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(size));
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(BigInteger.valueOf(i * (i + 1)), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Test a computation of doing a many multiplications and additions alternating between the two.
    * This should ensure batches with both types of protocols.
@@ -5,6 +5,8 @@ import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests.TestInputFromDifferentParties;
 import dk.alexandra.fresco.suite.dummy.arithmetic.ParallelAndSequenceTests.TestSumAndProduct;
+import dk.alexandra.fresco.framework.builder.numeric.field.LongFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
 import org.junit.Test;
 
@@ -34,6 +36,20 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
         .get(NetworkLoggingDecorator.NETWORK_TOTAL_BYTES), is((long) 0));
   }
 
+  @Test
+  public void test_Input_From_All_Parallel_Batched() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_Input_From_All_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
   @Test
   public void test_AddPublicValue_Sequential() {
     runTest(new BasicArithmeticTests.TestAddPublicValue<>(), new TestParameters());
@@ -109,6 +125,40 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters());
   }
 
+  @Test
+  public void test_TestMultAllAndOpenAll() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(), new TestParameters());
+  }
+
+  @Test
+  public void test_TestLotsMult_Parallel_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_TestLotsMult_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
+  @Test
+  public void test_TestLotsMult_Long_Field() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .field(new LongFieldDefinition(LongFieldDefinition.MERSENNE_PRIME_61))
+        .maxBitLength(30));
+  }
+
+  @Test
+  public void test_TestMultiplyWithOverflow_Long_Field() {
+    runTest(new BasicArithmeticTests.TestMultiplyWithOverflow<>(), new TestParameters()
+        .field(new LongFieldDefinition(LongFieldDefinition.MERSENNE_PRIME_61))
+        .maxBitLength(30));
+  }
+
   @Test
   public void test_TestAlternatingMultAdd() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), new TestParameters());
@@ -124,6 +174,20 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new TestSumAndProduct<>(), new TestParameters());
   }
 
+  @Test
+  public void testSumAndProduct_Parallel_Batched() {
+    runTest(new TestSumAndProduct<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_TestRandomElement_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestRandomElement<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
   @Test
   public void test_TestRandomBit() {
     runTest(new BasicArithmeticTests.TestRandomBit<>(), new TestParameters());
@@ -35,10 +35,8 @@ import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesNaorPinkasOt;
-import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
-import dk.alexandra.fresco.suite.tinytables.util.Util;
 import dk.alexandra.fresco.tools.ot.base.DhParameters;
 import dk.alexandra.fresco.tools.ot.base.NaorPinkasOt;
 import dk.alexandra.fresco.tools.ot.base.Ot;
@@ -94,12 +92,10 @@ public class CmdLineProtocolSuite {
       String tinyTablesFilePath = properties.getProperty(tinytablesFileOption, "tinytables");
       this.protocolSuite = tinyTablesPreProFromCmdLine(properties);
       Drbg random = new AesCtrDrbg();
-      TinyTablesOt baseOt = new TinyTablesNaorPinkasOt(Util.otherPlayerId(myId), random,
-          DhParameters
-              .getStaticDhParams());
-      this.resourcePool = new TinyTablesPreproResourcePool(myId, baseOt,
-          random, 128, 40, 16000, new File(
-              tinyTablesFilePath), networkSupplier);
+      this.resourcePool = new TinyTablesPreproResourcePool(myId, noOfPlayers,
+          otherId -> new TinyTablesNaorPinkasOt(otherId, random,
+              DhParameters.getStaticDhParams()),
+          random, 128, 40, new File(tinyTablesFilePath), networkSupplier);
     } else {
       this.protocolSuite = tinyTablesFromCmdLine(properties);
       this.resourcePool = new ResourcePoolImpl(myId, noOfPlayers);
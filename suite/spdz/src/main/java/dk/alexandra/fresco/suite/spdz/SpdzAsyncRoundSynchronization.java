@@ -0,0 +1,209 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.StreamSupport;
+
+/**
+ * A round synchronization for spdz which runs the mac checks in a background thread on a separate
+ * network, overlapping them with the evaluation of the following batches.
+ *
+ * <p>Checks triggered by the number of opened values exceeding the threshold do not block the
+ * evaluation. Only before and after evaluating a batch containing a {@link SpdzOutputProtocol},
+ * and at the end of the evaluation, does the evaluation wait for all outstanding checks to
+ * succeed, ensuring that no output is released before all values opened so far have been
+ * checked. The checks are run in the order they are triggered, which is the same for all
+ * parties.</p>
+ *
+ * <p>Failed checks are only reported when joining, even if they finish earlier, such that all
+ * parties abort at the same point of the evaluation. When the evaluation is aborted the pending
+ * checks are cancelled, the background thread is stopped and the mac check network is closed, as
+ * the parties may have left messages on it.</p>
+ */
+public class SpdzAsyncRoundSynchronization extends SpdzRoundSynchronization {
+
+  private final Network macCheckNetwork;
+  private final Deque<Future<Void>> pendingChecks;
+  private ExecutorService executor;
+  private boolean isCheckRequired;
+
+  /**
+   * Creates new {@link SpdzAsyncRoundSynchronization}.
+   *
+   * @param spdzProtocolSuite the spdz protocol suite which we will use for the mac-check
+   *     computation
+   * @param macCheckNetwork network used only for the mac checks. The network must be connected to
+   *     the same parties as the network used for the evaluation.
+   * @param openValueThreshold number of open values we accumulate before starting a mac-check in
+   *     the background
+   * @param batchSize batch size for mac-check protocol
+   */
+  public SpdzAsyncRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite,
+      Network macCheckNetwork, int openValueThreshold, int batchSize) {
+    super(spdzProtocolSuite, openValueThreshold, batchSize);
+    this.macCheckNetwork = macCheckNetwork;
+    this.pendingChecks = new ArrayDeque<>();
+    this.isCheckRequired = false;
+  }
+
+  /**
+   * Creates new {@link SpdzAsyncRoundSynchronization} with default threshold and batch size.
+   *
+   * @param spdzProtocolSuite the spdz protocol suite which we will use for the mac-check
+   *     computation
+   * @param macCheckNetwork network used only for the mac checks
+   */
+  public SpdzAsyncRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite,
+      Network macCheckNetwork) {
+    this(spdzProtocolSuite, macCheckNetwork, DEFAULT_VALUE_THRESHOLD, DEFAULT_BATCH_SIZE);
+  }
+
+  @Override
+  public void beforeBatch(ProtocolCollection<SpdzResourcePool> protocols,
+      SpdzResourcePool resourcePool, Network network) {
+    ensureJointSeed(resourcePool, network);
+    isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
+        .anyMatch(p -> p instanceof SpdzOutputProtocol);
+    if (isCheckRequired) {
+      startMacCheck(resourcePool);
+      awaitMacChecks();
+    }
+  }
+
+  @Override
+  public void finishedBatch(int gatesEvaluated, SpdzResourcePool resourcePool, Network network) {
+    if (isCheckRequired) {
+      startMacCheck(resourcePool);
+      awaitMacChecks();
+      isCheckRequired = false;
+    } else if (resourcePool.getOpenedValueStore().exceedsThreshold(getOpenValueThreshold())) {
+      startMacCheck(resourcePool);
+    }
+  }
+
+  @Override
+  public void finishedEval(SpdzResourcePool resourcePool, Network network) {
+    try {
+      startMacCheck(resourcePool);
+      awaitMacChecks();
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+        executor = null;
+      }
+    }
+  }
+
+  @Override
+  public void abortedEval(SpdzResourcePool resourcePool, Network network) {
+    try {
+      for (Future<Void> check : pendingChecks) {
+        check.cancel(true);
+      }
+      pendingChecks.clear();
+      if (executor != null) {
+        executor.shutdownNow();
+        executor = null;
+      }
+    } finally {
+      getProtocolSuite().discardMacCheckNetwork(macCheckNetwork);
+    }
+  }
+
+  @Override
+  protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
+    startMacCheck(resourcePool);
+    awaitMacChecks();
+  }
+
+  /**
+   * Pops all pending opened values from the store and checks them in the background.
+   */
+  private void startMacCheck(SpdzResourcePool resourcePool) {
+    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
+    if (!store.hasPendingValues()) {
+      return;
+    }
+    Pair<List<SpdzSInt>, List<FieldElement>> toCheck = store.popValues();
+    // read from the resource pool here as the data supplier is not necessarily thread safe
+    FieldElement keyShare = resourcePool.getDataSupplier().getSecretSharedKey();
+    BigInteger modulus = resourcePool.getModulus();
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpdzMacCheck-" + resourcePool.getMyId());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    pendingChecks.add(executor.submit(() -> {
+      long then = System.nanoTime();
+      SpdzMacCheckProtocol macCheck = new SpdzMacCheckProtocol(toCheck, modulus,
+          resourcePool::createRandomGenerator, keyShare, resourcePool.getDrbgSeedBitLength());
+      SpdzBuilder spdzBuilder = new SpdzBuilder(
+          getProtocolSuite().createNumericContext(resourcePool));
+      ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
+      macCheck.buildComputation(sequential);
+      // the check must not trigger round synchronizations which would access the store
+      BatchedProtocolEvaluator<SpdzResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          new BatchedStrategy<>(), new MacCheckSuite(), getBatchSize());
+      evaluator.eval(sequential.build(), resourcePool, macCheckNetwork);
+      recordMacCheck(toCheck.getFirst().size(), System.nanoTime() - then);
+      return null;
+    }));
+  }
+
+  /**
+   * Waits for all started mac checks to finish.
+   */
+  private void awaitMacChecks() {
+    while (!pendingChecks.isEmpty()) {
+      join(pendingChecks.poll());
+    }
+  }
+
+  private void join(Future<Void> check) {
+    try {
+      check.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for mac check", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Mac check failed", e.getCause());
+    }
+  }
+
+  private class MacCheckSuite implements ProtocolSuite<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public BuilderFactoryNumeric init(SpdzResourcePool resourcePool) {
+      return getProtocolSuite().init(resourcePool);
+    }
+
+    @Override
+    public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+      return new DummyRoundSynchronization<>();
+    }
+  }
+}
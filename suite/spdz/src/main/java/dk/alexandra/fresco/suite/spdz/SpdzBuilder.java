@@ -11,15 +11,18 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputSingleProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllListProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
@@ -87,6 +90,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> multAll(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        return protocolBuilder.append(new SpdzMultAllProtocol(a, b));
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
         SpdzMultProtocolKnownLeft spdzMultProtocol4 = new SpdzMultProtocolKnownLeft(a, b);
@@ -120,6 +128,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(openProtocol);
       }
 
+      @Override
+      public DRes<List<BigInteger>> openAll(List<DRes<SInt>> secretShares) {
+        return protocolBuilder.append(new SpdzOutputToAllListProtocol(secretShares));
+      }
+
       @Override
       public DRes<BigInteger> open(DRes<SInt> secretShare, int outputParty) {
         SpdzOutputSingleProtocol openProtocol = new SpdzOutputSingleProtocol(secretShare,
@@ -11,14 +11,20 @@ public class SpdzExponentiationPipeProtocol extends SpdzNativeProtocol<List<DRes
 
   private List<DRes<SInt>> result;
   private int pipeLength;
+  private SInt[] pipe;
 
   public SpdzExponentiationPipeProtocol(int pipeLength) {
     this.pipeLength = pipeLength;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool resourcePool) {
+    pipe = resourcePool.getDataSupplier().getNextExpPipe();
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
-    SInt[] pipe = resourcePool.getDataSupplier().getNextExpPipe();
+    prepareRound(round, resourcePool);
     if (pipe.length < pipeLength + 1) {
       throw new IllegalStateException(
           "Preprocessed exponentiation pipe is not long enough."
@@ -0,0 +1,21 @@
+package dk.alexandra.fresco.suite.spdz;
+
+/**
+ * The ways in which the spdz protocol suite can open secret-shared values.
+ */
+public enum SpdzOpeningMode {
+
+  /**
+   * Every party sends its shares to all other parties. Opens values in a single round, but the
+   * number of messages is quadratic in the number of parties.
+   */
+  BROADCAST,
+
+  /**
+   * Every party sends its shares to a designated king party, which reconstructs the values and
+   * sends them to all other parties. The king rotates between openings. Takes an extra round, but
+   * the number of messages is linear in the number of parties. A king sending wrong or
+   * inconsistent values is caught by the mac check on the opened values.
+   */
+  KING
+}
@@ -1,17 +1,61 @@
 package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.logging.MetricsRegistry;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool> {
 
+  private static final Logger logger = LoggerFactory.getLogger(SpdzProtocolSuite.class);
+
   private final int maxBitLength;
   private final int fixedPointPrecision;
+  private final Supplier<Network> macCheckNetworkSupplier;
+  private final MetricsRegistry metrics;
+  private Network macCheckNetwork;
 
-  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+  /**
+   * Creates a spdz protocol suite which runs the mac checks asynchronously on a separate network,
+   * see {@link SpdzAsyncRoundSynchronization}.
+   *
+   * @param maxBitLength the maximum bit length of the numbers in the computation
+   * @param fixedPointPrecision the fixed point precision
+   * @param macCheckNetworkSupplier supplier of the network used only for the mac checks, or null
+   *     to run the mac checks synchronously on the network of the evaluation. The supplier is
+   *     called when the first evaluation starts, and again after an evaluation has failed.
+   */
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision,
+      Supplier<Network> macCheckNetworkSupplier) {
+    this(maxBitLength, fixedPointPrecision, macCheckNetworkSupplier, MetricsRegistry.noop());
+  }
+
+  /**
+   * Creates a spdz protocol suite reporting the duration of the mac checks to a metrics registry,
+   * see {@link SpdzRoundSynchronization#MAC_CHECK_NANOS}.
+   *
+   * @param maxBitLength the maximum bit length of the numbers in the computation
+   * @param fixedPointPrecision the fixed point precision
+   * @param macCheckNetworkSupplier supplier of the network used only for the mac checks, or null
+   *     to run the mac checks synchronously on the network of the evaluation
+   * @param metrics the registry to report to
+   */
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision,
+      Supplier<Network> macCheckNetworkSupplier, MetricsRegistry metrics) {
     this.maxBitLength = maxBitLength;
     this.fixedPointPrecision = fixedPointPrecision;
+    this.macCheckNetworkSupplier = macCheckNetworkSupplier;
+    this.metrics = metrics;
+  }
+
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+    this(maxBitLength, fixedPointPrecision, null);
   }
 
   public SpdzProtocolSuite(int maxBitLength) {
@@ -29,8 +73,48 @@ public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool>
         resourcePool.getNoOfParties(), resourcePool.getFieldDefinition(),fixedPointPrecision);
   }
 
+  MetricsRegistry getMetrics() {
+    return metrics;
+  }
+
   @Override
-  public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+  public synchronized RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+    if (macCheckNetworkSupplier != null) {
+      if (macCheckNetwork == null) {
+        macCheckNetwork = macCheckNetworkSupplier.get();
+      }
+      return new SpdzAsyncRoundSynchronization(this, macCheckNetwork);
+    }
     return new SpdzRoundSynchronization(this);
   }
+
+  /**
+   * Closes a mac check network which cannot be used any more because an evaluation failed, such
+   * that the next evaluation gets a new network from the supplier.
+   *
+   * @param network the mac check network
+   */
+  synchronized void discardMacCheckNetwork(Network network) {
+    if (network == macCheckNetwork) {
+      macCheckNetwork = null;
+    }
+    if (network instanceof Closeable) {
+      try {
+        ((Closeable) network).close();
+      } catch (IOException e) {
+        // the evaluation is failing already, so only log this
+        logger.warn("Unable to close mac check network", e);
+      }
+    }
+  }
+
+  /**
+   * The native protocols of this suite take preprocessed material and push opened values in the
+   * order of their batch when evaluated concurrently, see {@link
+   * dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol}.
+   */
+  @Override
+  public boolean supportsConcurrentEvaluation() {
+    return true;
+  }
 }
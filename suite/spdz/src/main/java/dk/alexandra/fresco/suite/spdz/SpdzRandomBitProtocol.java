@@ -9,8 +9,13 @@ public class SpdzRandomBitProtocol extends SpdzNativeProtocol<SInt> {
   private SInt out;
 
   @Override
-  public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+  protected void takeResources(int round, SpdzResourcePool resourcePool) {
     this.out = resourcePool.getDataSupplier().getNextBit();
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+    prepareRound(round, resourcePool);
     return EvaluationStatus.IS_DONE;
   }
 
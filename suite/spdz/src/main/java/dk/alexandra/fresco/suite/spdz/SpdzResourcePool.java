@@ -15,7 +15,8 @@ import java.security.MessageDigest;
 public interface SpdzResourcePool extends NumericResourcePool {
 
   /**
-   * Gets the message digest for this protocol suite invocation.
+   * Gets the message digest for this protocol suite invocation. Each thread gets a digest of its
+   * own, as native protocols may be evaluated concurrently.
    *
    * @return the message digest
    */
@@ -51,4 +52,20 @@ public interface SpdzResourcePool extends NumericResourcePool {
    */
   int getDrbgSeedBitLength();
 
+  /**
+   * Returns the way secret values are opened.
+   *
+   * @return the opening mode
+   */
+  SpdzOpeningMode getOpeningMode();
+
+  /**
+   * Returns the id of the party acting as king in the next opening when using {@link
+   * SpdzOpeningMode#KING}. The king rotates among all parties, so all parties must call this
+   * method once for each opening and in the same order.
+   *
+   * @return id of the king
+   */
+  int getNextKing();
+
 }
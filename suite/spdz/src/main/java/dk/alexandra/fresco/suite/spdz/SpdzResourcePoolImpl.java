@@ -15,11 +15,13 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
 
   private static final int DRBG_SEED_LENGTH = 256;
 
-  private final MessageDigest messageDigest;
+  private final ThreadLocal<MessageDigest> messageDigest;
   private final OpenedValueStore<SpdzSInt, FieldElement> openedValueStore;
   private final SpdzDataSupplier dataSupplier;
   private final Function<byte[], Drbg> drbgSupplier;
   private final int drbgSeedBitLength;
+  private final SpdzOpeningMode openingMode;
+  private int king;
 
   /**
    * Construct a ResourcePool implementation suitable for the spdz protocol suite.
@@ -30,18 +32,44 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
    * @param dataSupplier Pre-processing material supplier
    * @param drbgSupplier Function instantiating DRBG with given seed
    * @param drbgSeedBitLength Required bit length of seed used for DRBGs
+   * @param openingMode The way secret values are opened
    */
   public SpdzResourcePoolImpl(int myId, int noOfPlayers,
       OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
-      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength) {
+      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength, SpdzOpeningMode openingMode) {
     super(myId, noOfPlayers);
     this.dataSupplier = dataSupplier;
     this.openedValueStore = openedValueStore;
-    this.messageDigest = ExceptionConverter.safe(
+    // a digest per thread, as native protocols may be evaluated concurrently
+    this.messageDigest = ThreadLocal.withInitial(() -> ExceptionConverter.safe(
         () -> MessageDigest.getInstance("SHA-256"),
-        "Configuration error, SHA-256 is needed for Spdz");
+        "Configuration error, SHA-256 is needed for Spdz"));
     this.drbgSupplier = drbgSupplier;
     this.drbgSeedBitLength = drbgSeedBitLength;
+    this.openingMode = openingMode;
+    this.king = 0;
+  }
+
+  /**
+   * Call to {@link #SpdzResourcePoolImpl(int, int, OpenedValueStore, SpdzDataSupplier, Function,
+   * int, SpdzOpeningMode)} which opens values using {@link SpdzOpeningMode#BROADCAST}.
+   */
+  public SpdzResourcePoolImpl(int myId, int noOfPlayers,
+      OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
+      Function<byte[], Drbg> drbgSupplier, int drbgSeedBitLength) {
+    this(myId, noOfPlayers, openedValueStore, dataSupplier, drbgSupplier, drbgSeedBitLength,
+        SpdzOpeningMode.BROADCAST);
+  }
+
+  /**
+   * Call to {@link #SpdzResourcePoolImpl(int, int, OpenedValueStore, SpdzDataSupplier, Function,
+   * int, SpdzOpeningMode)} with default DRBG seed length.
+   */
+  public SpdzResourcePoolImpl(int myId, int noOfPlayers,
+      OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
+      Function<byte[], Drbg> drbgSupplier, SpdzOpeningMode openingMode) {
+    this(myId, noOfPlayers, openedValueStore, dataSupplier, drbgSupplier, DRBG_SEED_LENGTH,
+        openingMode);
   }
 
   /**
@@ -76,7 +104,18 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
 
   @Override
   public MessageDigest getMessageDigest() {
-    return messageDigest;
+    return messageDigest.get();
+  }
+
+  @Override
+  public SpdzOpeningMode getOpeningMode() {
+    return openingMode;
+  }
+
+  @Override
+  public int getNextKing() {
+    king = king % getNoOfParties() + 1;
+    return king;
   }
 
   @Override
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
@@ -7,12 +8,23 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.logging.MetricsRegistry.Counter;
+import dk.alexandra.fresco.logging.MetricsRegistry.Histogram;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzIncrementalOpenedValueStore;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.StreamSupport;
 
 /**
@@ -21,13 +33,23 @@ import java.util.stream.StreamSupport;
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
-  private static final int DEFAULT_VALUE_THRESHOLD = 1000000;
-  private static final int DEFAULT_BATCH_SIZE = 128;
+  /**
+   * Name of the histogram of the time, in nanoseconds, spent running each mac check.
+   */
+  public static final String MAC_CHECK_NANOS = "SPDZ_MAC_CHECK_NANOS";
+  /**
+   * Name of the counter of opened values checked.
+   */
+  public static final String MAC_CHECK_VALUES = "SPDZ_MAC_CHECK_VALUES";
+  static final int DEFAULT_VALUE_THRESHOLD = 1000000;
+  static final int DEFAULT_BATCH_SIZE = 128;
   private final int openValueThreshold;
   private final SpdzProtocolSuite spdzProtocolSuite;
   private final SecureRandom secRand;
   private boolean isCheckRequired = false;
   private final int batchSize;
+  private final Histogram macCheckNanos;
+  private final Counter macCheckValues;
 
   /**
    * Creates new {@link SpdzRoundSynchronization}.
@@ -45,6 +67,8 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     this.secRand = new SecureRandom();
     this.openValueThreshold = openValueThreshold;
     this.batchSize = batchSize;
+    this.macCheckNanos = spdzProtocolSuite.getMetrics().histogram(MAC_CHECK_NANOS);
+    this.macCheckValues = spdzProtocolSuite.getMetrics().counter(MAC_CHECK_VALUES);
   }
 
   public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite) {
@@ -52,14 +76,16 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   }
 
   protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
+    long then = System.nanoTime();
     SpdzBuilder spdzBuilder = new SpdzBuilder(
         spdzProtocolSuite.createNumericContext(resourcePool));
     BatchEvaluationStrategy<SpdzResourcePool> batchStrategy = new BatchedStrategy<>();
     BatchedProtocolEvaluator<SpdzResourcePool> evaluator =
         new BatchedProtocolEvaluator<>(batchStrategy, spdzProtocolSuite, batchSize);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
+    Pair<List<SpdzSInt>, List<FieldElement>> toCheck = store.popValues();
     SpdzMacCheckProtocol macCheck = new SpdzMacCheckProtocol(
-        store.popValues(),
+        toCheck,
         resourcePool.getModulus(),
         resourcePool::createRandomGenerator,
         resourcePool.getDataSupplier().getSecretSharedKey(),
@@ -67,6 +93,15 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
+    recordMacCheck(toCheck.getFirst().size(), System.nanoTime() - then);
+  }
+
+  /**
+   * Reports a completed mac check to the metrics registry of the protocol suite.
+   */
+  protected void recordMacCheck(int values, long nanos) {
+    macCheckValues.add(values);
+    macCheckNanos.record(nanos);
   }
 
   @Override
@@ -93,6 +128,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   public void beforeBatch(
       ProtocolCollection<SpdzResourcePool> protocols, SpdzResourcePool resourcePool,
       Network network) {
+    ensureJointSeed(resourcePool, network);
     isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
         .anyMatch(p -> p instanceof SpdzOutputProtocol);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
@@ -101,7 +137,67 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     }
   }
 
+  /**
+   * Agrees on the joint seed of the opened value store if the store is a {@link
+   * SpdzIncrementalOpenedValueStore} which has not been seeded yet.
+   */
+  protected void ensureJointSeed(SpdzResourcePool resourcePool, Network network) {
+    if (resourcePool.getOpenedValueStore() instanceof SpdzIncrementalOpenedValueStore) {
+      SpdzIncrementalOpenedValueStore incrementalStore =
+          (SpdzIncrementalOpenedValueStore) resourcePool.getOpenedValueStore();
+      if (!incrementalStore.hasJointSeed()) {
+        incrementalStore.setJointSeed(tossSeed(resourcePool, network));
+      }
+    }
+  }
+
+  /**
+   * Runs a coin tossing protocol directly on the network, i.e., without evaluating any protocols
+   * which would in turn trigger a round synchronization.
+   */
+  private byte[] tossSeed(SpdzResourcePool resourcePool, Network network) {
+    HashBasedCommitmentSerializer serializer = new HashBasedCommitmentSerializer();
+    byte[] ownSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    secRand.nextBytes(ownSeed);
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] ownOpening = ownCommitment.commit(new AesCtrDrbg(), ownSeed);
+    network.sendToAll(serializer.serialize(ownCommitment));
+    List<byte[]> commitments = network.receiveFromAll();
+    if (resourcePool.getNoOfParties() > 2) {
+      MessageDigest digest = resourcePool.getMessageDigest();
+      for (byte[] commitment : commitments) {
+        digest.update(commitment);
+      }
+      byte[] ownDigest = digest.digest();
+      network.sendToAll(ownDigest);
+      for (byte[] otherDigest : network.receiveFromAll()) {
+        if (!Arrays.equals(ownDigest, otherDigest)) {
+          throw new MaliciousException("Broadcast of seed commitments failed");
+        }
+      }
+    }
+    network.sendToAll(ownOpening);
+    List<byte[]> openings = network.receiveFromAll();
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (int i = 0; i < commitments.size(); i++) {
+      byte[] seed = serializer.deserialize(commitments.get(i)).open(openings.get(i));
+      if (seed.length != jointSeed.length) {
+        throw new MaliciousException("Seed has wrong length");
+      }
+      ByteArrayHelper.xor(jointSeed, seed);
+    }
+    return jointSeed;
+  }
+
   protected int getBatchSize() {
     return batchSize;
   }
+
+  protected int getOpenValueThreshold() {
+    return openValueThreshold;
+  }
+
+  protected SpdzProtocolSuite getProtocolSuite() {
+    return spdzProtocolSuite;
+  }
 }
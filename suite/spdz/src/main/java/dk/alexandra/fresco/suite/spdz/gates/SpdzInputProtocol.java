@@ -25,14 +25,21 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
     this.inputter = inputter;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      this.inputMask = spdzResourcePool.getDataSupplier().getNextInputMask(this.inputter);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
     int myId = spdzResourcePool.getMyId();
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    prepareRound(round, spdzResourcePool);
     if (round == 0) {
-      this.inputMask = dataSupplier.getNextInputMask(this.inputter);
       if (myId == this.inputter) {
         FieldElement inputElement = spdzResourcePool.getFieldDefinition().createElement(this.input);
         FieldElement bcValue = inputElement.subtract(this.inputMask.getRealValue());
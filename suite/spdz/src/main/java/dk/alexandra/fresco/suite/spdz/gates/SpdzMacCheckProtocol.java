@@ -9,11 +9,13 @@ import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
@@ -66,22 +68,24 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         .seq(new CoinTossingComputation(drbgByteLength, commitmentSerializer, localDrbg))
         .seq((seq, seed) -> {
           Drbg jointDrbg = jointDrbgSupplier.apply(seed);
-          FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition,
-              jointDrbg);
-          FieldElement a = definition.createElement(0);
-          int index = 0;
-          for (FieldElement openedValue : openedValues) {
-            FieldElement openedValueHidden = openedValue.multiply(rs[index++]);
-            a = a.add(openedValueHidden);
+          List<FieldElement> rs =
+              sampleRandomCoefficients(openedValues.size(), definition, jointDrbg);
+          List<FieldElement> macs = new ArrayList<>(closedValues.size());
+          for (SpdzSInt closedValue : closedValues) {
+            macs.add(closedValue.getMac());
           }
 
-          // compute gamma_i as the sum of all MAC's on the opened values times
-          // r_j.
-          FieldElement gamma = definition.createElement(0);
-          index = 0;
-          for (SpdzSInt closedValue : closedValues) {
-            FieldElement closedValueHidden = rs[index++].multiply(closedValue.getMac());
-            gamma = gamma.add(closedValueHidden);
+          // compute a as the sum of the opened values times r_j, and gamma_i as the sum of all
+          // MAC's on the opened values times r_j.
+          FieldElement a;
+          FieldElement gamma;
+          if (definition.hasPrimitiveVectors()) {
+            FieldElementVector rsVector = definition.createVector(rs);
+            a = definition.createVector(openedValues).innerProduct(rsVector);
+            gamma = definition.createVector(macs).innerProduct(rsVector);
+          } else {
+            a = innerProduct(definition, openedValues, rs);
+            gamma = innerProduct(definition, macs, rs);
           }
 
           // compute delta_i as: gamma_i - alpha_i*a
@@ -111,13 +115,22 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         });
   }
 
-  private FieldElement[] sampleRandomCoefficients(int numCoefficients,
+  private static FieldElement innerProduct(FieldDefinition definition, List<FieldElement> left,
+      List<FieldElement> right) {
+    FieldElement sum = definition.createElement(0);
+    for (int i = 0; i < left.size(); i++) {
+      sum = sum.add(left.get(i).multiply(right.get(i)));
+    }
+    return sum;
+  }
+
+  private List<FieldElement> sampleRandomCoefficients(int numCoefficients,
       FieldDefinition fieldDefinition, Drbg jointDrbg) {
-    FieldElement[] coefficients = new FieldElement[numCoefficients];
+    List<FieldElement> coefficients = new ArrayList<>(numCoefficients);
     for (int i = 0; i < numCoefficients; i++) {
       byte[] bytes = new byte[modulus.bitLength() / Byte.SIZE];
       jointDrbg.nextBytes(bytes);
-      coefficients[i] = fieldDefinition.createElement(new BigInteger(bytes));
+      coefficients.add(fieldDefinition.createElement(new BigInteger(bytes)));
     }
     return coefficients;
   }
@@ -0,0 +1,102 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native protocol for multiplying two lists of secret values element-wise. Works like {@link
+ * SpdzMultProtocol}, but fetches all triples at once and sends the shares of all epsilons and
+ * deltas in a single message to each party.
+ */
+public class SpdzMultAllProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<SpdzTriple> triples;
+  private List<SpdzSInt> epsilonsAndDeltas;  // my shares of [x]-[a], followed by [y]-[b]
+  private SpdzOpening opening;
+  private List<DRes<SInt>> out;
+
+  /**
+   * Creates new {@link SpdzMultAllProtocol}.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as the left factors
+   */
+  public SpdzMultAllProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size but were " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      triples = spdzResourcePool.getDataSupplier().getNextTriples(left.size());
+      opening = SpdzOpening.start(spdzResourcePool, 2 * left.size());
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    int size = left.size();
+    prepareRound(round, spdzResourcePool);
+    if (round == 0) {
+      epsilonsAndDeltas = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        epsilonsAndDeltas.add(((SpdzSInt) left.get(i).out()).subtract(triples.get(i).getA()));
+      }
+      for (int i = 0; i < size; i++) {
+        epsilonsAndDeltas.add(((SpdzSInt) right.get(i).out()).subtract(triples.get(i).getB()));
+      }
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (SpdzSInt value : epsilonsAndDeltas) {
+        shares.add(value.getShare());
+      }
+      opening.send(spdzResourcePool, network, shares);
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<FieldElement> opened = opening.receive(spdzResourcePool, network);
+      if (opened == null) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      FieldElement macKeyShare = dataSupplier.getSecretSharedKey();
+      int myId = spdzResourcePool.getMyId();
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        SpdzTriple triple = triples.get(i);
+        FieldElement e = opened.get(i);
+        FieldElement d = opened.get(size + i);
+        FieldElement product = e.multiply(d);
+        SpdzSInt ed = new SpdzSInt(product, macKeyShare.multiply(product));
+        out.add(triple.getC()
+            .add(triple.getB().multiply(e))
+            .add(triple.getA().multiply(d))
+            .add(ed, myId));
+      }
+      pushOpenedValues(spdzResourcePool, epsilonsAndDeltas, opened);
+      triples = null;
+      epsilonsAndDeltas = null;
+      opening = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
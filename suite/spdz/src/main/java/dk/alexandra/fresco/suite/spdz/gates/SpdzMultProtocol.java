@@ -3,12 +3,13 @@ package dk.alexandra.fresco.suite.spdz.gates;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.Arrays;
+import java.util.List;
 
 public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -18,41 +19,39 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   private SpdzTriple triple;
   private SpdzSInt epsilon;  // my share of the differences [x]-[a]
   private SpdzSInt delta;  // and [y]-[b].
+  private SpdzOpening opening;
 
   public SpdzMultProtocol(DRes<SInt> left, DRes<SInt> right) {
     this.left = left;
     this.right = right;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      triple = spdzResourcePool.getDataSupplier().getNextTriple();
+      opening = SpdzOpening.start(spdzResourcePool, 2);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
-    int noOfPlayers = spdzResourcePool.getNoOfParties();
-    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    prepareRound(round, spdzResourcePool);
     if (round == 0) {
-      this.triple = dataSupplier.getNextTriple();
-
       epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
       delta = ((SpdzSInt) right.out()).subtract(triple.getB());
 
-      network.sendToAll(epsilon.serializeShare(serializer));
-      network.sendToAll(delta.serializeShare(serializer));
+      opening.send(spdzResourcePool, network, Arrays.asList(epsilon.getShare(), delta.getShare()));
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
-      FieldElement[] deltaShares = new FieldElement[noOfPlayers];
-      for (int i = 0; i < noOfPlayers; i++) {
-        epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
-        deltaShares[i] = serializer.deserialize(network.receive(i + 1));
-      }
-
-      FieldElement e = epsilonShares[0];
-      FieldElement d = deltaShares[0];
-      for (int i = 1; i < epsilonShares.length; i++) {
-        e = e.add(epsilonShares[i]);
-        d = d.add(deltaShares[i]);
+      List<FieldElement> opened = opening.receive(spdzResourcePool, network);
+      if (opened == null) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
       }
+      FieldElement e = opened.get(0);
+      FieldElement d = opened.get(1);
 
       FieldElement product = e.multiply(d);
       FieldElement mac = dataSupplier.getSecretSharedKey().multiply(product);
@@ -66,8 +65,8 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
           .add(triple.getA().multiply(d))
           .add(ed, spdzResourcePool.getMyId());
       // Set the opened and closed value.
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
+      pushOpenedValues(spdzResourcePool, Arrays.asList(epsilon, delta), opened);
+      opening = null;
       return EvaluationStatus.IS_DONE;
     }
   }
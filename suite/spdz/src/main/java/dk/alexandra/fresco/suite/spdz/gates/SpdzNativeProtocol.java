@@ -1,15 +1,80 @@
 package dk.alexandra.fresco.suite.spdz.gates;
 
 import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.OrderedResourceAccess;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+/**
+ * Base class of the native protocols of SPDZ.
+ *
+ * <p>Preprocessed material, kings and the opened value store must be used in the same order by
+ * all parties. Protocols using them take them in {@link #takeResources(int, SpdzResourcePool)},
+ * which is called in the order of the batch when the protocols are evaluated concurrently and by
+ * the protocols themselves through {@link #prepareRound(int, SpdzResourcePool)} otherwise, and push
+ * opened values through {@link #pushOpenedValues(SpdzResourcePool, List, List)}, which defers the
+ * push to {@link #afterRound(int, SpdzResourcePool)} when evaluated concurrently.</p>
+ */
 public abstract class SpdzNativeProtocol<OutputT> implements
-    NativeProtocol<OutputT, SpdzResourcePool> {
+    NativeProtocol<OutputT, SpdzResourcePool>, OrderedResourceAccess<SpdzResourcePool> {
+
+  private boolean ordered;
+  private List<SpdzSInt> closedValues;
+  private List<FieldElement> openedValues;
+
+  @Override
+  public void beforeRound(int round, SpdzResourcePool resourcePool) {
+    ordered = true;
+    takeResources(round, resourcePool);
+  }
+
+  @Override
+  public void afterRound(int round, SpdzResourcePool resourcePool) {
+    ordered = false;
+    if (closedValues != null) {
+      resourcePool.getOpenedValueStore().pushOpenedValues(closedValues, openedValues);
+      closedValues = null;
+      openedValues = null;
+    }
+  }
+
+  /**
+   * Takes the preprocessed material and kings needed in a round from the resource pool.
+   *
+   * @param round the round about to be evaluated
+   * @param resourcePool the resource pool
+   */
+  protected void takeResources(int round, SpdzResourcePool resourcePool) {
+  }
+
+  /**
+   * Takes the resources of a round unless they were already taken before the round.
+   */
+  protected void prepareRound(int round, SpdzResourcePool resourcePool) {
+    if (!ordered) {
+      takeResources(round, resourcePool);
+    }
+  }
+
+  /**
+   * Pushes opened values to the opened value store, or defers the push until after the round if
+   * the resources of the round are used in order.
+   */
+  protected void pushOpenedValues(SpdzResourcePool resourcePool, List<SpdzSInt> closed,
+      List<FieldElement> opened) {
+    if (ordered) {
+      closedValues = closed;
+      openedValues = opened;
+    } else {
+      resourcePool.getOpenedValueStore().pushOpenedValues(closed, opened);
+    }
+  }
 
   byte[] sendBroadcastValidation(MessageDigest dig, Network network, byte[] b) {
     dig.update(b);
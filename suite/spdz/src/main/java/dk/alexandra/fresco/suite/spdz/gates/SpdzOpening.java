@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz.SpdzOpeningMode;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens a list of secret-shared values over one or more rounds of a native protocol, using the
+ * {@link SpdzOpeningMode} of the resource pool.
+ *
+ * <p>The opening is started by {@link #start(SpdzResourcePool, int)}, which chooses the king and
+ * must therefore be called in the same order by all parties, followed by {@link
+ * #send(SpdzResourcePool, Network, List)} in the first round of the protocol, after which {@link
+ * #receive(SpdzResourcePool, Network)} must be called once in each of the following rounds until
+ * it returns the opened values. Note that the opened values are not pushed to the opened value
+ * store.</p>
+ */
+class SpdzOpening {
+
+  private final int size;
+  private final int king;
+  private List<FieldElement> opened;
+  private int round;
+
+  private SpdzOpening(int size, int king) {
+    this.size = size;
+    this.king = king;
+    this.round = 0;
+  }
+
+  /**
+   * Starts opening a number of values.
+   *
+   * @param resourcePool the resource pool
+   * @param size the number of values to open
+   * @return the started opening
+   */
+  static SpdzOpening start(SpdzResourcePool resourcePool, int size) {
+    if (resourcePool.getOpeningMode() == SpdzOpeningMode.BROADCAST) {
+      return new SpdzOpening(size, 0);
+    }
+    return new SpdzOpening(size, resourcePool.getNextKing());
+  }
+
+  /**
+   * Sends this party's shares of the values.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @param shares this party's shares of the values
+   */
+  void send(SpdzResourcePool resourcePool, Network network, List<FieldElement> shares) {
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    if (king == 0) {
+      network.sendToAll(definition.serialize(shares));
+    } else if (king == resourcePool.getMyId()) {
+      opened = new ArrayList<>(shares);
+    } else {
+      network.send(king, definition.serialize(shares));
+    }
+  }
+
+  /**
+   * Continues the opening in the next round.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @return the opened values or null if the opening needs another round
+   */
+  List<FieldElement> receive(SpdzResourcePool resourcePool, Network network) {
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    round++;
+    if (king == 0) {
+      List<FieldElement> values = null;
+      for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+        values = addShares(values, deserialize(definition, network.receiveBuffer(partyId)));
+      }
+      return values;
+    }
+    int myId = resourcePool.getMyId();
+    if (round == 1) {
+      if (king == myId) {
+        for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+          if (partyId != myId) {
+            opened = addShares(opened, deserialize(definition, network.receiveBuffer(partyId)));
+          }
+        }
+        byte[] values = definition.serialize(opened);
+        for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+          if (partyId != myId) {
+            network.send(partyId, values);
+          }
+        }
+      }
+      // all parties take the second round, keeping the number of rounds the same for all parties
+      return null;
+    } else if (king == myId) {
+      return opened;
+    } else {
+      return deserialize(definition, network.receiveBuffer(king));
+    }
+  }
+
+  private List<FieldElement> deserialize(FieldDefinition definition, ByteBuffer buffer) {
+    List<FieldElement> values = definition.deserializeList(buffer);
+    if (values.size() != size) {
+      throw new MaliciousException("Expected " + size + " values but received " + values.size());
+    }
+    return values;
+  }
+
+  private static List<FieldElement> addShares(List<FieldElement> sum, List<FieldElement> shares) {
+    if (sum == null) {
+      return shares;
+    }
+    for (int i = 0; i < shares.size(); i++) {
+      sum.set(i, sum.get(i).add(shares.get(i)));
+    }
+    return sum;
+  }
+}
@@ -8,8 +8,8 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
-import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
 
 public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
@@ -20,6 +20,7 @@ public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
   private int targetPlayer;
   private SpdzInputMask mask;
   private SpdzSInt inMinusMask;
+  private SpdzOpening opening;
 
   public SpdzOutputSingleProtocol(DRes<SInt> in, int targetPlayer) {
     this.in = in;
@@ -31,30 +32,37 @@ public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
     return out;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      mask = spdzResourcePool.getDataSupplier().getNextInputMask(targetPlayer);
+      opening = SpdzOpening.start(spdzResourcePool, 1);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
     int myId = spdzResourcePool.getMyId();
-    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    prepareRound(round, spdzResourcePool);
     if (round == 0) {
-      this.mask = dataSupplier.getNextInputMask(targetPlayer);
       SpdzSInt closedValue = (SpdzSInt) this.in.out();
       inMinusMask = closedValue.subtract(this.mask.getMask());
-      network.sendToAll(inMinusMask.serializeShare(definition));
+      opening.send(spdzResourcePool, network, Collections.singletonList(inMinusMask.getShare()));
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      List<byte[]> shares = network.receiveFromAll();
-      FieldElement openedVal = definition.deserialize(shares.get(0));
-      for (int i = 1; i < shares.size(); i++) {
-        byte[] buffer = shares.get(i);
-        openedVal = openedVal.add(definition.deserialize(buffer));
+      List<FieldElement> opened = opening.receive(spdzResourcePool, network);
+      if (opened == null) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
       }
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(inMinusMask, openedVal);
+      FieldElement openedVal = opened.get(0);
+      pushOpenedValues(spdzResourcePool, Collections.singletonList(inMinusMask), opened);
       if (targetPlayer == myId) {
         openedVal = openedVal.add(this.mask.getRealValue());
         this.out = definition.convertToUnsigned(openedVal);
       }
+      opening = null;
       return EvaluationStatus.IS_DONE;
     }
   }
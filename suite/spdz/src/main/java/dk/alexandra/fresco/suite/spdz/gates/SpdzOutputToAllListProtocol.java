@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native protocol for opening a list of secret values to all parties. Works like {@link
+ * SpdzOutputToAllProtocol}, but sends the shares of all values in a single message to each
+ * party.
+ */
+public class SpdzOutputToAllListProtocol extends SpdzNativeProtocol<List<BigInteger>>
+    implements SpdzOutputProtocol {
+
+  private final List<DRes<SInt>> in;
+  private List<SpdzSInt> authenticated;
+  private SpdzOpening opening;
+  private List<BigInteger> out;
+
+  public SpdzOutputToAllListProtocol(List<DRes<SInt>> in) {
+    this.in = in;
+  }
+
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      opening = SpdzOpening.start(spdzResourcePool, in.size());
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    prepareRound(round, spdzResourcePool);
+    if (round == 0) {
+      authenticated = new ArrayList<>(in.size());
+      List<FieldElement> shares = new ArrayList<>(in.size());
+      for (DRes<SInt> value : in) {
+        SpdzSInt spdzSInt = (SpdzSInt) value.out();
+        authenticated.add(spdzSInt);
+        shares.add(spdzSInt.getShare());
+      }
+      opening.send(spdzResourcePool, network, shares);
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<FieldElement> opened = opening.receive(spdzResourcePool, network);
+      if (opened == null) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      pushOpenedValues(spdzResourcePool, authenticated, opened);
+      out = new ArrayList<>(opened.size());
+      for (FieldElement value : opened) {
+        out.add(definition.convertToUnsigned(value));
+      }
+      authenticated = null;
+      opening = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<BigInteger> out() {
+    return out;
+  }
+}
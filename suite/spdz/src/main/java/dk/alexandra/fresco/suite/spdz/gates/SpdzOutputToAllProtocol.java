@@ -8,6 +8,7 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
 
 public class SpdzOutputToAllProtocol extends SpdzNativeProtocol<BigInteger>
@@ -15,29 +16,38 @@ public class SpdzOutputToAllProtocol extends SpdzNativeProtocol<BigInteger>
 
   private DRes<SInt> in;
   private BigInteger out;
+  private SpdzOpening opening;
 
   public SpdzOutputToAllProtocol(DRes<SInt> in) {
     this.in = in;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      opening = SpdzOpening.start(spdzResourcePool, 1);
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
 
     FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    prepareRound(round, spdzResourcePool);
     if (round == 0) {
       SpdzSInt out = (SpdzSInt) in.out();
-      network.sendToAll((out.serializeShare(definition)));
+      opening.send(spdzResourcePool, network, Collections.singletonList(out.getShare()));
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      List<byte[]> shares = network.receiveFromAll();
-      FieldElement openedVal = definition.deserialize(shares.get(0));
-      for (int i = 1; i < shares.size(); i++) {
-        byte[] buffer = shares.get(i);
-        openedVal = openedVal.add(definition.deserialize(buffer));
+      List<FieldElement> opened = opening.receive(spdzResourcePool, network);
+      if (opened == null) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
       }
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(((SpdzSInt) in.out()), openedVal);
+      FieldElement openedVal = opened.get(0);
+      pushOpenedValues(spdzResourcePool, Collections.singletonList((SpdzSInt) in.out()), opened);
       this.out = definition.convertToUnsigned(openedVal);
+      opening = null;
       return EvaluationStatus.IS_DONE;
     }
   }
@@ -4,7 +4,6 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
-import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 
 public class SpdzRandomProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -15,11 +14,15 @@ public class SpdzRandomProtocol extends SpdzNativeProtocol<SInt> {
     return randomElement;
   }
 
+  @Override
+  protected void takeResources(int round, SpdzResourcePool spdzResourcePool) {
+    this.randomElement = spdzResourcePool.getDataSupplier().getNextRandomFieldElement();
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
-    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
-    this.randomElement = dataSupplier.getNextRandomFieldElement();
+    prepareRound(round, spdzResourcePool);
     return EvaluationStatus.IS_DONE;
   }
 
@@ -0,0 +1,467 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier based on the Mascot protocol which runs the preprocessing in a background
+ * thread, overlapping it with the online phase.
+ * <p>
+ * The background thread runs Mascot on its own network and keeps lock-free pools of triples,
+ * random elements, random bits and input masks filled. When the number of elements in a pool
+ * drops below the low watermark it is refilled, in batches, until it holds at least the high
+ * watermark. Consumers only block if a pool runs completely empty, the time spent blocking is
+ * reported through {@link #getLoggedValues()} together with the current depth of each pool.
+ * </p>
+ * <p>
+ * As Mascot is interactive all parties must generate the same kinds of material in the same
+ * order. Before each round of generation the background threads therefore exchange the number
+ * of batches they need for each pool and all generate the maximum requested by any party. The
+ * consumption of preprocessed material is identical across parties in SPDZ, so each party will
+ * eventually use what is generated. For the same reason all parties run out of material at the
+ * same point of the evaluation, so a background thread without demand of its own simply blocks
+ * until its party's consumption creates some, and only then exchanges demands with the others.
+ * </p>
+ * <p>
+ * When the supplier is closed the background thread tells the other parties that it has stopped,
+ * such that they do not wait for it in the next exchange. A party which learns that another party
+ * has stopped fails any consumers waiting for more material.
+ * </p>
+ */
+public class SpdzAsyncMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger,
+    Closeable {
+
+  public static final String TRIPLE_POOL_DEPTH = "TRIPLE_POOL_DEPTH";
+  public static final String RANDOM_ELEMENT_POOL_DEPTH = "RANDOM_ELEMENT_POOL_DEPTH";
+  public static final String BIT_POOL_DEPTH = "BIT_POOL_DEPTH";
+  public static final String INPUT_MASK_POOL_DEPTH = "INPUT_MASK_POOL_DEPTH_";
+  public static final String STALL_COUNT = "STALL_COUNT";
+  public static final String STALL_TIME_MS = "STALL_TIME_MS";
+  public static final String BATCHES_GENERATED = "BATCHES_GENERATED";
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzAsyncMascotDataSupplier.class);
+  private static final long STALL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+  private static final int SHUTDOWN = -1;
+  private final int myId;
+  private final int instanceId;
+  private final int numberOfPlayers;
+  private final Supplier<Network> tripleNetwork;
+  private final FieldDefinition fieldDefinition;
+  private final Function<Integer, SpdzSInt[]> preprocessedValues;
+  private final FieldElement ssk;
+  private final int prgSeedLength;
+  private final int modBitLength;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+
+  private final Pool<SpdzTriple> triples;
+  private final Pool<SpdzSInt> randomElements;
+  private final Pool<SpdzSInt> randomBits;
+  private final List<Pool<SpdzInputMask>> masks;
+  private final List<Pool<?>> pools;
+  private final AtomicLong stallCount;
+  private final AtomicLong stallNanos;
+  private final AtomicLong batchesGenerated;
+  private volatile Thread producer;
+  private volatile Throwable failure;
+  private volatile boolean closed;
+
+  /**
+   * Creates {@link SpdzAsyncMascotDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param tripleNetwork network supplier for network to be used by the background Mascot
+   *     instance. The network is only used by the background thread, so it can be a channel
+   *     of a {@link dk.alexandra.fresco.framework.network.ChannelMultiplexer} shared with the
+   *     evaluation.
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param lowWatermark a pool is refilled when it holds fewer elements than this
+   * @param highWatermark a pool is refilled until it holds at least this many elements
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness. As the drbg may be shared with other suppliers, the
+   *     background thread uses its own drbg seeded from this one
+   */
+  public SpdzAsyncMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      int lowWatermark, int highWatermark, FieldElement ssk, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    if (lowWatermark < 1 || highWatermark < lowWatermark) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 < low <= high, were "
+          + lowWatermark + " and " + highWatermark);
+    }
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.instanceId = instanceId;
+    this.tripleNetwork = tripleNetwork;
+    this.fieldDefinition = fieldDefinition;
+    this.preprocessedValues = preprocessedValues;
+    this.prgSeedLength = prgSeedLength;
+    this.modBitLength = modBitLength;
+    this.batchSize = batchSize;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    byte[] seed = new byte[prgSeedLength / Byte.SIZE];
+    drbg.nextBytes(seed);
+    this.drbg = AesCtrDrbgFactory.fromDerivedSeed(seed);
+    this.triples = new Pool<>();
+    this.randomElements = new Pool<>();
+    this.randomBits = new Pool<>();
+    this.masks = new ArrayList<>(numberOfPlayers);
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      masks.add(new Pool<>());
+    }
+    // the order of the pools determines the order in which batches are generated
+    this.pools = new ArrayList<>();
+    pools.add(triples);
+    pools.add(randomElements);
+    pools.add(randomBits);
+    pools.addAll(masks);
+    this.stallCount = new AtomicLong();
+    this.stallNanos = new AtomicLong();
+    this.batchesGenerated = new AtomicLong();
+  }
+
+  /**
+   * Creates instance of {@link SpdzAsyncMascotDataSupplier} with a batch size of 16 and
+   * watermarks of one and four batches.
+   */
+  public static SpdzAsyncMascotDataSupplier createSimpleSupplier(int myId, int numberOfPlayers,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition fieldDefinition,
+      Function<Integer, SpdzSInt[]> preprocessedValues,
+      Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk) {
+    int prgSeedLength = 256;
+    int batchSize = 16;
+    return new SpdzAsyncMascotDataSupplier(myId, numberOfPlayers, 1, tripleNetwork,
+        fieldDefinition, modBitLength, preprocessedValues, prgSeedLength, batchSize, batchSize,
+        4 * batchSize, ssk, seedOts, drbg);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return take(triples);
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return take(randomElements);
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    logger.trace("Getting another exp pipe");
+    SpdzSInt[] pipe = preprocessedValues.apply(modBitLength);
+    logger.trace("Got another exp pipe");
+    return pipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    return take(masks.get(towardsPlayerId - 1));
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return take(randomBits);
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return fieldDefinition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  /**
+   * Stops the background thread. Material remaining in the pools can still be consumed.
+   *
+   * <p>Once the background thread has finished any batches it is currently generating it tells
+   * the other parties that it has stopped. This method waits a limited time for that to happen, so
+   * the network can be closed afterwards.</p>
+   */
+  @Override
+  public void close() {
+    closed = true;
+    Thread thread = producer;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      try {
+        thread.join(CLOSE_TIMEOUT_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void reset() {
+    stallCount.set(0);
+    stallNanos.set(0);
+    batchesGenerated.set(0);
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    values.put(TRIPLE_POOL_DEPTH, (long) triples.depth());
+    values.put(RANDOM_ELEMENT_POOL_DEPTH, (long) randomElements.depth());
+    values.put(BIT_POOL_DEPTH, (long) randomBits.depth());
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      values.put(INPUT_MASK_POOL_DEPTH + partyId, (long) masks.get(partyId - 1).depth());
+    }
+    values.put(STALL_COUNT, stallCount.get());
+    values.put(STALL_TIME_MS, TimeUnit.NANOSECONDS.toMillis(stallNanos.get()));
+    values.put(BATCHES_GENERATED, batchesGenerated.get());
+    return values;
+  }
+
+  private <T> T take(Pool<T> pool) {
+    ensureStarted();
+    T element = pool.poll();
+    if (element == null) {
+      long start = System.nanoTime();
+      stallCount.incrementAndGet();
+      logger.trace("Waiting for background preprocessing");
+      while ((element = pool.poll()) == null) {
+        if (failure != null) {
+          throw new IllegalStateException("Background preprocessing failed", failure);
+        }
+        if (closed) {
+          throw new IllegalStateException("Supplier has been closed");
+        }
+        LockSupport.unpark(producer);
+        LockSupport.parkNanos(this, STALL_WAIT_NANOS);
+      }
+      stallNanos.addAndGet(System.nanoTime() - start);
+    }
+    if (pool.depth() < lowWatermark) {
+      LockSupport.unpark(producer);
+    }
+    return element;
+  }
+
+  private synchronized void ensureStarted() {
+    if (producer != null) {
+      return;
+    }
+    Thread thread = new Thread(this::produce,
+        "spdz-mascot-preprocessing-" + myId + "-" + instanceId);
+    thread.setDaemon(true);
+    producer = thread;
+    thread.start();
+  }
+
+  private void produce() {
+    try {
+      Network network = tripleNetwork.get();
+      int numCandidatesPerTriple = 3;
+      Mascot mascot = new Mascot(
+          new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
+              new MascotSecurityParameters(modBitLength, prgSeedLength,
+                  numCandidatesPerTriple), fieldDefinition), network, ssk);
+      while (true) {
+        int[] demand = awaitDemand();
+        if (demand == null) {
+          network.sendToAll(ByteBuffer.allocate(Integer.BYTES).putInt(SHUTDOWN).array());
+          return;
+        }
+        int[] agreed = agreeOnDemand(network, demand);
+        if (agreed == null) {
+          return;
+        }
+        generate(mascot, agreed);
+      }
+    } catch (Throwable e) {
+      if (closed) {
+        logger.debug("Background preprocessing stopped after close", e);
+      } else {
+        logger.error("Background preprocessing failed", e);
+        failure = e;
+      }
+    } finally {
+      if (!closed && failure == null) {
+        failure = new IllegalStateException("Background preprocessing stopped");
+      }
+    }
+  }
+
+  /**
+   * Blocks until this party needs more material and returns the number of batches needed for
+   * each pool, or null if the supplier is closed.
+   */
+  private int[] awaitDemand() {
+    int[] demand = localDemand();
+    while (!closed && isIdle(demand)) {
+      // consumers unpark the producer when a pool drops below the low watermark
+      LockSupport.park(this);
+      demand = localDemand();
+    }
+    return closed ? null : demand;
+  }
+
+  /**
+   * Computes the number of batches this party needs for each pool.
+   */
+  private int[] localDemand() {
+    int[] demand = new int[pools.size()];
+    for (int i = 0; i < demand.length; i++) {
+      int depth = pools.get(i).depth();
+      if (depth < lowWatermark) {
+        demand[i] = (highWatermark - depth + batchSize - 1) / batchSize;
+      }
+    }
+    return demand;
+  }
+
+  private static boolean isIdle(int[] demand) {
+    for (int batches : demand) {
+      if (batches != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Exchanges the local demand with all other parties and returns the maximum demand for each
+   * pool, or null if another party has stopped its background preprocessing.
+   */
+  private int[] agreeOnDemand(Network network, int[] demand) {
+    ByteBuffer buffer = ByteBuffer.allocate(demand.length * Integer.BYTES);
+    for (int batches : demand) {
+      buffer.putInt(batches);
+    }
+    network.sendToAll(buffer.array());
+    int[] agreed = new int[demand.length];
+    List<byte[]> received = network.receiveFromAll();
+    for (int partyId = 1; partyId <= received.size(); partyId++) {
+      ByteBuffer other = ByteBuffer.wrap(received.get(partyId - 1));
+      if (other.getInt(0) == SHUTDOWN) {
+        if (!closed) {
+          failure = new IllegalStateException(
+              "P" + partyId + " stopped its background preprocessing");
+        }
+        return null;
+      }
+      for (int i = 0; i < agreed.length; i++) {
+        agreed[i] = Math.max(agreed[i], other.getInt());
+      }
+    }
+    return agreed;
+  }
+
+  private void generate(Mascot mascot, int[] batches) {
+    for (int i = 0; i < batches[0]; i++) {
+      List<MultiplicationTriple> generated = mascot.getTriples(batchSize);
+      List<SpdzTriple> converted = new ArrayList<>(generated.size());
+      for (MultiplicationTriple triple : generated) {
+        converted.add(MascotFormatConverter.toSpdzTriple(triple));
+      }
+      triples.addAll(converted);
+      batchesGenerated.incrementAndGet();
+    }
+    for (int i = 0; i < batches[1]; i++) {
+      randomElements.addAll(toSpdzSInts(mascot.getRandomElements(batchSize)));
+      batchesGenerated.incrementAndGet();
+    }
+    for (int i = 0; i < batches[2]; i++) {
+      randomBits.addAll(toSpdzSInts(mascot.getRandomBits(batchSize)));
+      batchesGenerated.incrementAndGet();
+    }
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      for (int i = 0; i < batches[2 + partyId]; i++) {
+        List<InputMask> generated = mascot.getInputMasks(partyId, batchSize);
+        List<SpdzInputMask> converted = new ArrayList<>(generated.size());
+        for (InputMask mask : generated) {
+          converted.add(MascotFormatConverter.toSpdzInputMask(mask));
+        }
+        masks.get(partyId - 1).addAll(converted);
+        batchesGenerated.incrementAndGet();
+      }
+    }
+  }
+
+  private static List<SpdzSInt> toSpdzSInts(List<AuthenticatedElement> elements) {
+    List<SpdzSInt> converted = new ArrayList<>(elements.size());
+    for (AuthenticatedElement element : elements) {
+      converted.add(MascotFormatConverter.toSpdzSInt(element));
+    }
+    return converted;
+  }
+
+  /**
+   * A lock-free pool of preprocessed material with a single producer.
+   */
+  private static final class Pool<T> {
+
+    private final Queue<T> elements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    T poll() {
+      T element = elements.poll();
+      if (element != null) {
+        depth.decrementAndGet();
+      }
+      return element;
+    }
+
+    void addAll(List<T> batch) {
+      elements.addAll(batch);
+      depth.addAndGet(batch.size());
+    }
+
+    int depth() {
+      return depth.get();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Data supplier which reads preprocessed material from a file in the compact binary format
+ * written by {@link SpdzBinaryStorageWriter}.
+ * <p>
+ * Each section of the file is memory-mapped and read sequentially, so material is paged in by the
+ * operating system as needed and objects are only created for the elements actually requested by
+ * the protocol suite.
+ * </p>
+ */
+public class SpdzBinaryDataSupplier implements SpdzDataSupplier, Closeable {
+
+  private static final int MAX_HEADER_SIZE = 1 << 16;
+
+  private final Path file;
+  private final FieldDefinition definition;
+  private final SpdzBinaryStorageHeader header;
+  private final FileChannel channel;
+  private final MappedByteBuffer triples;
+  private final MappedByteBuffer randomElements;
+  private final MappedByteBuffer bits;
+  private final MappedByteBuffer expPipes;
+  private final MappedByteBuffer[] inputMasks;
+  private final byte[] elementBytes;
+  private final FieldElement ssk;
+
+  /**
+   * Creates a new supplier reading from a file, using a {@link BigIntegerFieldDefinition} over
+   * the modulus of the file.
+   *
+   * @param file the file to read
+   * @throws IOException if the file cannot be read
+   */
+  public SpdzBinaryDataSupplier(Path file) throws IOException {
+    this(file, null);
+  }
+
+  /**
+   * Creates a new supplier reading from a file.
+   *
+   * @param file the file to read
+   * @param definition the field definition used to deserialize elements. Must have the modulus
+   *     of the file and serialize elements using the element width of the file.
+   * @throws IOException if the file cannot be read
+   */
+  public SpdzBinaryDataSupplier(Path file, FieldDefinition definition) throws IOException {
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      this.header = SpdzBinaryStorageHeader.read(readHeaderBytes());
+      this.definition = definition == null
+          ? new BigIntegerFieldDefinition(header.getModulus())
+          : definition;
+      checkDefinition();
+      long[] offsets = header.getSectionOffsets();
+      if (channel.size() < offsets[offsets.length - 1]) {
+        throw new IllegalArgumentException("File " + file + " is truncated");
+      }
+      this.triples = map(offsets, 0);
+      this.randomElements = map(offsets, 1);
+      this.bits = map(offsets, 2);
+      this.expPipes = map(offsets, 3);
+      this.inputMasks = new MappedByteBuffer[header.getNoOfParties()];
+      for (int partyId = 1; partyId <= inputMasks.length; partyId++) {
+        inputMasks[partyId - 1] = map(offsets, 3 + partyId);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    this.elementBytes = new byte[header.getElementWidth()];
+    this.ssk = this.definition.deserialize(header.getSsk());
+  }
+
+  private ByteBuffer readHeaderBytes() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), MAX_HEADER_SIZE));
+    while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+      // keep reading until the buffer is full
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private void checkDefinition() {
+    if (!definition.getModulus().equals(header.getModulus())) {
+      throw new IllegalArgumentException("Field definition has modulus "
+          + definition.getModulus() + " but the file " + file + " has modulus "
+          + header.getModulus());
+    }
+    int width = definition.serialize(definition.createElement(0)).length;
+    if (width != header.getElementWidth()) {
+      throw new IllegalArgumentException("Field definition serializes elements as " + width
+          + " bytes but the file " + file + " uses " + header.getElementWidth() + " bytes");
+    }
+  }
+
+  private MappedByteBuffer map(long[] offsets, int section) throws IOException {
+    // the header ensures that no section exceeds the maximum size of a buffer
+    long size = offsets[section + 1] - offsets[section];
+    return channel.map(MapMode.READ_ONLY, offsets[section], size);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    checkRemaining(triples, header.getTripleWidth(), "Triple", header.getNoOfTriples());
+    return new SpdzTriple(readSInt(triples), readSInt(triples), readSInt(triples));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    checkRemaining(expPipes, header.getExpPipeWidth(), "Exp pipe", header.getNoOfExpPipes());
+    SpdzSInt[] expPipe = new SpdzSInt[header.getExpPipeSize()];
+    for (int i = 0; i < expPipe.length; i++) {
+      expPipe[i] = readSInt(expPipes);
+    }
+    return expPipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    MappedByteBuffer buffer = inputMasks[towardPlayerId - 1];
+    checkRemaining(buffer, header.getInputMaskWidth(towardPlayerId),
+        "Mask towards player " + towardPlayerId, header.getNoOfInputMasks());
+    SpdzSInt mask = readSInt(buffer);
+    if (towardPlayerId == header.getMyId()) {
+      return new SpdzInputMask(mask, readElement(buffer));
+    } else {
+      return new SpdzInputMask(mask, null);
+    }
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    checkRemaining(bits, header.getSIntWidth(), "Bit", header.getNoOfBits());
+    return readSInt(bits);
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    checkRemaining(randomElements, header.getSIntWidth(), "Random element",
+        header.getNoOfRandomElements());
+    return readSInt(randomElements);
+  }
+
+  private void checkRemaining(ByteBuffer buffer, int width, String name, int total) {
+    if (buffer.remaining() < width) {
+      int index = buffer.position() / width + 1;
+      throw new IllegalArgumentException(name + " no. " + index
+          + " was not present in the storage, which holds " + total + ": " + file);
+    }
+  }
+
+  private SpdzSInt readSInt(ByteBuffer buffer) {
+    FieldElement share = readElement(buffer);
+    FieldElement mac = readElement(buffer);
+    return new SpdzSInt(share, mac);
+  }
+
+  private FieldElement readElement(ByteBuffer buffer) {
+    buffer.get(elementBytes);
+    return definition.deserialize(elementBytes);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
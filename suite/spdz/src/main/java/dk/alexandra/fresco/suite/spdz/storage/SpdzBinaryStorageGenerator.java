@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates binary preprocessing files for all parties, which can be read using {@link
+ * SpdzBinaryDataSupplier}.
+ * <p>
+ * The material is produced by a trusted dealer in a single process, using the same approach as
+ * {@link SpdzDummyDataSupplier}. This is NOT secure and is only meant for testing and
+ * benchmarking the online phase.
+ * </p>
+ */
+public class SpdzBinaryStorageGenerator {
+
+  private static final String FILE_PREFIX = "SPDZ_BINARY_";
+  private static final String FILE_SUFFIX = ".bin";
+
+  private SpdzBinaryStorageGenerator() {
+  }
+
+  /**
+   * Gets the name of the file holding the material of a party.
+   */
+  public static String getFileName(int myId) {
+    return FILE_PREFIX + myId + FILE_SUFFIX;
+  }
+
+  /**
+   * Generates a preprocessing file for each party and writes it to a directory.
+   *
+   * @param directory the directory to write the files to
+   * @param definition the field definition to use
+   * @param noOfParties the number of parties
+   * @param noOfTriples the number of triples
+   * @param noOfRandomElements the number of random elements
+   * @param noOfBits the number of random bits
+   * @param noOfExpPipes the number of exponentiation pipes
+   * @param expPipeLength the length of the exponentiation pipes
+   * @param noOfInputMasks the number of input masks towards each party
+   * @return the generated files indexed by party id minus one
+   * @throws IOException if a file cannot be written
+   */
+  public static List<Path> generate(Path directory, FieldDefinition definition, int noOfParties,
+      int noOfTriples, int noOfRandomElements, int noOfBits, int noOfExpPipes, int expPipeLength,
+      int noOfInputMasks) throws IOException {
+    Files.createDirectories(directory);
+    SecureRandom random = new SecureRandom();
+    BigInteger modulus = definition.getModulus();
+    List<Path> files = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      BigInteger keyShare = new BigInteger(modulus.bitLength(), random).mod(modulus);
+      SpdzDummyDataSupplier supplier =
+          new SpdzDummyDataSupplier(myId, noOfParties, definition, keyShare, expPipeLength);
+      Path file = directory.resolve(getFileName(myId));
+      try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(file, definition, myId,
+          noOfParties, supplier.getSecretSharedKey(), noOfTriples, noOfRandomElements, noOfBits,
+          noOfExpPipes, expPipeLength + 1, noOfInputMasks)) {
+        // The dummy suppliers of all parties draw from the same random source, so the order of
+        // the calls below must be the same for every party
+        for (int i = 0; i < noOfTriples; i++) {
+          writer.addTriple(supplier.getNextTriple());
+        }
+        for (int i = 0; i < noOfRandomElements; i++) {
+          writer.addRandomElement(supplier.getNextRandomFieldElement());
+        }
+        for (int i = 0; i < noOfBits; i++) {
+          writer.addBit(supplier.getNextBit());
+        }
+        for (int i = 0; i < noOfExpPipes; i++) {
+          writer.addExpPipe(supplier.getNextExpPipe());
+        }
+        for (int towardsId = 1; towardsId <= noOfParties; towardsId++) {
+          for (int i = 0; i < noOfInputMasks; i++) {
+            writer.addInputMask(towardsId, supplier.getNextInputMask(towardsId));
+          }
+        }
+      }
+      files.add(file);
+    }
+    return files;
+  }
+
+  /**
+   * Generates binary preprocessing files from the command line.
+   * <p>
+   * Usage: <code>SpdzBinaryStorageGenerator directory modBitLength noOfParties noOfTriples
+   * noOfRandomElements noOfBits noOfExpPipes expPipeLength noOfInputMasks</code>
+   * </p>
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 9) {
+      System.out.println("Usage: SpdzBinaryStorageGenerator directory modBitLength noOfParties "
+          + "noOfTriples noOfRandomElements noOfBits noOfExpPipes expPipeLength noOfInputMasks");
+      System.exit(1);
+    }
+    Path directory = Paths.get(args[0]);
+    int modBitLength = Integer.parseInt(args[1]);
+    FieldDefinition definition =
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(modBitLength));
+    long start = System.currentTimeMillis();
+    List<Path> files = generate(directory, definition, Integer.parseInt(args[2]),
+        Integer.parseInt(args[3]), Integer.parseInt(args[4]), Integer.parseInt(args[5]),
+        Integer.parseInt(args[6]), Integer.parseInt(args[7]), Integer.parseInt(args[8]));
+    System.out.println("Generated " + files + " in " + (System.currentTimeMillis() - start)
+        + " ms");
+  }
+}
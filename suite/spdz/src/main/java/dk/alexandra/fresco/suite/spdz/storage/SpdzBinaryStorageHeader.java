@@ -0,0 +1,234 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * The header of a binary SPDZ preprocessing file as written by {@link SpdzBinaryStorageWriter}
+ * and read by {@link SpdzBinaryDataSupplier}.
+ * <p>
+ * All values are big-endian. The header consists of a magic number, a format version, the id of
+ * the party owning the file, the number of parties, the byte width of a serialized field element,
+ * the modulus (length prefixed), the party's share of the MAC key and the number of elements in
+ * each section. The sections follow directly after the header in the order triples, random
+ * elements, bits, exponentiation pipes and input masks towards party 1 to <i>n</i>. Every element
+ * of a section has a fixed width, each share being followed by its MAC share:
+ * </p>
+ * <ul>
+ * <li>a triple is the share and MAC of <i>a</i>, <i>b</i> and <i>c</i></li>
+ * <li>a random element and a bit is a share and a MAC</li>
+ * <li>an exponentiation pipe is a fixed number of shares and MACs</li>
+ * <li>an input mask is a share and a MAC, followed by the opened mask in the section of masks
+ * towards the owner of the file</li>
+ * </ul>
+ * <p>
+ * As each section is memory mapped as a single buffer, no section can exceed
+ * {@link Integer#MAX_VALUE} bytes.
+ * </p>
+ */
+final class SpdzBinaryStorageHeader {
+
+  static final int MAGIC = 0x5350445A;
+  static final int VERSION = 1;
+
+  private final int myId;
+  private final int noOfParties;
+  private final int elementWidth;
+  private final BigInteger modulus;
+  private final byte[] ssk;
+  private final int noOfTriples;
+  private final int noOfRandomElements;
+  private final int noOfBits;
+  private final int noOfExpPipes;
+  private final int expPipeSize;
+  private final int noOfInputMasks;
+
+  SpdzBinaryStorageHeader(int myId, int noOfParties, int elementWidth, BigInteger modulus,
+      byte[] ssk, int noOfTriples, int noOfRandomElements, int noOfBits, int noOfExpPipes,
+      int expPipeSize, int noOfInputMasks) {
+    if (ssk.length != elementWidth) {
+      throw new IllegalArgumentException(
+          "Key share must be " + elementWidth + " bytes but was " + ssk.length);
+    }
+    if (noOfTriples < 0 || noOfRandomElements < 0 || noOfBits < 0 || noOfExpPipes < 0
+        || expPipeSize < 0 || noOfInputMasks < 0) {
+      throw new IllegalArgumentException("Number of elements cannot be negative");
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.elementWidth = elementWidth;
+    this.modulus = modulus;
+    this.ssk = ssk;
+    this.noOfTriples = noOfTriples;
+    this.noOfRandomElements = noOfRandomElements;
+    this.noOfBits = noOfBits;
+    this.noOfExpPipes = noOfExpPipes;
+    this.expPipeSize = expPipeSize;
+    this.noOfInputMasks = noOfInputMasks;
+    checkSectionSizes();
+  }
+
+  /**
+   * Checks that each section can be memory mapped as a single buffer, which is limited to
+   * {@link Integer#MAX_VALUE} bytes.
+   */
+  private void checkSectionSizes() {
+    long[] offsets = getSectionOffsets();
+    for (int section = 0; section < offsets.length - 1; section++) {
+      long size = offsets[section + 1] - offsets[section];
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The section of " + getSectionName(section) + " has "
+            + size + " bytes, exceeding the maximum of " + Integer.MAX_VALUE
+            + " bytes. Split the material into several files.");
+      }
+    }
+  }
+
+  private String getSectionName(int section) {
+    switch (section) {
+      case 0:
+        return "triples";
+      case 1:
+        return "random elements";
+      case 2:
+        return "bits";
+      case 3:
+        return "exponentiation pipes";
+      default:
+        return "input masks towards party " + (section - 3);
+    }
+  }
+
+  /**
+   * Reads a header from the start of a buffer, leaving the position of the buffer at the start of
+   * the first section.
+   */
+  static SpdzBinaryStorageHeader read(ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a binary SPDZ preprocessing file");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported format version " + version);
+    }
+    int myId = buffer.getInt();
+    int noOfParties = buffer.getInt();
+    int elementWidth = buffer.getInt();
+    byte[] modulus = new byte[buffer.getInt()];
+    buffer.get(modulus);
+    byte[] ssk = new byte[elementWidth];
+    buffer.get(ssk);
+    return new SpdzBinaryStorageHeader(myId, noOfParties, elementWidth, new BigInteger(modulus),
+        ssk, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+        buffer.getInt());
+  }
+
+  /**
+   * Writes this header to a buffer.
+   */
+  void write(ByteBuffer buffer) {
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(myId);
+    buffer.putInt(noOfParties);
+    buffer.putInt(elementWidth);
+    byte[] modulusBytes = modulus.toByteArray();
+    buffer.putInt(modulusBytes.length);
+    buffer.put(modulusBytes);
+    buffer.put(ssk);
+    buffer.putInt(noOfTriples);
+    buffer.putInt(noOfRandomElements);
+    buffer.putInt(noOfBits);
+    buffer.putInt(noOfExpPipes);
+    buffer.putInt(expPipeSize);
+    buffer.putInt(noOfInputMasks);
+  }
+
+  /**
+   * Gets the size of this header in bytes.
+   */
+  int size() {
+    return 6 * Integer.BYTES + modulus.toByteArray().length + elementWidth + 6 * Integer.BYTES;
+  }
+
+  int getMyId() {
+    return myId;
+  }
+
+  int getNoOfParties() {
+    return noOfParties;
+  }
+
+  int getElementWidth() {
+    return elementWidth;
+  }
+
+  BigInteger getModulus() {
+    return modulus;
+  }
+
+  byte[] getSsk() {
+    return ssk;
+  }
+
+  int getNoOfTriples() {
+    return noOfTriples;
+  }
+
+  int getNoOfRandomElements() {
+    return noOfRandomElements;
+  }
+
+  int getNoOfBits() {
+    return noOfBits;
+  }
+
+  int getNoOfExpPipes() {
+    return noOfExpPipes;
+  }
+
+  int getExpPipeSize() {
+    return expPipeSize;
+  }
+
+  int getNoOfInputMasks() {
+    return noOfInputMasks;
+  }
+
+  int getTripleWidth() {
+    return 6 * elementWidth;
+  }
+
+  int getSIntWidth() {
+    return 2 * elementWidth;
+  }
+
+  int getExpPipeWidth() {
+    return expPipeSize * getSIntWidth();
+  }
+
+  int getInputMaskWidth(int towardsPlayerId) {
+    return towardsPlayerId == myId ? 3 * elementWidth : getSIntWidth();
+  }
+
+  /**
+   * Gets the offsets of the sections in the file, the last entry being the size of the file.
+   * Sections are ordered as triples, random elements, bits, exponentiation pipes followed by the
+   * input masks towards each party.
+   */
+  long[] getSectionOffsets() {
+    long[] offsets = new long[5 + noOfParties];
+    offsets[0] = size();
+    // computed in longs, as the widths of the sections are only checked against these offsets
+    long sintWidth = 2L * elementWidth;
+    offsets[1] = offsets[0] + 3 * sintWidth * noOfTriples;
+    offsets[2] = offsets[1] + sintWidth * noOfRandomElements;
+    offsets[3] = offsets[2] + sintWidth * noOfBits;
+    offsets[4] = offsets[3] + sintWidth * expPipeSize * noOfExpPipes;
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      long maskWidth = partyId == myId ? sintWidth + elementWidth : sintWidth;
+      offsets[4 + partyId] = offsets[3 + partyId] + maskWidth * noOfInputMasks;
+    }
+    return offsets;
+  }
+}
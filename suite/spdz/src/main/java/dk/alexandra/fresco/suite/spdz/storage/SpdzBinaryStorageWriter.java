@@ -0,0 +1,195 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes one party's preprocessed material to a file in the compact binary format read by {@link
+ * SpdzBinaryDataSupplier}. See {@link SpdzBinaryStorageHeader} for a description of the format.
+ * <p>
+ * The number of elements of each kind must be given up front, as every section has a fixed
+ * offset in the file. Elements of different kinds can then be added in any order, but the file
+ * is only valid once all sections have been filled.
+ * </p>
+ */
+public class SpdzBinaryStorageWriter implements Closeable {
+
+  private final Path file;
+  private final FieldDefinition definition;
+  private final SpdzBinaryStorageHeader header;
+  private final FileChannel channel;
+  private final MappedByteBuffer triples;
+  private final MappedByteBuffer randomElements;
+  private final MappedByteBuffer bits;
+  private final MappedByteBuffer expPipes;
+  private final MappedByteBuffer[] inputMasks;
+
+  /**
+   * Creates a new writer, replacing any existing file.
+   *
+   * @param file the file to write to
+   * @param definition the field definition used to serialize elements
+   * @param myId the id of the party owning the material
+   * @param noOfParties the number of parties
+   * @param ssk the party's share of the MAC key
+   * @param noOfTriples the number of triples
+   * @param noOfRandomElements the number of random elements
+   * @param noOfBits the number of random bits
+   * @param noOfExpPipes the number of exponentiation pipes
+   * @param expPipeSize the number of elements in each exponentiation pipe
+   * @param noOfInputMasks the number of input masks towards each party
+   * @throws IOException if the file cannot be created
+   */
+  public SpdzBinaryStorageWriter(Path file, FieldDefinition definition, int myId,
+      int noOfParties, FieldElement ssk, int noOfTriples, int noOfRandomElements, int noOfBits,
+      int noOfExpPipes, int expPipeSize, int noOfInputMasks) throws IOException {
+    this.file = file;
+    this.definition = definition;
+    byte[] sskBytes = definition.serialize(ssk);
+    this.header = new SpdzBinaryStorageHeader(myId, noOfParties, sskBytes.length,
+        definition.getModulus(), sskBytes, noOfTriples, noOfRandomElements, noOfBits,
+        noOfExpPipes, expPipeSize, noOfInputMasks);
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    ByteBuffer headerBuffer = ByteBuffer.allocate(header.size());
+    header.write(headerBuffer);
+    headerBuffer.flip();
+    while (headerBuffer.hasRemaining()) {
+      channel.write(headerBuffer);
+    }
+    long[] offsets = header.getSectionOffsets();
+    this.triples = map(offsets, 0);
+    this.randomElements = map(offsets, 1);
+    this.bits = map(offsets, 2);
+    this.expPipes = map(offsets, 3);
+    this.inputMasks = new MappedByteBuffer[noOfParties];
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      inputMasks[partyId - 1] = map(offsets, 3 + partyId);
+    }
+  }
+
+  private MappedByteBuffer map(long[] offsets, int section) throws IOException {
+    // the header ensures that no section exceeds the maximum size of a buffer
+    long size = offsets[section + 1] - offsets[section];
+    return channel.map(MapMode.READ_WRITE, offsets[section], size);
+  }
+
+  /**
+   * Adds a multiplication triple.
+   */
+  public void addTriple(SpdzTriple triple) {
+    checkRemaining(triples, header.getTripleWidth(), "triples");
+    putSInt(triples, triple.getA());
+    putSInt(triples, triple.getB());
+    putSInt(triples, triple.getC());
+  }
+
+  /**
+   * Adds a random element.
+   */
+  public void addRandomElement(SpdzSInt element) {
+    checkRemaining(randomElements, header.getSIntWidth(), "random elements");
+    putSInt(randomElements, element);
+  }
+
+  /**
+   * Adds a random bit.
+   */
+  public void addBit(SpdzSInt bit) {
+    checkRemaining(bits, header.getSIntWidth(), "bits");
+    putSInt(bits, bit);
+  }
+
+  /**
+   * Adds an exponentiation pipe.
+   */
+  public void addExpPipe(SpdzSInt[] expPipe) {
+    if (expPipe.length != header.getExpPipeSize()) {
+      throw new IllegalArgumentException("Exponentiation pipe must have "
+          + header.getExpPipeSize() + " elements but had " + expPipe.length);
+    }
+    checkRemaining(expPipes, header.getExpPipeWidth(), "exponentiation pipes");
+    for (SpdzSInt element : expPipe) {
+      putSInt(expPipes, element);
+    }
+  }
+
+  /**
+   * Adds an input mask towards a party. The real value of the mask is only written for masks
+   * towards the owner of the file.
+   */
+  public void addInputMask(int towardsPlayerId, SpdzInputMask mask) {
+    MappedByteBuffer buffer = inputMasks[towardsPlayerId - 1];
+    checkRemaining(buffer, header.getInputMaskWidth(towardsPlayerId),
+        "input masks towards party " + towardsPlayerId);
+    putSInt(buffer, mask.getMask());
+    if (towardsPlayerId == header.getMyId()) {
+      putElement(buffer, mask.getRealValue());
+    }
+  }
+
+  private void checkRemaining(ByteBuffer buffer, int width, String section) {
+    if (buffer.remaining() < width) {
+      throw new IllegalStateException("All " + section + " have already been written");
+    }
+  }
+
+  private void putSInt(ByteBuffer buffer, SpdzSInt element) {
+    putElement(buffer, element.getShare());
+    putElement(buffer, element.getMac());
+  }
+
+  private void putElement(ByteBuffer buffer, FieldElement element) {
+    byte[] bytes = definition.serialize(element);
+    if (bytes.length != header.getElementWidth()) {
+      throw new IllegalArgumentException("Element must be serialized as "
+          + header.getElementWidth() + " bytes but was " + bytes.length);
+    }
+    buffer.put(bytes);
+  }
+
+  /**
+   * Flushes the material to disk and closes the file.
+   *
+   * @throws IllegalStateException if not all sections have been filled
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      checkFilled(triples, "triples");
+      checkFilled(randomElements, "random elements");
+      checkFilled(bits, "bits");
+      checkFilled(expPipes, "exponentiation pipes");
+      for (int partyId = 1; partyId <= inputMasks.length; partyId++) {
+        checkFilled(inputMasks[partyId - 1], "input masks towards party " + partyId);
+      }
+      triples.force();
+      randomElements.force();
+      bits.force();
+      expPipes.force();
+      for (MappedByteBuffer buffer : inputMasks) {
+        buffer.force();
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void checkFilled(ByteBuffer buffer, String section) {
+    if (buffer.hasRemaining()) {
+      throw new IllegalStateException(
+          "Not all " + section + " were written to " + file);
+    }
+  }
+}
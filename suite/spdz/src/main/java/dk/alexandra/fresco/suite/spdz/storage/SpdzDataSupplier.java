@@ -6,6 +6,8 @@ import dk.alexandra.fresco.lib.common.compare.zerotest.ZeroTestBruteforce;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface SpdzDataSupplier {
 
@@ -16,6 +18,21 @@ public interface SpdzDataSupplier {
    */
   SpdzTriple getNextTriple();
 
+  /**
+   * Supplies the next triples. The default implementation calls {@link #getNextTriple()} for each
+   * triple, suppliers holding triples in batches may override this to fetch them in bulk.
+   *
+   * @param numTriples the number of triples
+   * @return the next new triples
+   */
+  default List<SpdzTriple> getNextTriples(int numTriples) {
+    List<SpdzTriple> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(getNextTriple());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next exponentiation pipe. <p>An exponentiation pipe is a list of numbers in the
    * following format: r^{-1}, r, r^{2}, r^{3}, ..., r^{l}, where r is a random element, l is the
@@ -0,0 +1,183 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of {@link OpenedValueStore} which, rather than storing all opened values until
+ * the next mac check, folds them into a random linear combination as they are opened. The memory
+ * used is thus bounded by the chunk size rather than the number of values opened between mac
+ * checks.
+ *
+ * <p>Opened values are buffered in chunks. When a chunk is full the chunk is folded into a running
+ * sum of the authenticated values and a running sum of the opened values, each value weighted by a
+ * random coefficient. The coefficients of a chunk are derived from a joint seed, which must be set
+ * using {@link #setJointSeed(byte[])} before the first chunk is folded, and a hash chain over all
+ * opened values so far. Since the coefficients depend on the opened values of the chunk they are
+ * not known until after the values are opened, and all parties derive the same coefficients as
+ * long as they opened the same values.</p>
+ *
+ * <p>{@link #popValues()} returns the folded sums as a single value to be checked by the regular
+ * mac check, meaning that only the final commitment and opening of the mac check is done at
+ * output time.</p>
+ */
+public class SpdzIncrementalOpenedValueStore implements OpenedValueStore<SpdzSInt, FieldElement> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 1024;
+  private static final int STATISTICAL_SECURITY = 40;
+  private final FieldDefinition definition;
+  private final int chunkSize;
+  private final int coefficientByteLength;
+  private final MessageDigest digest;
+  private final List<SpdzSInt> sharesWithMacs;
+  private final List<FieldElement> openValues;
+  private byte[] chainState;
+  private FieldElement foldedShare;
+  private FieldElement foldedMac;
+  private FieldElement foldedOpenValue;
+  private int pendingCount;
+
+  /**
+   * Creates new {@link SpdzIncrementalOpenedValueStore}.
+   *
+   * @param definition the field definition of the opened values
+   * @param chunkSize number of values buffered before folding them
+   */
+  public SpdzIncrementalOpenedValueStore(FieldDefinition definition, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive but was " + chunkSize);
+    }
+    this.definition = definition;
+    this.chunkSize = chunkSize;
+    // the extra bits make the coefficients statistically close to uniform after reduction
+    this.coefficientByteLength =
+        (definition.getModulus().bitLength() + STATISTICAL_SECURITY + Byte.SIZE - 1) / Byte.SIZE;
+    this.digest = ExceptionConverter.safe(
+        () -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for Spdz");
+    this.sharesWithMacs = new ArrayList<>(chunkSize);
+    this.openValues = new ArrayList<>(chunkSize);
+    resetFolded();
+  }
+
+  /**
+   * Creates new {@link SpdzIncrementalOpenedValueStore} with a default chunk size.
+   *
+   * @param definition the field definition of the opened values
+   */
+  public SpdzIncrementalOpenedValueStore(FieldDefinition definition) {
+    this(definition, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Sets the joint seed from which the coefficients of the random linear combination are
+   * derived. All parties must set the same seed, which must not be known to any party before it
+   * is agreed upon.
+   *
+   * @param seed the joint seed
+   */
+  public void setJointSeed(byte[] seed) {
+    digest.update(seed);
+    this.chainState = digest.digest();
+  }
+
+  /**
+   * Checks if the joint seed has been set.
+   *
+   * @return true if the seed has been set, false otherwise
+   */
+  public boolean hasJointSeed() {
+    return chainState != null;
+  }
+
+  @Override
+  public void pushOpenedValues(List<SpdzSInt> newSharesWithMacs,
+      List<FieldElement> newOpenedValues) {
+    for (int i = 0; i < newSharesWithMacs.size(); i++) {
+      pushOpenedValue(newSharesWithMacs.get(i), newOpenedValues.get(i));
+    }
+  }
+
+  @Override
+  public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+    sharesWithMacs.add(newShareWithMac);
+    openValues.add(newOpenedValue);
+    pendingCount++;
+    if (sharesWithMacs.size() >= chunkSize && hasJointSeed()) {
+      fold();
+    }
+  }
+
+  /**
+   * Folds all pending values and returns the folded sums. The returned lists contain a single
+   * element, or no elements if no values have been opened since the last call.
+   *
+   * @throws IllegalStateException if values have been opened, but no joint seed has been set
+   */
+  @Override
+  public Pair<List<SpdzSInt>, List<FieldElement>> popValues() {
+    if (!hasPendingValues()) {
+      return new Pair<>(new ArrayList<>(), new ArrayList<>());
+    }
+    if (!hasJointSeed()) {
+      throw new IllegalStateException("The joint seed must be set before folding opened values");
+    }
+    fold();
+    Pair<List<SpdzSInt>, List<FieldElement>> folded = new Pair<>(
+        new ArrayList<>(Collections.singletonList(new SpdzSInt(foldedShare, foldedMac))),
+        new ArrayList<>(Collections.singletonList(foldedOpenValue)));
+    resetFolded();
+    return folded;
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return pendingCount > 0;
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return pendingCount > threshold;
+  }
+
+  private void fold() {
+    if (openValues.isEmpty()) {
+      return;
+    }
+    digest.update(chainState);
+    digest.update(definition.serialize(openValues));
+    chainState = digest.digest();
+    Drbg drbg = new AesCtrDrbg(chainState);
+    byte[] bytes = new byte[coefficientByteLength];
+    for (int i = 0; i < openValues.size(); i++) {
+      drbg.nextBytes(bytes);
+      FieldElement coefficient =
+          definition.createElement(new BigInteger(1, bytes).mod(definition.getModulus()));
+      SpdzSInt shareWithMac = sharesWithMacs.get(i);
+      foldedShare = foldedShare.add(shareWithMac.getShare().multiply(coefficient));
+      foldedMac = foldedMac.add(shareWithMac.getMac().multiply(coefficient));
+      foldedOpenValue = foldedOpenValue.add(openValues.get(i).multiply(coefficient));
+    }
+    sharesWithMacs.clear();
+    openValues.clear();
+  }
+
+  private void resetFolded() {
+    FieldElement zero = definition.createElement(0);
+    this.foldedShare = zero;
+    this.foldedMac = zero;
+    this.foldedOpenValue = zero;
+    this.pendingCount = 0;
+  }
+}
@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.logging.PerformanceLogger;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
@@ -20,8 +21,12 @@ import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
@@ -29,8 +34,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A data supplier based on the Mascot protocol. Uses concrete implementation {@link Mascot}.
+ *
+ * <p>Material is generated when a pool runs empty, so the evaluation waits for each batch. The
+ * number of batches generated, the time spent generating them and the current depth of each pool
+ * are reported through {@link #getLoggedValues()}, using the same names as
+ * {@link SpdzAsyncMascotDataSupplier}.</p>
  */
-public class SpdzMascotDataSupplier implements SpdzDataSupplier {
+public class SpdzMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger {
 
   private static final Logger logger = LoggerFactory.getLogger(SpdzMascotDataSupplier.class);
   private final int myId;
@@ -50,6 +60,8 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   private final int batchSize;
   private final Drbg drbg;
   private final Map<Integer, RotList> seedOts;
+  private final AtomicLong batchesGenerated = new AtomicLong();
+  private final AtomicLong generationNanos = new AtomicLong();
   private Mascot mascot;
 
   /**
@@ -58,7 +70,8 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
    * @param myId this party's id
    * @param numberOfPlayers number of players
    * @param instanceId identifier used to distinguish parallel instances of Mascot
-   * @param tripleNetwork network supplier for network to be used by Mascot instance
+   * @param tripleNetwork network supplier for network to be used by Mascot instance, e.g. a
+   *     {@link dk.alexandra.fresco.framework.network.ChannelMultiplexer#channelSupplier(String)}
    * @param fieldDefinition field definition
    * @param modBitLength bit length of modulus
    * @param preprocessedValues callback to generate exponentiation pipes
@@ -121,19 +134,35 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     ensureInitialized();
     if (triples.isEmpty()) {
       logger.trace("Getting another triple batch");
-      triples.addAll(mascot.getTriples(batchSize));
+      triples.addAll(generate(() -> mascot.getTriples(batchSize)));
       logger.trace("Got another triple batch");
     }
     MultiplicationTriple triple = triples.pop();
     return MascotFormatConverter.toSpdzTriple(triple);
   }
 
+  @Override
+  public List<SpdzTriple> getNextTriples(int numTriples) {
+    ensureInitialized();
+    if (triples.size() < numTriples) {
+      logger.trace("Getting another triple batch");
+      int missing = numTriples - triples.size();
+      triples.addAll(generate(() -> mascot.getTriples(Math.max(batchSize, missing))));
+      logger.trace("Got another triple batch");
+    }
+    List<SpdzTriple> spdzTriples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      spdzTriples.add(MascotFormatConverter.toSpdzTriple(triples.pop()));
+    }
+    return spdzTriples;
+  }
+
   @Override
   public SpdzSInt getNextRandomFieldElement() {
     ensureInitialized();
     if (randomElements.isEmpty()) {
       logger.trace("Getting another random element batch");
-      randomElements.addAll(mascot.getRandomElements(batchSize));
+      randomElements.addAll(generate(() -> mascot.getRandomElements(batchSize)));
       logger.trace("Got another random element batch");
     }
     return MascotFormatConverter.toSpdzSInt(randomElements.pop());
@@ -153,7 +182,7 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     ArrayDeque<InputMask> inputMasks = masks.get(towardsPlayerId);
     if (inputMasks.isEmpty()) {
       logger.trace("Getting another mask batch");
-      inputMasks.addAll(mascot.getInputMasks(towardsPlayerId, batchSize));
+      inputMasks.addAll(generate(() -> mascot.getInputMasks(towardsPlayerId, batchSize)));
       logger.trace("Got another mask batch");
     }
     return MascotFormatConverter.toSpdzInputMask(inputMasks.pop());
@@ -164,7 +193,7 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     ensureInitialized();
     if (randomBits.isEmpty()) {
       logger.trace("Getting another bit batch");
-      randomBits.addAll(mascot.getRandomBits(batchSize));
+      randomBits.addAll(generate(() -> mascot.getRandomBits(batchSize)));
       logger.trace("Got another bit batch");
     }
     return MascotFormatConverter.toSpdzSInt(randomBits.pop());
@@ -180,6 +209,38 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return ssk;
   }
 
+  @Override
+  public void reset() {
+    batchesGenerated.set(0);
+    generationNanos.set(0);
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    values.put(SpdzAsyncMascotDataSupplier.TRIPLE_POOL_DEPTH, (long) triples.size());
+    values.put(SpdzAsyncMascotDataSupplier.RANDOM_ELEMENT_POOL_DEPTH,
+        (long) randomElements.size());
+    values.put(SpdzAsyncMascotDataSupplier.BIT_POOL_DEPTH, (long) randomBits.size());
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      values.put(SpdzAsyncMascotDataSupplier.INPUT_MASK_POOL_DEPTH + partyId,
+          (long) masks.get(partyId).size());
+    }
+    values.put(SpdzAsyncMascotDataSupplier.STALL_COUNT, batchesGenerated.get());
+    values.put(SpdzAsyncMascotDataSupplier.STALL_TIME_MS,
+        TimeUnit.NANOSECONDS.toMillis(generationNanos.get()));
+    values.put(SpdzAsyncMascotDataSupplier.BATCHES_GENERATED, batchesGenerated.get());
+    return values;
+  }
+
+  private <T> List<T> generate(Supplier<List<T>> batch) {
+    long then = System.nanoTime();
+    List<T> generated = batch.get();
+    generationNanos.addAndGet(System.nanoTime() - then);
+    batchesGenerated.incrementAndGet();
+    return generated;
+  }
+
   private void ensureInitialized() {
     if (mascot != null) {
       return;
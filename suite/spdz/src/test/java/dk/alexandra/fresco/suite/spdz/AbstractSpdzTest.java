@@ -2,16 +2,19 @@ package dk.alexandra.fresco.suite.spdz;
 
 import static dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy.DUMMY;
 import static dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy.MASCOT;
+import static dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy.MASCOT_ASYNC;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.ChannelMultiplexer;
 import dk.alexandra.fresco.framework.network.CloseableNetwork;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
@@ -26,7 +29,9 @@ import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
 import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
@@ -41,6 +46,7 @@ import dk.alexandra.fresco.logging.PerformancePrinter;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzAsyncMascotDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
@@ -48,13 +54,17 @@ import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
 import dk.alexandra.fresco.tools.ot.base.DummyOt;
 import dk.alexandra.fresco.tools.ot.base.Ot;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -65,6 +75,7 @@ import java.util.stream.IntStream;
 public abstract class AbstractSpdzTest {
 
   private Map<Integer, PerformanceLogger> performanceLoggers = new HashMap<>();
+  private final List<Closeable> openedSuppliers = Collections.synchronizedList(new ArrayList<>());
   // TODO hack hack hack
   private static final int DEFAULT_MOD_BIT_LENGTH = 128;
   private static final int DEFAULT_MAX_BIT_LENGTH = 64;
@@ -103,18 +114,35 @@ public abstract class AbstractSpdzTest {
     for (int i = 1; i <= noOfParties; i++) {
       ports.add(9000 + i * (noOfParties - 1));
     }
-    NetManager tripleManager = new NetManager(ports);
-    NetManager otManager = new NetManager(ports);
-    NetManager expPipeManager = new NetManager(ports);
-
     Map<Integer, NetworkConfiguration> netConf =
         NetworkUtil.getNetworkConfigurations(ports);
+    // all networks of a party are channels multiplexed over a single connection
+    Map<Integer, Supplier<ChannelMultiplexer>> multiplexers = new HashMap<>();
+    List<ChannelMultiplexer> openedMultiplexers = Collections.synchronizedList(new ArrayList<>());
+    for (int playerId : netConf.keySet()) {
+      multiplexers.put(playerId, new Supplier<ChannelMultiplexer>() {
+
+        private ChannelMultiplexer multiplexer;
+
+        @Override
+        public synchronized ChannelMultiplexer get() {
+          if (multiplexer == null) {
+            multiplexer = new ChannelMultiplexer(playerId,
+                new SocketNetwork(netConf.get(playerId)));
+            openedMultiplexers.add(multiplexer);
+          }
+          return multiplexer;
+        }
+      });
+    }
     Map<Integer, TestThreadRunner.TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric>> conf =
         new HashMap<>();
     for (int playerId : netConf.keySet()) {
       PerformanceLoggerCountingAggregate aggregate = new PerformanceLoggerCountingAggregate();
 
-      ProtocolSuiteNumeric<SpdzResourcePool> protocolSuite = createProtocolSuite(maxBitLength);
+      ProtocolSuiteNumeric<SpdzResourcePool> protocolSuite =
+          createProtocolSuite(maxBitLength,
+              () -> multiplexers.get(playerId).get().openChannel("mac-check"));
       BatchEvaluationStrategy<SpdzResourcePool> batchEvalStrat = evalStrategy.getStrategy();
       if (logPerformance) {
         protocolSuite = new NumericSuiteLogging<>(protocolSuite);
@@ -136,8 +164,8 @@ public abstract class AbstractSpdzTest {
 
       TestThreadRunner.TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric> ttc =
           new TestThreadRunner.TestThreadConfiguration<>(sce, () -> createResourcePool(playerId,
-              noOfParties, preProStrat, otManager, tripleManager, expPipeManager), () -> {
-            Network network = new SocketNetwork(netConf.get(playerId));
+              noOfParties, preProStrat, multiplexers.get(playerId)), () -> {
+            Network network = multiplexers.get(playerId).get().openChannel("evaluation");
             if (logPerformance) {
               network = new NetworkLoggingDecorator(network);
               aggregate.add((NetworkLoggingDecorator) network);
@@ -149,19 +177,52 @@ public abstract class AbstractSpdzTest {
       conf.put(playerId, ttc);
       performanceLoggers.putIfAbsent(playerId, aggregate);
     }
-    TestThreadRunner.run(f, conf);
-    PerformancePrinter printer = new DefaultPerformancePrinter();
-    for (PerformanceLogger pl : performanceLoggers.values()) {
-      printer.printPerformanceLog(pl);
+    try {
+      TestThreadRunner.run(f, conf);
+      PerformancePrinter printer = new DefaultPerformancePrinter();
+      for (PerformanceLogger pl : performanceLoggers.values()) {
+        printer.printPerformanceLog(pl);
+      }
+    } finally {
+      // suppliers are closed first, as background preprocessing needs the network to stop
+      for (Closeable supplier : openedSuppliers) {
+        ExceptionConverter.safe(() -> {
+          supplier.close();
+          return null;
+        }, "IO Exception");
+      }
+      openedSuppliers.clear();
+      for (ChannelMultiplexer multiplexer : openedMultiplexers) {
+        ExceptionConverter.safe(() -> {
+          multiplexer.close();
+          return null;
+        }, "IO Exception");
+      }
     }
-    tripleManager.close();
-    expPipeManager.close();
   }
 
   protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
     return new SpdzProtocolSuite(maxBitLength);
   }
 
+  protected SpdzProtocolSuite createProtocolSuite(int maxBitLength,
+      Supplier<Network> macCheckNetwork) {
+    return createProtocolSuite(maxBitLength);
+  }
+
+  protected FieldDefinition createFieldDefinition(int modBitLength) {
+    return MersennePrimeFieldDefinition.find(modBitLength);
+  }
+
+  protected SpdzOpeningMode getOpeningMode() {
+    return SpdzOpeningMode.BROADCAST;
+  }
+
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    return new OpenedValueStoreImpl<>();
+  }
+
   protected void runTest(
       TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, PreprocessingStrategy preProStrat, int noOfParties,
@@ -184,7 +245,7 @@ public abstract class AbstractSpdzTest {
   }
 
   private DRes<List<DRes<SInt>>> createPipe(int myId, int noOfPlayers, int pipeLength,
-      CloseableNetwork pipeNetwork, SpdzMascotDataSupplier tripleSupplier) {
+      Network pipeNetwork, SpdzMascotDataSupplier tripleSupplier) {
 
     ProtocolBuilderNumeric sequential = new SpdzBuilder(
         new BasicNumericContext(maxBitLength, myId, noOfPlayers,
@@ -228,35 +289,35 @@ public abstract class AbstractSpdzTest {
   private SpdzResourcePool createResourcePool(int myId,
       int numberOfParties,
       PreprocessingStrategy preProStrat,
-      NetManager otGenerator,
-      NetManager tripleGenerator,
-      NetManager expPipeGenerator) {
+      Supplier<ChannelMultiplexer> multiplexer) {
     SpdzDataSupplier supplier;
-    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(modBitLength);
+    FieldDefinition definition = createFieldDefinition(modBitLength);
     if (preProStrat == DUMMY) {
       supplier = new SpdzDummyDataSupplier(myId, numberOfParties,
           definition,
           new BigInteger(modBitLength, new Random(0)).mod(definition.getModulus()));
-    } else if (preProStrat == MASCOT) {
+    } else if (preProStrat == MASCOT || preProStrat == MASCOT_ASYNC) {
       List<Integer> partyIds =
           IntStream.range(1, numberOfParties + 1).boxed().collect(Collectors.toList());
       Drbg drbg = getDrbg(myId, PRG_SEED_LENGTH);
       BigInteger modulus = ModulusFinder.findSuitableModulus(modBitLength);
-      Map<Integer, RotList> seedOts =
-          getSeedOts(myId, partyIds, PRG_SEED_LENGTH, drbg, otGenerator.createExtraNetwork(myId));
+      Map<Integer, RotList> seedOts;
+      try (CloseableNetwork otNetwork = multiplexer.get().openChannel("mascot-ot")) {
+        seedOts = getSeedOts(myId, partyIds, PRG_SEED_LENGTH, drbg, otNetwork);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to close seed OT channel", e);
+      }
       FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
-      supplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
-          () -> tripleGenerator.createExtraNetwork(myId), modBitLength,
-          definition,
+      Function<Integer, SpdzSInt[]> preprocessedValues =
           new Function<Integer, SpdzSInt[]>() {
 
             private SpdzMascotDataSupplier tripleSupplier;
-            private CloseableNetwork pipeNetwork;
+            private Network pipeNetwork;
 
             @Override
             public SpdzSInt[] apply(Integer pipeLength) {
               if (pipeNetwork == null) {
-                pipeNetwork = expPipeGenerator.createExtraNetwork(myId);
+                pipeNetwork = multiplexer.get().openChannel("exp-pipe");
                 tripleSupplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
                     () -> pipeNetwork, modBitLength, definition, null,
                     seedOts, drbg, ssk);
@@ -265,7 +326,19 @@ public abstract class AbstractSpdzTest {
                   createPipe(myId, numberOfParties, pipeLength, pipeNetwork, tripleSupplier);
               return computeSInts(pipe);
             }
-          }, seedOts, drbg, ssk);
+          };
+      if (preProStrat == MASCOT) {
+        supplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
+            multiplexer.get().channelSupplier("mascot-triples"), modBitLength, definition,
+            preprocessedValues, seedOts, drbg, ssk);
+      } else {
+        SpdzAsyncMascotDataSupplier asyncSupplier =
+            SpdzAsyncMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
+                multiplexer.get().channelSupplier("mascot-triples"), modBitLength, definition,
+                preprocessedValues, seedOts, drbg, ssk);
+        openedSuppliers.add(asyncSupplier);
+        supplier = asyncSupplier;
+      }
     } else {
       // case STATIC:
       int noOfThreadsUsed = 1;
@@ -275,8 +348,8 @@ public abstract class AbstractSpdzTest {
           new FilebasedStreamedStorageImpl(new InMemoryStorage());
       supplier = new SpdzStorageDataSupplier(storage, storageName, numberOfParties);
     }
-    return new SpdzResourcePoolImpl(myId, numberOfParties, new OpenedValueStoreImpl<>(), supplier,
-        AesCtrDrbg::new);
+    return new SpdzResourcePoolImpl(myId, numberOfParties, createOpenedValueStore(definition),
+        supplier, AesCtrDrbg::new, getOpeningMode());
   }
 
   private SpdzSInt[] computeSInts(DRes<List<DRes<SInt>>> pipe) {
@@ -112,6 +112,41 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
   }
 
+  @Test
+  public void testInputFromAllMascotAsync() {
+    runTest(new TestInputFromAll<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT_ASYNC, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testLotsOfMultsMascotAsync() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT_ASYNC, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testLotsOfMultsPipelined() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void testInputFromAllMascotPipelined() {
+    runTest(new TestInputFromAll<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testMultAllAndOpenAll() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testMultAllAndOpenAllMascot() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
   @Test
   public void test_Lots_Of_Mults_Sequential_Batched_Different_Modulus() {
     runTest(new BasicArithmeticTests.TestLotsMult<>(),
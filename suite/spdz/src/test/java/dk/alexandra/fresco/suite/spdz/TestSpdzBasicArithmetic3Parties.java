@@ -65,6 +65,12 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.MASCOT, 3, 16, 16, 16);
   }
 
+  @Test
+  public void testInputFromAllMascotAsync() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT_ASYNC, 3, 16, 16, 16);
+  }
+
   @Test
   public void test_Input_SequentialBatched_Mascot() {
     runTest(new BasicArithmeticTests.TestInput<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
@@ -0,0 +1,114 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ opening values through a rotating king party rather than by broadcasting shares.
+ */
+public class TestSpdzKingOpening extends AbstractSpdzTest {
+
+  @Override
+  protected SpdzOpeningMode getOpeningMode() {
+    return SpdzOpeningMode.KING;
+  }
+
+  @Test
+  public void test_Input_From_All() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Output_To_Single_Party() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Sum_And_Output() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Alternating() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Mult_All_And_Open_All() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_Mult_Mascot() {
+    runTest(new BasicArithmeticTests.TestSimpleMultAndAdd<>(),
+        PreprocessingStrategy.MASCOT, 2);
+  }
+
+  @Test
+  public void test_Modified_Share_Is_Detected() {
+    int noOfParties = 3;
+    for (int cheatingPartyId = 1; cheatingPartyId <= noOfParties; cheatingPartyId++) {
+      runTest(new TestModifyShare<>(cheatingPartyId), PreprocessingStrategy.DUMMY, noOfParties);
+    }
+  }
+
+  private static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int cheatingPartyId;
+
+    TestModifyShare(int cheatingPartyId) {
+      this.cheatingPartyId = cheatingPartyId;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<BigInteger, ProtocolBuilderNumeric> app = producer -> {
+            DRes<SInt> input = producer.numeric().input(BigInteger.ONE, 1);
+            return producer.seq(seq -> {
+              SInt value = input.out();
+              if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                value = ((SpdzSInt) value).multiply(
+                    seq.getBasicNumericContext().getFieldDefinition().createElement(2));
+              }
+              final SInt finalSInt = value;
+              return seq.numeric().open(() -> finalSInt);
+            });
+          };
+          try {
+            runApplication(app);
+          } catch (Exception e) {
+            assertThat(e.getCause(), IsInstanceOf.instanceOf(MaliciousException.class));
+          }
+        }
+      };
+    }
+  }
+}
@@ -33,4 +33,16 @@ public class TestSpdzMisc {
         FakeTripGen.EXP_PIPE_SIZE);
     pro.evaluate(0, rp, null);
   }
+
+  @Test
+  public void testKingRotation() {
+    SpdzDummyDataSupplier supplier = new SpdzDummyDataSupplier(2, 3,
+        new BigIntegerFieldDefinition("251"), new BigInteger("251"));
+    SpdzResourcePool rp = new SpdzResourcePoolImpl(2, 3, new SpdzOpenedValueStoreImpl(), supplier,
+        AesCtrDrbg::new, SpdzOpeningMode.KING);
+    Assert.assertEquals(SpdzOpeningMode.KING, rp.getOpeningMode());
+    for (int i = 0; i < 7; i++) {
+      Assert.assertEquals(i % 3 + 1, rp.getNextKing());
+    }
+  }
 }
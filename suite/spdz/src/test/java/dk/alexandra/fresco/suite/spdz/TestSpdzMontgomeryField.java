@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ with field elements in Montgomery form over the same moduli as the other tests.
+ */
+public class TestSpdzMontgomeryField extends AbstractSpdzTest {
+
+  @Override
+  protected FieldDefinition createFieldDefinition(int modBitLength) {
+    return new MontgomeryFieldDefinition(
+        MersennePrimeFieldDefinition.find(modBitLength).getModulus());
+  }
+
+  @Test
+  public void test_Input_Sequential() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Sequential() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Sum_And_Output_Sequential() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.DUMMY, 2, 256, 150, 16);
+  }
+
+  @Test
+  public void test_Mult_Mascot() {
+    runTest(new BasicArithmeticTests.TestSimpleMultAndAdd<>(),
+        PreprocessingStrategy.MASCOT, 2);
+  }
+}
@@ -0,0 +1,57 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.lib.common.compare.CompareTests;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ evaluating the native protocols of each batch concurrently.
+ */
+public class TestSpdzParallelBatched extends AbstractSpdzTest {
+
+  private static final EvaluationStrategy STRATEGY = EvaluationStrategy.PARALLEL_BATCHED;
+
+  @Test
+  public void test_Input_From_All() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Output_To_Single_Party() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Mult_All_And_Open_All() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Random_Element() {
+    runTest(new BasicArithmeticTests.TestRandomElement<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Compare_LT() {
+    runTest(new CompareTests.TestCompareLT<>(), STRATEGY,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Mascot() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), STRATEGY,
+        PreprocessingStrategy.MASCOT, 2, 128, 64, 16);
+  }
+}
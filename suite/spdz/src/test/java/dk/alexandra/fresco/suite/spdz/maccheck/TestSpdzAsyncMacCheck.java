@@ -0,0 +1,193 @@
+package dk.alexandra.fresco.suite.spdz.maccheck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
+import dk.alexandra.fresco.suite.spdz.SpdzAsyncRoundSynchronization;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.maccheck.TestSpdzMacCheckTamperWithValues.TestModifyShare;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ with the mac checks running in the background on a separate network.
+ */
+public class TestSpdzAsyncMacCheck extends AbstractSpdzTest {
+
+  private final List<ClosingNetwork> macCheckNetworks =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  protected SpdzProtocolSuite createProtocolSuite(int maxBitLength,
+      Supplier<Network> macCheckNetwork) {
+    return new SpdzProtocolSuite(maxBitLength) {
+
+      private Network network;
+
+      @Override
+      public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+        if (network == null) {
+          ClosingNetwork closing = new ClosingNetwork(macCheckNetwork.get());
+          macCheckNetworks.add(closing);
+          network = closing;
+        }
+        // low threshold such that the tests run several checks in the background
+        return new SpdzAsyncRoundSynchronization(this, network, 16, 128);
+      }
+    };
+  }
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testAlternatingThreeParties() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testMultAllAndOpenAll() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testModifyShare() {
+    int noOfParties = 3;
+    for (int cheatingPartyId = 1; cheatingPartyId <= noOfParties; cheatingPartyId++) {
+      runTest(new TestModifyShare<>(cheatingPartyId), PreprocessingStrategy.DUMMY, noOfParties);
+    }
+  }
+
+  @Test
+  public void testModifyShareDetectedInBackground() {
+    int noOfParties = 2;
+    for (int cheatingPartyId = 1; cheatingPartyId <= noOfParties; cheatingPartyId++) {
+      runTest(new TestModifyShareBeforeMults<>(cheatingPartyId), PreprocessingStrategy.DUMMY,
+          noOfParties);
+    }
+  }
+
+  @Test
+  public void testAbortStopsMacChecks() throws InterruptedException {
+    runTest(new TestModifyShareBeforeMults<>(1), PreprocessingStrategy.DUMMY, 2);
+    assertEquals(2, macCheckNetworks.size());
+    for (ClosingNetwork network : macCheckNetworks) {
+      assertTrue(network.closed);
+    }
+    long deadline = System.currentTimeMillis() + 5000;
+    while (isMacCheckRunning() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertFalse(isMacCheckRunning());
+  }
+
+  private static boolean isMacCheckRunning() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> thread.getName().startsWith("SpdzMacCheck-"));
+  }
+
+  /**
+   * Records whether the mac check network is closed.
+   */
+  private static class ClosingNetwork implements CloseableNetwork {
+
+    private final Network network;
+    private volatile boolean closed;
+
+    private ClosingNetwork(Network network) {
+      this.network = network;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      ((CloseableNetwork) network).close();
+    }
+  }
+
+  /**
+   * Modifies a share and multiplies it enough times for the values opened by the multiplications
+   * to be checked in the background before the output is opened.
+   */
+  private static class TestModifyShareBeforeMults<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int cheatingPartyId;
+
+    TestModifyShareBeforeMults(int cheatingPartyId) {
+      this.cheatingPartyId = cheatingPartyId;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<BigInteger, ProtocolBuilderNumeric> app = producer -> {
+            DRes<SInt> input = producer.numeric().input(BigInteger.ONE, 1);
+            return producer.seq(seq -> {
+              SInt value = input.out();
+              if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                value = ((SpdzSInt) value).multiply(
+                    seq.getBasicNumericContext().getFieldDefinition().createElement(2));
+              }
+              DRes<SInt> product = value;
+              for (int i = 0; i < 20; i++) {
+                product = seq.numeric().mult(product, product);
+              }
+              return seq.numeric().open(product);
+            });
+          };
+          try {
+            runApplication(app);
+            fail("The modified share should have been detected");
+          } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof MaliciousException)) {
+              cause = cause.getCause();
+            }
+            assertTrue("Unexpected exception " + e, cause instanceof MaliciousException);
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package dk.alexandra.fresco.suite.spdz.maccheck;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
+import dk.alexandra.fresco.suite.spdz.SpdzOpeningMode;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.maccheck.TestSpdzMacCheckTamperWithValues.TestModifyShare;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzIncrementalOpenedValueStore;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ with opened values folded into a running random linear combination rather than stored
+ * until the mac check.
+ */
+public class TestSpdzIncrementalMacCheck extends AbstractSpdzTest {
+
+  private SpdzOpeningMode openingMode = SpdzOpeningMode.BROADCAST;
+
+  @Override
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    // small chunks such that the tests fold several chunks
+    return new SpdzIncrementalOpenedValueStore(definition, 16);
+  }
+
+  @Override
+  protected SpdzOpeningMode getOpeningMode() {
+    return openingMode;
+  }
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testAlternatingThreeParties() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testMultAllAndOpenAll() {
+    runTest(new BasicArithmeticTests.TestMultAllAndOpenAll<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testKingOpening() {
+    openingMode = SpdzOpeningMode.KING;
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testModifyShare() {
+    int noOfParties = 3;
+    for (int cheatingPartyId = 1; cheatingPartyId <= noOfParties; cheatingPartyId++) {
+      runTest(new TestModifyShare<>(cheatingPartyId), PreprocessingStrategy.DUMMY, noOfParties);
+    }
+  }
+}
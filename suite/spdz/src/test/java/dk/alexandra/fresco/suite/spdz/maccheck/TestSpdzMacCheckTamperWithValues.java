@@ -43,7 +43,7 @@ public class TestSpdzMacCheckTamperWithValues extends AbstractSpdzTest {
     }
   }
 
-  private static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
+  static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
     private final int cheatingPartyId;
@@ -0,0 +1,229 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.core.StringContains;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzAsyncMascotDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int NO_OF_PARTIES = 2;
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64));
+  private ExecutorService executorService;
+  private List<Integer> ports;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+    ports = Arrays.asList(10021, 10022);
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  @Test
+  public void testTriplesAndMetrics() throws Exception {
+    int numTriples = 40;
+    try (NetManager otManager = new NetManager(ports);
+        NetManager tripleManager = new NetManager(ports)) {
+      List<Callable<List<SpdzTriple>>> tasks = new ArrayList<>();
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        int finalMyId = myId;
+        tasks.add(() -> {
+          Drbg drbg = getDrbg(finalMyId);
+          Map<Integer, RotList> seedOts =
+              getSeedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+          FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+          SpdzAsyncMascotDataSupplier supplier = new SpdzAsyncMascotDataSupplier(finalMyId,
+              NO_OF_PARTIES, 1, () -> tripleManager.createExtraNetwork(finalMyId), definition,
+              64, null, PRG_SEED_LENGTH, 8, 8, 16, ssk, seedOts, drbg);
+          List<SpdzTriple> triples = new ArrayList<>();
+          for (int i = 0; i < numTriples; i++) {
+            triples.add(supplier.getNextTriple());
+          }
+          Map<String, Long> values = supplier.getLoggedValues();
+          assertTrue(values.get(SpdzAsyncMascotDataSupplier.BATCHES_GENERATED) >= numTriples / 8);
+          assertTrue(values.get(SpdzAsyncMascotDataSupplier.STALL_COUNT) >= 1);
+          assertTrue(values.get(SpdzAsyncMascotDataSupplier.TRIPLE_POOL_DEPTH) >= 0);
+          supplier.reset();
+          assertEquals(0L,
+              (long) supplier.getLoggedValues().get(SpdzAsyncMascotDataSupplier.STALL_COUNT));
+          supplier.close();
+          return triples;
+        });
+      }
+      List<List<SpdzTriple>> results = new ArrayList<>();
+      for (Future<List<SpdzTriple>> future : executorService.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      for (int i = 0; i < numTriples; i++) {
+        FieldElement a = definition.createElement(0);
+        FieldElement b = definition.createElement(0);
+        FieldElement c = definition.createElement(0);
+        for (List<SpdzTriple> triples : results) {
+          a = a.add(triples.get(i).getA().getShare());
+          b = b.add(triples.get(i).getB().getShare());
+          c = c.add(triples.get(i).getC().getShare());
+        }
+        assertEquals(definition.convertToUnsigned(a.multiply(b)),
+            definition.convertToUnsigned(c));
+      }
+    }
+  }
+
+  @Test
+  public void testIdleWithoutDemand() throws Exception {
+    try (NetManager otManager = new NetManager(ports);
+        NetManager tripleManager = new NetManager(ports)) {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        int finalMyId = myId;
+        tasks.add(() -> {
+          Drbg drbg = getDrbg(finalMyId);
+          Map<Integer, RotList> seedOts =
+              getSeedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+          NetworkLoggingDecorator network =
+              new NetworkLoggingDecorator(tripleManager.createExtraNetwork(finalMyId));
+          FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+          SpdzAsyncMascotDataSupplier supplier = new SpdzAsyncMascotDataSupplier(finalMyId,
+              NO_OF_PARTIES, 1, () -> network, definition, 64, null, PRG_SEED_LENGTH, 8, 8, 16,
+              ssk, seedOts, drbg);
+          // the first round of preprocessing generates 16 triples, so this creates no demand
+          for (int i = 0; i < 8; i++) {
+            supplier.getNextTriple();
+          }
+          // the input masks of the last party are generated last in a round
+          String lastPool = SpdzAsyncMascotDataSupplier.INPUT_MASK_POOL_DEPTH + NO_OF_PARTIES;
+          while (supplier.getLoggedValues().get(lastPool) < 16) {
+            Thread.sleep(10);
+          }
+          long batches =
+              supplier.getLoggedValues().get(SpdzAsyncMascotDataSupplier.BATCHES_GENERATED);
+          long messages =
+              network.getLoggedValues().get(NetworkLoggingDecorator.NETWORK_TOTAL_BATCHES);
+          Thread.sleep(200);
+          assertEquals(batches,
+              (long) supplier.getLoggedValues().get(SpdzAsyncMascotDataSupplier.BATCHES_GENERATED));
+          assertEquals(messages,
+              (long) network.getLoggedValues().get(NetworkLoggingDecorator.NETWORK_TOTAL_BATCHES));
+          supplier.close();
+          return null;
+        });
+      }
+      for (Future<Void> future : executorService.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+  }
+
+  @Test
+  public void testOtherPartyClosing() throws Exception {
+    try (NetManager otManager = new NetManager(ports);
+        NetManager tripleManager = new NetManager(ports)) {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        int finalMyId = myId;
+        tasks.add(() -> {
+          Drbg drbg = getDrbg(finalMyId);
+          Map<Integer, RotList> seedOts =
+              getSeedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+          FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+          SpdzAsyncMascotDataSupplier supplier = new SpdzAsyncMascotDataSupplier(finalMyId,
+              NO_OF_PARTIES, 1, () -> tripleManager.createExtraNetwork(finalMyId), definition,
+              64, null, PRG_SEED_LENGTH, 8, 8, 16, ssk, seedOts, drbg);
+          if (finalMyId == 1) {
+            // the first round of preprocessing generates 16 triples, so this creates no demand
+            for (int i = 0; i < 8; i++) {
+              supplier.getNextTriple();
+            }
+            supplier.close();
+          } else {
+            for (int i = 0; i < 16; i++) {
+              supplier.getNextTriple();
+            }
+            try {
+              supplier.getNextTriple();
+              fail("Should fail when the other party has stopped preprocessing");
+            } catch (IllegalStateException e) {
+              assertThat(e.getCause().getMessage(), StringContains.containsString("P1"));
+            }
+            supplier.close();
+          }
+          return null;
+        });
+      }
+      for (Future<Void> future : executorService.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    new SpdzAsyncMascotDataSupplier(1, 2, 1, null, definition, 64, null, PRG_SEED_LENGTH, 8, 16,
+        8, definition.createElement(1), new HashMap<>(), getDrbg(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBatchSize() {
+    new SpdzAsyncMascotDataSupplier(1, 2, 1, null, definition, 64, null, PRG_SEED_LENGTH, 0, 8,
+        16, definition.createElement(1), new HashMap<>(), getDrbg(1));
+  }
+}
@@ -0,0 +1,267 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.hamcrest.core.StringContains;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzBinaryStorage {
+
+  private static final int NO_OF_PARTIES = 3;
+  private static final int EXP_PIPE_LENGTH = 5;
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("spdz-binary");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private List<SpdzBinaryDataSupplier> generateAndOpen(int count) throws IOException {
+    List<Path> files = SpdzBinaryStorageGenerator.generate(directory, definition, NO_OF_PARTIES,
+        count, count, count, count, EXP_PIPE_LENGTH, count);
+    List<SpdzBinaryDataSupplier> suppliers = new ArrayList<>();
+    for (Path file : files) {
+      suppliers.add(new SpdzBinaryDataSupplier(file, definition));
+    }
+    return suppliers;
+  }
+
+  private FieldElement sum(List<SpdzBinaryDataSupplier> suppliers,
+      Function<SpdzBinaryDataSupplier, FieldElement> getter) {
+    FieldElement sum = definition.createElement(0);
+    for (SpdzBinaryDataSupplier supplier : suppliers) {
+      sum = sum.add(getter.apply(supplier));
+    }
+    return sum;
+  }
+
+  private void assertEqualElements(FieldElement expected, FieldElement actual) {
+    assertEquals(definition.convertToUnsigned(expected), definition.convertToUnsigned(actual));
+  }
+
+  private void assertValidMacs(List<SpdzSInt> shares, FieldElement key) {
+    FieldElement value = definition.createElement(0);
+    FieldElement mac = definition.createElement(0);
+    for (SpdzSInt share : shares) {
+      value = value.add(share.getShare());
+      mac = mac.add(share.getMac());
+    }
+    assertEqualElements(value.multiply(key), mac);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    int count = 10;
+    List<SpdzBinaryDataSupplier> suppliers = generateAndOpen(count);
+    FieldElement key = sum(suppliers, SpdzBinaryDataSupplier::getSecretSharedKey);
+    for (int i = 0; i < count; i++) {
+      List<SpdzTriple> triples = new ArrayList<>();
+      for (SpdzBinaryDataSupplier supplier : suppliers) {
+        triples.add(supplier.getNextTriple());
+      }
+      FieldElement a = definition.createElement(0);
+      FieldElement b = definition.createElement(0);
+      FieldElement c = definition.createElement(0);
+      List<SpdzSInt> shares = new ArrayList<>();
+      for (SpdzTriple triple : triples) {
+        a = a.add(triple.getA().getShare());
+        b = b.add(triple.getB().getShare());
+        c = c.add(triple.getC().getShare());
+        shares.add(triple.getC());
+      }
+      assertEqualElements(a.multiply(b), c);
+      assertValidMacs(shares, key);
+    }
+    for (int i = 0; i < count; i++) {
+      List<SpdzSInt> elements = new ArrayList<>();
+      List<SpdzSInt> bits = new ArrayList<>();
+      for (SpdzBinaryDataSupplier supplier : suppliers) {
+        elements.add(supplier.getNextRandomFieldElement());
+        bits.add(supplier.getNextBit());
+      }
+      assertValidMacs(elements, key);
+      assertValidMacs(bits, key);
+      FieldElement bit = definition.createElement(0);
+      for (SpdzSInt share : bits) {
+        bit = bit.add(share.getShare());
+      }
+      assertEqualElements(bit, bit.multiply(bit));
+    }
+    for (int i = 0; i < count; i++) {
+      List<SpdzSInt[]> pipes = new ArrayList<>();
+      for (SpdzBinaryDataSupplier supplier : suppliers) {
+        pipes.add(supplier.getNextExpPipe());
+      }
+      assertEquals(EXP_PIPE_LENGTH + 1, pipes.get(0).length);
+      for (int j = 0; j < EXP_PIPE_LENGTH + 1; j++) {
+        List<SpdzSInt> shares = new ArrayList<>();
+        for (SpdzSInt[] pipe : pipes) {
+          shares.add(pipe[j]);
+        }
+        assertValidMacs(shares, key);
+      }
+    }
+    for (SpdzBinaryDataSupplier supplier : suppliers) {
+      supplier.close();
+    }
+  }
+
+  @Test
+  public void testInputMasks() throws IOException {
+    int count = 4;
+    List<SpdzBinaryDataSupplier> suppliers = generateAndOpen(count);
+    for (int towardsId = 1; towardsId <= NO_OF_PARTIES; towardsId++) {
+      for (int i = 0; i < count; i++) {
+        FieldElement value = definition.createElement(0);
+        FieldElement realValue = null;
+        for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+          SpdzInputMask mask = suppliers.get(myId - 1).getNextInputMask(towardsId);
+          value = value.add(mask.getMask().getShare());
+          if (myId == towardsId) {
+            assertNotNull(mask.getRealValue());
+            realValue = mask.getRealValue();
+          } else {
+            assertNull(mask.getRealValue());
+          }
+        }
+        assertEqualElements(realValue, value);
+      }
+    }
+    for (SpdzBinaryDataSupplier supplier : suppliers) {
+      supplier.close();
+    }
+  }
+
+  @Test
+  public void testDefaultFieldDefinition() throws IOException {
+    List<Path> files = SpdzBinaryStorageGenerator.generate(directory, definition, 2, 1, 0, 0, 0,
+        0, 0);
+    try (SpdzBinaryDataSupplier supplier = new SpdzBinaryDataSupplier(files.get(0))) {
+      assertEquals(definition.getModulus(), supplier.getFieldDefinition().getModulus());
+      assertNotNull(supplier.getNextTriple());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExhausted() throws IOException {
+    List<SpdzBinaryDataSupplier> suppliers = generateAndOpen(1);
+    try (SpdzBinaryDataSupplier supplier = suppliers.get(0)) {
+      supplier.getNextTriple();
+      supplier.getNextTriple();
+    }
+  }
+
+  @Test
+  public void testExhaustedMessage() throws IOException {
+    List<SpdzBinaryDataSupplier> suppliers = generateAndOpen(2);
+    try (SpdzBinaryDataSupplier supplier = suppliers.get(0)) {
+      supplier.getNextBit();
+      supplier.getNextBit();
+      supplier.getNextBit();
+      fail("Should fail when the bits are exhausted");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), StringContains.containsString("Bit no. 3 "));
+    }
+  }
+
+  @Test
+  public void testWriterSectionTooLarge() throws IOException {
+    Path file = directory.resolve("large");
+    try {
+      new SpdzBinaryStorageWriter(file, definition, 1, 2, definition.createElement(1), 0, 0, 0,
+          Integer.MAX_VALUE / EXP_PIPE_LENGTH, EXP_PIPE_LENGTH, 0);
+      fail("Should not allow sections larger than a buffer");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), StringContains.containsString("exponentiation pipes"));
+    }
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  public void testReaderSectionTooLarge() throws IOException {
+    List<Path> files = SpdzBinaryStorageGenerator.generate(directory, definition, 2, 1, 0, 0, 0,
+        0, 0);
+    byte[] bytes = Files.readAllBytes(files.get(0));
+    // the file holds a single triple of six elements after the header, which ends with the
+    // number of elements in each of the six sections
+    int elementWidth = definition.serialize(definition.createElement(0)).length;
+    int headerSize = bytes.length - 6 * elementWidth;
+    ByteBuffer.wrap(bytes).putInt(headerSize - 6 * Integer.BYTES, Integer.MAX_VALUE);
+    Files.write(files.get(0), bytes);
+    try {
+      new SpdzBinaryDataSupplier(files.get(0), definition);
+      fail("Should not allow sections larger than a buffer");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), StringContains.containsString("triples"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongModulus() throws IOException {
+    List<Path> files = SpdzBinaryStorageGenerator.generate(directory, definition, 2, 1, 1, 1, 1,
+        1, 1);
+    new SpdzBinaryDataSupplier(files.get(0),
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotBinaryFile() throws IOException {
+    Path file = directory.resolve("garbage");
+    Files.write(file, new byte[64]);
+    new SpdzBinaryDataSupplier(file);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriterNotFilled() throws IOException {
+    Path file = directory.resolve("partial");
+    SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(file, definition, 1, 2,
+        definition.createElement(1), 2, 0, 0, 0, 0, 0);
+    FieldElement zero = definition.createElement(0);
+    SpdzSInt element = new SpdzSInt(zero, zero);
+    writer.addTriple(new SpdzTriple(element, element, element));
+    writer.close();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriterOverflow() throws IOException {
+    Path file = directory.resolve("overflow");
+    try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(file, definition, 1, 2,
+        definition.createElement(1), 0, 1, 0, 0, 0, 0)) {
+      FieldElement zero = definition.createElement(0);
+      writer.addRandomElement(new SpdzSInt(zero, zero));
+      writer.addRandomElement(new SpdzSInt(zero, zero));
+    }
+  }
+}
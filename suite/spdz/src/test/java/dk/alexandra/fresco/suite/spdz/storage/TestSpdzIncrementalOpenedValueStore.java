@@ -0,0 +1,141 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestSpdzIncrementalOpenedValueStore {
+
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+  private final FieldElement macKey = definition.createElement(1234567);
+  private final byte[] seed = new byte[32];
+
+  private List<SpdzSInt> authenticate(List<FieldElement> values) {
+    List<SpdzSInt> authenticated = new ArrayList<>(values.size());
+    for (FieldElement value : values) {
+      authenticated.add(new SpdzSInt(value, value.multiply(macKey)));
+    }
+    return authenticated;
+  }
+
+  private List<FieldElement> randomValues(int count) {
+    Random random = new Random(42);
+    List<FieldElement> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(definition.createElement(new BigInteger(100, random)));
+    }
+    return values;
+  }
+
+  private Pair<List<SpdzSInt>, List<FieldElement>> fold(List<FieldElement> openedValues,
+      int chunkSize) {
+    SpdzIncrementalOpenedValueStore store =
+        new SpdzIncrementalOpenedValueStore(definition, chunkSize);
+    store.setJointSeed(seed);
+    List<FieldElement> values = randomValues(openedValues.size());
+    store.pushOpenedValues(authenticate(values.subList(0, 10)), openedValues.subList(0, 10));
+    for (int i = 10; i < values.size(); i++) {
+      store.pushOpenedValue(authenticate(Collections.singletonList(values.get(i))).get(0),
+          openedValues.get(i));
+    }
+    return store.popValues();
+  }
+
+  @Test
+  public void testFoldedValueIsAuthenticated() {
+    List<FieldElement> values = randomValues(100);
+    Pair<List<SpdzSInt>, List<FieldElement>> folded = fold(values, 16);
+    assertEquals(1, folded.getFirst().size());
+    assertEquals(1, folded.getSecond().size());
+    SpdzSInt foldedValue = folded.getFirst().get(0);
+    FieldElement foldedOpened = folded.getSecond().get(0);
+    assertEquals(definition.convertToUnsigned(foldedValue.getShare()),
+        definition.convertToUnsigned(foldedOpened));
+    assertEquals(definition.convertToUnsigned(foldedOpened.multiply(macKey)),
+        definition.convertToUnsigned(foldedValue.getMac()));
+  }
+
+  @Test
+  public void testFoldingIsIndependentOfPushPattern() {
+    List<FieldElement> values = randomValues(100);
+    SpdzIncrementalOpenedValueStore store = new SpdzIncrementalOpenedValueStore(definition, 16);
+    store.setJointSeed(seed);
+    store.pushOpenedValues(authenticate(values), values);
+    FieldElement bulk = store.popValues().getSecond().get(0);
+    FieldElement single = fold(values, 16).getSecond().get(0);
+    assertEquals(definition.convertToUnsigned(bulk), definition.convertToUnsigned(single));
+  }
+
+  @Test
+  public void testModifiedOpenedValueChangesCombination() {
+    List<FieldElement> values = randomValues(100);
+    List<FieldElement> modified = new ArrayList<>(values);
+    modified.set(42, modified.get(42).add(definition.createElement(1)));
+    Pair<List<SpdzSInt>, List<FieldElement>> folded = fold(modified, 16);
+    SpdzSInt foldedValue = folded.getFirst().get(0);
+    FieldElement foldedOpened = folded.getSecond().get(0);
+    assertNotEquals(definition.convertToUnsigned(foldedOpened.multiply(macKey)),
+        definition.convertToUnsigned(foldedValue.getMac()));
+    assertNotEquals(definition.convertToUnsigned(fold(values, 16).getSecond().get(0)),
+        definition.convertToUnsigned(foldedOpened));
+  }
+
+  @Test
+  public void testModulusShorterThanAByte() {
+    FieldDefinition small = new BigIntegerFieldDefinition(BigInteger.valueOf(101));
+    FieldElement key = small.createElement(17);
+    SpdzIncrementalOpenedValueStore store = new SpdzIncrementalOpenedValueStore(small, 4);
+    store.setJointSeed(seed);
+    for (int i = 0; i < 10; i++) {
+      FieldElement value = small.createElement(i + 1);
+      FieldElement opened = i == 5 ? value.add(small.createElement(1)) : value;
+      store.pushOpenedValue(new SpdzSInt(value, value.multiply(key)), opened);
+    }
+    Pair<List<SpdzSInt>, List<FieldElement>> folded = store.popValues();
+    assertNotEquals(small.convertToUnsigned(folded.getSecond().get(0).multiply(key)),
+        small.convertToUnsigned(folded.getFirst().get(0).getMac()));
+  }
+
+  @Test
+  public void testPendingValues() {
+    SpdzIncrementalOpenedValueStore store = new SpdzIncrementalOpenedValueStore(definition, 4);
+    assertFalse(store.hasPendingValues());
+    assertTrue(store.popValues().getFirst().isEmpty());
+    store.setJointSeed(seed);
+    List<FieldElement> values = randomValues(10);
+    store.pushOpenedValues(authenticate(values), values);
+    assertTrue(store.hasPendingValues());
+    assertTrue(store.exceedsThreshold(9));
+    assertFalse(store.exceedsThreshold(10));
+    store.popValues();
+    assertFalse(store.hasPendingValues());
+    assertFalse(store.exceedsThreshold(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPopWithoutSeed() {
+    SpdzIncrementalOpenedValueStore store = new SpdzIncrementalOpenedValueStore(definition);
+    List<FieldElement> values = randomValues(1);
+    store.pushOpenedValues(authenticate(values), values);
+    store.popValues();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalChunkSize() {
+    new SpdzIncrementalOpenedValueStore(definition, 0);
+  }
+}
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.spdz2k;
 
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.logging.MetricsRegistry;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter;
@@ -36,6 +37,7 @@ public abstract class Spdz2kProtocolSuite<
     implements ProtocolSuiteNumeric<Spdz2kResourcePool<PlainT>> {
 
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
+  private final MetricsRegistry metrics;
 
   /**
    * Constructs new {@link Spdz2kProtocolSuite}.
@@ -45,7 +47,24 @@ public abstract class Spdz2kProtocolSuite<
    * between these different types.
    */
   Spdz2kProtocolSuite(CompUIntConverter<HighT, LowT, PlainT> converter) {
+    this(converter, MetricsRegistry.noop());
+  }
+
+  /**
+   * Constructs new {@link Spdz2kProtocolSuite} reporting the duration of the mac checks to a
+   * metrics registry, see {@link Spdz2kRoundSynchronization#MAC_CHECK_NANOS}.
+   *
+   * @param converter helper which allows converting {@link HighT}, and {@link LowT} instances to
+   * {@link PlainT}
+   * @param metrics the registry to report to
+   */
+  Spdz2kProtocolSuite(CompUIntConverter<HighT, LowT, PlainT> converter, MetricsRegistry metrics) {
     this.converter = converter;
+    this.metrics = metrics;
+  }
+
+  public MetricsRegistry getMetrics() {
+    return metrics;
   }
 
   @Override
@@ -0,0 +1,80 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <i>inputter</i> side of the Correlated Oblivious Product Evaluation (COPE) protocol over
+ * the ring <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>The inputter holds a list of inputs and obtains additive shares of the products of the
+ * inputs and the other party's mac key share. For the other side of the protocol, see {@link
+ * Spdz2kCopeSigner}.</p>
+ */
+class Spdz2kCopeInputter<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+  private final int otherId;
+  private final List<UIntPrg<PlainT>> leftPrgs;
+  private final List<UIntPrg<PlainT>> rightPrgs;
+
+  /**
+   * Creates new inputter and runs the initialization sub-protocol, sending a pair of PRG seeds for
+   * each bit of the other party's mac key share.
+   */
+  Spdz2kCopeInputter(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      RotBatch rot, int otherId) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.otherId = otherId;
+    int bitLength = resourcePool.getCompositeBitLength();
+    List<Pair<StrictBitVector, StrictBitVector>> seeds =
+        rot.send(bitLength, resourcePool.getPrgSeedLength());
+    this.leftPrgs = new ArrayList<>(bitLength);
+    this.rightPrgs = new ArrayList<>(bitLength);
+    for (Pair<StrictBitVector, StrictBitVector> seed : seeds) {
+      leftPrgs.add(new UIntPrg<>(seed.getFirst(), resourcePool.getFactory()));
+      rightPrgs.add(new UIntPrg<>(seed.getSecond(), resourcePool.getFactory()));
+    }
+  }
+
+  /**
+   * Computes shares of the products of the inputs and the other party's mac key share.
+   *
+   * @param inputs this party's inputs
+   * @return shares of the products
+   */
+  List<PlainT> extend(List<PlainT> inputs) {
+    int bitLength = resourcePool.getCompositeBitLength();
+    List<List<PlainT>> zeroMasks = new ArrayList<>(bitLength);
+    List<List<PlainT>> oneMasks = new ArrayList<>(bitLength);
+    for (int l = 0; l < bitLength; l++) {
+      zeroMasks.add(leftPrgs.get(l).getNext(inputs.size()));
+      oneMasks.add(rightPrgs.get(l).getNext(inputs.size()));
+    }
+    List<PlainT> diffs = new ArrayList<>(inputs.size() * bitLength);
+    for (int i = 0; i < inputs.size(); i++) {
+      PlainT input = inputs.get(i);
+      for (int l = 0; l < bitLength; l++) {
+        diffs.add(zeroMasks.get(l).get(i).subtract(oneMasks.get(l).get(i)).add(input));
+      }
+    }
+    network.send(otherId, resourcePool.getFactory().getSerializer().serialize(diffs));
+    List<PlainT> shares = new ArrayList<>(inputs.size());
+    List<PlainT> summands = new ArrayList<>(bitLength);
+    for (int i = 0; i < inputs.size(); i++) {
+      summands.clear();
+      for (int l = 0; l < bitLength; l++) {
+        summands.add(zeroMasks.get(l).get(i));
+      }
+      shares.add(UIntUtils.recombine(summands, 0, bitLength).negateUInt());
+    }
+    return shares;
+  }
+}
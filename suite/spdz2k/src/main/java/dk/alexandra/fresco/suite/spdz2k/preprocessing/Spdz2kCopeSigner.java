@@ -0,0 +1,80 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The <i>signer</i> side of the Correlated Oblivious Product Evaluation (COPE) protocol over the
+ * ring <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>The signer holds its share of the mac key and obtains additive shares of the products of
+ * the mac key share and the inputs of the other party. For the other side of the protocol, see
+ * {@link Spdz2kCopeInputter}.</p>
+ */
+class Spdz2kCopeSigner<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+  private final int otherId;
+  private final byte[] macKeyShareBytes;
+  private final List<UIntPrg<PlainT>> prgs;
+
+  /**
+   * Creates new signer and runs the initialization sub-protocol, using the bits of the mac key
+   * share as choice bits to receive the PRG seeds.
+   */
+  Spdz2kCopeSigner(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      RotBatch rot, int otherId, PlainT macKeyShare) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.otherId = otherId;
+    this.macKeyShareBytes = macKeyShare.toByteArray();
+    int bitLength = resourcePool.getCompositeBitLength();
+    List<StrictBitVector> seeds = rot.receive(
+        UIntUtils.toBits(Collections.singletonList(macKeyShare), bitLength),
+        resourcePool.getPrgSeedLength());
+    this.prgs = new ArrayList<>(bitLength);
+    for (StrictBitVector seed : seeds) {
+      prgs.add(new UIntPrg<>(seed, resourcePool.getFactory()));
+    }
+  }
+
+  /**
+   * Computes shares of the products of the mac key share and each of the other party's inputs.
+   *
+   * @param numInputs number of inputs of the other party
+   * @return shares of the products
+   */
+  List<PlainT> extend(int numInputs) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    int bitLength = resourcePool.getCompositeBitLength();
+    List<List<PlainT>> masks = new ArrayList<>(bitLength);
+    for (UIntPrg<PlainT> prg : prgs) {
+      masks.add(prg.getNext(numInputs));
+    }
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != numInputs * bitLength) {
+      throw new IllegalStateException(
+          "Expected " + numInputs * bitLength + " diffs but received " + diffs.size());
+    }
+    List<PlainT> shares = new ArrayList<>(numInputs);
+    List<PlainT> summands = new ArrayList<>(bitLength);
+    for (int i = 0; i < numInputs; i++) {
+      summands.clear();
+      for (int l = 0; l < bitLength; l++) {
+        PlainT mask = masks.get(l).get(i);
+        summands.add(UIntUtils.getBit(macKeyShareBytes, l)
+            ? mask.add(diffs.get(i * bitLength + l))
+            : mask);
+      }
+      shares.add(UIntUtils.recombine(summands, 0, bitLength));
+    }
+    return shares;
+  }
+}
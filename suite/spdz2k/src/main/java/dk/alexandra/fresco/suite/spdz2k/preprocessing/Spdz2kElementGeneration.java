@@ -0,0 +1,293 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for authenticating, opening and mac-checking secret-shared ring
+ * elements.
+ *
+ * <p>Shares are authenticated using COPE with every other party. The resulting macs are checked
+ * by opening a random linear combination of the authenticated values, masked by an additional
+ * random value. Values opened by {@link #open(List)} are recorded and checked in a batch by
+ * {@link #checkOpened()}, which must be called before any material derived from them is
+ * output.</p>
+ */
+class Spdz2kElementGeneration<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+  private final PlainT macKeyShare;
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final HashBasedCommitmentSerializer commitmentSerializer;
+  private final Map<Integer, Spdz2kCopeSigner<PlainT>> copeSigners;
+  private final Map<Integer, Spdz2kCopeInputter<PlainT>> copeInputters;
+  private final List<Spdz2kSInt<PlainT>> openedElements;
+  private final List<PlainT> openedValues;
+
+  /**
+   * Creates new {@link Spdz2kElementGeneration} and initializes COPE with all other parties.
+   *
+   * @param resourcePool resources for the preprocessing
+   * @param network network to communicate over
+   * @param rots random OT instances with each of the other parties
+   * @param macKeyShare this party's share of the mac key
+   */
+  Spdz2kElementGeneration(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      Map<Integer, RotBatch> rots, PlainT macKeyShare) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.macKeyShare = macKeyShare;
+    this.factory = resourcePool.getFactory();
+    this.serializer = factory.getSerializer();
+    this.commitmentSerializer = new HashBasedCommitmentSerializer();
+    this.copeSigners = new HashMap<>();
+    this.copeInputters = new HashMap<>();
+    this.openedElements = new ArrayList<>();
+    this.openedValues = new ArrayList<>();
+    int myId = resourcePool.getMyId();
+    for (int otherId = 1; otherId <= resourcePool.getNoOfParties(); otherId++) {
+      if (myId == otherId) {
+        continue;
+      }
+      RotBatch rot = rots.get(otherId);
+      if (myId < otherId) {
+        copeSigners.put(otherId,
+            new Spdz2kCopeSigner<>(resourcePool, network, rot, otherId, macKeyShare));
+        copeInputters.put(otherId,
+            new Spdz2kCopeInputter<>(resourcePool, network, rot, otherId));
+      } else {
+        copeInputters.put(otherId,
+            new Spdz2kCopeInputter<>(resourcePool, network, rot, otherId));
+        copeSigners.put(otherId,
+            new Spdz2kCopeSigner<>(resourcePool, network, rot, otherId, macKeyShare));
+      }
+    }
+  }
+
+  /**
+   * Authenticates additively secret-shared values. All parties must call this method with their
+   * shares of the same number of values.
+   *
+   * @param shares this party's shares of the values
+   * @return this party's authenticated shares of the values
+   */
+  List<Spdz2kSInt<PlainT>> authenticate(List<PlainT> shares) {
+    List<PlainT> withMask = new ArrayList<>(shares.size() + 1);
+    withMask.addAll(shares);
+    withMask.addAll(UIntUtils.random(factory, resourcePool.getRandomGenerator(), 1));
+    List<PlainT> macShares = computeMacShares(withMask);
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(withMask.size());
+    for (int i = 0; i < withMask.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(withMask.get(i), macShares.get(i)));
+    }
+    Spdz2kSInt<PlainT> mask = authenticated.remove(shares.size());
+    List<PlainT> coefficients = UIntUtils.random(factory, jointDrbg(), shares.size());
+    Spdz2kSInt<PlainT> combined = mask;
+    for (int i = 0; i < shares.size(); i++) {
+      combined = combined.add(authenticated.get(i).multiply(coefficients.get(i)));
+    }
+    // the combination is checked along with the other opened values
+    open(Collections.singletonList(combined));
+    return authenticated;
+  }
+
+  private List<PlainT> computeMacShares(List<PlainT> shares) {
+    List<PlainT> macShares = new ArrayList<>(shares.size());
+    for (PlainT share : shares) {
+      macShares.add(share.multiply(macKeyShare));
+    }
+    for (Spdz2kCopeInputter<PlainT> inputter : copeInputters.values()) {
+      addTo(macShares, inputter.extend(shares));
+    }
+    for (Spdz2kCopeSigner<PlainT> signer : copeSigners.values()) {
+      addTo(macShares, signer.extend(shares.size()));
+    }
+    return macShares;
+  }
+
+  private void addTo(List<PlainT> accumulator, List<PlainT> summands) {
+    for (int i = 0; i < accumulator.size(); i++) {
+      accumulator.set(i, accumulator.get(i).add(summands.get(i)));
+    }
+  }
+
+  /**
+   * Secret-shares this party's values among all parties. Must be matched by calls to {@link
+   * #receiveShares(int, int)} by all other parties.
+   *
+   * @param values the values to share
+   * @return this party's shares of the values
+   */
+  List<PlainT> share(List<PlainT> values) {
+    List<PlainT> ownShares = new ArrayList<>(values);
+    for (int otherId = 1; otherId <= resourcePool.getNoOfParties(); otherId++) {
+      if (otherId != resourcePool.getMyId()) {
+        List<PlainT> shares =
+            UIntUtils.random(factory, resourcePool.getRandomGenerator(), values.size());
+        network.send(otherId, serializer.serialize(shares));
+        for (int i = 0; i < values.size(); i++) {
+          ownShares.set(i, ownShares.get(i).subtract(shares.get(i)));
+        }
+      }
+    }
+    return ownShares;
+  }
+
+  /**
+   * Receives shares of values secret-shared by another party using {@link #share(List)}.
+   *
+   * @param inputterId the id of the party sharing the values
+   * @param numValues the number of values
+   * @return this party's shares of the values
+   */
+  List<PlainT> receiveShares(int inputterId, int numValues) {
+    List<PlainT> shares = serializer.deserializeList(network.receive(inputterId));
+    if (shares.size() != numValues) {
+      throw new MaliciousException(
+          "Expected " + numValues + " shares but received " + shares.size());
+    }
+    return shares;
+  }
+
+  /**
+   * Opens authenticated values. The opened values are recorded and must later be checked using
+   * {@link #checkOpened()}.
+   *
+   * @param elements this party's shares of the values
+   * @return the opened values
+   */
+  List<PlainT> open(List<Spdz2kSInt<PlainT>> elements) {
+    List<PlainT> shares = new ArrayList<>(elements.size());
+    for (Spdz2kSInt<PlainT> element : elements) {
+      shares.add(element.getShare());
+    }
+    network.sendToAll(serializer.serialize(shares));
+    List<PlainT> values = zeros(elements.size());
+    for (byte[] received : network.receiveFromAll()) {
+      List<PlainT> otherShares = serializer.deserializeList(received);
+      if (otherShares.size() != elements.size()) {
+        throw new MaliciousException(
+            "Expected " + elements.size() + " shares but received " + otherShares.size());
+      }
+      addTo(values, otherShares);
+    }
+    openedElements.addAll(elements);
+    openedValues.addAll(values);
+    return values;
+  }
+
+  private List<PlainT> zeros(int size) {
+    List<PlainT> zeros = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      zeros.add(factory.zero());
+    }
+    return zeros;
+  }
+
+  /**
+   * Runs a batched mac check on all values opened since the last check.
+   *
+   * @throws MaliciousException if the mac check fails
+   */
+  void checkOpened() {
+    if (openedElements.isEmpty()) {
+      return;
+    }
+    List<PlainT> coefficients =
+        UIntUtils.randomCoefficients(factory, jointDrbg(), openedElements.size());
+    List<PlainT> macShares = new ArrayList<>(openedElements.size());
+    for (Spdz2kSInt<PlainT> element : openedElements) {
+      macShares.add(element.getMacShare());
+    }
+    PlainT y = UInt.innerProduct(openedValues, coefficients);
+    PlainT m = UInt.innerProduct(macShares, coefficients);
+    PlainT z = macKeyShare.multiply(y).subtract(m);
+    openedElements.clear();
+    openedValues.clear();
+    PlainT sum = factory.zero();
+    for (byte[] value : commitAndOpen(serializer.serialize(z))) {
+      sum = sum.add(serializer.deserialize(value));
+    }
+    if (!sum.isZero()) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  /**
+   * Runs a coin tossing protocol among all parties and returns a {@link Drbg} seeded with the
+   * result.
+   */
+  Drbg jointDrbg() {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    resourcePool.getRandomGenerator().nextBytes(seed);
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (byte[] otherSeed : commitAndOpen(seed)) {
+      if (otherSeed.length != jointSeed.length) {
+        throw new MaliciousException("Seed has wrong length");
+      }
+      for (int i = 0; i < jointSeed.length; i++) {
+        jointSeed[i] ^= otherSeed[i];
+      }
+    }
+    return new AesCtrDrbg(jointSeed);
+  }
+
+  /**
+   * Commits to a value and distributes the commitment to all parties, and then opens the
+   * commitments of all parties.
+   *
+   * @return the committed values of all parties
+   */
+  private List<byte[]> commitAndOpen(byte[] value) {
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] opening = ownCommitment.commit(resourcePool.getRandomGenerator(), value);
+    network.sendToAll(commitmentSerializer.serialize(ownCommitment));
+    List<byte[]> commitments = network.receiveFromAll();
+    if (resourcePool.getNoOfParties() > 2) {
+      validateBroadcast(commitments);
+    }
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> values = new ArrayList<>(commitments.size());
+    for (int i = 0; i < commitments.size(); i++) {
+      values.add(commitmentSerializer.deserialize(commitments.get(i)).open(openings.get(i)));
+    }
+    return values;
+  }
+
+  /**
+   * Ensures that all parties received the same messages by comparing digests.
+   */
+  private void validateBroadcast(List<byte[]> messages) {
+    MessageDigest digest = resourcePool.getMessageDigest();
+    for (byte[] message : messages) {
+      digest.update(message);
+    }
+    byte[] ownDigest = digest.digest();
+    network.sendToAll(ownDigest);
+    for (byte[] otherDigest : network.receiveFromAll()) {
+      if (!Arrays.equals(ownDigest, otherDigest)) {
+        throw new MaliciousException("Broadcast validation failed");
+      }
+    }
+  }
+}
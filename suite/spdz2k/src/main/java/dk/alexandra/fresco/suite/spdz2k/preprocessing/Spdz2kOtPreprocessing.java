@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure OT-based preprocessing for Spdz2k, producing authenticated multiplication
+ * triples, input masks, random elements and random bits over the ring <i>Z<sub>2<sup>k +
+ * s</sup></sub></i>.
+ *
+ * <p>The protocols follow the approach of the Spdz2k paper (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>):
+ * elements are authenticated using COPE over the ring and triples are generated using OT-based
+ * multiplication followed by a combine and sacrifice step. Random bits are generated by having
+ * each party input a random bit, combining the bits using XOR and verifying that the result
+ * <i>b</i> satisfies <i>b<sup>2</sup> = b</i>.</p>
+ *
+ * <p>All material is generated in batches and all parties must request the same batches in the
+ * same order.</p>
+ *
+ * @param <PlainT> type of the ring elements
+ */
+public class Spdz2kOtPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final PlainT macKeyShare;
+  private final CompUIntFactory<PlainT> factory;
+  private final Spdz2kElementGeneration<PlainT> elementGeneration;
+  private final Spdz2kTripleGeneration<PlainT> tripleGeneration;
+
+  /**
+   * Creates new {@link Spdz2kOtPreprocessing}, setting up OT extension and COPE with all other
+   * parties.
+   *
+   * @param resourcePool resources for the preprocessing
+   * @param network network to communicate over
+   * @param macKeyShare this party's share of the mac key
+   */
+  public Spdz2kOtPreprocessing(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, PlainT macKeyShare) {
+    this.resourcePool = resourcePool;
+    this.macKeyShare = macKeyShare;
+    this.factory = resourcePool.getFactory();
+    Map<Integer, RotBatch> rots = new HashMap<>();
+    Map<Integer, Spdz2kPairwiseMultiplication<PlainT>> multipliers = new HashMap<>();
+    for (int otherId = 1; otherId <= resourcePool.getNoOfParties(); otherId++) {
+      if (otherId != resourcePool.getMyId()) {
+        RotBatch rot = resourcePool.createRot(otherId, network);
+        rots.put(otherId, rot);
+        multipliers.put(otherId,
+            new Spdz2kPairwiseMultiplication<>(resourcePool, network, rot, otherId));
+      }
+    }
+    this.elementGeneration =
+        new Spdz2kElementGeneration<>(resourcePool, network, rots, macKeyShare);
+    this.tripleGeneration =
+        new Spdz2kTripleGeneration<>(resourcePool, elementGeneration, multipliers);
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples
+   * @return this party's shares of the triples
+   */
+  public List<Spdz2kTriple<PlainT>> getTriples(int numTriples) {
+    return tripleGeneration.generate(numTriples);
+  }
+
+  /**
+   * Generates a batch of random elements.
+   *
+   * @param numElements number of elements
+   * @return this party's shares of the elements
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomElements(int numElements) {
+    List<Spdz2kSInt<PlainT>> elements = elementGeneration.authenticate(
+        UIntUtils.random(factory, resourcePool.getRandomGenerator(), numElements));
+    elementGeneration.checkOpened();
+    return elements;
+  }
+
+  /**
+   * Generates a batch of input masks towards a party.
+   *
+   * @param towardsPartyId the party which learns the values of the masks
+   * @param numMasks number of masks
+   * @return this party's shares of the masks, including the values of the masks if this party is
+   *     the party the masks are generated towards
+   */
+  public List<Spdz2kInputMask<PlainT>> getInputMasks(int towardsPartyId, int numMasks) {
+    List<PlainT> values = null;
+    List<PlainT> shares;
+    if (towardsPartyId == resourcePool.getMyId()) {
+      values = UIntUtils.random(factory, resourcePool.getRandomGenerator(), numMasks);
+      shares = elementGeneration.share(values);
+    } else {
+      shares = elementGeneration.receiveShares(towardsPartyId, numMasks);
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = elementGeneration.authenticate(shares);
+    elementGeneration.checkOpened();
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(numMasks);
+    for (int i = 0; i < numMasks; i++) {
+      if (values == null) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i)));
+      } else {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), values.get(i)));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Generates a batch of random bits.
+   *
+   * @param numBits number of bits
+   * @return this party's shares of the bits
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomBits(int numBits) {
+    int noOfParties = resourcePool.getNoOfParties();
+    List<PlainT> shares = new ArrayList<>(noOfParties * numBits);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        List<PlainT> bits = new ArrayList<>(numBits);
+        byte[] randomBytes = new byte[numBits];
+        resourcePool.getRandomGenerator().nextBytes(randomBytes);
+        for (byte randomByte : randomBytes) {
+          bits.add(factory.createElement(randomByte & 1));
+        }
+        shares.addAll(elementGeneration.share(bits));
+      } else {
+        shares.addAll(elementGeneration.receiveShares(partyId, numBits));
+      }
+    }
+    List<Spdz2kSInt<PlainT>> inputBits = elementGeneration.authenticate(shares);
+    List<Spdz2kTriple<PlainT>> triples = tripleGeneration.generate(noOfParties * numBits);
+    List<Spdz2kSInt<PlainT>> bits = new ArrayList<>(inputBits.subList(0, numBits));
+    PlainT two = factory.createElement(2);
+    for (int partyId = 2; partyId <= noOfParties; partyId++) {
+      List<Spdz2kSInt<PlainT>> otherBits =
+          inputBits.subList((partyId - 1) * numBits, partyId * numBits);
+      List<Spdz2kSInt<PlainT>> products = multiply(bits, otherBits,
+          triples.subList((partyId - 2) * numBits, (partyId - 1) * numBits));
+      for (int i = 0; i < numBits; i++) {
+        bits.set(i, bits.get(i).add(otherBits.get(i)).subtract(products.get(i).multiply(two)));
+      }
+    }
+    List<Spdz2kSInt<PlainT>> squares = multiply(bits, bits,
+        triples.subList((noOfParties - 1) * numBits, noOfParties * numBits));
+    List<Spdz2kSInt<PlainT>> differences = new ArrayList<>(numBits);
+    for (int i = 0; i < numBits; i++) {
+      differences.add(squares.get(i).subtract(bits.get(i)));
+    }
+    for (PlainT difference : elementGeneration.open(differences)) {
+      if (!difference.isZero()) {
+        throw new MaliciousException("Bit check failed");
+      }
+    }
+    elementGeneration.checkOpened();
+    return bits;
+  }
+
+  /**
+   * Multiplies authenticated values using Beaver's technique.
+   */
+  private List<Spdz2kSInt<PlainT>> multiply(List<Spdz2kSInt<PlainT>> left,
+      List<Spdz2kSInt<PlainT>> right, List<Spdz2kTriple<PlainT>> triples) {
+    int size = left.size();
+    List<Spdz2kSInt<PlainT>> toOpen = new ArrayList<>(2 * size);
+    for (int i = 0; i < size; i++) {
+      toOpen.add(left.get(i).subtract(triples.get(i).getLeft()));
+    }
+    for (int i = 0; i < size; i++) {
+      toOpen.add(right.get(i).subtract(triples.get(i).getRight()));
+    }
+    List<PlainT> opened = elementGeneration.open(toOpen);
+    boolean isPartyOne = resourcePool.getMyId() == 1;
+    List<Spdz2kSInt<PlainT>> products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = opened.get(i);
+      PlainT delta = opened.get(size + i);
+      products.add(triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .addConstant(epsilon.multiply(delta), macKeyShare, factory.zero(), isPartyOne));
+    }
+    return products;
+  }
+}
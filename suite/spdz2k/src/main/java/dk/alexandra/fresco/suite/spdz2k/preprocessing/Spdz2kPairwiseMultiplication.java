@@ -0,0 +1,123 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OT-based two-party multiplication over the ring <i>Z<sub>2<sup>k + s</sup></sub></i> (Gilboa
+ * multiplication).
+ *
+ * <p>The <i>right</i> party uses the bits of its factors as choice bits in a random OT with the
+ * <i>left</i> party. Each right factor is multiplied with a group of left factors, so that a
+ * single OT per bit of the right factor suffices for the whole group. The parties end up with
+ * additive shares of the products.</p>
+ */
+class Spdz2kPairwiseMultiplication<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+  private final RotBatch rot;
+  private final int otherId;
+
+  Spdz2kPairwiseMultiplication(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, RotBatch rot, int otherId) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.rot = rot;
+    this.otherId = otherId;
+  }
+
+  /**
+   * Runs the left side of the multiplication.
+   *
+   * @param leftFactors this party's factors, where the factors at indexes <i>i * groupSize</i> to
+   *     <i>(i + 1) * groupSize</i> are multiplied with the <i>i</i>th right factor of the other
+   *     party
+   * @param groupSize number of left factors per right factor
+   * @return shares of the products of this party's factors and the other party's factors
+   */
+  List<PlainT> multiplyLeft(List<PlainT> leftFactors, int groupSize) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    int bitLength = resourcePool.getCompositeBitLength();
+    int numGroups = leftFactors.size() / groupSize;
+    List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
+        rot.send(numGroups * bitLength, groupSize * bitLength);
+    List<PlainT> zeroSeeds = new ArrayList<>(leftFactors.size() * bitLength);
+    List<PlainT> diffs = new ArrayList<>(leftFactors.size() * bitLength);
+    for (int i = 0; i < numGroups; i++) {
+      for (int l = 0; l < bitLength; l++) {
+        Pair<StrictBitVector, StrictBitVector> seedPair = seedPairs.get(i * bitLength + l);
+        List<PlainT> zeroSeedGroup = UIntUtils.fromBytes(factory, seedPair.getFirst());
+        List<PlainT> oneSeedGroup = UIntUtils.fromBytes(factory, seedPair.getSecond());
+        for (int j = 0; j < groupSize; j++) {
+          PlainT zeroSeed = zeroSeedGroup.get(j);
+          zeroSeeds.add(zeroSeed);
+          diffs.add(zeroSeed.subtract(oneSeedGroup.get(j)).add(leftFactors.get(i * groupSize + j)));
+        }
+      }
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    List<PlainT> shares = new ArrayList<>(leftFactors.size());
+    List<PlainT> summands = new ArrayList<>(bitLength);
+    for (int i = 0; i < numGroups; i++) {
+      for (int j = 0; j < groupSize; j++) {
+        summands.clear();
+        for (int l = 0; l < bitLength; l++) {
+          summands.add(zeroSeeds.get((i * bitLength + l) * groupSize + j));
+        }
+        shares.add(UIntUtils.recombine(summands, 0, bitLength).negateUInt());
+      }
+    }
+    return shares;
+  }
+
+  /**
+   * Runs the right side of the multiplication.
+   *
+   * @param rightFactors this party's factors
+   * @param groupSize number of left factors of the other party per right factor
+   * @return shares of the products of the other party's factors and this party's factors, in the
+   *     order of the left factors
+   */
+  List<PlainT> multiplyRight(List<PlainT> rightFactors, int groupSize) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    int bitLength = resourcePool.getCompositeBitLength();
+    List<StrictBitVector> seeds =
+        rot.receive(UIntUtils.toBits(rightFactors, bitLength), groupSize * bitLength);
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != seeds.size() * groupSize) {
+      throw new IllegalStateException(
+          "Expected " + seeds.size() * groupSize + " diffs but received " + diffs.size());
+    }
+    List<PlainT> shares = new ArrayList<>(rightFactors.size() * groupSize);
+    List<List<PlainT>> summands = new ArrayList<>(groupSize);
+    for (int j = 0; j < groupSize; j++) {
+      summands.add(new ArrayList<>(bitLength));
+    }
+    for (int i = 0; i < rightFactors.size(); i++) {
+      byte[] factorBytes = rightFactors.get(i).toByteArray();
+      for (List<PlainT> groupSummands : summands) {
+        groupSummands.clear();
+      }
+      for (int l = 0; l < bitLength; l++) {
+        int index = i * bitLength + l;
+        List<PlainT> seedGroup = UIntUtils.fromBytes(factory, seeds.get(index));
+        boolean bit = UIntUtils.getBit(factorBytes, l);
+        for (int j = 0; j < groupSize; j++) {
+          PlainT seed = seedGroup.get(j);
+          summands.get(j).add(bit ? seed.add(diffs.get(index * groupSize + j)) : seed);
+        }
+      }
+      for (List<PlainT> groupSummands : summands) {
+        shares.add(UIntUtils.recombine(groupSummands, 0, bitLength));
+      }
+    }
+    return shares;
+  }
+}
@@ -0,0 +1,125 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.BristolRotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * Resources used by the OT-based Spdz2k preprocessing protocols in this package.
+ *
+ * @param <PlainT> type of the ring elements
+ */
+public class Spdz2kPreprocessingResourcePool<PlainT extends CompUInt<?, ?, PlainT>>
+    extends ResourcePoolImpl {
+
+  private final int instanceId;
+  private final CompUIntFactory<PlainT> factory;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+  private final int lambdaSecurityParam;
+  private final int prgSeedLength;
+  private final int numCandidatesPerTriple;
+  private final MessageDigest messageDigest;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessingResourcePool}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId identifier used to distinguish parallel instances of the preprocessing
+   * @param factory factory for the ring elements
+   * @param drbg source of randomness
+   * @param seedOts pre-computed base OTs
+   * @param lambdaSecurityParam the statistical security parameter of the OT extension
+   * @param prgSeedLength bit length of the seeds used for the underlying PRGs
+   * @param numCandidatesPerTriple number of candidate triples combined into each generated triple
+   */
+  public Spdz2kPreprocessingResourcePool(int myId, int noOfParties, int instanceId,
+      CompUIntFactory<PlainT> factory, Drbg drbg, Map<Integer, RotList> seedOts,
+      int lambdaSecurityParam, int prgSeedLength, int numCandidatesPerTriple) {
+    super(myId, noOfParties);
+    if (numCandidatesPerTriple < 1) {
+      throw new IllegalArgumentException(
+          "Number of candidates per triple must be positive but was " + numCandidatesPerTriple);
+    }
+    this.instanceId = instanceId;
+    this.factory = factory;
+    this.drbg = drbg;
+    this.seedOts = seedOts;
+    this.lambdaSecurityParam = lambdaSecurityParam;
+    this.prgSeedLength = prgSeedLength;
+    this.numCandidatesPerTriple = numCandidatesPerTriple;
+    this.messageDigest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for Spdz2k preprocessing");
+  }
+
+  /**
+   * Creates new {@link Spdz2kPreprocessingResourcePool} with the default security parameters.
+   */
+  public Spdz2kPreprocessingResourcePool(int myId, int noOfParties, int instanceId,
+      CompUIntFactory<PlainT> factory, Drbg drbg, Map<Integer, RotList> seedOts) {
+    this(myId, noOfParties, instanceId, factory, drbg, seedOts, 64, 256, 3);
+  }
+
+  /**
+   * Creates a batched random OT instance with the other party, using the base OTs of this pool.
+   *
+   * @param otherId the other party
+   * @param network network connecting this party to the other party
+   * @return a new random OT instance
+   */
+  public RotBatch createRot(int otherId, Network network) {
+    if (getMyId() == otherId) {
+      throw new IllegalArgumentException("Cannot initialize with self");
+    }
+    CoinTossing ct = new CoinTossing(getMyId(), otherId, drbg);
+    ct.initialize(network);
+    OtExtensionResourcePool otResources = new OtExtensionResourcePoolImpl(getMyId(), otherId,
+        prgSeedLength, lambdaSecurityParam, instanceId, drbg, ct, seedOts.get(otherId));
+    return new BristolRotBatch(new RotFactory(otResources, network), prgSeedLength,
+        lambdaSecurityParam);
+  }
+
+  public CompUIntFactory<PlainT> getFactory() {
+    return factory;
+  }
+
+  /**
+   * Gets the bit length of the ring elements, i.e., <i>k + s</i>.
+   */
+  public int getCompositeBitLength() {
+    return factory.getCompositeBitLength();
+  }
+
+  public Drbg getRandomGenerator() {
+    return drbg;
+  }
+
+  public int getInstanceId() {
+    return instanceId;
+  }
+
+  public int getPrgSeedLength() {
+    return prgSeedLength;
+  }
+
+  public int getNumCandidatesPerTriple() {
+    return numCandidatesPerTriple;
+  }
+
+  public MessageDigest getMessageDigest() {
+    return messageDigest;
+  }
+}
@@ -0,0 +1,164 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for generating authenticated multiplication triples over the ring
+ * <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>Follows the structure of the MASCOT triple generation: unauthenticated products are
+ * computed using pairwise OT-based multiplication, several candidates are combined using public
+ * random coefficients to remove leakage from selective failures, the result is authenticated and
+ * finally each triple is checked by sacrificing a second triple sharing the same right
+ * factor.</p>
+ */
+class Spdz2kTripleGeneration<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Spdz2kElementGeneration<PlainT> elementGeneration;
+  private final Map<Integer, Spdz2kPairwiseMultiplication<PlainT>> multipliers;
+  private final CompUIntFactory<PlainT> factory;
+
+  Spdz2kTripleGeneration(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Spdz2kElementGeneration<PlainT> elementGeneration,
+      Map<Integer, Spdz2kPairwiseMultiplication<PlainT>> multipliers) {
+    this.resourcePool = resourcePool;
+    this.elementGeneration = elementGeneration;
+    this.multipliers = multipliers;
+    this.factory = resourcePool.getFactory();
+  }
+
+  /**
+   * Generates a batch of triples.
+   *
+   * @param numTriples number of triples to generate
+   * @return this party's shares of the triples
+   */
+  List<Spdz2kTriple<PlainT>> generate(int numTriples) {
+    int numCandidates = resourcePool.getNumCandidatesPerTriple();
+    // each right factor is multiplied with a group of left factors, the first half of which are
+    // candidates for the triple and the second half candidates for the triple it is sacrificed
+    // against
+    int groupSize = 2 * numCandidates;
+    List<PlainT> leftFactors =
+        UIntUtils.random(factory, resourcePool.getRandomGenerator(), groupSize * numTriples);
+    List<PlainT> rightFactors =
+        UIntUtils.random(factory, resourcePool.getRandomGenerator(), numTriples);
+    List<PlainT> products = multiply(leftFactors, rightFactors, groupSize);
+
+    Drbg coefficientDrbg = elementGeneration.jointDrbg();
+    List<PlainT> coefficients = UIntUtils.random(factory, coefficientDrbg, leftFactors.size());
+    List<PlainT> combinedLeft = new ArrayList<>(2 * numTriples);
+    List<PlainT> combinedProducts = new ArrayList<>(2 * numTriples);
+    for (int offset = 0; offset < groupSize; offset += numCandidates) {
+      combinedLeft.addAll(combine(leftFactors, coefficients, groupSize, offset, numCandidates));
+      combinedProducts.addAll(combine(products, coefficients, groupSize, offset, numCandidates));
+    }
+
+    List<PlainT> toAuthenticate = new ArrayList<>(5 * numTriples);
+    toAuthenticate.addAll(combinedLeft);
+    toAuthenticate.addAll(rightFactors);
+    toAuthenticate.addAll(combinedProducts);
+    List<Spdz2kSInt<PlainT>> authenticated = elementGeneration.authenticate(toAuthenticate);
+    List<Spdz2kSInt<PlainT>> left = authenticated.subList(0, numTriples);
+    List<Spdz2kSInt<PlainT>> sacrificeLeft = authenticated.subList(numTriples, 2 * numTriples);
+    List<Spdz2kSInt<PlainT>> right = authenticated.subList(2 * numTriples, 3 * numTriples);
+    List<Spdz2kSInt<PlainT>> product = authenticated.subList(3 * numTriples, 4 * numTriples);
+    List<Spdz2kSInt<PlainT>> sacrificeProduct =
+        authenticated.subList(4 * numTriples, 5 * numTriples);
+    sacrifice(left, sacrificeLeft, right, product, sacrificeProduct);
+
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(new Spdz2kTriple<>(left.get(i), right.get(i), product.get(i)));
+    }
+    return triples;
+  }
+
+  /**
+   * Computes this party's shares of the products of the factors of all parties, where each right
+   * factor is multiplied with a group of {@code groupSize} consecutive left factors.
+   */
+  private List<PlainT> multiply(List<PlainT> leftFactors, List<PlainT> rightFactors,
+      int groupSize) {
+    List<PlainT> products = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      products.add(leftFactors.get(i).multiply(rightFactors.get(i / groupSize)));
+    }
+    int myId = resourcePool.getMyId();
+    for (int otherId = 1; otherId <= resourcePool.getNoOfParties(); otherId++) {
+      if (myId == otherId) {
+        continue;
+      }
+      Spdz2kPairwiseMultiplication<PlainT> multiplier = multipliers.get(otherId);
+      List<PlainT> leftShares;
+      List<PlainT> rightShares;
+      if (myId < otherId) {
+        leftShares = multiplier.multiplyLeft(leftFactors, groupSize);
+        rightShares = multiplier.multiplyRight(rightFactors, groupSize);
+      } else {
+        rightShares = multiplier.multiplyRight(rightFactors, groupSize);
+        leftShares = multiplier.multiplyLeft(leftFactors, groupSize);
+      }
+      for (int i = 0; i < products.size(); i++) {
+        products.set(i, products.get(i).add(leftShares.get(i)).add(rightShares.get(i)));
+      }
+    }
+    return products;
+  }
+
+  /**
+   * Combines the {@code numCandidates} candidates starting at {@code offset} within each group
+   * using the given coefficients.
+   */
+  private List<PlainT> combine(List<PlainT> candidates, List<PlainT> coefficients,
+      int groupSize, int offset, int numCandidates) {
+    List<PlainT> combined = new ArrayList<>(candidates.size() / groupSize);
+    for (int i = offset; i < candidates.size(); i += groupSize) {
+      PlainT sum = candidates.get(i).multiply(coefficients.get(i));
+      for (int h = 1; h < numCandidates; h++) {
+        sum = sum.add(candidates.get(i + h).multiply(coefficients.get(i + h)));
+      }
+      combined.add(sum);
+    }
+    return combined;
+  }
+
+  /**
+   * Checks the triples <i>(a, b, c)</i> by opening <i>rho = t * a - a'</i> and verifying that
+   * <i>t * c - c' - rho * b</i> is zero, where <i>(a', b, c')</i> is the sacrificed triple and
+   * <i>t</i> is a public random value.
+   */
+  private void sacrifice(List<Spdz2kSInt<PlainT>> left, List<Spdz2kSInt<PlainT>> sacrificeLeft,
+      List<Spdz2kSInt<PlainT>> right, List<Spdz2kSInt<PlainT>> product,
+      List<Spdz2kSInt<PlainT>> sacrificeProduct) {
+    int numTriples = left.size();
+    List<PlainT> randomValues =
+        UIntUtils.random(factory, elementGeneration.jointDrbg(), numTriples);
+    List<Spdz2kSInt<PlainT>> rhos = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      rhos.add(left.get(i).multiply(randomValues.get(i)).subtract(sacrificeLeft.get(i)));
+    }
+    List<PlainT> openRhos = elementGeneration.open(rhos);
+    List<Spdz2kSInt<PlainT>> sigmas = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      sigmas.add(product.get(i).multiply(randomValues.get(i))
+          .subtract(sacrificeProduct.get(i))
+          .subtract(right.get(i).multiply(openRhos.get(i))));
+    }
+    for (PlainT sigma : elementGeneration.open(sigmas)) {
+      if (!sigma.isZero()) {
+        throw new MaliciousException("Sacrifice check failed");
+      }
+    }
+    elementGeneration.checkOpened();
+  }
+}
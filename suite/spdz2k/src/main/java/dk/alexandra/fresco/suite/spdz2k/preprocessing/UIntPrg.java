@@ -0,0 +1,29 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.List;
+
+/**
+ * PRG expanding a seed into uniformly random ring elements.
+ */
+class UIntPrg<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Drbg drbg;
+  private final CompUIntFactory<PlainT> factory;
+
+  UIntPrg(StrictBitVector seed, CompUIntFactory<PlainT> factory) {
+    this.drbg = new AesCtrDrbg(seed.toByteArray());
+    this.factory = factory;
+  }
+
+  /**
+   * Gets the next {@code count} random elements.
+   */
+  List<PlainT> getNext(int count) {
+    return UIntUtils.random(factory, drbg, count);
+  }
+}
@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility methods for bit decomposition and sampling of ring elements used by the preprocessing
+ * protocols.
+ */
+final class UIntUtils {
+
+  private UIntUtils() {
+  }
+
+  /**
+   * Samples uniformly random ring elements from a {@link Drbg}.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> random(
+      CompUIntFactory<PlainT> factory, Drbg drbg, int count) {
+    byte[] bytes = new byte[count * factory.getCompositeBitLength() / Byte.SIZE];
+    drbg.nextBytes(bytes);
+    return fromBytes(factory, bytes);
+  }
+
+  /**
+   * Splits the bytes of a bit vector into ring elements.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> fromBytes(
+      CompUIntFactory<PlainT> factory, StrictBitVector bits) {
+    return fromBytes(factory, bits.toByteArray());
+  }
+
+  private static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> fromBytes(
+      CompUIntFactory<PlainT> factory, byte[] bytes) {
+    int width = factory.getCompositeBitLength() / Byte.SIZE;
+    int count = bytes.length / width;
+    List<PlainT> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      elements.add(factory.deserialize(Arrays.copyOfRange(bytes, i * width, (i + 1) * width)));
+    }
+    return elements;
+  }
+
+  /**
+   * Samples random ring elements of which only the <i>s</i> least significant bits are set.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> randomCoefficients(
+      CompUIntFactory<PlainT> factory, Drbg drbg, int count) {
+    int width = factory.getCompositeBitLength() / Byte.SIZE;
+    int coefficientWidth = factory.getHighBitLength() / Byte.SIZE;
+    byte[] bytes = new byte[count * coefficientWidth];
+    drbg.nextBytes(bytes);
+    List<PlainT> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      byte[] element = new byte[width];
+      System.arraycopy(bytes, i * coefficientWidth, element, width - coefficientWidth,
+          coefficientWidth);
+      elements.add(factory.deserialize(element));
+    }
+    return elements;
+  }
+
+  /**
+   * Packs the bits of the elements into a single bit vector. Bit <i>l</i> of element <i>i</i> is
+   * stored at index <i>i * bitLength + l</i>, counting from the least significant bit.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> StrictBitVector toBits(List<PlainT> elements,
+      int bitLength) {
+    StrictBitVector bits = new StrictBitVector(elements.size() * bitLength);
+    for (int i = 0; i < elements.size(); i++) {
+      byte[] bytes = elements.get(i).toByteArray();
+      for (int l = 0; l < bitLength; l++) {
+        bits.setBit(i * bitLength + l, getBit(bytes, l), false);
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Gets bit at index {@code index} of a big-endian byte array, counting from the least
+   * significant bit.
+   */
+  static boolean getBit(byte[] bytes, int index) {
+    return ((bytes[bytes.length - 1 - index / Byte.SIZE] >>> (index % Byte.SIZE)) & 1) == 1;
+  }
+
+  /**
+   * Computes the sum of <i>2<sup>l</sup> * summands[from + l]</i> for <i>0 <= l < to - from</i>.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> PlainT recombine(List<PlainT> summands,
+      int from, int to) {
+    PlainT result = summands.get(to - 1);
+    for (int i = to - 2; i >= from; i--) {
+      result = result.add(result).add(summands.get(i));
+    }
+    return result;
+  }
+}
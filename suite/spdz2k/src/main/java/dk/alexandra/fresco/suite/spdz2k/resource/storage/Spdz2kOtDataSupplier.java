@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kPreprocessingResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Actively-secure implementation of {@link Spdz2kDataSupplier} based on OT extension. Uses
+ * {@link Spdz2kOtPreprocessing} to generate material in batches whenever the material of a kind
+ * runs out.
+ *
+ * <p>Since the preprocessing is interactive, all parties must consume material in the same
+ * order, which is the case for the Spdz2k protocol suite.</p>
+ *
+ * <p>The number of batches generated, the time spent generating them and the current depth of
+ * each pool are reported through {@link #getLoggedValues()}. As material is only generated when a
+ * pool runs empty, every batch is a stall of the evaluation, so the number of batches is also the
+ * number of stalls.</p>
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT>, PerformanceLogger {
+
+  public static final String TRIPLE_POOL_DEPTH = "TRIPLE_POOL_DEPTH";
+  public static final String RANDOM_ELEMENT_POOL_DEPTH = "RANDOM_ELEMENT_POOL_DEPTH";
+  public static final String BIT_POOL_DEPTH = "BIT_POOL_DEPTH";
+  public static final String INPUT_MASK_POOL_DEPTH = "INPUT_MASK_POOL_DEPTH_";
+  public static final String STALL_TIME_MS = "STALL_TIME_MS";
+  public static final String BATCHES_GENERATED = "BATCHES_GENERATED";
+
+  private static final Logger logger = LoggerFactory.getLogger(Spdz2kOtDataSupplier.class);
+  private final int myId;
+  private final int noOfParties;
+  private final int instanceId;
+  private final Supplier<Network> networkSupplier;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT macKeyShare;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final int batchSize;
+  private final ArrayDeque<Spdz2kTriple<PlainT>> triples;
+  private final Map<Integer, ArrayDeque<Spdz2kInputMask<PlainT>>> masks;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomElements;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> bits;
+  private final AtomicLong batchesGenerated = new AtomicLong();
+  private final AtomicLong generationNanos = new AtomicLong();
+  private Spdz2kOtPreprocessing<PlainT> preprocessing;
+
+  /**
+   * Creates new {@link Spdz2kOtDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId identifier used to distinguish parallel instances of the preprocessing
+   * @param networkSupplier supplier of the network used by the preprocessing. The network is
+   *     only requested once material is first needed.
+   * @param factory factory for the ring elements
+   * @param macKeyShare this party's share of the mac key
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   * @param batchSize number of elements of each kind generated at a time
+   */
+  public Spdz2kOtDataSupplier(int myId, int noOfParties, int instanceId,
+      Supplier<Network> networkSupplier, CompUIntFactory<PlainT> factory, PlainT macKeyShare,
+      Map<Integer, RotList> seedOts, Drbg drbg, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive but was " + batchSize);
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.instanceId = instanceId;
+    this.networkSupplier = networkSupplier;
+    this.factory = factory;
+    this.macKeyShare = macKeyShare;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.batchSize = batchSize;
+    this.triples = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      masks.put(partyId, new ArrayDeque<>());
+    }
+    this.randomElements = new ArrayDeque<>();
+    this.bits = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates instance of {@link Spdz2kOtDataSupplier} with a default batch size.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kOtDataSupplier<PlainT>
+      createSimpleSupplier(int myId, int noOfParties, Supplier<Network> networkSupplier,
+      CompUIntFactory<PlainT> factory, PlainT macKeyShare, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    return new Spdz2kOtDataSupplier<>(myId, noOfParties, 1, networkSupplier, factory,
+        macKeyShare, seedOts, drbg, 1024);
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    ensureInitialized();
+    if (triples.isEmpty()) {
+      logger.trace("Getting another triple batch");
+      triples.addAll(generate(() -> preprocessing.getTriples(batchSize)));
+      logger.trace("Got another triple batch");
+    }
+    return triples.pop();
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ensureInitialized();
+    ArrayDeque<Spdz2kInputMask<PlainT>> inputMasks = masks.get(towardPlayerId);
+    if (inputMasks.isEmpty()) {
+      logger.trace("Getting another mask batch");
+      inputMasks.addAll(generate(() -> preprocessing.getInputMasks(towardPlayerId, batchSize)));
+      logger.trace("Got another mask batch");
+    }
+    return inputMasks.pop();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    ensureInitialized();
+    if (bits.isEmpty()) {
+      logger.trace("Getting another bit batch");
+      bits.addAll(generate(() -> preprocessing.getRandomBits(batchSize)));
+      logger.trace("Got another bit batch");
+    }
+    return bits.pop();
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    ensureInitialized();
+    if (randomElements.isEmpty()) {
+      logger.trace("Getting another random element batch");
+      randomElements.addAll(generate(() -> preprocessing.getRandomElements(batchSize)));
+      logger.trace("Got another random element batch");
+    }
+    return randomElements.pop();
+  }
+
+  @Override
+  public void reset() {
+    batchesGenerated.set(0);
+    generationNanos.set(0);
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    values.put(TRIPLE_POOL_DEPTH, (long) triples.size());
+    values.put(RANDOM_ELEMENT_POOL_DEPTH, (long) randomElements.size());
+    values.put(BIT_POOL_DEPTH, (long) bits.size());
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      values.put(INPUT_MASK_POOL_DEPTH + partyId, (long) masks.get(partyId).size());
+    }
+    values.put(STALL_TIME_MS, TimeUnit.NANOSECONDS.toMillis(generationNanos.get()));
+    values.put(BATCHES_GENERATED, batchesGenerated.get());
+    return values;
+  }
+
+  private <T> List<T> generate(Supplier<List<T>> batch) {
+    long then = System.nanoTime();
+    List<T> generated = batch.get();
+    generationNanos.addAndGet(System.nanoTime() - then);
+    batchesGenerated.incrementAndGet();
+    return generated;
+  }
+
+  private void ensureInitialized() {
+    if (preprocessing != null) {
+      return;
+    }
+    preprocessing = new Spdz2kOtPreprocessing<>(
+        new Spdz2kPreprocessingResourcePool<>(myId, noOfParties, instanceId, factory, drbg,
+            seedOts), networkSupplier.get(), macKeyShare);
+  }
+}
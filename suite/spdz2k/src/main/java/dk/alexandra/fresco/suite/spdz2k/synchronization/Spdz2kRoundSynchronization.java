@@ -7,6 +7,9 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.logging.MetricsRegistry.Counter;
+import dk.alexandra.fresco.logging.MetricsRegistry.Histogram;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kBuilder;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuite;
@@ -17,6 +20,7 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
 import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kMacCheckComputation;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.RequiresMacCheck;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import java.util.List;
 import java.util.stream.StreamSupport;
 
 /**
@@ -29,11 +33,21 @@ public class Spdz2kRoundSynchronization<
     PlainT extends CompUInt<HighT, LowT, PlainT>>
     implements RoundSynchronization<Spdz2kResourcePool<PlainT>> {
 
+  /**
+   * Name of the histogram of the time, in nanoseconds, spent running each mac check.
+   */
+  public static final String MAC_CHECK_NANOS = "SPDZ2K_MAC_CHECK_NANOS";
+  /**
+   * Name of the counter of opened values checked.
+   */
+  public static final String MAC_CHECK_VALUES = "SPDZ2K_MAC_CHECK_VALUES";
   private final int openValueThreshold;
   private final int batchSize;
   private boolean isCheckRequired;
   private final Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite;
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
+  private final Histogram macCheckNanos;
+  private final Counter macCheckValues;
 
   public Spdz2kRoundSynchronization(Spdz2kProtocolSuite<HighT, LowT, PlainT> protocolSuite,
       CompUIntConverter<HighT, LowT, PlainT> converter) {
@@ -49,9 +63,12 @@ public class Spdz2kRoundSynchronization<
     this.openValueThreshold = openValueThreshold;
     this.batchSize = batchSize;
     this.isCheckRequired = false;
+    this.macCheckNanos = protocolSuite.getMetrics().histogram(MAC_CHECK_NANOS);
+    this.macCheckValues = protocolSuite.getMetrics().counter(MAC_CHECK_VALUES);
   }
 
   private void doMacCheck(Spdz2kResourcePool<PlainT> resourcePool, Network network) {
+    long then = System.nanoTime();
     Spdz2kBuilder<PlainT> builder = new Spdz2kBuilder<>(resourcePool.getFactory(),
         protocolSuite.createBasicNumericContext(resourcePool));
     BatchEvaluationStrategy<Spdz2kResourcePool<PlainT>> batchStrategy = new BatchedStrategy<>();
@@ -60,12 +77,15 @@ public class Spdz2kRoundSynchronization<
         protocolSuite,
         batchSize);
     OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store = resourcePool.getOpenedValueStore();
+    Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> toCheck = store.popValues();
     Spdz2kMacCheckComputation<HighT, LowT, PlainT> macCheck = new Spdz2kMacCheckComputation<>(
-        store.popValues(),
+        toCheck,
         resourcePool, converter);
     ProtocolBuilderNumeric sequential = builder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
+    macCheckValues.add(toCheck.getFirst().size());
+    macCheckNanos.record(System.nanoTime() - then);
   }
 
   @Override
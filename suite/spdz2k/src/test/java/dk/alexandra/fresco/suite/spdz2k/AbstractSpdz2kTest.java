@@ -15,7 +15,9 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,17 +38,21 @@ public abstract class AbstractSpdz2kTest<Spdz2kResourcePoolT extends Spdz2kResou
   protected void runTest(
       TestThreadFactory<Spdz2kResourcePoolT, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, int noOfParties) {
-    List<Integer> ports = NetworkUtil.getFreePorts(2 * noOfParties);
+    List<Integer> ports = NetworkUtil.getFreePorts(3 * noOfParties);
     Map<Integer, NetworkConfiguration> netConf =
         NetworkUtil.getNetworkConfigurations(ports.subList(0, noOfParties));
     Map<Integer, NetworkConfiguration> coinTossingNetConf = NetworkUtil
-        .getNetworkConfigurations(ports.subList(noOfParties, ports.size()));
+        .getNetworkConfigurations(ports.subList(noOfParties, 2 * noOfParties));
+    Map<Integer, NetworkConfiguration> preprocessingNetConf = NetworkUtil
+        .getNetworkConfigurations(ports.subList(2 * noOfParties, ports.size()));
+    List<SocketNetwork> preprocessingNetworks = Collections.synchronizedList(new ArrayList<>());
 
     Map<Integer, TestThreadRunner.TestThreadConfiguration<Spdz2kResourcePoolT, ProtocolBuilderNumeric>> conf =
         new HashMap<>();
     for (int playerId : netConf.keySet()) {
       NetworkConfiguration partyNetConf = netConf.get(playerId);
       NetworkConfiguration coinTossingPartyNetConf = coinTossingNetConf.get(playerId);
+      NetworkConfiguration preprocessingPartyNetConf = preprocessingNetConf.get(playerId);
       ProtocolSuiteNumeric<Spdz2kResourcePoolT> ps = createProtocolSuite();
       BatchEvaluationStrategy<Spdz2kResourcePoolT> batchEvaluationStrategy =
           evalStrategy.getStrategy();
@@ -60,16 +66,42 @@ public abstract class AbstractSpdz2kTest<Spdz2kResourcePoolT extends Spdz2kResou
           new TestThreadRunner.TestThreadConfiguration<>(
               sce,
               () -> createResourcePool(playerId, noOfParties,
-                  () -> new SocketNetwork(coinTossingPartyNetConf)),
+                  () -> new SocketNetwork(coinTossingPartyNetConf),
+                  () -> {
+                    SocketNetwork network = new SocketNetwork(preprocessingPartyNetConf);
+                    preprocessingNetworks.add(network);
+                    return network;
+                  }),
               () -> new SocketNetwork(partyNetConf));
 
       conf.put(playerId, ttc);
     }
-    TestThreadRunner.run(f, conf);
+    try {
+      TestThreadRunner.run(f, conf);
+    } finally {
+      for (SocketNetwork network : preprocessingNetworks) {
+        network.close();
+      }
+    }
+  }
+
+  /**
+   * Creates the resource pool of a party. Tests using interactive preprocessing override this
+   * method, while other tests implement {@link #createResourcePool(int, int, Supplier)}.
+   *
+   * @param networkSupplier supplies a network used for coin tossing, which is closed after use
+   * @param preprocessingNetworkSupplier supplies a network for preprocessing, which is closed
+   *     when the test has finished. Must be called at most once.
+   */
+  protected Spdz2kResourcePoolT createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier, Supplier<Network> preprocessingNetworkSupplier) {
+    return createResourcePool(playerId, noOfParties, networkSupplier);
   }
 
-  protected abstract Spdz2kResourcePoolT createResourcePool(int playerId, int noOfParties,
-      Supplier<Network> networkSupplier);
+  protected Spdz2kResourcePoolT createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    throw new UnsupportedOperationException("Test requires a network for preprocessing");
+  }
 
   protected abstract ProtocolSuiteNumeric<Spdz2kResourcePoolT> createProtocolSuite();
 
@@ -0,0 +1,84 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOtDataSupplier;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Runs the Spdz2k test suite with preprocessing based on OT extension.
+ */
+public class TestSpdz2kBasicArithmetic128Ot extends
+    Spdz2kTestSuite<Spdz2kResourcePool<CompUInt128>> {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int BATCH_SIZE = 64;
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier, Supplier<Network> preprocessingNetworkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    seed[0] = (byte) playerId;
+    Drbg drbg = new AesCtrDrbg(seed);
+    Network preprocessingNetwork = preprocessingNetworkSupplier.get();
+    Map<Integer, RotList> seedOts = getSeedOts(playerId, noOfParties, drbg, preprocessingNetwork);
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kOtDataSupplier<>(playerId, noOfParties, 1, () -> preprocessingNetwork,
+                factory, factory.createRandom(), seedOts, drbg, BATCH_SIZE),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  @Ignore("Generating the triples for 20000 multiplications takes minutes")
+  @Test
+  @Override
+  public void testMultiplyMany() {
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64();
+  }
+
+}
@@ -0,0 +1,269 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import org.junit.Test;
+
+public class TestSpdz2kOtDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int BATCH_SIZE = 8;
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+
+  /**
+   * Runs a task for each party, giving it a data supplier backed by OT-based preprocessing, and
+   * returns the results ordered by party id.
+   */
+  private static <T> List<T> runParties(int noOfParties,
+      BiFunction<Integer, Spdz2kDataSupplier<CompUInt128>, T> task) {
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(noOfParties);
+    ExecutorService executor = Executors.newFixedThreadPool(noOfParties);
+    try {
+      List<Future<T>> futures = new ArrayList<>(noOfParties);
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        int myId = partyId;
+        futures.add(executor.submit(() -> {
+          try (SocketNetwork network = new SocketNetwork(netConf.get(myId))) {
+            return task.apply(myId, createSupplier(myId, noOfParties, network));
+          }
+        }));
+      }
+      List<T> results = new ArrayList<>(noOfParties);
+      for (Future<T> future : futures) {
+        results.add(ExceptionConverter.safe(future::get, "Party failed"));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Spdz2kDataSupplier<CompUInt128> createSupplier(int myId, int noOfParties,
+      Network network) {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    seed[0] = (byte) myId;
+    Drbg drbg = new AesCtrDrbg(seed);
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return new Spdz2kOtDataSupplier<>(myId, noOfParties, 1, () -> network,
+        new CompUInt128Factory(), getMacKeyShare(myId), seedOts, drbg, BATCH_SIZE);
+  }
+
+  private static CompUInt128 getMacKeyShare(int myId) {
+    byte[] keyBytes = new byte[16];
+    new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]).nextBytes(keyBytes);
+    keyBytes[0] ^= (byte) myId;
+    return new CompUInt128(keyBytes);
+  }
+
+  private CompUInt128 getMacKey(int noOfParties) {
+    CompUInt128 key = factory.zero();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      key = key.add(getMacKeyShare(partyId));
+    }
+    return key;
+  }
+
+  private Spdz2kSInt<CompUInt128> recombine(List<Spdz2kSInt<CompUInt128>> shares) {
+    return shares.stream().reduce(Spdz2kSInt::add).get();
+  }
+
+  private void assertMacCorrect(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    assertArrayEquals(macKey.multiply(recombined.getShare()).toByteArray(),
+        recombined.getMacShare().toByteArray());
+  }
+
+  private void testTriples(int noOfParties) {
+    int numTriples = BATCH_SIZE + 3;
+    List<List<Spdz2kTriple<CompUInt128>>> triples = runParties(noOfParties, (id, supplier) -> {
+      List<Spdz2kTriple<CompUInt128>> result = new ArrayList<>(numTriples);
+      for (int i = 0; i < numTriples; i++) {
+        result.add(supplier.getNextTripleShares());
+      }
+      return result;
+    });
+    CompUInt128 macKey = getMacKey(noOfParties);
+    for (int i = 0; i < numTriples; i++) {
+      List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>();
+      for (List<Spdz2kTriple<CompUInt128>> partyTriples : triples) {
+        left.add(partyTriples.get(i).getLeft());
+        right.add(partyTriples.get(i).getRight());
+        product.add(partyTriples.get(i).getProduct());
+      }
+      Spdz2kSInt<CompUInt128> a = recombine(left);
+      Spdz2kSInt<CompUInt128> b = recombine(right);
+      Spdz2kSInt<CompUInt128> c = recombine(product);
+      assertEquals(a.getShare().multiply(b.getShare()).toBigInteger(),
+          c.getShare().toBigInteger());
+      assertMacCorrect(a, macKey);
+      assertMacCorrect(b, macKey);
+      assertMacCorrect(c, macKey);
+    }
+  }
+
+  private void testRandomElementsAndBits(int noOfParties) {
+    int count = BATCH_SIZE + 1;
+    List<List<Spdz2kSInt<CompUInt128>>> results = runParties(noOfParties, (id, supplier) -> {
+      List<Spdz2kSInt<CompUInt128>> result = new ArrayList<>(2 * count);
+      for (int i = 0; i < count; i++) {
+        result.add(supplier.getNextRandomElementShare());
+      }
+      for (int i = 0; i < count; i++) {
+        result.add(supplier.getNextBitShare());
+      }
+      return result;
+    });
+    CompUInt128 macKey = getMacKey(noOfParties);
+    int ones = 0;
+    for (int i = 0; i < 2 * count; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (List<Spdz2kSInt<CompUInt128>> partyResult : results) {
+        shares.add(partyResult.get(i));
+      }
+      Spdz2kSInt<CompUInt128> recombined = recombine(shares);
+      assertMacCorrect(recombined, macKey);
+      if (i >= count) {
+        BigInteger bit = recombined.getShare().toBigInteger();
+        assertTrue("Not a bit " + bit, bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+        ones += bit.intValue();
+      }
+    }
+    assertTrue(ones > 0 && ones < count);
+  }
+
+  private void testInputMasks(int noOfParties) {
+    int count = BATCH_SIZE + 1;
+    List<Map<Integer, List<Spdz2kInputMask<CompUInt128>>>> results =
+        runParties(noOfParties, (id, supplier) -> {
+          Map<Integer, List<Spdz2kInputMask<CompUInt128>>> masks = new HashMap<>();
+          for (int towardsId = 1; towardsId <= noOfParties; towardsId++) {
+            List<Spdz2kInputMask<CompUInt128>> towards = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+              towards.add(supplier.getNextInputMask(towardsId));
+            }
+            masks.put(towardsId, towards);
+          }
+          return masks;
+        });
+    CompUInt128 macKey = getMacKey(noOfParties);
+    for (int towardsId = 1; towardsId <= noOfParties; towardsId++) {
+      for (int i = 0; i < count; i++) {
+        List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+        CompUInt128 realValue = null;
+        for (int partyId = 1; partyId <= noOfParties; partyId++) {
+          Spdz2kInputMask<CompUInt128> mask = results.get(partyId - 1).get(towardsId).get(i);
+          shares.add(mask.getMaskShare());
+          if (partyId == towardsId) {
+            assertNotNull(mask.getOpenValue());
+            realValue = mask.getOpenValue();
+          } else {
+            assertNull(mask.getOpenValue());
+          }
+        }
+        Spdz2kSInt<CompUInt128> recombined = recombine(shares);
+        assertMacCorrect(recombined, macKey);
+        assertEquals(realValue.toBigInteger(), recombined.getShare().toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testTriplesTwoParties() {
+    testTriples(2);
+  }
+
+  @Test
+  public void testTriplesThreeParties() {
+    testTriples(3);
+  }
+
+  @Test
+  public void testRandomElementsAndBitsTwoParties() {
+    testRandomElementsAndBits(2);
+  }
+
+  @Test
+  public void testRandomElementsAndBitsThreeParties() {
+    testRandomElementsAndBits(3);
+  }
+
+  @Test
+  public void testInputMasksTwoParties() {
+    testInputMasks(2);
+  }
+
+  @Test
+  public void testInputMasksThreeParties() {
+    testInputMasks(3);
+  }
+
+  @Test
+  public void testLoggedValues() {
+    List<Map<String, Long>> results = runParties(2, (id, supplier) -> {
+      for (int i = 0; i < BATCH_SIZE + 1; i++) {
+        supplier.getNextTripleShares();
+      }
+      supplier.getNextBitShare();
+      return ((Spdz2kOtDataSupplier<CompUInt128>) supplier).getLoggedValues();
+    });
+    for (Map<String, Long> values : results) {
+      assertEquals(BATCH_SIZE - 1,
+          values.get(Spdz2kOtDataSupplier.TRIPLE_POOL_DEPTH).longValue());
+      assertEquals(BATCH_SIZE - 1, values.get(Spdz2kOtDataSupplier.BIT_POOL_DEPTH).longValue());
+      assertEquals(0, values.get(Spdz2kOtDataSupplier.RANDOM_ELEMENT_POOL_DEPTH).longValue());
+      assertEquals(0, values.get(Spdz2kOtDataSupplier.INPUT_MASK_POOL_DEPTH + 2).longValue());
+      assertEquals(3, values.get(Spdz2kOtDataSupplier.BATCHES_GENERATED).longValue());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBatchSize() {
+    new Spdz2kOtDataSupplier<>(1, 2, 1, () -> null, factory, factory.zero(), new HashMap<>(),
+        null, 0);
+  }
+}
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+import java.util.List;
+
+/**
+ * A batch of shares of multiplication triples stored bit-sliced, i.e. the shares of <i>a</i>,
+ * <i>b</i> and <i>c</i> of all triples are kept in three bit vectors packed in longs. Triple
+ * <i>i</i> is stored in bit <code>i % 64</code> of word <code>i / 64</code> of each vector.
+ */
+public class TinyTablesTripleBatch {
+
+  private final long[] a;
+  private final long[] b;
+  private final long[] c;
+  private final int size;
+
+  /**
+   * Creates a batch from bit-sliced shares. The arrays are not copied.
+   *
+   * @param a the shares of the first factors
+   * @param b the shares of the second factors
+   * @param c the shares of the products
+   * @param size the number of triples
+   */
+  public TinyTablesTripleBatch(long[] a, long[] b, long[] c, int size) {
+    int words = wordsFor(size);
+    if (size < 0 || a.length < words || b.length < words || c.length < words) {
+      throw new IllegalArgumentException("Shares do not hold " + size + " triples");
+    }
+    this.a = a;
+    this.b = b;
+    this.c = c;
+    this.size = size;
+  }
+
+  /**
+   * Packs a list of triples into a batch.
+   *
+   * @param triples the triples
+   * @return the batch
+   */
+  public static TinyTablesTripleBatch fromTriples(List<TinyTablesTriple> triples) {
+    int size = triples.size();
+    long[] a = new long[wordsFor(size)];
+    long[] b = new long[a.length];
+    long[] c = new long[a.length];
+    for (int i = 0; i < size; i++) {
+      TinyTablesTriple triple = triples.get(i);
+      long bit = 1L << i;
+      if (triple.getA().getShare()) {
+        a[i >>> 6] |= bit;
+      }
+      if (triple.getB().getShare()) {
+        b[i >>> 6] |= bit;
+      }
+      if (triple.getC().getShare()) {
+        c[i >>> 6] |= bit;
+      }
+    }
+    return new TinyTablesTripleBatch(a, b, c, size);
+  }
+
+  /**
+   * Gets the number of longs needed to hold the given number of bits.
+   */
+  public static int wordsFor(int bits) {
+    return (bits + Long.SIZE - 1) >>> 6;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Gets triple number <code>index</code> of this batch.
+   *
+   * @param index the index of the triple
+   * @return the triple
+   */
+  public TinyTablesTriple getTriple(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size);
+    }
+    int word = index >>> 6;
+    return TinyTablesTriple.fromShares(
+        (a[word] >>> index & 1) != 0,
+        (b[word] >>> index & 1) != 0,
+        (c[word] >>> index & 1) != 0);
+  }
+
+  /**
+   * Gets the bit-sliced shares of the first factors. The array is not copied.
+   */
+  public long[] getA() {
+    return a;
+  }
+
+  /**
+   * Gets the bit-sliced shares of the second factors. The array is not copied.
+   */
+  public long[] getB() {
+    return b;
+  }
+
+  /**
+   * Gets the bit-sliced shares of the products. The array is not copied.
+   */
+  public long[] getC() {
+    return c;
+  }
+}
@@ -1,22 +1,27 @@
 package dk.alexandra.fresco.suite.tinytables.online;
 
 import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDBatchOpening;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesFile;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +36,7 @@ import org.slf4j.LoggerFactory;
  * <p>
  * When evaluating a protocol in the online phase, it is assumed that the same protocol has been
  * evaluated in the preprocessing phase (see {@link TinyTablesPreproProtocolSuite}), and that all
- * protocols/gates are evaluated in the exact same order. In the preprocessing phase, the two
+ * protocols/gates are evaluated in the exact same order. In the preprocessing phase, the
  * players picked their additive shares of the masks for all wires. In the online phase, the players
  * add actual input values to their share of the mask, and evaluate the protocol. The details on how
  * this is done can be seen in the specific protocols: {@link TinyTablesANDProtocol},
@@ -39,6 +44,14 @@ import org.slf4j.LoggerFactory;
  * {@link TinyTablesOpenToAllProtocol} and {@link TinyTablesXORProtocol}.
  * </p>
  *
+ * <p>
+ * To save bandwidth and allocations, the round synchronization of this suite lets all AND
+ * protocols of a batch open their outputs together, exchanging the shares of the players as a
+ * single packed bit vector (see {@link #createRoundSynchronization}). The packed message is sent
+ * while the batch is evaluated, together with the messages of the close and open protocols, so a
+ * batch still takes a single round trip.
+ * </p>
+ *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
 public class TinyTablesProtocolSuite
@@ -66,13 +79,9 @@ public class TinyTablesProtocolSuite
     return b;
   }
 
-  private TinyTablesStorage loadTinyTables(File file) throws IOException, ClassNotFoundException {
-    FileInputStream fin = new FileInputStream(file);
-    ObjectInputStream is = new ObjectInputStream(fin);
-    logger.info("Loading TinyTabels from " + file);
-    TinyTablesStorage storage = (TinyTablesStorage) is.readObject();
-    is.close();
-    return storage;
+  private TinyTablesStorage loadTinyTables(File file) throws IOException {
+    logger.info("Loading TinyTables from " + file);
+    return TinyTablesFile.read(file);
   }
 
   public TinyTablesStorage getStorage() {
@@ -81,6 +90,38 @@ public class TinyTablesProtocolSuite
 
   @Override
   public RoundSynchronization<ResourcePoolImpl> createRoundSynchronization() {
-    return new DummyRoundSynchronization<>();
+    return new OnlineRoundSync();
+  }
+
+  private class OnlineRoundSync implements RoundSynchronization<ResourcePoolImpl> {
+
+    @Override
+    public void beforeBatch(ProtocolCollection<ResourcePoolImpl> protocols,
+        ResourcePoolImpl resourcePool, Network network) {
+      /*
+       * The inputs of all protocols of a batch are ready, so the outputs of all AND protocols in the
+       * batch can be opened in one exchange while the batch is evaluated.
+       */
+      List<TinyTablesANDProtocol> ands = new ArrayList<>();
+      for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+        if (protocol instanceof TinyTablesANDProtocol) {
+          ands.add((TinyTablesANDProtocol) protocol);
+        }
+      }
+      if (!ands.isEmpty()) {
+        TinyTablesANDBatchOpening.openTogether(ands);
+      }
+    }
+
+    @Override
+    public void finishedBatch(int gatesEvaluated, ResourcePoolImpl resourcePool,
+        Network network) {
+      // Ignore
+    }
+
+    @Override
+    public void finishedEval(ResourcePoolImpl resourcePool, Network network) {
+      // Ignore
+    }
   }
 }
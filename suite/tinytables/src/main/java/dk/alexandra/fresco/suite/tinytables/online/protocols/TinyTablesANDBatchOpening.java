@@ -0,0 +1,67 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.RegularBitVector;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.List;
+
+/**
+ * Opens the outputs of the AND protocols of a batch together, packing the shares of each player
+ * into a single message.
+ *
+ * <p>The opening is driven by the AND protocols: the first of them to be evaluated in round 0
+ * sends the shares of all of them, such that the message is flushed together with the round 0
+ * messages of the other protocols of the batch, and the first of them to be evaluated in round 1
+ * receives the shares of the other players.</p>
+ */
+public class TinyTablesANDBatchOpening {
+
+  private final List<TinyTablesANDProtocol> ands;
+  private boolean sent;
+  private RegularBitVector opened;
+
+  private TinyTablesANDBatchOpening(List<TinyTablesANDProtocol> ands) {
+    this.ands = ands;
+  }
+
+  /**
+   * Lets a list of AND protocols open their outputs together.
+   *
+   * @param ands the AND protocols of a batch, in the order they are evaluated
+   */
+  public static void openTogether(List<TinyTablesANDProtocol> ands) {
+    TinyTablesANDBatchOpening opening = new TinyTablesANDBatchOpening(ands);
+    for (int i = 0; i < ands.size(); i++) {
+      ands.get(i).setOpening(opening, i);
+    }
+  }
+
+  /**
+   * Sends the shares of all the AND protocols unless they have already been sent.
+   */
+  void send(TinyTablesStorage storage, Network network) {
+    if (sent) {
+      return;
+    }
+    RegularBitVector shares = new RegularBitVector(ands.size());
+    for (int i = 0; i < ands.size(); i++) {
+      shares.setBit(i, ands.get(i).getShare(storage).getShare());
+    }
+    network.sendToAll(shares.toByteArray());
+    sent = true;
+  }
+
+  /**
+   * Gets the masked output of one of the AND protocols, receiving the shares of all players on
+   * the first call.
+   */
+  boolean getOpened(int index, Network network) {
+    if (opened == null) {
+      opened = new RegularBitVector(ands.size());
+      for (byte[] bytes : network.receiveFromAll()) {
+        opened.xor(new RegularBitVector(bytes, ands.size()));
+      }
+    }
+    return opened.getBit(index);
+  }
+}
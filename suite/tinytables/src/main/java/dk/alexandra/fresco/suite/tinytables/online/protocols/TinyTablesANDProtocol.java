@@ -9,6 +9,7 @@ import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -29,6 +30,11 @@ import java.util.Objects;
  * Both players now add their share with the other players share to get the masked value of the
  * output wire.
  * </p>
+ * <p>
+ * The round synchronization of {@link TinyTablesProtocolSuite} lets all AND protocols of a batch
+ * share a {@link TinyTablesANDBatchOpening}, which packs the shares into a single message instead
+ * of sending one message per protocol.
+ * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
@@ -37,6 +43,8 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
   private int id;
   private DRes<SBool> inLeft, inRight;
   private TinyTablesSBool out;
+  private TinyTablesANDBatchOpening opening;
+  private int openingIndex;
 
   public TinyTablesANDProtocol(int id, DRes<SBool> inLeft, DRes<SBool> inRight) {
     this.id = id;
@@ -44,26 +52,51 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     this.inRight = inRight;
   }
 
+  /**
+   * Looks up this players share of the masked output in the TinyTable of this protocol.
+   *
+   * @param storage the storage holding the TinyTables
+   * @return the share
+   */
+  public TinyTablesElement getShare(TinyTablesStorage storage) {
+    TinyTable tinyTable = Objects.requireNonNull(storage.getTinyTable(id),
+        "Unable to find TinyTable for gate with id " + id);
+    return tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
+        ((TinyTablesSBool) inRight.out()).getValue());
+  }
+
+  /**
+   * Lets this protocol be opened together with other AND protocols of its batch.
+   */
+  void setOpening(TinyTablesANDBatchOpening opening, int index) {
+    this.opening = opening;
+    this.openingIndex = index;
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
-
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      if (opening != null) {
+        opening.send(ps.getStorage(), network);
+      } else {
+        TinyTablesElement myShare = getShare(ps.getStorage());
+        network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (opening != null) {
+      out = TinyTablesSBool.getInstance(
+          TinyTablesElement.getInstance(opening.getOpened(openingIndex, network)));
+      return EvaluationStatus.IS_DONE;
     } else {
-      List<byte[]> buffers = network.receiveFromAll();
       List<TinyTablesElement> shares = new ArrayList<>();
-      for (byte[] bytes : buffers) {
-        shares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(bytes[0])));
+      for (int partyId = 1; partyId <= network.getNoOfParties(); partyId++) {
+        shares.add(TinyTablesElement.getInstance(
+            BooleanSerializer.fromBytes(network.receiveBuffer(partyId).get())));
       }
-      boolean open = TinyTablesElement.open(shares);
-      this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
+      out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(
+          TinyTablesElement.open(shares)));
       return EvaluationStatus.IS_DONE;
     }
   }
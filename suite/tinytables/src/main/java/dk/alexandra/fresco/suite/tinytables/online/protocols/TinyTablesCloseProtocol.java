@@ -45,8 +45,8 @@ public class TinyTablesCloseProtocol extends TinyTablesProtocol<SBool> {
       }
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      TinyTablesElement share =
-          TinyTablesElement.getInstance(BooleanSerializer.fromBytes(network.receive(this.inputter)[0]));
+      TinyTablesElement share = TinyTablesElement.getInstance(
+          BooleanSerializer.fromBytes(network.receiveBuffer(this.inputter).get()));
       out = TinyTablesSBool.getInstance(share);
       return EvaluationStatus.IS_DONE;
     }
@@ -51,10 +51,10 @@ public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       // round > 0
-      List<byte[]> buffers = network.receiveFromAll();
       List<TinyTablesElement> maskShares = new ArrayList<>();
-      for (byte[] buffer : buffers) {
-        maskShares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(buffer[0])));
+      for (int partyId = 1; partyId <= network.getNoOfParties(); partyId++) {
+        maskShares.add(TinyTablesElement.getInstance(
+            BooleanSerializer.fromBytes(network.receiveBuffer(partyId).get())));
       }
       boolean mask = TinyTablesElement.open(maskShares);
       this.opened = ((TinyTablesSBool) toOpen.out()).getValue().getShare() ^ mask;
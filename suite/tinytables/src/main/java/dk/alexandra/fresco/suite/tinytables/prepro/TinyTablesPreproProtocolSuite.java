@@ -17,8 +17,8 @@ import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
  *
  * <p>
  * The TinyTables protocol has to phases - a <i>preprocessing</i> and an <i>online</i> phase. In the
- * preprocessing phase, each of the two players picks his additive share of a mask for each input
- * wire of a protocol. Furthermore, for each AND protocol each of the two players must also
+ * preprocessing phase, each of the players picks his additive share of a mask for each input
+ * wire of a protocol. Furthermore, for each AND protocol each of the players must also
  * calculate a so-called <i>TinyTable</i> which is used in the online phase (see {@link
  * TinyTablesProtocolSuite}). This is done using oblivious transfer. To enhance performance, all
  * oblivious transfers are done at the end of the preprocessing (see {@link
@@ -26,6 +26,13 @@ import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
  * </p>
  *
  * <p>
+ * The protocol was described for two players, but the preprocessing generalizes to any number of
+ * players using oblivious transfer between each pair of players (see {@link
+ * TinyTablesPreproResourcePool}), after which the online phase still needs one round per layer of
+ * AND protocols.
+ * </p>
+ *
+ * <p>
  * The masking values and TinyTables are stored in a {@link TinyTablesStorage} which can be stored
  * for later use in the online phase. In order to avoid leaks, you should not reuse the values from
  * a preprocessing in multiple evaluations of a protocol, but should instead preprocess once per
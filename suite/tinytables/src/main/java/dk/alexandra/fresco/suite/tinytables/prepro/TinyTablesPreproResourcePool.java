@@ -16,26 +16,28 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.DenseTinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesFile;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesPairwiseTripleGenerator;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesRotTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
 import dk.alexandra.fresco.tools.cointossing.CoinTossing;
-import dk.alexandra.fresco.tools.ot.otextension.BristolOtFactory;
 import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
 import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +45,12 @@ import org.slf4j.LoggerFactory;
 public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TinyTablesPreproResourcePool.class);
-  private static final int TRIP_BATCH_SIZE = 8192;
+  /**
+   * The size of each random OT extension used for triple generation. Each extension is padded to
+   * a power of two with room for the security parameters, so the number of triples generated per
+   * batch is this minus the security parameters.
+   */
+  private static final int TRIP_EXTENSION_SIZE = 8192;
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
@@ -59,44 +66,89 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
    * @param myId The ID of the MPC party.
    * @param baseOt OT functionality for the base OTs
    * @param drbg Secure bit randomness generator
-   * @param otBatchSize The amount of OTs to preprocess in a batch
+   * @param otBatchSize The amount of OTs to preprocess in a batch. Not used since triples are
+   *     generated directly from random OT extension, see {@link TinyTablesRotTripleGenerator}.
    * @param tinyTablesFile file for data
+   * @param network supplier of the network used for the OT extension. This can be a separate
+   *     channel of a {@link dk.alexandra.fresco.framework.network.ChannelMultiplexer}.
    */
   public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
       int computationalSecurity, int statisticalSecurity,
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
-    super(myId, 2);
+    this(myId, 2, otherId -> baseOt, drbg, computationalSecurity, statisticalSecurity,
+        tinyTablesFile, network);
+  }
+
+  /**
+   * Creates a resource pool for the preprocessing of TinyTables with any number of players.
+   *
+   * <p>The players run random OT extension with each of the other players to generate the
+   * multiplication triples, see {@link TinyTablesPairwiseTripleGenerator}. With two players the
+   * triples are generated by {@link TinyTablesRotTripleGenerator} which needs no further
+   * communication.</p>
+   *
+   * @param myId The ID of the MPC party.
+   * @param noOfPlayers The number of players
+   * @param baseOts OT functionality for the base OTs with each of the other players, given the ID
+   *     of the other player
+   * @param drbg Secure bit randomness generator
+   * @param tinyTablesFile file for data
+   * @param network supplier of the network used for the OT extension. This can be a separate
+   *     channel of a {@link dk.alexandra.fresco.framework.network.ChannelMultiplexer}.
+   */
+  public TinyTablesPreproResourcePool(int myId, int noOfPlayers,
+      IntFunction<TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, File tinyTablesFile, Supplier<Network> network) {
+    super(myId, noOfPlayers);
+    if (noOfPlayers < 2) {
+      throw new IllegalArgumentException("TinyTables needs at least two players but got "
+          + noOfPlayers);
+    }
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.storage = new DenseTinyTablesStorage();
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
-      RotList rotList = new RotList(drbg, computationalSecurity);
-      CoinTossing ct = new CoinTossing(myId, Util.otherPlayerId(myId), drbg);
-      OtExtensionResourcePool otExtRes = new OtExtensionResourcePoolImpl(myId,
-          Util.otherPlayerId(myId),
-          computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
-      baseOt.init(network.get());
-      int otherId = Util.otherPlayerId(getMyId());
-      // Execute random seed OTs
-      if (getMyId() < otherId) {
-        rotList.send(baseOt);
-        rotList.receive(baseOt);
+      // Set up the OT extension with each other player, in the same order for all players
+      Map<Integer, RotFactory> rotFactories = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfPlayers; otherId++) {
+        if (otherId != myId) {
+          rotFactories.put(otherId, createRotFactory(otherId, baseOts.apply(otherId), drbg,
+              computationalSecurity, statisticalSecurity, network.get()));
+        }
+      }
+      TinyTablesTripleGenerator generator;
+      if (noOfPlayers == 2) {
+        generator = new TinyTablesRotTripleGenerator(myId,
+            rotFactories.get(Util.otherPlayerId(myId)), drbg);
       } else {
-        rotList.receive(baseOt);
-        rotList.send(baseOt);
+        generator = new TinyTablesPairwiseTripleGenerator(myId, noOfPlayers, rotFactories, drbg,
+            network.get());
       }
-      ct.initialize(network.get());
-      // Setup the OT extension
-      RotFactory rotFactory = new RotFactory(otExtRes, network.get());
-      BristolOtFactory otFactory = new BristolOtFactory(rotFactory, otExtRes, network.get(),
-          otBatchSize);
-      TinyTablesTripleGenerator generator =
-          new TinyTablesTripleGenerator(getMyId(), getDrng(), otFactory);
-      return new BatchTinyTablesTripleProvider(generator, TRIP_BATCH_SIZE);
+      return new BatchTinyTablesTripleProvider(generator,
+          TRIP_EXTENSION_SIZE - computationalSecurity - statisticalSecurity);
     };
   }
 
+  private RotFactory createRotFactory(int otherId, TinyTablesOt baseOt, Drbg drbg,
+      int computationalSecurity, int statisticalSecurity, Network network) {
+    RotList rotList = new RotList(drbg, computationalSecurity);
+    CoinTossing ct = new CoinTossing(getMyId(), otherId, drbg);
+    OtExtensionResourcePool otExtRes = new OtExtensionResourcePoolImpl(getMyId(), otherId,
+        computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
+    baseOt.init(network);
+    // Execute random seed OTs
+    if (getMyId() < otherId) {
+      rotList.send(baseOt);
+      rotList.receive(baseOt);
+    } else {
+      rotList.receive(baseOt);
+      rotList.send(baseOt);
+    }
+    ct.initialize(network);
+    return new RotFactory(otExtRes, network);
+  }
+
   public Drng getDrng() {
     return drng;
   }
@@ -138,18 +190,15 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       shares.setShare(2 * i + 1, msg.getSecond().getShare());
     }
 
-    byte[] size = ByteBuffer.allocate(Integer.BYTES).putInt(shares.getSize()).array();
-    // send
-    network.send(Util.otherPlayerId(getMyId()), size);
-    network.send(Util.otherPlayerId(this.getMyId()), shares.payload());
-
-    // receive
-    size = network.receive(Util.otherPlayerId(this.getMyId()));
-    int length = ByteBuffer.wrap(size).getInt();
-    byte[] data = network.receive(Util.otherPlayerId(this.getMyId()));
-    TinyTablesElementVector otherShares = new TinyTablesElementVector(data, length);
+    // Open e and d of all gates by exchanging shares with all players
+    network.sendToAll(shares.payload());
+    List<byte[]> received = network.receiveFromAll();
+    TinyTablesElementVector[] allShares = new TinyTablesElementVector[received.size()];
+    for (int i = 0; i < allShares.length; i++) {
+      allShares[i] = new TinyTablesElementVector(received.get(i), shares.getSize());
+    }
 
-    RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
+    RegularBitVector open = TinyTablesElementVector.open(allShares);
 
     for (int i = 0; i < unprocessedGates; i++) {
       TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
@@ -182,11 +231,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
   }
 
   private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    FileOutputStream fout = new FileOutputStream(file);
-    ObjectOutputStream oos = new ObjectOutputStream(fout);
-    oos.writeObject(tinyTablesStorage);
-    oos.close();
+    TinyTablesFile.write(tinyTablesStorage, file);
   }
 
   public TinyTablesStorage getStorage() {
@@ -0,0 +1,137 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.util.Arrays;
+
+/**
+ * A {@link TinyTablesStorage} keeping the TinyTables and mask shares in a bit set indexed by the
+ * ids of the protocols, which are assigned densely from zero.
+ *
+ * <p>Each id uses eight bits of a growable array of longs: the four bits of its TinyTable, the bit
+ * of its mask share, and two bits telling whether a TinyTable and a mask share have been stored.
+ * Compared to storing TinyTables in a map this avoids boxing the ids and allocating a TinyTable
+ * per protocol, as the TinyTables are decoded to one of the sixteen shared instances on lookup.</p>
+ *
+ * <p>Storing values is synchronized, while lookups are not. Values may therefore be stored by
+ * several threads, but a lookup is only guaranteed to see values stored before the evaluation of
+ * the current batch started.</p>
+ */
+public class DenseTinyTablesStorage implements TinyTablesStorage {
+
+  private static final long serialVersionUID = -3946839227592839185L;
+  private static final int BITS_PER_ID = 8;
+  private static final int IDS_PER_WORD = Long.SIZE / BITS_PER_ID;
+  private static final int TABLE_MASK = 0xF;
+  private static final int MASK_SHARE = 1 << 4;
+  private static final int HAS_TABLE = 1 << 5;
+  private static final int HAS_MASK_SHARE = 1 << 6;
+  private volatile long[] words;
+  private int idBound;
+
+  /**
+   * Creates an empty storage.
+   */
+  public DenseTinyTablesStorage() {
+    this(1024);
+  }
+
+  /**
+   * Creates an empty storage with room for the given number of ids before it has to grow.
+   *
+   * @param expectedIds the number of ids expected to be stored
+   */
+  public DenseTinyTablesStorage(int expectedIds) {
+    if (expectedIds < 0) {
+      throw new IllegalArgumentException("Expected ids must be non-negative but was "
+          + expectedIds);
+    }
+    this.words = new long[Math.max(1, (expectedIds + IDS_PER_WORD - 1) / IDS_PER_WORD)];
+  }
+
+  /**
+   * Copies the values of another storage.
+   *
+   * @param storage the storage to copy
+   * @return a new storage holding the same values
+   */
+  public static DenseTinyTablesStorage copyOf(TinyTablesStorage storage) {
+    int ids = storage.getIdBound();
+    DenseTinyTablesStorage copy = new DenseTinyTablesStorage(ids);
+    for (int id = 0; id < ids; id++) {
+      TinyTable table = storage.getTinyTable(id);
+      if (table != null) {
+        copy.storeTinyTable(id, table);
+      }
+      TinyTablesElement mask = storage.getMaskShare(id);
+      if (mask != null) {
+        copy.storeMaskShare(id, mask);
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    store(id, TABLE_MASK | HAS_TABLE, TinyTableNibbles.toNibble(table) | HAS_TABLE);
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    int bits = get(id);
+    if ((bits & HAS_TABLE) == 0) {
+      return null;
+    }
+    return TinyTableNibbles.fromNibble(bits & TABLE_MASK);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    store(id, MASK_SHARE | HAS_MASK_SHARE, (r.getShare() ? MASK_SHARE : 0) | HAS_MASK_SHARE);
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    int bits = get(id);
+    if ((bits & HAS_MASK_SHARE) == 0) {
+      return null;
+    }
+    return TinyTablesElement.getInstance((bits & MASK_SHARE) != 0);
+  }
+
+  @Override
+  public synchronized int getIdBound() {
+    return idBound;
+  }
+
+  private int get(int id) {
+    long[] current = words;
+    int word = id / IDS_PER_WORD;
+    if (id < 0 || word >= current.length) {
+      return 0;
+    }
+    return (int) (current[word] >>> shiftOf(id)) & 0xFF;
+  }
+
+  /**
+   * Replaces the bits of an id selected by <code>mask</code> with <code>bits</code>.
+   */
+  private void store(int id, int mask, int bits) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Id must be non-negative but was " + id);
+    }
+    int word = id / IDS_PER_WORD;
+    long[] current = words;
+    if (word >= current.length) {
+      current = Arrays.copyOf(current, Math.max(word + 1, current.length * 2));
+    }
+    int shift = shiftOf(id);
+    current[word] = current[word] & ~((long) mask << shift) | ((long) bits << shift);
+    words = current;
+    idBound = Math.max(idBound, id + 1);
+  }
+
+  private static int shiftOf(int id) {
+    return (id % IDS_PER_WORD) * BITS_PER_ID;
+  }
+}
@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only {@link TinyTablesStorage} reading TinyTables and mask shares on demand from a buffer
+ * in the format written by {@link TinyTablesFile}.
+ */
+final class MappedTinyTablesStorage implements TinyTablesStorage {
+
+  private static final long serialVersionUID = 6131484917418447052L;
+  private final transient ByteBuffer buffer;
+  private final int ids;
+  private final int tableBits;
+  private final int tables;
+  private final int maskBits;
+  private final int masks;
+
+  MappedTinyTablesStorage(ByteBuffer buffer, int ids) {
+    this.buffer = buffer;
+    this.ids = ids;
+    int bitmapSize = (ids + 7) / 8;
+    this.tableBits = TinyTablesFile.HEADER_SIZE;
+    this.tables = tableBits + bitmapSize;
+    this.maskBits = tables + (ids + 1) / 2;
+    this.masks = maskBits + bitmapSize;
+  }
+
+  @Override
+  public void storeTinyTable(int id, TinyTable table) {
+    throw new UnsupportedOperationException("Mapped TinyTables are read-only");
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    if (!isSet(tableBits, id)) {
+      return null;
+    }
+    int nibble = buffer.get(tables + id / 2) >>> ((id & 1) * 4) & 0xF;
+    return TinyTableNibbles.fromNibble(nibble);
+  }
+
+  @Override
+  public void storeMaskShare(int id, TinyTablesElement r) {
+    throw new UnsupportedOperationException("Mapped TinyTables are read-only");
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    if (!isSet(maskBits, id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance(isSet(masks, id));
+  }
+
+  @Override
+  public int getIdBound() {
+    return ids;
+  }
+
+  /**
+   * Serializes the storage as a {@link DenseTinyTablesStorage} holding the same values, as the
+   * mapped buffer cannot be serialized.
+   */
+  private Object writeReplace() {
+    return DenseTinyTablesStorage.copyOf(this);
+  }
+
+  private boolean isSet(int offset, int id) {
+    if (id < 0 || id >= ids) {
+      return false;
+    }
+    return (buffer.get(offset + id / 8) >>> (id & 7) & 1) != 0;
+  }
+}
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+
+/**
+ * Converts between TinyTables and the four bits they hold, with entry <i>(u, v)</i> in bit
+ * <i>2u + v</i>. As a TinyTable is determined by its four bits, the sixteen possible TinyTables
+ * are shared by all storages decoding them.
+ */
+final class TinyTableNibbles {
+
+  private static final TinyTable[] TABLES = new TinyTable[16];
+
+  static {
+    for (int nibble = 0; nibble < TABLES.length; nibble++) {
+      TinyTablesElement[] values = new TinyTablesElement[4];
+      for (int entry = 0; entry < values.length; entry++) {
+        values[entry] = TinyTablesElement.getInstance((nibble >>> entry & 1) != 0);
+      }
+      TABLES[nibble] = new TinyTable(values);
+    }
+  }
+
+  private TinyTableNibbles() {
+    // Should not be instantiated
+  }
+
+  static int toNibble(TinyTable table) {
+    int nibble = 0;
+    for (int entry = 0; entry < 4; entry++) {
+      TinyTablesElement value = table.getValue(TinyTablesElement.getInstance(entry >= 2),
+          TinyTablesElement.getInstance((entry & 1) == 1));
+      if (value.getShare()) {
+        nibble |= 1 << entry;
+      }
+    }
+    return nibble;
+  }
+
+  static TinyTable fromNibble(int nibble) {
+    return TABLES[nibble & 0xF];
+  }
+}
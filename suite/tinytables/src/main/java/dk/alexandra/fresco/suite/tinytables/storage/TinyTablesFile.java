@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Reads and writes the {@link TinyTablesStorage} carried from the preprocessing to the online
+ * phase.
+ *
+ * <p>The storage is written in a packed binary format indexed by the ids of the protocols, such
+ * that the online phase can memory map the file and read the TinyTables on demand instead of
+ * deserializing all of them before the evaluation starts. For ids up to <i>n</i> the file
+ * consists of</p>
+ * <ul>
+ *   <li>a header of the ints {@link #MAGIC}, {@link #VERSION} and <i>n</i>,</li>
+ *   <li><i>n</i> bits telling which ids have a TinyTable,</li>
+ *   <li><i>n</i> nibbles holding the TinyTables, with entry <i>(u, v)</i> in bit <i>2u + v</i>,</li>
+ *   <li><i>n</i> bits telling which ids have a mask share, and</li>
+ *   <li><i>n</i> bits holding the mask shares,</li>
+ * </ul>
+ * <p>where each section is padded to a whole number of bytes and bit <i>i</i> of a section is
+ * stored in bit <i>i % 8</i> of byte <i>i / 8</i>.</p>
+ *
+ * <p>Files written by earlier versions using Java serialization of the storage can still be read,
+ * and converted with {@link #convert(File, File)}.</p>
+ */
+public final class TinyTablesFile {
+
+  /**
+   * The first four bytes of a packed file, "TTBL".
+   */
+  public static final int MAGIC = 0x5454424C;
+  public static final int VERSION = 1;
+  static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+  private TinyTablesFile() {
+  }
+
+  /**
+   * Writes a storage to a file in the packed format.
+   *
+   * @param storage the storage to write
+   * @param file the file to write to
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(TinyTablesStorage storage, File file) throws IOException {
+    int ids = storage.getIdBound();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(ids);
+      int current = 0;
+      for (int id = 0; id < ids; id++) {
+        if (storage.getTinyTable(id) != null) {
+          current |= 1 << (id & 7);
+        }
+        current = flushByte(out, id, 8, current);
+      }
+      current = endSection(out, ids, 8, current);
+      for (int id = 0; id < ids; id++) {
+        TinyTable table = storage.getTinyTable(id);
+        if (table != null) {
+          current |= TinyTableNibbles.toNibble(table) << ((id & 1) * 4);
+        }
+        current = flushByte(out, id, 2, current);
+      }
+      current = endSection(out, ids, 2, current);
+      for (int id = 0; id < ids; id++) {
+        if (storage.getMaskShare(id) != null) {
+          current |= 1 << (id & 7);
+        }
+        current = flushByte(out, id, 8, current);
+      }
+      current = endSection(out, ids, 8, current);
+      for (int id = 0; id < ids; id++) {
+        TinyTablesElement mask = storage.getMaskShare(id);
+        if (mask != null && mask.getShare()) {
+          current |= 1 << (id & 7);
+        }
+        current = flushByte(out, id, 8, current);
+      }
+      current = endSection(out, ids, 8, current);
+    }
+  }
+
+  /**
+   * Writes the current byte of a section when it is full or the section ends.
+   */
+  private static int flushByte(DataOutputStream out, int id, int perByte, int current)
+      throws IOException {
+    return ((id + 1) % perByte == 0) ? writeByte(out, current) : current;
+  }
+
+  /**
+   * Writes the last byte of a section if it is only partially filled.
+   */
+  private static int endSection(DataOutputStream out, int ids, int perByte, int current)
+      throws IOException {
+    return (ids % perByte != 0) ? writeByte(out, current) : current;
+  }
+
+  private static int writeByte(DataOutputStream out, int current) throws IOException {
+    out.writeByte(current);
+    return 0;
+  }
+
+  /**
+   * Reads a storage from a file. Files in the packed format are memory mapped and read on demand,
+   * while files in the legacy format are deserialized and copied to a
+   * {@link DenseTinyTablesStorage}.
+   *
+   * @param file the file to read
+   * @return the storage, which is read-only if the file is in the packed format
+   * @throws IOException if the file cannot be read
+   */
+  public static TinyTablesStorage read(File file) throws IOException {
+    if (isPacked(file)) {
+      return map(file);
+    }
+    return readLegacy(file);
+  }
+
+  /**
+   * Tells whether a file is in the packed format.
+   */
+  public static boolean isPacked(File file) throws IOException {
+    if (file.length() < Integer.BYTES) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return in.readInt() == MAGIC;
+    }
+  }
+
+  /**
+   * Converts a file in the legacy format to the packed format.
+   *
+   * @param legacy the file in the legacy format
+   * @param packed the file to write in the packed format
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void convert(File legacy, File packed) throws IOException {
+    write(readLegacy(legacy), packed);
+  }
+
+  private static TinyTablesStorage map(File file) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      if (raf.length() > Integer.MAX_VALUE) {
+        throw new IOException("TinyTables file too large: " + file);
+      }
+      MappedByteBuffer buffer = raf.getChannel().map(MapMode.READ_ONLY, 0, raf.length());
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException("Unsupported TinyTables file: " + file);
+      }
+      int ids = buffer.getInt(2 * Integer.BYTES);
+      long expected = HEADER_SIZE + 3L * ((ids + 7) / 8) + (ids + 1) / 2;
+      if (raf.length() != expected) {
+        throw new IOException("TinyTables file has size " + raf.length() + " but should have "
+            + expected + ": " + file);
+      }
+      return new MappedTinyTablesStorage(buffer, ids);
+    }
+  }
+
+  private static TinyTablesStorage readLegacy(File file) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(
+        new BufferedInputStream(new FileInputStream(file)))) {
+      return DenseTinyTablesStorage.copyOf((TinyTablesStorage) in.readObject());
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Not a TinyTables file: " + file, e);
+    }
+  }
+
+  /**
+   * Converts a file in the legacy format to the packed format.
+   *
+   * @param args the legacy file followed by the file to write
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: TinyTablesFile <legacy file> <packed file>");
+      System.exit(1);
+    }
+    convert(new File(args[0]), new File(args[1]));
+  }
+}
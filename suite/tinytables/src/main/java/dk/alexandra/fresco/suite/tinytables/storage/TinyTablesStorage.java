@@ -35,4 +35,12 @@ public interface TinyTablesStorage extends Serializable {
 
 	public TinyTablesElement getMaskShare(int id);
 
+	/**
+	 * Get a bound on the ids of the stored TinyTables and mask shares, i.e.
+	 * one more than the largest id stored, or 0 if nothing is stored.
+	 * 
+	 * @return the bound
+	 */
+	public int getIdBound();
+
 }
\ No newline at end of file
@@ -34,4 +34,16 @@ public class TinyTablesStorageImpl implements TinyTablesStorage {
 		return maskShares.get(id);
 	}
 
+	@Override
+	public int getIdBound() {
+		int bound = 0;
+		for (int id : tinyTables.keySet()) {
+			bound = Math.max(bound, id + 1);
+		}
+		for (int id : maskShares.keySet()) {
+			bound = Math.max(bound, id + 1);
+		}
+		return bound;
+	}
+
 }
@@ -0,0 +1,186 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleBatch;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates multiplication triples for any number of players from random OT extension between
+ * each pair of players.
+ *
+ * <p>Each player picks random shares <i>a<sub>i</sub></i> and <i>b<sub>i</sub></i> of a triple.
+ * The product <i>c = (&Sigma; a<sub>i</sub>)(&Sigma; b<sub>i</sub>)</i> is the sum of the local
+ * terms <i>a<sub>i</sub>b<sub>i</sub></i> and the cross terms <i>a<sub>i</sub>b<sub>j</sub></i>
+ * for <i>i &ne; j</i>, and each cross term is shared between players <i>i</i> and <i>j</i> by an
+ * OT where <i>i</i> sends and <i>j</i> chooses by <i>b<sub>j</sub></i>. As the shares must be the
+ * same towards all other players, the random OTs are derandomized: the receiver sends the
+ * difference <i>d = b<sub>j</sub> + s</i> between its share and its random choice <i>s</i>, and
+ * the sender swaps its random messages <i>m<sub>0</sub>, m<sub>1</sub></i> by <i>d</i>, such that
+ * the receiver holds <i>m<sub>b<sub>j</sub></sub></i>. The sender keeps <i>m<sub>0</sub></i> as
+ * its share of the cross term and sends the single bit <i>m<sub>0</sub> + m<sub>1</sub> +
+ * a<sub>i</sub></i>, which the receiver adds to <i>m<sub>b<sub>j</sub></sub></i> if
+ * <i>b<sub>j</sub> = 1</i>. Hence each triple costs two bits of communication per pair of
+ * players.</p>
+ *
+ * <p>The pairs of players run their OTs in lexicographic order, and within a pair the player with
+ * the lower id acts as sender first. For two players {@link TinyTablesRotTripleGenerator} should be
+ * used instead, as it avoids the derandomization.</p>
+ */
+public class TinyTablesPairwiseTripleGenerator extends TinyTablesTripleGenerator {
+
+  private final int noOfPlayers;
+  private final Map<Integer, RotFactory> rotFactories;
+  private final Drbg drbg;
+  private final Network network;
+  private final Map<Integer, Pair<RotSender, RotReceiver>> rots;
+
+  /**
+   * Creates a new triple generator.
+   *
+   * @param playerId the id of the player to generate triples for
+   * @param noOfPlayers the number of players
+   * @param rotFactories factories for the random OT extension with each of the other players,
+   *     indexed by their ids
+   * @param drbg source of randomness for the shares and the choices of the random OTs
+   * @param network network used to derandomize the random OTs
+   */
+  public TinyTablesPairwiseTripleGenerator(int playerId, int noOfPlayers,
+      Map<Integer, RotFactory> rotFactories, Drbg drbg, Network network) {
+    super(playerId);
+    for (int otherId = 1; otherId <= noOfPlayers; otherId++) {
+      if (otherId != playerId && !rotFactories.containsKey(otherId)) {
+        throw new IllegalArgumentException("No random OT with player " + otherId);
+      }
+    }
+    this.noOfPlayers = noOfPlayers;
+    this.rotFactories = rotFactories;
+    this.drbg = drbg;
+    this.network = network;
+    this.rots = new HashMap<>();
+  }
+
+  @Override
+  public List<TinyTablesTriple> generate(int amount) {
+    TinyTablesTripleBatch batch = generateBatch(amount);
+    List<TinyTablesTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(batch.getTriple(i));
+    }
+    return triples;
+  }
+
+  @Override
+  public TinyTablesTripleBatch generateBatch(int amount) {
+    if (amount < 1) {
+      throw new IllegalArgumentException("Amount must be positive but was " + amount);
+    }
+    int words = TinyTablesTripleBatch.wordsFor(amount);
+    long[] a = randomWords(words);
+    long[] b = randomWords(words);
+    long[] c = new long[words];
+    for (int i = 0; i < words; i++) {
+      c[i] = a[i] & b[i];
+    }
+    for (int otherId = 1; otherId <= noOfPlayers; otherId++) {
+      if (otherId != getPlayerId()) {
+        crossTerms(otherId, amount, a, b, c);
+      }
+    }
+    return new TinyTablesTripleBatch(a, b, c, amount);
+  }
+
+  /**
+   * Adds shares of the cross terms with another player to the shares of the products.
+   */
+  private void crossTerms(int otherId, int amount, long[] a, long[] b, long[] c) {
+    Pair<RotSender, RotReceiver> rot = rots.computeIfAbsent(otherId,
+        id -> new Pair<>(rotFactories.get(id).createSender(),
+            rotFactories.get(id).createReceiver()));
+    // StrictBitVector only supports sizes which are multiples of 8
+    int ots = (amount + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+    StrictBitVector choices = new StrictBitVector(ots, drbg);
+    Pair<List<StrictBitVector>, List<StrictBitVector>> sent;
+    List<StrictBitVector> received;
+    if (getPlayerId() < otherId) {
+      sent = rot.getFirst().extend(ots);
+      received = rot.getSecond().extend(choices);
+    } else {
+      received = rot.getSecond().extend(choices);
+      sent = rot.getFirst().extend(ots);
+    }
+    int words = a.length;
+    long[] zero = new long[words];
+    long[] one = new long[words];
+    long[] choice = new long[words];
+    long[] chosen = new long[words];
+    for (int i = 0; i < amount; i++) {
+      long bit = 1L << i;
+      if (sent.getFirst().get(i).getBit(0, false)) {
+        zero[i >>> 6] |= bit;
+      }
+      if (sent.getSecond().get(i).getBit(0, false)) {
+        one[i >>> 6] |= bit;
+      }
+      // the choice of OT number i is bit i counting from the start of the underlying bytes
+      if (choices.getBit(i, false)) {
+        choice[i >>> 6] |= bit;
+      }
+      if (received.get(i).getBit(0, false)) {
+        chosen[i >>> 6] |= bit;
+      }
+    }
+    // as receiver, tell the sender how our shares of b differ from the random choices
+    long[] difference = new long[words];
+    for (int i = 0; i < words; i++) {
+      difference[i] = b[i] ^ choice[i];
+    }
+    network.send(otherId, toBytes(difference));
+    long[] otherDifference = fromBytes(network.receive(otherId), words);
+    // as sender, keep the message swapped to position zero and send its sum with the other and a
+    long[] corrections = new long[words];
+    for (int i = 0; i < words; i++) {
+      long swap = otherDifference[i] & (zero[i] ^ one[i]);
+      c[i] ^= zero[i] ^ swap;
+      corrections[i] = zero[i] ^ one[i] ^ a[i];
+    }
+    network.send(otherId, toBytes(corrections));
+    long[] otherCorrections = fromBytes(network.receive(otherId), words);
+    // as receiver, add the correction to the chosen message if our share of b is one
+    for (int i = 0; i < words; i++) {
+      c[i] ^= chosen[i] ^ otherCorrections[i] & b[i];
+    }
+  }
+
+  private long[] randomWords(int words) {
+    byte[] bytes = new byte[words * Long.BYTES];
+    drbg.nextBytes(bytes);
+    return fromBytes(bytes, words);
+  }
+
+  private static byte[] toBytes(long[] words) {
+    ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+    buffer.asLongBuffer().put(words);
+    return buffer.array();
+  }
+
+  private static long[] fromBytes(byte[] bytes, int words) {
+    if (bytes.length != words * Long.BYTES) {
+      throw new IllegalArgumentException("Expected " + words * Long.BYTES + " bytes but got "
+          + bytes.length);
+    }
+    long[] result = new long[words];
+    ByteBuffer.wrap(bytes).asLongBuffer().get(result);
+    return result;
+  }
+}
@@ -0,0 +1,106 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleBatch;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates multiplication triples directly from random OT extension.
+ *
+ * <p>A random OT where the sender gets random messages <i>m<sub>0</sub>, m<sub>1</sub></i> and the
+ * receiver gets <i>m<sub>s</sub></i> for a random choice <i>s</i> is a random AND correlation:
+ * letting the sender have <i>x = m<sub>0</sub> + m<sub>1</sub></i> and <i>u = m<sub>0</sub></i>,
+ * and the receiver have <i>s</i> and <i>v = m<sub>s</sub></i> (all restricted to the first bit)
+ * gives <i>u + v = xs</i>. Each player acts as sender in one random OT and as receiver in another
+ * for each triple, using the bit <i>x</i> as its share of <i>a</i> and the choice <i>s</i> as its
+ * share of <i>b</i>. The cross terms of <i>c = (a<sub>1</sub> + a<sub>2</sub>)(b<sub>1</sub> +
+ * b<sub>2</sub>)</i> are then shared by the two random AND correlations, so a batch of triples
+ * costs one random OT extension in each direction and no further communication.</p>
+ *
+ * <p>The random OT extension pads each extension to a power of two which is at least the amount
+ * plus the computational and statistical security parameters, so the amount of triples per batch
+ * should be chosen accordingly.</p>
+ */
+public class TinyTablesRotTripleGenerator extends TinyTablesTripleGenerator {
+
+  private final RotFactory rotFactory;
+  private final Drbg drbg;
+  private RotSender sender;
+  private RotReceiver receiver;
+
+  /**
+   * Creates a new triple generator.
+   *
+   * @param playerId the id of the player to generate triples for
+   * @param rotFactory factory for the random OT extension with the other player
+   * @param drbg source of randomness for the choices of the random OTs
+   */
+  public TinyTablesRotTripleGenerator(int playerId, RotFactory rotFactory, Drbg drbg) {
+    super(playerId);
+    this.rotFactory = rotFactory;
+    this.drbg = drbg;
+  }
+
+  @Override
+  public List<TinyTablesTriple> generate(int amount) {
+    TinyTablesTripleBatch batch = generateBatch(amount);
+    List<TinyTablesTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(batch.getTriple(i));
+    }
+    return triples;
+  }
+
+  @Override
+  public TinyTablesTripleBatch generateBatch(int amount) {
+    if (amount < 1) {
+      throw new IllegalArgumentException("Amount must be positive but was " + amount);
+    }
+    if (sender == null) {
+      sender = rotFactory.createSender();
+      receiver = rotFactory.createReceiver();
+    }
+    // StrictBitVector only supports sizes which are multiples of 8
+    int ots = (amount + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+    StrictBitVector choices = new StrictBitVector(ots, drbg);
+    Pair<List<StrictBitVector>, List<StrictBitVector>> sent;
+    List<StrictBitVector> received;
+    if (getPlayerId() < Util.otherPlayerId(getPlayerId())) {
+      sent = sender.extend(ots);
+      received = receiver.extend(choices);
+    } else {
+      received = receiver.extend(choices);
+      sent = sender.extend(ots);
+    }
+    int words = TinyTablesTripleBatch.wordsFor(amount);
+    long[] a = new long[words];
+    long[] b = new long[words];
+    long[] c = new long[words];
+    for (int i = 0; i < amount; i++) {
+      boolean zero = sent.getFirst().get(i).getBit(0, false);
+      boolean one = sent.getSecond().get(i).getBit(0, false);
+      long bit = 1L << i;
+      if (zero ^ one) {
+        a[i >>> 6] |= bit;
+      }
+      // the choice of OT number i is bit i counting from the start of the underlying bytes
+      if (choices.getBit(i, false)) {
+        b[i >>> 6] |= bit;
+      }
+      if (zero ^ received.get(i).getBit(0, false)) {
+        c[i >>> 6] |= bit;
+      }
+    }
+    for (int i = 0; i < words; i++) {
+      c[i] ^= a[i] & b[i];
+    }
+    return new TinyTablesTripleBatch(a, b, c, amount);
+  }
+}
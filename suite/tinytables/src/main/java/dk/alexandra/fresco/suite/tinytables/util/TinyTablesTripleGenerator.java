@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.tinytables.util;
 import dk.alexandra.fresco.framework.util.Drng;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleBatch;
 import dk.alexandra.fresco.tools.ot.base.Ot;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +27,30 @@ public class TinyTablesTripleGenerator {
     this.ot = ot;
   }
 
+  /**
+   * Creates a triple generator which does not use chosen-message OTs. Such generators must
+   * override {@link #generate(int)} or {@link #generateBatch(int)}.
+   *
+   * @param playerId the id of the player to generate triples for
+   */
+  protected TinyTablesTripleGenerator(int playerId) {
+    this(playerId, null, null);
+  }
+
+  protected int getPlayerId() {
+    return playerId;
+  }
+
+  /**
+   * Generate new multiplication triples (a,b,c) in bit-sliced form. The two players need to call
+   * this method at the same time and with the same amount parameter.
+   *
+   * <p>The default implementation packs the triples of {@link #generate(int)}.</p>
+   */
+  public TinyTablesTripleBatch generateBatch(int amount) {
+    return TinyTablesTripleBatch.fromTriples(generate(amount));
+  }
+
   /**
    * Generate new multiplication triples (a,b,c). The two players need to call this method at the
    * same time and with the same amount parameter.
@@ -58,7 +58,11 @@ public class TestTinyTables {
 
   private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
       EvaluationStrategy evalStrategy, boolean preprocessing, String name) {
-    int noPlayers = 2;
+    runTest(f, evalStrategy, preprocessing, name, 2);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name, int noPlayers) {
     List<Integer> ports = NetworkUtil.getFreePorts(noPlayers);
     Map<Integer, NetworkConfiguration> netConf = NetworkUtil
         .getNetworkConfigurations(ports);
@@ -74,13 +78,21 @@ public class TestTinyTables {
         BatchEvaluationStrategy<TinyTablesPreproResourcePool> batchStrategy =
             evalStrategy.getStrategy();
         TinyTablesPreproProtocolSuite suite = new TinyTablesPreproProtocolSuite();
-        TinyTablesOt baseOt = new TinyTablesDummyOt(Util.otherPlayerId(playerId));
         Drbg random = new AesCtrDrbg(new byte[32]);
-        resourcePoolSupplier =
-            () -> new TinyTablesPreproResourcePool(
-                playerId, baseOt, random,
-                COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, tinyTablesFile,
-                networkSupplier);
+        if (noPlayers == 2) {
+          TinyTablesOt baseOt = new TinyTablesDummyOt(Util.otherPlayerId(playerId));
+          resourcePoolSupplier =
+              () -> new TinyTablesPreproResourcePool(
+                  playerId, baseOt, random,
+                  COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, tinyTablesFile,
+                  networkSupplier);
+        } else {
+          resourcePoolSupplier =
+              () -> new TinyTablesPreproResourcePool(
+                  playerId, noPlayers, TinyTablesDummyOt::new, random,
+                  COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, tinyTablesFile,
+                  networkSupplier);
+        }
         ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator =
             new BatchedProtocolEvaluator<>(batchStrategy, suite);
         computationEngine =
@@ -286,6 +298,41 @@ public class TestTinyTables {
         false, "testBasicProtocols");
   }
 
+  /* Three players */
+
+  @Test
+  public void testAndThreePlayers() {
+    runTest(new BasicBooleanTests.TestAND<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
+        "testANDThreePlayers", 3);
+    runTest(new BasicBooleanTests.TestAND<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, false,
+        "testANDThreePlayers", 3);
+  }
+
+  @Test
+  public void testBasicProtocolsThreePlayers() {
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testBasicProtocolsThreePlayers", 3);
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testBasicProtocolsThreePlayers", 3);
+  }
+
+  @Test
+  public void test_comparisonThreePlayers() {
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testGTThreePlayers", 3);
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testGTThreePlayers", 3);
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAesThreePlayers() {
+    runTest(new BristolCryptoTests.AesTest<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
+        "testAESThreePlayers", 3);
+    runTest(new BristolCryptoTests.AesTest<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, false,
+        "testAESThreePlayers", 3);
+  }
+
   /* Bristol tests */
 
   @Category(IntegrationTest.class)
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestTinyTablesTripleBatch {
+
+  @Test
+  public void testFromTriples() {
+    List<TinyTablesTriple> triples = new ArrayList<>();
+    for (int i = 0; i < 130; i++) {
+      triples.add(TinyTablesTriple.fromShares(i % 2 == 0, i % 3 == 0, i % 5 == 0));
+    }
+    TinyTablesTripleBatch batch = TinyTablesTripleBatch.fromTriples(triples);
+    assertThat(batch.getSize(), is(130));
+    assertThat(batch.getA().length, is(3));
+    for (int i = 0; i < triples.size(); i++) {
+      assertThat(batch.getTriple(i), is(triples.get(i)));
+    }
+  }
+
+  @Test
+  public void testBitLayout() {
+    long[] a = {1L << 63, 1L};
+    TinyTablesTripleBatch batch = new TinyTablesTripleBatch(a, new long[2], new long[2], 65);
+    assertThat(batch.getTriple(63), is(TinyTablesTriple.fromShares(true, false, false)));
+    assertThat(batch.getTriple(64), is(TinyTablesTriple.fromShares(true, false, false)));
+    assertThat(batch.getTriple(62), is(TinyTablesTriple.fromShares(false, false, false)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooShort() {
+    new TinyTablesTripleBatch(new long[1], new long[1], new long[1], 65);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBounds() {
+    new TinyTablesTripleBatch(new long[1], new long[1], new long[1], 10).getTriple(10);
+  }
+}
@@ -0,0 +1,160 @@
+package dk.alexandra.fresco.suite.tinytables.online;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesProtocol;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TestTinyTablesProtocolSuite {
+
+  private static final int GATES = 20;
+
+  /**
+   * Stores TinyTables where the share of player 1 is the AND of the inputs and the share of player
+   * 2 is true for odd gates, and a mask for a close protocol with id {@link #GATES}.
+   */
+  private static File storeTinyTables(int myId) throws IOException {
+    TinyTablesStorageImpl storage = new TinyTablesStorageImpl();
+    for (int id = 0; id < GATES; id++) {
+      TinyTablesElement[] entries = new TinyTablesElement[4];
+      for (int i = 0; i < 4; i++) {
+        boolean share = myId == 1 ? i == 3 : id % 2 == 1;
+        entries[i] = TinyTablesElement.getInstance(share);
+      }
+      storage.storeTinyTable(id, new TinyTable(entries));
+    }
+    storage.storeMaskShare(GATES, TinyTablesElement.getInstance(myId == 1));
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(storage);
+    }
+    return file;
+  }
+
+  private static List<TinyTablesANDProtocol> createAnds() {
+    List<TinyTablesANDProtocol> ands = new ArrayList<>();
+    for (int id = 0; id < GATES; id++) {
+      ands.add(new TinyTablesANDProtocol(id,
+          TinyTablesSBool.getInstance(TinyTablesElement.getInstance(id % 3 == 0)),
+          TinyTablesSBool.getInstance(TinyTablesElement.getInstance(id % 4 == 0))));
+    }
+    return ands;
+  }
+
+  private static List<TinyTablesProtocol<SBool>> runPlayer(int myId, Network network)
+      throws IOException {
+    TinyTablesProtocolSuite suite = new TinyTablesProtocolSuite(myId, storeTinyTables(myId));
+    ResourcePoolImpl resourcePool = new ResourcePoolImpl(myId, 2);
+    suite.init(resourcePool);
+    List<TinyTablesProtocol<SBool>> protocols = new ArrayList<>(createAnds());
+    protocols.add(new TinyTablesCloseProtocol(GATES, 1, true));
+    ProtocolCollectionList<ResourcePoolImpl> batch = new ProtocolCollectionList<>(GATES + 1);
+    protocols.forEach(batch::addProtocol);
+    RoundSynchronization<ResourcePoolImpl> sync = suite.createRoundSynchronization();
+    sync.beforeBatch(batch, resourcePool, network);
+    new BatchedStrategy<ResourcePoolImpl>().processBatch(batch, resourcePool,
+        new NetworkBatchDecorator(2, network));
+    return protocols;
+  }
+
+  @Test
+  public void testOpensAndsOfBatch() throws Exception {
+    Map<Integer, CloseableNetwork> networks = new InMemoryNetworkFactory(2).createNetworks();
+    Map<Integer, AtomicInteger> sends = new HashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<List<TinyTablesProtocol<SBool>>>> futures = new ArrayList<>();
+      for (int id = 1; id <= 2; id++) {
+        int myId = id;
+        AtomicInteger count = new AtomicInteger();
+        sends.put(myId, count);
+        futures.add(executor.submit(() -> runPlayer(myId,
+            new CountingNetwork(networks.get(myId), myId, count))));
+      }
+      for (Future<List<TinyTablesProtocol<SBool>>> future : futures) {
+        List<TinyTablesProtocol<SBool>> protocols =
+            ExceptionConverter.safe(future::get, "Player failed");
+        for (int id = 0; id < GATES; id++) {
+          boolean expected = (id % 3 == 0 && id % 4 == 0) ^ id % 2 == 1;
+          TinyTablesSBool out = (TinyTablesSBool) protocols.get(id).out();
+          assertThat(out.getValue().getShare(), is(expected));
+        }
+        // the input true masked by the mask share true of the inputter
+        TinyTablesSBool closed = (TinyTablesSBool) protocols.get(GATES).out();
+        assertThat(closed.getValue().getShare(), is(false));
+      }
+      // the packed AND shares are sent in the same batch as the close protocol
+      assertThat(sends.get(1).get(), is(1));
+      assertThat(sends.get(2).get(), is(1));
+    } finally {
+      executor.shutdownNow();
+      for (CloseableNetwork network : networks.values()) {
+        network.close();
+      }
+    }
+  }
+
+  /**
+   * Counts the messages sent to other parties.
+   */
+  private static class CountingNetwork implements Network {
+
+    private final Network network;
+    private final int myId;
+    private final AtomicInteger sends;
+
+    CountingNetwork(Network network, int myId, AtomicInteger sends) {
+      this.network = network;
+      this.myId = myId;
+      this.sends = sends;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (partyId != myId) {
+        sends.incrementAndGet();
+      }
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+}
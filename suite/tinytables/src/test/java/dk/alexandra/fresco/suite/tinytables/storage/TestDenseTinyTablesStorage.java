@@ -0,0 +1,100 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+public class TestDenseTinyTablesStorage {
+
+  private static TinyTable table(int nibble) {
+    TinyTablesElement[] values = new TinyTablesElement[4];
+    for (int entry = 0; entry < values.length; entry++) {
+      values[entry] = TinyTablesElement.getInstance((nibble >>> entry & 1) != 0);
+    }
+    return new TinyTable(values);
+  }
+
+  private static void assertTable(TinyTable table, int nibble) {
+    assertThat(table.toString(), is(table(nibble).toString()));
+  }
+
+  @Test
+  public void testStoreAndGet() {
+    DenseTinyTablesStorage storage = new DenseTinyTablesStorage(1);
+    for (int id = 0; id < 1000; id++) {
+      if (id % 3 != 0) {
+        storage.storeTinyTable(id, table(id));
+      }
+      if (id % 4 != 1) {
+        storage.storeMaskShare(id, TinyTablesElement.getInstance(id % 5 < 2));
+      }
+    }
+    assertThat(storage.getIdBound(), is(1000));
+    for (int id = 0; id < 1000; id++) {
+      if (id % 3 != 0) {
+        assertTable(storage.getTinyTable(id), id & 0xF);
+      } else {
+        assertThat(storage.getTinyTable(id), nullValue());
+      }
+      if (id % 4 != 1) {
+        assertThat(storage.getMaskShare(id).getShare(), is(id % 5 < 2));
+      } else {
+        assertThat(storage.getMaskShare(id), nullValue());
+      }
+    }
+  }
+
+  @Test
+  public void testOverwrite() {
+    DenseTinyTablesStorage storage = new DenseTinyTablesStorage();
+    storage.storeTinyTable(7, table(0xF));
+    storage.storeMaskShare(7, TinyTablesElement.getInstance(true));
+    storage.storeTinyTable(7, table(0x5));
+    storage.storeMaskShare(7, TinyTablesElement.getInstance(false));
+    assertTable(storage.getTinyTable(7), 0x5);
+    assertThat(storage.getMaskShare(7).getShare(), is(false));
+    assertThat(storage.getTinyTable(6), nullValue());
+    assertThat(storage.getTinyTable(8), nullValue());
+  }
+
+  @Test
+  public void testAbsentIds() {
+    DenseTinyTablesStorage storage = new DenseTinyTablesStorage();
+    assertThat(storage.getIdBound(), is(0));
+    assertThat(storage.getTinyTable(-1), nullValue());
+    assertThat(storage.getMaskShare(Integer.MAX_VALUE), nullValue());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeId() {
+    new DenseTinyTablesStorage().storeMaskShare(-1, TinyTablesElement.getInstance(true));
+  }
+
+  @Test
+  public void testCopyAndSerialize() throws IOException, ClassNotFoundException {
+    TinyTablesStorage original = new TinyTablesStorageImpl();
+    original.storeTinyTable(3, table(0x9));
+    original.storeMaskShare(70, TinyTablesElement.getInstance(true));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(DenseTinyTablesStorage.copyOf(original));
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      TinyTablesStorage copy = (TinyTablesStorage) in.readObject();
+      assertThat(copy.getIdBound(), is(71));
+      assertTable(copy.getTinyTable(3), 0x9);
+      assertThat(copy.getMaskShare(3), nullValue());
+      assertThat(copy.getMaskShare(70).getShare(), is(true));
+    }
+  }
+}
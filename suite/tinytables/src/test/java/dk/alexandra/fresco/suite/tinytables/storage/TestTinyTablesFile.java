@@ -0,0 +1,117 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+public class TestTinyTablesFile {
+
+  private static TinyTablesStorage createStorage(int ids) {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    for (int id = 0; id < ids; id++) {
+      if (id % 3 != 0) {
+        TinyTablesElement[] values = new TinyTablesElement[4];
+        for (int entry = 0; entry < values.length; entry++) {
+          values[entry] = TinyTablesElement.getInstance((id >>> entry & 1) != 0);
+        }
+        storage.storeTinyTable(id, new TinyTable(values));
+      }
+      if (id % 4 != 1) {
+        storage.storeMaskShare(id, TinyTablesElement.getInstance(id % 5 < 2));
+      }
+    }
+    return storage;
+  }
+
+  private static void assertSameValues(TinyTablesStorage expected, TinyTablesStorage actual) {
+    assertThat(actual.getIdBound(), is(expected.getIdBound()));
+    for (int id = -1; id <= expected.getIdBound(); id++) {
+      TinyTable table = expected.getTinyTable(id);
+      if (table == null) {
+        assertThat(actual.getTinyTable(id), nullValue());
+      } else {
+        assertThat(actual.getTinyTable(id).toString(), is(table.toString()));
+      }
+      TinyTablesElement mask = expected.getMaskShare(id);
+      if (mask == null) {
+        assertThat(actual.getMaskShare(id), nullValue());
+      } else {
+        assertThat(actual.getMaskShare(id).getShare(), is(mask.getShare()));
+      }
+    }
+  }
+
+  private static File tempFile() throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void testWriteRead() throws IOException {
+    for (int ids : new int[] {0, 1, 2, 7, 8, 9, 100, 1001}) {
+      TinyTablesStorage storage = createStorage(ids);
+      File file = tempFile();
+      TinyTablesFile.write(storage, file);
+      assertThat(TinyTablesFile.isPacked(file), is(true));
+      assertSameValues(storage, TinyTablesFile.read(file));
+    }
+  }
+
+  @Test
+  public void testConvertLegacy() throws IOException {
+    TinyTablesStorage storage = createStorage(100);
+    File legacy = tempFile();
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(legacy))) {
+      out.writeObject(storage);
+    }
+    assertThat(TinyTablesFile.isPacked(legacy), is(false));
+    assertSameValues(storage, TinyTablesFile.read(legacy));
+    File packed = tempFile();
+    TinyTablesFile.convert(legacy, packed);
+    assertThat(TinyTablesFile.isPacked(packed), is(true));
+    assertSameValues(storage, TinyTablesFile.read(packed));
+  }
+
+  @Test
+  public void testSerializeMapped() throws IOException, ClassNotFoundException {
+    TinyTablesStorage storage = createStorage(50);
+    File file = tempFile();
+    TinyTablesFile.write(storage, file);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(TinyTablesFile.read(file));
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertSameValues(storage, (TinyTablesStorage) in.readObject());
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnly() throws IOException {
+    File file = tempFile();
+    TinyTablesFile.write(createStorage(10), file);
+    TinyTablesFile.read(file).storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException {
+    File file = tempFile();
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write(new byte[] {0x54, 0x54, 0x42, 0x4C, 0, 0, 0, 1, 0, 0, 0, 100});
+    }
+    TinyTablesFile.read(file);
+  }
+}
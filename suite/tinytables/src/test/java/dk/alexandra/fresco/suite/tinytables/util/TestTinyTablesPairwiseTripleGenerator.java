@@ -0,0 +1,141 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleBatch;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestTinyTablesPairwiseTripleGenerator {
+
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int STATISTICAL_SECURITY = 40;
+
+  private static TinyTablesPairwiseTripleGenerator createGenerator(int myId, int noOfPlayers,
+      Network network) {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    seed[0] = (byte) myId;
+    Drbg drbg = new AesCtrDrbg(seed);
+    Map<Integer, RotFactory> rotFactories = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfPlayers; otherId++) {
+      if (otherId == myId) {
+        continue;
+      }
+      RotList seedOts = new RotList(drbg, COMPUTATIONAL_SECURITY);
+      Ot ot = new DummyOt(otherId, network);
+      if (myId < otherId) {
+        seedOts.send(ot);
+        seedOts.receive(ot);
+      } else {
+        seedOts.receive(ot);
+        seedOts.send(ot);
+      }
+      CoinTossing ct = new CoinTossing(myId, otherId, drbg);
+      ct.initialize(network);
+      OtExtensionResourcePool resources = new OtExtensionResourcePoolImpl(myId, otherId,
+          COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, 1, drbg, ct, seedOts);
+      rotFactories.put(otherId, new RotFactory(resources, network));
+    }
+    return new TinyTablesPairwiseTripleGenerator(myId, noOfPlayers, rotFactories, drbg, network);
+  }
+
+  private static <T> List<T> runPlayers(int noOfPlayers,
+      Function<TinyTablesPairwiseTripleGenerator, T> task) throws IOException {
+    Map<Integer, CloseableNetwork> networks =
+        new InMemoryNetworkFactory(noOfPlayers).createNetworks();
+    ExecutorService executor = Executors.newFixedThreadPool(noOfPlayers);
+    try {
+      List<Future<T>> futures = new ArrayList<>();
+      for (int id = 1; id <= noOfPlayers; id++) {
+        int myId = id;
+        futures.add(executor.submit(
+            () -> task.apply(createGenerator(myId, noOfPlayers, networks.get(myId)))));
+      }
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(ExceptionConverter.safe(future::get, "Player failed"));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+      for (CloseableNetwork network : networks.values()) {
+        network.close();
+      }
+    }
+  }
+
+  private static void assertTriples(List<List<TinyTablesTriple>> triples) {
+    int size = triples.get(0).size();
+    int ones = 0;
+    for (int i = 0; i < size; i++) {
+      boolean a = false;
+      boolean b = false;
+      boolean c = false;
+      for (List<TinyTablesTriple> shares : triples) {
+        assertEquals(size, shares.size());
+        a ^= shares.get(i).getA().getShare();
+        b ^= shares.get(i).getB().getShare();
+        c ^= shares.get(i).getC().getShare();
+      }
+      assertEquals(a & b, c);
+      ones += c ? 1 : 0;
+    }
+    // a quarter of the products should be one
+    assertTrue(ones > size / 8 && ones < size / 2);
+  }
+
+  @Test
+  public void testGenerateThreePlayers() throws IOException {
+    int amount = 1001;
+    List<List<TinyTablesTriple>> triples = runPlayers(3, generator -> generator.generate(amount));
+    assertEquals(amount, triples.get(0).size());
+    assertTriples(triples);
+  }
+
+  @Test
+  public void testGenerateBatches() throws IOException {
+    for (int noOfPlayers : new int[] {2, 4}) {
+      List<List<TinyTablesTriple>> triples = runPlayers(noOfPlayers, generator -> {
+        List<TinyTablesTriple> result = new ArrayList<>();
+        for (int amount : new int[] {1, 64, 300}) {
+          TinyTablesTripleBatch batch = generator.generateBatch(amount);
+          assertEquals(amount, batch.getSize());
+          for (int i = 0; i < amount; i++) {
+            result.add(batch.getTriple(i));
+          }
+        }
+        return result;
+      });
+      assertTriples(triples);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingRot() {
+    new TinyTablesPairwiseTripleGenerator(1, 3, Collections.emptyMap(), null, null);
+  }
+}
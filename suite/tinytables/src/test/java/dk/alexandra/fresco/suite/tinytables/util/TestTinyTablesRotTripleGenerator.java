@@ -0,0 +1,122 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.inmemory.InMemoryNetworkFactory;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleBatch;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestTinyTablesRotTripleGenerator {
+
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int STATISTICAL_SECURITY = 40;
+
+  private static TinyTablesRotTripleGenerator createGenerator(int myId, Network network) {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    seed[0] = (byte) myId;
+    Drbg drbg = new AesCtrDrbg(seed);
+    int otherId = Util.otherPlayerId(myId);
+    RotList seedOts = new RotList(drbg, COMPUTATIONAL_SECURITY);
+    Ot ot = new DummyOt(otherId, network);
+    if (myId < otherId) {
+      seedOts.send(ot);
+      seedOts.receive(ot);
+    } else {
+      seedOts.receive(ot);
+      seedOts.send(ot);
+    }
+    CoinTossing ct = new CoinTossing(myId, otherId, drbg);
+    ct.initialize(network);
+    OtExtensionResourcePool resources = new OtExtensionResourcePoolImpl(myId, otherId,
+        COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, 1, drbg, ct, seedOts);
+    return new TinyTablesRotTripleGenerator(myId, new RotFactory(resources, network), drbg);
+  }
+
+  private static <T> List<T> runPlayers(Function<TinyTablesRotTripleGenerator, T> task)
+      throws IOException {
+    Map<Integer, CloseableNetwork> networks = new InMemoryNetworkFactory(2).createNetworks();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<T>> futures = new ArrayList<>();
+      for (int id = 1; id <= 2; id++) {
+        int myId = id;
+        futures.add(executor.submit(() -> task.apply(createGenerator(myId, networks.get(myId)))));
+      }
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(ExceptionConverter.safe(future::get, "Player failed"));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+      for (CloseableNetwork network : networks.values()) {
+        network.close();
+      }
+    }
+  }
+
+  private static void assertTriples(List<TinyTablesTriple> first, List<TinyTablesTriple> second) {
+    assertEquals(first.size(), second.size());
+    int ones = 0;
+    for (int i = 0; i < first.size(); i++) {
+      boolean a = first.get(i).getA().getShare() ^ second.get(i).getA().getShare();
+      boolean b = first.get(i).getB().getShare() ^ second.get(i).getB().getShare();
+      boolean c = first.get(i).getC().getShare() ^ second.get(i).getC().getShare();
+      assertEquals(a & b, c);
+      ones += c ? 1 : 0;
+    }
+    // a quarter of the products should be one
+    assertTrue(ones > first.size() / 8 && ones < first.size() / 2);
+  }
+
+  @Test
+  public void testGenerate() throws IOException {
+    int amount = 1001;
+    List<List<TinyTablesTriple>> triples = runPlayers(generator -> generator.generate(amount));
+    assertEquals(amount, triples.get(0).size());
+    assertTriples(triples.get(0), triples.get(1));
+  }
+
+  @Test
+  public void testGenerateBatches() throws IOException {
+    List<List<TinyTablesTriple>> triples = runPlayers(generator -> {
+      List<TinyTablesTriple> result = new ArrayList<>();
+      for (int amount : new int[] {1, 64, 300}) {
+        TinyTablesTripleBatch batch = generator.generateBatch(amount);
+        assertEquals(amount, batch.getSize());
+        for (int i = 0; i < amount; i++) {
+          result.add(batch.getTriple(i));
+        }
+      }
+      return result;
+    });
+    assertTriples(triples.get(0), triples.get(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalAmount() {
+    new TinyTablesRotTripleGenerator(1, null, null).generateBatch(0);
+  }
+}
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.tools.mascot;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
@@ -93,11 +94,16 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
     if (getMyId() == otherId) {
       throw new IllegalArgumentException("Cannot initialize with self");
     }
-    CoinTossing ct = new CoinTossing(getMyId(), otherId, getRandomGenerator());
+    // each rot gets its own generator, seeded from ours, such that rots with different parties can
+    // be used concurrently
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    getRandomGenerator().nextBytes(seed);
+    Drbg rotDrbg = new AesCtrDrbg(seed);
+    CoinTossing ct = new CoinTossing(getMyId(), otherId, rotDrbg);
     ct.initialize(network);
     OtExtensionResourcePool otResources = new OtExtensionResourcePoolImpl(getMyId(), otherId,
         getPrgSeedLength(), getLambdaSecurityParam(), getInstanceId(),
-        getRandomGenerator(), ct, seedOts.get(otherId));
+        rotDrbg, ct, seedOts.get(otherId));
     return new BristolRotBatch(new RotFactory(otResources, network),
         getPrgSeedLength(), getLambdaSecurityParam());
   }
@@ -1,7 +1,8 @@
 package dk.alexandra.fresco.tools.mascot.elgen;
 
-import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.SecretSharer;
 import dk.alexandra.fresco.framework.util.TransposeUtils;
@@ -12,6 +13,7 @@ import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
 import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
 import dk.alexandra.fresco.tools.mascot.maccheck.MacCheck;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -163,12 +165,21 @@ public class ElementGeneration {
     network.sendToAll(resourcePool.getFieldDefinition().serialize(ownShares));
     // receive others' shares
     List<byte[]> rawShares = network.receiveFromAll();
-    // parse
-    List<List<FieldElement>> shares = rawShares.stream()
-        .map(resourcePool.getFieldDefinition()::deserializeList)
-        .collect(Collectors.toList());
-    // recombine (step 2)
-    return Addable.sumRows(shares);
+    // parse and recombine (step 2)
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    if (!definition.hasPrimitiveVectors()) {
+      List<List<FieldElement>> shares = new ArrayList<>(rawShares.size());
+      for (byte[] raw : rawShares) {
+        shares.add(definition.deserializeList(raw));
+      }
+      return fieldElementUtils.sumRows(shares);
+    }
+    FieldElementVector recombined = null;
+    for (byte[] raw : rawShares) {
+      FieldElementVector share = definition.deserializeFrom(ByteBuffer.wrap(raw));
+      recombined = recombined == null ? share : recombined.add(share);
+    }
+    return recombined.asList();
   }
 
   /**
@@ -180,7 +191,7 @@ public class ElementGeneration {
     List<FieldElement> selfMacced = selfMac(values);
     List<List<FieldElement>> maccedByAll = otherPartiesMac(values);
     maccedByAll.add(selfMacced);
-    return Addable.sumRows(maccedByAll);
+    return fieldElementUtils.sumRows(maccedByAll);
   }
 
   /**
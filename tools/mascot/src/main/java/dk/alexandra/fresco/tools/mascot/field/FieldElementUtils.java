@@ -1,16 +1,18 @@
 package dk.alexandra.fresco.tools.mascot.field;
 
-import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
+/**
+ * Bulk operations on lists of field elements. If the field definition stores vectors in a
+ * primitive representation (see {@link FieldDefinition#hasPrimitiveVectors()}) the operations are
+ * done on vectors, otherwise the lists are operated on directly.
+ */
 public final class FieldElementUtils {
 
   private final FieldDefinition definition;
@@ -48,23 +50,16 @@ public final class FieldElementUtils {
     if (leftFactors.size() != rightFactors.size()) {
       throw new IllegalArgumentException("Lists must be same size");
     }
-    return pairWiseMultiplyStream(leftFactors, rightFactors).collect(Collectors.toList());
-  }
-
-  /**
-   * Multiplies two lists of field elements, pair-wise.
-   *
-   * @param leftFactors left factors
-   * @param rightFactors right factors
-   * @return stream of products
-   */
-  private Stream<FieldElement> pairWiseMultiplyStream(List<FieldElement> leftFactors,
-      List<FieldElement> rightFactors) {
-    return IntStream.range(0, leftFactors.size()).mapToObj(idx -> {
-      FieldElement l = leftFactors.get(idx);
-      FieldElement r = rightFactors.get(idx);
-      return l.multiply(r);
-    });
+    if (definition.hasPrimitiveVectors()) {
+      return definition.createVector(leftFactors)
+          .multiply(definition.createVector(rightFactors))
+          .asList();
+    }
+    List<FieldElement> products = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      products.add(leftFactors.get(i).multiply(rightFactors.get(i)));
+    }
+    return products;
   }
 
   /**
@@ -78,7 +73,14 @@ public final class FieldElementUtils {
     if (left.size() != right.size()) {
       throw new IllegalArgumentException("Lists must have same size");
     }
-    return Addable.sum(pairWiseMultiplyStream(left, right));
+    if (definition.hasPrimitiveVectors()) {
+      return definition.createVector(left).innerProduct(definition.createVector(right));
+    }
+    FieldElement sum = definition.createElement(0);
+    for (int i = 0; i < left.size(); i++) {
+      sum = sum.add(left.get(i).multiply(right.get(i)));
+    }
+    return sum;
   }
 
   /**
@@ -89,7 +91,47 @@ public final class FieldElementUtils {
    * @return list of products
    */
   public List<FieldElement> scalarMultiply(List<FieldElement> values, FieldElement scalar) {
-    return values.stream().map(scalar::multiply).collect(Collectors.toList());
+    if (definition.hasPrimitiveVectors()) {
+      return definition.createVector(values).scale(scalar).asList();
+    }
+    List<FieldElement> products = new ArrayList<>(values.size());
+    for (FieldElement value : values) {
+      products.add(value.multiply(scalar));
+    }
+    return products;
+  }
+
+  /**
+   * Computes the entry-wise sum of a list of rows of field elements, all of the same size.
+   *
+   * @param rows rows to sum
+   * @return list of sums
+   */
+  public List<FieldElement> sumRows(List<List<FieldElement>> rows) {
+    if (rows.isEmpty()) {
+      throw new IllegalArgumentException("Rows must not be empty");
+    }
+    int size = rows.get(0).size();
+    for (List<FieldElement> row : rows) {
+      if (row.size() != size) {
+        throw new IllegalArgumentException("Rows must have same size");
+      }
+    }
+    if (definition.hasPrimitiveVectors()) {
+      FieldElementVector sum = definition.createVector(rows.get(0));
+      for (int i = 1; i < rows.size(); i++) {
+        sum = sum.add(definition.createVector(rows.get(i)));
+      }
+      return sum.asList();
+    }
+    List<FieldElement> sum = new ArrayList<>(rows.get(0));
+    for (int i = 1; i < rows.size(); i++) {
+      List<FieldElement> row = rows.get(i);
+      for (int j = 0; j < size; j++) {
+        sum.set(j, sum.get(j).add(row.get(j)));
+      }
+    }
+    return sum;
   }
 
   /**
@@ -10,9 +10,15 @@ import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
 import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -24,6 +30,12 @@ import java.util.stream.Stream;
  * <p>In particular, produces random, authenticated, secret-shared triples of the form a, b, c such
  * that <i>a * b = c</i>. This protocol is refered to as <i>&Pi;<sub>Triple</sub></i> and listed as
  * <i>Protocol 4</i> in the MASCOT paper</p>
+ *
+ * <p>The pairwise multiplications with the other parties are independent of each other and are run
+ * concurrently, one task per other party. This requires that the network supports concurrent
+ * communication with different parties, as do {@link
+ * dk.alexandra.fresco.framework.network.socket.SocketNetwork} and {@link
+ * dk.alexandra.fresco.framework.network.socket.NioNetwork}.</p>
  */
 public class TripleGeneration {
 
@@ -33,6 +45,7 @@ public class TripleGeneration {
   private final FieldElementPrg jointSampler;
   private final MascotResourcePool resourcePool;
   private final FieldElementUtils fieldElementUtils;
+  private final ExecutorService executor;
 
   /**
    * Creates new triple generation protocol.
@@ -46,6 +59,13 @@ public class TripleGeneration {
     initializeMultipliers(resourcePool, network);
     this.elementGeneration = elementGeneration;
     this.jointSampler = jointSampler;
+    AtomicInteger threadCounter = new AtomicInteger();
+    this.executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable,
+          "TripleGeneration-" + resourcePool.getMyId() + "-" + threadCounter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   private void initializeMultipliers(MascotResourcePool resourcePool, Network network) {
@@ -125,30 +145,60 @@ public class TripleGeneration {
             .stretch(rightFactors, resourcePool.getNumCandidatesPerTriple());
 
     // step 2 of protocol
-    // for each value we will have two sub-factors for each other party
-    List<List<FieldElement>> subFactors = new ArrayList<>();
+    // for each value we will have two sub-factors for each other party, the pairs of sub-factors
+    // are computed concurrently as each other party is multiplied with independently
+    List<Future<List<FieldElement>>> subFactors = new ArrayList<>();
     for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
       if (partyId != resourcePool.getMyId()) {
-        MultiplyLeft leftMult = leftMultipliers.get(partyId);
-        MultiplyRight rightMult = rightMultipliers.get(partyId);
-        if (resourcePool.getMyId() < partyId) {
-          subFactors.add(rightMult.multiply(stretched));
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-        } else {
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-          subFactors.add(rightMult.multiply(stretched));
-        }
+        int otherId = partyId;
+        subFactors.add(executor.submit(
+            () -> multiplyWith(otherId, leftFactorGroups, stretched)));
       }
     }
 
     // step 3 or protocol
     // own part of the product
-    List<FieldElement> localSubFactors =
-        fieldElementUtils.pairWiseMultiply(leftFactorGroups, stretched);
-    subFactors.add(localSubFactors);
+    List<List<FieldElement>> products = new ArrayList<>(subFactors.size() + 1);
+    products.add(fieldElementUtils.pairWiseMultiply(leftFactorGroups, stretched));
 
     // combine all sub-factors into product shares
-    return Addable.sumRows(subFactors);
+    for (Future<List<FieldElement>> subFactor : subFactors) {
+      products.add(join(subFactor));
+    }
+    return fieldElementUtils.sumRows(products);
+  }
+
+  /**
+   * Computes the sum of the two sub-factors for a single other party.
+   */
+  private List<FieldElement> multiplyWith(int otherId, List<FieldElement> leftFactorGroups,
+      List<FieldElement> stretched) {
+    MultiplyLeft leftMult = leftMultipliers.get(otherId);
+    MultiplyRight rightMult = rightMultipliers.get(otherId);
+    List<FieldElement> first;
+    List<FieldElement> second;
+    if (resourcePool.getMyId() < otherId) {
+      first = rightMult.multiply(stretched);
+      second = leftMult.multiply(leftFactorGroups);
+    } else {
+      first = leftMult.multiply(leftFactorGroups);
+      second = rightMult.multiply(stretched);
+    }
+    return fieldElementUtils.sumRows(Arrays.asList(first, second));
+  }
+
+  private static <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while multiplying", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Multiplication failed", e.getCause());
+    }
   }
 
   /**
@@ -165,7 +215,7 @@ public class TripleGeneration {
         .getNext(numTriples, resourcePool.getNumCandidatesPerTriple());
 
     // step 2 of protocol
-    return IntStream.range(0, numTriples)
+    return IntStream.range(0, numTriples).parallel()
         .mapToObj(idx -> {
           UnauthenticatedTriple triple = triples.get(idx);
           List<FieldElement> m = masks.get(idx);
@@ -251,7 +301,7 @@ public class TripleGeneration {
 
   private List<AuthenticatedElement> computeRhos(List<AuthenticatedCandidate> candidates,
       List<FieldElement> masks) {
-    return IntStream.range(0, candidates.size()).mapToObj(idx -> {
+    return IntStream.range(0, candidates.size()).parallel().mapToObj(idx -> {
       AuthenticatedCandidate cand = candidates.get(idx);
       FieldElement mask = masks.get(idx);
       return cand.computeRho(mask);
@@ -261,7 +311,7 @@ public class TripleGeneration {
   private List<AuthenticatedElement> computeSigmas(List<AuthenticatedCandidate> candidates,
       List<FieldElement> masks,
       List<FieldElement> openRhos) {
-    return IntStream.range(0, candidates.size()).mapToObj(idx -> {
+    return IntStream.range(0, candidates.size()).parallel().mapToObj(idx -> {
       AuthenticatedCandidate cand = candidates.get(idx);
       FieldElement mask = masks.get(idx);
       FieldElement openRho = openRhos.get(idx);
@@ -1,12 +1,17 @@
 package dk.alexandra.fresco.tools.mascot.field;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.CustomAsserts;
 import dk.alexandra.fresco.tools.mascot.MascotTestUtils;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class TestMascotFieldElementUtils {
@@ -91,4 +96,110 @@ public class TestMascotFieldElementUtils {
     List<FieldElement> actual = fieldElementUtils.padWith(left, pad, 2);
     CustomAsserts.assertEquals(definition, expected, actual);
   }
+
+  @Test
+  public void testVectorsOnlyForPrimitiveFields() {
+    CountingFieldDefinition objects = new CountingFieldDefinition(definition, false);
+    FieldElementUtils objectUtils = new FieldElementUtils(objects);
+    CustomAsserts.assertEquals(definition, definition.createElement(70),
+        objectUtils.innerProduct(left, right));
+    objectUtils.pairWiseMultiply(left, right);
+    objectUtils.sumRows(Arrays.asList(left, right));
+    Assert.assertEquals(0, objects.vectorsCreated);
+
+    CountingFieldDefinition primitive = new CountingFieldDefinition(definition, true);
+    FieldElementUtils primitiveUtils = new FieldElementUtils(primitive);
+    CustomAsserts.assertEquals(definition, definition.createElement(70),
+        primitiveUtils.innerProduct(left, right));
+    primitiveUtils.pairWiseMultiply(left, right);
+    primitiveUtils.sumRows(Arrays.asList(left, right));
+    Assert.assertEquals(6, primitive.vectorsCreated);
+  }
+
+  /**
+   * Delegates to another field definition, claiming to have primitive vectors or not, and counts
+   * the vectors created.
+   */
+  private static class CountingFieldDefinition implements FieldDefinition {
+
+    private final FieldDefinition delegate;
+    private final boolean primitive;
+    private int vectorsCreated;
+
+    private CountingFieldDefinition(FieldDefinition delegate, boolean primitive) {
+      this.delegate = delegate;
+      this.primitive = primitive;
+    }
+
+    @Override
+    public boolean hasPrimitiveVectors() {
+      return primitive;
+    }
+
+    @Override
+    public FieldElementVector createVector(List<FieldElement> elements) {
+      vectorsCreated++;
+      return delegate.createVector(elements);
+    }
+
+    @Override
+    public FieldElement createElement(long value) {
+      return delegate.createElement(value);
+    }
+
+    @Override
+    public FieldElement createElement(String value) {
+      return delegate.createElement(value);
+    }
+
+    @Override
+    public FieldElement createElement(BigInteger value) {
+      return delegate.createElement(value);
+    }
+
+    @Override
+    public BigInteger getModulus() {
+      return delegate.getModulus();
+    }
+
+    @Override
+    public int getBitLength() {
+      return delegate.getBitLength();
+    }
+
+    @Override
+    public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+      return delegate.convertToBitVector(fieldElement);
+    }
+
+    @Override
+    public BigInteger convertToUnsigned(FieldElement value) {
+      return delegate.convertToUnsigned(value);
+    }
+
+    @Override
+    public BigInteger convertToSigned(BigInteger asUnsigned) {
+      return delegate.convertToSigned(asUnsigned);
+    }
+
+    @Override
+    public byte[] serialize(FieldElement object) {
+      return delegate.serialize(object);
+    }
+
+    @Override
+    public byte[] serialize(List<FieldElement> objects) {
+      return delegate.serialize(objects);
+    }
+
+    @Override
+    public FieldElement deserialize(byte[] bytes) {
+      return delegate.deserialize(bytes);
+    }
+
+    @Override
+    public List<FieldElement> deserializeList(byte[] bytes) {
+      return delegate.deserializeList(bytes);
+    }
+  }
 }
@@ -240,4 +240,14 @@ public class TestTripleGeneration extends NetworkedTest {
     testMultiplePartiesTriple(Arrays.asList(macKeyShareOne, macKeyShareTwo, macKeyShareThree), 3
     );
   }
+
+  @Test
+  public void testFivePartiesMultTripleRepeated() {
+    // each party multiplies with four other parties concurrently
+    List<FieldElement> macKeyShares = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      macKeyShares.add(getFieldDefinition().createElement(1000 + 17 * i));
+    }
+    testMultiplePartiesTripleRepeated(macKeyShares, 3, 2);
+  }
 }
@@ -6,7 +6,6 @@ import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -48,15 +47,12 @@ public abstract class RotSharedImpl {
   protected static StrictBitVector computeInnerProduct(List<StrictBitVector> alist,
       List<StrictBitVector> blist) {
     // All elements of each list MUST have equal size so we find the size using the first element.
-    StrictBitVector res = new StrictBitVector(alist.get(0).getSize() + blist.get(0).getSize());
-    List<StrictBitVector> products = IntStream.range(0, alist.size()).parallel()
-        .mapToObj(i -> multiplyWithoutReduction(alist.get(i), blist.get(i)))
-        .collect(Collectors.toList());
-    products.stream().reduce(res, (a, b) -> {
-      a.xor(b);
-      return a;
-    });
-    return res;
+    int resultBits = alist.get(0).getSize() + blist.get(0).getSize();
+    long[] res = IntStream.range(0, alist.size()).parallel()
+        .collect(() -> new long[toWordLength(resultBits) + 1],
+            (acc, i) -> multiplyAndAdd(toWords(alist.get(i)), toWords(blist.get(i)), acc),
+            RotSharedImpl::xorInto);
+    return new StrictBitVector(toBytes(res, resultBits / Byte.SIZE));
   }
 
   /**
@@ -69,31 +65,69 @@ public abstract class RotSharedImpl {
    */
   private static StrictBitVector multiplyWithoutReduction(StrictBitVector avec,
       StrictBitVector bvec) {
-    byte[] res = new byte[(avec.getSize() + bvec.getSize()) / Byte.SIZE];
-    byte[] avecBytes = avec.toByteArray();
-    byte[] bvecBytes = bvec.toByteArray();
-    byte[][] rotations = new byte[Byte.SIZE][bvecBytes.length + 1];
-    System.arraycopy(bvecBytes, 0, rotations[0], 0, bvecBytes.length);
-    for (int i = 1; i < Byte.SIZE; i++) {
-      for (int j = 0; j < rotations[i].length - 1; j++) {
-        int b = Byte.toUnsignedInt(bvecBytes[j]);
-        rotations[i][j] ^= (byte) (b >> i);
-        rotations[i][j + 1] = (byte) (b << Byte.SIZE - i);
-      }
-    }
-    // multiply using the school book method (where addition is XOR)
-    for (int i = 0; i < avec.getSize(); i++) {
-      int bitIndex = i % Byte.SIZE;
-      int byteIndex = i / Byte.SIZE;
-      byte currentByte = (byte) (avecBytes[byteIndex] >> ((Byte.SIZE - 1) - (bitIndex)));
-      if ((currentByte & 1) == 1) {
-        byte[] currentRotation = rotations[bitIndex];
-        for (int j = 0; j < currentRotation.length; j++) {
-          res[byteIndex + j] ^= currentRotation[j];
+    int resultBits = avec.getSize() + bvec.getSize();
+    long[] res = new long[toWordLength(resultBits) + 1];
+    multiplyAndAdd(toWords(avec), toWords(bvec), res);
+    return new StrictBitVector(toBytes(res, resultBits / Byte.SIZE));
+  }
+
+  /**
+   * Multiplies two bit vectors packed into words (as done by {@link #toWords(StrictBitVector)})
+   * without reduction and adds the result to an accumulator. The accumulator must hold at least
+   * one word more than the words of the two factors combined.
+   */
+  private static void multiplyAndAdd(long[] awords, long[] bwords, long[] acc) {
+    // multiply using the school book method (where addition is XOR), adding a shifted copy of the
+    // second factor for each set bit of the first factor
+    for (int i = 0; i < awords.length; i++) {
+      long aword = awords[i];
+      while (aword != 0) {
+        int shift = Long.numberOfLeadingZeros(aword);
+        aword &= ~(Long.MIN_VALUE >>> shift);
+        if (shift == 0) {
+          for (int j = 0; j < bwords.length; j++) {
+            acc[i + j] ^= bwords[j];
+          }
+        } else {
+          for (int j = 0; j < bwords.length; j++) {
+            acc[i + j] ^= bwords[j] >>> shift;
+            acc[i + j + 1] ^= bwords[j] << (Long.SIZE - shift);
+          }
         }
       }
     }
-    return new StrictBitVector(res);
+  }
+
+  private static void xorInto(long[] acc, long[] other) {
+    for (int i = 0; i < acc.length; i++) {
+      acc[i] ^= other[i];
+    }
+  }
+
+  private static int toWordLength(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Packs the bits of a vector into words, such that the first bit of the vector is the most
+   * significant bit of the first word. The last word is padded with zeros.
+   */
+  private static long[] toWords(StrictBitVector vector) {
+    byte[] bytes = vector.toByteArray();
+    long[] words = new long[toWordLength(vector.getSize())];
+    for (int i = 0; i < bytes.length; i++) {
+      words[i / Long.BYTES] |=
+          Byte.toUnsignedLong(bytes[i]) << (Long.SIZE - Byte.SIZE * (i % Long.BYTES + 1));
+    }
+    return words;
+  }
+
+  private static byte[] toBytes(long[] words, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (words[i / Long.BYTES] >>> (Long.SIZE - Byte.SIZE * (i % Long.BYTES + 1)));
+    }
+    return bytes;
   }
 
   /**